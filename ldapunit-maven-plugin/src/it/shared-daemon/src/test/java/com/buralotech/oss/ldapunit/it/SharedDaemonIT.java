@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit.it;
+
+import com.buralotech.oss.ldapunit.DirectoryServerConfiguration;
+import com.buralotech.oss.ldapunit.DirectoryServerDaemon;
+import com.buralotech.oss.ldapunit.DirectoryServerExtension;
+import com.buralotech.oss.ldapunit.DirectoryTester;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verify that a test attaches to the LDAP directory server daemon started by the plugin instead of booting its own
+ * server. The entry only exists in the fixtures loaded by the daemon.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@ExtendWith(DirectoryServerExtension.class)
+@DirectoryServerConfiguration(attach = true)
+public class SharedDaemonIT {
+
+    /**
+     * Verify that the daemon was published and that its fixtures are visible.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    void attachesToDaemon(final DirectoryTester tester) {
+        assertTrue(DirectoryServerDaemon.isRunning());
+        tester.assertDNExists("uid=daemon,ou=People,dc=buralotech,dc=com");
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// The stop goal leaves the daemon running and it is stopped once the build has completed
+def log = new File(basedir, 'build.log').text
+def leftRunning = log.indexOf('LDAP directory server daemon left running until the build completes')
+def stopped = log.indexOf('LDAP directory server daemon stopped')
+assert leftRunning >= 0
+assert stopped > log.indexOf('BUILD SUCCESS')
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit.maven;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops the LDAP directory server daemon once every module of the build has completed. The participant is only
+ * active when the plugin is declared with {@code <extensions>true</extensions>}. The daemon is then left running by
+ * the {@code stop} goal, so modules that are built in parallel with {@code -T} can keep using it regardless of the
+ * order in which they complete.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class DaemonLifecycleParticipant extends AbstractMavenLifecycleParticipant {
+
+    /**
+     * Used to report that the daemon was stopped.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DaemonLifecycleParticipant.class);
+
+    /**
+     * Take over stopping the daemon from the {@code stop} goal.
+     *
+     * @param session The Maven session.
+     */
+    @Override
+    public void afterProjectsRead(final MavenSession session) {
+        RunningDaemon.stopAfterSession();
+    }
+
+    /**
+     * Stop the daemon if it is running.
+     *
+     * @param session The Maven session.
+     */
+    @Override
+    public void afterSessionEnd(final MavenSession session) {
+        if (RunningDaemon.isRunning()) {
+            RunningDaemon.stop();
+            LOGGER.info("LDAP directory server daemon stopped");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit.maven;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the LDAP directory server daemon for the lifetime of the Maven build. The plugin class realm is shared by the
+ * modules of a multi-module build, so the daemon started by the first module is reused by the later ones. The daemon
+ * is shut down by {@link DaemonLifecycleParticipant} when the build completes, by the {@code stop} goal if the
+ * participant is not active or, failing that, when the Maven JVM exits.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class RunningDaemon {
+
+    /**
+     * The running daemon or {@code null} if it has not been started.
+     */
+    private static InMemoryDirectoryServer server;
+
+    /**
+     * {@code true} if the daemon is stopped by {@link DaemonLifecycleParticipant} when the build completes.
+     */
+    private static boolean stoppedAfterSession;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(RunningDaemon::stop, "ldapunit-daemon-shutdown"));
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private RunningDaemon() {
+    }
+
+    /**
+     * Start the daemon unless it is already running.
+     *
+     * @param factory Creates, loads and starts the LDAP directory server.
+     * @return The port on which the daemon is listening.
+     * @throws Exception If there was a problem starting the LDAP directory server.
+     */
+    static synchronized int start(final Callable<InMemoryDirectoryServer> factory)
+            throws Exception {
+        if (server == null) {
+            server = factory.call();
+        }
+        return server.getListenPort();
+    }
+
+    /**
+     * Check if the daemon is running.
+     *
+     * @return {@code true} if the daemon is running. Otherwise, {@code false}.
+     */
+    static synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Record that the daemon is stopped by {@link DaemonLifecycleParticipant} when the build completes.
+     */
+    static synchronized void stopAfterSession() {
+        stoppedAfterSession = true;
+    }
+
+    /**
+     * Check if the daemon is stopped by {@link DaemonLifecycleParticipant} when the build completes.
+     *
+     * @return {@code true} if the daemon is stopped when the build completes. Otherwise, {@code false}.
+     */
+    static synchronized boolean isStoppedAfterSession() {
+        return stoppedAfterSession;
+    }
+
+    /**
+     * Shut down the daemon if it is running.
+     */
+    static synchronized void stop() {
+        if (server != null) {
+            server.shutDown(true);
+            server = null;
+        }
+    }
+}
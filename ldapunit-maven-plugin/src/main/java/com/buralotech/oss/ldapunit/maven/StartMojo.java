@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit.maven;
+
+import com.buralotech.oss.ldapunit.DirectoryServerDaemon;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+
+/**
+ * Start the LDAP directory server daemon, load the configured fixtures and publish its host and port to the tests
+ * using the {@link DirectoryServerDaemon#HOST_PROPERTY} and {@link DirectoryServerDaemon#PORT_PROPERTY} properties.
+ * The properties are set as project properties and as user properties, which Surefire and Failsafe pass on to the
+ * forked test JVMs as system properties. If the daemon is already running because an earlier module of the build
+ * started it, the running daemon is published again and the configuration of this module is ignored.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@Mojo(name = "start", defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST, threadSafe = true)
+public class StartMojo extends AbstractMojo {
+
+    /**
+     * The TCP port on which the daemon will listen. Zero, the default, uses any free port.
+     */
+    @Parameter(property = "ldapunit.daemon.port", defaultValue = "0")
+    private int port;
+
+    /**
+     * The DN that will be configured as the root of the LDAP directory.
+     */
+    @Parameter(defaultValue = "dc=buralotech,dc=com")
+    private String baseDN;
+
+    /**
+     * The object classes used when creating the base DN.
+     */
+    @Parameter
+    private String[] baseObjectClasses = {"domain", "top"};
+
+    /**
+     * The attributes set on the base DN as {@code name=value} pairs.
+     */
+    @Parameter
+    private String[] baseAttributes = {};
+
+    /**
+     * The DN that will be configured as the administrator account identifier.
+     */
+    @Parameter(defaultValue = "uid=admin,ou=system")
+    private String authDN;
+
+    /**
+     * The password for the administrator account.
+     */
+    @Parameter(defaultValue = "secret")
+    private String authPassword;
+
+    /**
+     * The LDIF files or class path resources from which the fixtures are loaded. Relative file paths are resolved
+     * against the project base directory.
+     */
+    @Parameter
+    private String[] ldifFiles = {};
+
+    /**
+     * The files or class path resources from which custom schemas are loaded. Relative file paths are resolved
+     * against the project base directory.
+     */
+    @Parameter
+    private String[] schemaFiles = {};
+
+    /**
+     * If {@code true}, the daemon is not started.
+     */
+    @Parameter(property = "ldapunit.daemon.skip", defaultValue = "false")
+    private boolean skip;
+
+    /**
+     * The project being built.
+     */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The Maven session.
+     */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    /**
+     * Start the daemon, if it is not already running, and publish its host and port.
+     *
+     * @throws MojoExecutionException If the daemon could not be started.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping the LDAP directory server daemon");
+            return;
+        }
+        final int listenPort;
+        try {
+            listenPort = RunningDaemon.start(() -> DirectoryServerDaemon.startServer(
+                    port,
+                    baseDN,
+                    baseObjectClasses,
+                    baseAttributes,
+                    authDN,
+                    authPassword,
+                    resolve(ldifFiles),
+                    resolve(schemaFiles)));
+        } catch (final Exception e) {
+            throw new MojoExecutionException("Failed to start the LDAP directory server daemon", e);
+        }
+        publish(DirectoryServerDaemon.HOST_PROPERTY, "localhost");
+        publish(DirectoryServerDaemon.PORT_PROPERTY, Integer.toString(listenPort));
+        getLog().info("LDAP directory server daemon listening on localhost:" + listenPort);
+    }
+
+    /**
+     * Set a project property and user property.
+     *
+     * @param name  The property name.
+     * @param value The property value.
+     */
+    private void publish(final String name, final String value) {
+        project.getProperties().setProperty(name, value);
+        session.getUserProperties().setProperty(name, value);
+    }
+
+    /**
+     * Resolve relative file paths against the project base directory. Paths that do not name an existing file are
+     * assumed to be class path resources and are returned unchanged.
+     *
+     * @param paths The file paths or class path resources.
+     * @return The resolved paths.
+     */
+    private String[] resolve(final String[] paths) {
+        final String[] resolved = new String[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            final File file = new File(paths[i]);
+            final File absolute = file.isAbsolute() ? file : new File(project.getBasedir(), paths[i]);
+            resolved[i] = absolute.isFile() ? absolute.getAbsolutePath() : paths[i];
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit.maven;
+
+import com.buralotech.oss.ldapunit.DirectoryServerDaemon;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Stop the LDAP directory server daemon. When the plugin is declared with {@code <extensions>true</extensions>}, the
+ * daemon is shared by all the modules of the build and is stopped by {@link DaemonLifecycleParticipant} once the whole
+ * build has completed, so this goal leaves it running unless {@link #force} is set. Otherwise, this goal stops the
+ * daemon, so in a multi-module build it should only be bound in the module that is built last, such as the
+ * aggregating module. If no module stops the daemon, it is shut down when the Maven JVM exits.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@Mojo(name = "stop", defaultPhase = LifecyclePhase.POST_INTEGRATION_TEST, threadSafe = true)
+public class StopMojo extends AbstractMojo {
+
+    /**
+     * If {@code true}, the daemon is stopped even if it would otherwise be stopped when the build completes.
+     */
+    @Parameter(property = "ldapunit.daemon.force", defaultValue = "false")
+    private boolean force;
+
+    /**
+     * The Maven session.
+     */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    /**
+     * Stop the daemon and withdraw its host and port unless it is stopped when the build completes.
+     */
+    @Override
+    public void execute() {
+        if (!RunningDaemon.isRunning()) {
+            return;
+        }
+        if (RunningDaemon.isStoppedAfterSession() && !force) {
+            getLog().info("LDAP directory server daemon left running until the build completes");
+            return;
+        }
+        RunningDaemon.stop();
+        session.getUserProperties().remove(DirectoryServerDaemon.HOST_PROPERTY);
+        session.getUserProperties().remove(DirectoryServerDaemon.PORT_PROPERTY);
+        getLog().info("LDAP directory server daemon stopped");
+    }
+}
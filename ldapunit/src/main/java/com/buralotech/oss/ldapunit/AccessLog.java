@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes how the operations processed by an embedded LDAP directory server are recorded. It is used as the value
+ * of {@link DirectoryServerConfiguration#accessLog()}. Each operation received over LDAP is recorded in a bounded
+ * in-memory ring buffer, which tests can inspect through a {@link DirectoryAccessLog}. When a {@link #file()} is
+ * given, the records are also appended to it as JSON lines by a background thread, so the thread processing the
+ * operation never waits for the file to be written.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AccessLog {
+
+    /**
+     * If {@code true}, the operations are recorded.
+     *
+     * @return {@code true} if the operations are recorded.
+     */
+    boolean enabled() default false;
+
+    /**
+     * The maximum number of records kept in memory. Once it is full, each new record replaces the oldest one.
+     *
+     * @return The capacity of the ring buffer.
+     */
+    int capacity() default 1000;
+
+    /**
+     * The file to which the records are appended as JSON lines or an empty string if they are only kept in memory.
+     *
+     * @return The path of the file.
+     */
+    String file() default "";
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedAddRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedAddResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedCompareRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedCompareResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedDeleteRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedDeleteResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedExtendedRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedExtendedResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyDNRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyDNResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSASLBindRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSASLBindResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchEntry;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSimpleBindRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSimpleBindResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.LDAPResult;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ReadOnlySearchRequest;
+import com.unboundid.ldap.sdk.SearchScope;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the operations received over LDAP by an embedded LDAP directory server in its {@link DirectoryAccessLog}.
+ * The time at which each request is received is attached to the operation and the record is created when the result
+ * is returned. Requests rejected by an interceptor that runs after this one are not recorded.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class AccessLogInterceptor extends InMemoryOperationInterceptor {
+
+    /**
+     * The name of the operation property that holds the {@link Timing}.
+     */
+    private static final String TIMING = AccessLogInterceptor.class.getName() + ".timing";
+
+    /**
+     * The access log.
+     */
+    private final DirectoryAccessLog accessLog;
+
+    /**
+     * Initialise the interceptor.
+     *
+     * @param accessLog The access log.
+     */
+    AccessLogInterceptor(final DirectoryAccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    /**
+     * Get the access log.
+     *
+     * @return The access log.
+     */
+    DirectoryAccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * Create an interceptor with the same settings that records operations in an access log of its own. This is
+     * used when the server is forked.
+     *
+     * @return The new interceptor.
+     */
+    AccessLogInterceptor renew() {
+        return new AccessLogInterceptor(new DirectoryAccessLog(accessLog.getSettings()));
+    }
+
+    /**
+     * Note when an add request was received.
+     *
+     * @param request The add request.
+     */
+    @Override
+    public void processAddRequest(final InMemoryInterceptedAddRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record an add operation.
+     *
+     * @param result The add result.
+     */
+    @Override
+    public void processAddResult(final InMemoryInterceptedAddResult result) {
+        final List<String> attributes = new ArrayList<>();
+        for (final Attribute attribute : result.getRequest().getAttributes()) {
+            attributes.add(attribute.getName());
+        }
+        finish(result, DirectoryAccessLog.OperationType.ADD, result.getRequest().getDN(), null, null, attributes,
+                result.getResult());
+    }
+
+    /**
+     * Note when a simple bind request was received.
+     *
+     * @param request The simple bind request.
+     */
+    @Override
+    public void processSimpleBindRequest(final InMemoryInterceptedSimpleBindRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record a simple bind operation.
+     *
+     * @param result The simple bind result.
+     */
+    @Override
+    public void processSimpleBindResult(final InMemoryInterceptedSimpleBindResult result) {
+        finish(result, DirectoryAccessLog.OperationType.BIND, result.getRequest().getBindDN(), null, null,
+                Collections.emptyList(), result.getResult());
+    }
+
+    /**
+     * Note when a SASL bind request was received.
+     *
+     * @param request The SASL bind request.
+     */
+    @Override
+    public void processSASLBindRequest(final InMemoryInterceptedSASLBindRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record a SASL bind operation.
+     *
+     * @param result The SASL bind result.
+     */
+    @Override
+    public void processSASLBindResult(final InMemoryInterceptedSASLBindResult result) {
+        finish(result, DirectoryAccessLog.OperationType.BIND, null, null, null, Collections.emptyList(),
+                result.getResult());
+    }
+
+    /**
+     * Note when a compare request was received.
+     *
+     * @param request The compare request.
+     */
+    @Override
+    public void processCompareRequest(final InMemoryInterceptedCompareRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record a compare operation.
+     *
+     * @param result The compare result.
+     */
+    @Override
+    public void processCompareResult(final InMemoryInterceptedCompareResult result) {
+        finish(result, DirectoryAccessLog.OperationType.COMPARE, result.getRequest().getDN(), null, null,
+                Collections.singletonList(result.getRequest().getAttributeName()), result.getResult());
+    }
+
+    /**
+     * Note when a delete request was received.
+     *
+     * @param request The delete request.
+     */
+    @Override
+    public void processDeleteRequest(final InMemoryInterceptedDeleteRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record a delete operation.
+     *
+     * @param result The delete result.
+     */
+    @Override
+    public void processDeleteResult(final InMemoryInterceptedDeleteResult result) {
+        finish(result, DirectoryAccessLog.OperationType.DELETE, result.getRequest().getDN(), null, null,
+                Collections.emptyList(), result.getResult());
+    }
+
+    /**
+     * Note when an extended request was received.
+     *
+     * @param request The extended request.
+     */
+    @Override
+    public void processExtendedRequest(final InMemoryInterceptedExtendedRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record an extended operation.
+     *
+     * @param result The extended result.
+     */
+    @Override
+    public void processExtendedResult(final InMemoryInterceptedExtendedResult result) {
+        finish(result, DirectoryAccessLog.OperationType.EXTENDED, null, null, null, Collections.emptyList(),
+                result.getResult());
+    }
+
+    /**
+     * Note when a modify request was received.
+     *
+     * @param request The modify request.
+     */
+    @Override
+    public void processModifyRequest(final InMemoryInterceptedModifyRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record a modify operation.
+     *
+     * @param result The modify result.
+     */
+    @Override
+    public void processModifyResult(final InMemoryInterceptedModifyResult result) {
+        final List<String> attributes = new ArrayList<>();
+        for (final Modification modification : result.getRequest().getModifications()) {
+            attributes.add(modification.getAttributeName());
+        }
+        finish(result, DirectoryAccessLog.OperationType.MODIFY, result.getRequest().getDN(), null, null, attributes,
+                result.getResult());
+    }
+
+    /**
+     * Note when a modify DN request was received.
+     *
+     * @param request The modify DN request.
+     */
+    @Override
+    public void processModifyDNRequest(final InMemoryInterceptedModifyDNRequest request) {
+        start(request);
+    }
+
+    /**
+     * Record a modify DN operation.
+     *
+     * @param result The modify DN result.
+     */
+    @Override
+    public void processModifyDNResult(final InMemoryInterceptedModifyDNResult result) {
+        finish(result, DirectoryAccessLog.OperationType.MODIFY_DN, result.getRequest().getDN(), null, null,
+                Collections.emptyList(), result.getResult());
+    }
+
+    /**
+     * Note when a search request was received.
+     *
+     * @param request The search request.
+     */
+    @Override
+    public void processSearchRequest(final InMemoryInterceptedSearchRequest request) {
+        start(request);
+    }
+
+    /**
+     * Count an entry returned by a search.
+     *
+     * @param entry The search result entry.
+     */
+    @Override
+    public void processSearchEntry(final InMemoryInterceptedSearchEntry entry) {
+        final Timing timing = (Timing) entry.getProperty(TIMING);
+        if (timing != null) {
+            timing.entries++;
+        }
+    }
+
+    /**
+     * Record a search operation.
+     *
+     * @param result The search result.
+     */
+    @Override
+    public void processSearchResult(final InMemoryInterceptedSearchResult result) {
+        final ReadOnlySearchRequest request = result.getRequest();
+        finish(result, DirectoryAccessLog.OperationType.SEARCH, request.getBaseDN(), request.getScope(),
+                request.getFilter().toString(), Arrays.asList(request.getAttributeList().toArray(new String[0])),
+                result.getResult());
+    }
+
+    /**
+     * Attach the time at which a request was received to the operation.
+     *
+     * @param request The request.
+     */
+    private static void start(final InMemoryInterceptedRequest request) {
+        request.setProperty(TIMING, new Timing());
+    }
+
+    /**
+     * Record an operation in the access log.
+     *
+     * @param result     The intercepted result.
+     * @param type       The type of operation.
+     * @param dn         The base DN or target DN or {@code null}.
+     * @param scope      The scope of a search or {@code null}.
+     * @param filter     The filter of a search or {@code null}.
+     * @param attributes The attributes requested, added, modified or compared.
+     * @param ldapResult The result returned to the client.
+     */
+    private void finish(final InMemoryInterceptedResult result,
+                        final DirectoryAccessLog.OperationType type,
+                        final String dn,
+                        final SearchScope scope,
+                        final String filter,
+                        final List<String> attributes,
+                        final LDAPResult ldapResult) {
+        final Timing timing = (Timing) result.getProperty(TIMING);
+        if (timing != null) {
+            accessLog.add(type, timing.started, System.nanoTime() - timing.nanos, dn, scope, filter, attributes,
+                    ldapResult.getResultCode(), timing.entries);
+        }
+    }
+
+    /**
+     * The time at which a request was received and the number of entries returned so far.
+     */
+    private static final class Timing {
+
+        /**
+         * The value of {@link System#currentTimeMillis()} when the request was received.
+         */
+        private final long started = System.currentTimeMillis();
+
+        /**
+         * The value of {@link System#nanoTime()} when the request was received.
+         */
+        private final long nanos = System.nanoTime();
+
+        /**
+         * The number of entries returned by a search. Entries are returned by the thread processing the operation,
+         * so this does not need to be synchronized.
+         */
+        private int entries;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends chunks, such as access log records or recorded requests, to files on a single background thread that is
+ * shared by all the servers in the JVM. The thread processing an operation only queues the chunk, which is formatted
+ * when it is written. The writer drains the queue in batches and opens each file once per batch, so the files are
+ * complete whenever the queue is empty. Chunks that cannot be written, for example because the directory is not
+ * writable, are discarded. The queue holds at most {@link #CAPACITY} chunks. If the writer falls behind, further chunks
+ * are dropped and counted rather than slowing down the operations or exhausting the heap. The chunks queued when the
+ * JVM exits are written by a shutdown hook.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class BackgroundFileWriter {
+
+    /**
+     * The maximum number of chunks written in one batch.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * The maximum number of chunks waiting to be written.
+     */
+    static final int CAPACITY = 65536;
+
+    /**
+     * The maximum time, in seconds, that the shutdown hook waits for the queued chunks to be written.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 5L;
+
+    /**
+     * The chunks waiting to be written.
+     */
+    private static final BlockingQueue<Pending> QUEUE = new LinkedBlockingQueue<>(CAPACITY);
+
+    /**
+     * The number of chunks queued.
+     */
+    private static final AtomicLong QUEUED = new AtomicLong();
+
+    /**
+     * The number of chunks written or discarded. Threads waiting for it to increase wait on {@link #QUEUE}.
+     */
+    private static final AtomicLong PROCESSED = new AtomicLong();
+
+    /**
+     * The number of chunks dropped because the queue was full.
+     */
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    static {
+        final Thread thread = new Thread(BackgroundFileWriter::run, "ldapunit-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                flush(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                // The JVM is exiting anyway
+            }
+        }, "ldapunit-writer-shutdown"));
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private BackgroundFileWriter() {
+    }
+
+    /**
+     * Queue a chunk to be appended to a file or drop it if the queue is full.
+     *
+     * @param file  The file.
+     * @param chunk The chunk.
+     */
+    static void write(final Path file,
+                      final Chunk chunk) {
+        if (QUEUE.offer(new Pending(file, chunk))) {
+            QUEUED.incrementAndGet();
+        } else {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of chunks dropped because the queue was full.
+     *
+     * @return The number of dropped chunks.
+     */
+    static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Wait for the chunks queued so far to be written.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of {@code timeout}.
+     * @return {@code true} if the chunks were written. Otherwise, {@code false}.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    static boolean flush(final long timeout,
+                         final TimeUnit unit)
+            throws InterruptedException {
+        final long target = QUEUED.get();
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (QUEUE) {
+            while (PROCESSED.get() < target) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(QUEUE, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the queued chunks in batches until the JVM exits.
+     */
+    private static void run() {
+        final List<Pending> batch = new ArrayList<>(BATCH_SIZE);
+        final Map<Path, List<Chunk>> byFile = new LinkedHashMap<>();
+        try {
+            while (true) {
+                batch.add(QUEUE.take());
+                QUEUE.drainTo(batch, BATCH_SIZE - 1);
+                for (final Pending pending : batch) {
+                    byFile.computeIfAbsent(pending.file, key -> new ArrayList<>()).add(pending.chunk);
+                }
+                for (final Map.Entry<Path, List<Chunk>> entry : byFile.entrySet()) {
+                    append(entry.getKey(), entry.getValue());
+                }
+                PROCESSED.addAndGet(batch.size());
+                synchronized (QUEUE) {
+                    QUEUE.notifyAll();
+                }
+                byFile.clear();
+                batch.clear();
+            }
+        } catch (final InterruptedException e) {
+            // The JVM is exiting
+        }
+    }
+
+    /**
+     * Append chunks to a file, creating the file and its directory if necessary.
+     *
+     * @param file   The file.
+     * @param chunks The chunks.
+     */
+    private static void append(final Path file,
+                               final List<Chunk> chunks) {
+        try {
+            final Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                for (final Chunk chunk : chunks) {
+                    chunk.writeTo(outputStream);
+                }
+            }
+        } catch (final IOException e) {
+            // The chunks are discarded so that recording never fails a test
+        }
+    }
+
+    /**
+     * Formats a chunk when it is written.
+     */
+    @FunctionalInterface
+    interface Chunk {
+
+        /**
+         * Write the chunk.
+         *
+         * @param outputStream The stream to which the chunk is written.
+         * @throws IOException If the chunk could not be written.
+         */
+        void writeTo(OutputStream outputStream)
+                throws IOException;
+    }
+
+    /**
+     * A chunk waiting to be written.
+     */
+    private static final class Pending {
+
+        /**
+         * The file.
+         */
+        private final Path file;
+
+        /**
+         * The chunk.
+         */
+        private final Chunk chunk;
+
+        /**
+         * Initialise the pending chunk.
+         *
+         * @param file  The file.
+         * @param chunk The chunk.
+         */
+        private Pending(final Path file,
+                        final Chunk chunk) {
+            this.file = file;
+            this.chunk = chunk;
+        }
+    }
+}
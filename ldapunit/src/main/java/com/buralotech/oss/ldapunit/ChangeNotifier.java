@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedAddResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedDeleteResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyDNResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.LDAPResult;
+import com.unboundid.ldap.sdk.ResultCode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes up the threads waiting for the contents of an embedded LDAP directory server to change, so that the await
+ * assertions of {@link DirectoryTester} re-check their condition as soon as a write received over LDAP has been
+ * applied instead of polling. Every successful add, delete, modify or modify DN operation increments a version
+ * number. Changes applied in-process bypass the interceptor, so waiters still re-check periodically. The notifier is
+ * only installed when {@link DirectoryServerConfiguration#awaitNotifications()} is set.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class ChangeNotifier extends InMemoryOperationInterceptor {
+
+    /**
+     * The number of changes applied so far.
+     */
+    private long version;
+
+    /**
+     * Find the change notifier of an embedded LDAP directory server.
+     *
+     * @param server The embedded LDAP directory server.
+     * @return The change notifier or {@code null} if the server does not have one.
+     */
+    static ChangeNotifier find(final InMemoryDirectoryServer server) {
+        for (final InMemoryOperationInterceptor interceptor : server.getConfig().getOperationInterceptors()) {
+            if (interceptor instanceof ChangeNotifier) {
+                return (ChangeNotifier) interceptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a change notifier of its own for a fork, so that waiters are not woken by changes to other servers.
+     *
+     * @return The new change notifier.
+     */
+    ChangeNotifier renew() {
+        return new ChangeNotifier();
+    }
+
+    /**
+     * Get the number of changes applied so far. Read it before checking a condition and pass it to
+     * {@link #awaitChange(long, long)} so that a change made in between is not missed.
+     *
+     * @return The version.
+     */
+    synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Wait for a change to be applied after {@code seen}.
+     *
+     * @param seen    The version read before the condition was checked.
+     * @param timeout The maximum time to wait in nanoseconds.
+     * @return {@code true} if a change was applied. Otherwise, {@code false}.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    synchronized boolean awaitChange(final long seen,
+                                     final long timeout)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout;
+        while (version == seen) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Notify the waiters of a successful add.
+     *
+     * @param result The add result.
+     */
+    @Override
+    public void processAddResult(final InMemoryInterceptedAddResult result) {
+        changed(result.getResult());
+    }
+
+    /**
+     * Notify the waiters of a successful delete.
+     *
+     * @param result The delete result.
+     */
+    @Override
+    public void processDeleteResult(final InMemoryInterceptedDeleteResult result) {
+        changed(result.getResult());
+    }
+
+    /**
+     * Notify the waiters of a successful modify.
+     *
+     * @param result The modify result.
+     */
+    @Override
+    public void processModifyResult(final InMemoryInterceptedModifyResult result) {
+        changed(result.getResult());
+    }
+
+    /**
+     * Notify the waiters of a successful modify DN.
+     *
+     * @param result The modify DN result.
+     */
+    @Override
+    public void processModifyDNResult(final InMemoryInterceptedModifyDNResult result) {
+        changed(result.getResult());
+    }
+
+    /**
+     * Increment the version and wake up the waiters if an operation succeeded.
+     *
+     * @param result The result of the operation.
+     */
+    private synchronized void changed(final LDAPResult result) {
+        if (result.getResultCode() == ResultCode.SUCCESS) {
+            version++;
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.RDN;
+import com.unboundid.ldap.sdk.ResultCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the synthetic data set described by a {@link GeneratedData} annotation as a list of entries that can
+ * be added directly to the embedded LDAP directory server without writing or parsing LDIF.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DataGenerator {
+
+    /**
+     * The given names that are assigned to generated users.
+     */
+    private static final String[] GIVEN_NAMES = {
+            "Abe", "Apu", "Bart", "Carl", "Edna", "Homer", "Lenny", "Lisa", "Maggie", "Marge",
+            "Martin", "Milhouse", "Moe", "Ned", "Nelson", "Patty", "Ralph", "Selma", "Seymour", "Waylon"
+    };
+
+    /**
+     * The surnames that are assigned to generated users.
+     */
+    private static final String[] SURNAMES = {
+            "Bouvier", "Burns", "Carlson", "Flanders", "Gumble", "Krabappel", "Lovejoy", "Muntz", "Nahasapeemapetilon",
+            "Prince", "Simpson", "Skinner", "Smithers", "Szyslak", "Van Houten", "Wiggum"
+    };
+
+    /**
+     * Hidden constructor.
+     */
+    private DataGenerator() {
+    }
+
+    /**
+     * Generate the entries for the synthetic data set. Parent entries always precede their children.
+     *
+     * @param baseDN The DN below which the data set is generated.
+     * @param data   The description of the data set.
+     * @return The generated entries.
+     * @throws LDAPException If the description is invalid.
+     */
+    static List<Entry> generate(final String baseDN,
+                                final GeneratedData data)
+            throws LDAPException {
+        if (data.users() <= 0 && data.groups() <= 0) {
+            return Collections.emptyList();
+        }
+        if (data.groups() > 0 && data.users() <= 0) {
+            throw new LDAPException(ResultCode.PARAM_ERROR, "Generated groups require generated users");
+        }
+        final Random random = new Random(data.seed());
+        final String domain = getDomain(baseDN);
+        final List<Entry> entries = new ArrayList<>(data.users() + data.groups() + 2);
+        final String usersDN = data.usersRDN() + "," + baseDN;
+        entries.add(createContainer(usersDN));
+        final List<String> parents = createOrganizationalUnits(entries, usersDN, data);
+        final String[] userDNs = new String[data.users()];
+        for (int i = 0; i < userDNs.length; i++) {
+            final String uid = "user" + (i + 1);
+            userDNs[i] = "uid=" + uid + "," + parents.get(i % parents.size());
+            final String givenName = GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+            final String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+            final Entry user = new Entry(userDNs[i]);
+            user.addAttribute("objectClass", "top", "person", "organizationalPerson", "inetOrgPerson");
+            user.addAttribute("uid", uid);
+            user.addAttribute("cn", givenName + " " + surname);
+            user.addAttribute("givenName", givenName);
+            user.addAttribute("sn", surname);
+            user.addAttribute("mail", uid + "@" + domain);
+            user.addAttribute("userPassword", uid);
+            entries.add(user);
+        }
+        if (data.groups() > 0) {
+            final String groupsDN = data.groupsRDN() + "," + baseDN;
+            entries.add(createContainer(groupsDN));
+            final double harmonic = harmonic(data.groups());
+            final long totalMembers = (long) data.groups() * Math.max(1, data.membersPerGroup());
+            for (int i = 0; i < data.groups(); i++) {
+                final long size;
+                if (data.distribution() == GeneratedData.Distribution.ZIPF) {
+                    size = Math.round(totalMembers / ((i + 1) * harmonic));
+                } else {
+                    size = data.membersPerGroup();
+                }
+                final String cn = "group" + (i + 1);
+                final Entry group = new Entry("cn=" + cn + "," + groupsDN);
+                group.addAttribute("objectClass", "top", "groupOfNames");
+                group.addAttribute("cn", cn);
+                final Set<Integer> members = pickMembers(
+                        random,
+                        userDNs.length,
+                        (int) Math.max(1, Math.min(size, userDNs.length)));
+                final String[] memberDNs = new String[members.size()];
+                int j = 0;
+                for (final int member : members) {
+                    memberDNs[j++] = userDNs[member];
+                }
+                group.addAttribute("member", memberDNs);
+                entries.add(group);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Create the tree of nested organizational units below the users container.
+     *
+     * @param entries  The list to which the organizational unit entries are appended.
+     * @param usersDN  The DN of the users container.
+     * @param data     The description of the data set.
+     * @return The DNs of the entries that will hold the users.
+     */
+    private static List<String> createOrganizationalUnits(final List<Entry> entries,
+                                                          final String usersDN,
+                                                          final GeneratedData data) {
+        List<String> parents = Collections.singletonList(usersDN);
+        if (data.organizationalUnits() > 0) {
+            for (int level = 0; level < data.organizationalUnitDepth(); level++) {
+                final List<String> children = new ArrayList<>(parents.size() * data.organizationalUnits());
+                for (final String parent : parents) {
+                    for (int i = 0; i < data.organizationalUnits(); i++) {
+                        final String ou = "unit" + (i + 1);
+                        final String dn = "ou=" + ou + "," + parent;
+                        final Entry entry = new Entry(dn);
+                        entry.addAttribute("objectClass", "top", "organizationalUnit");
+                        entry.addAttribute("ou", ou);
+                        entries.add(entry);
+                        children.add(dn);
+                    }
+                }
+                parents = children;
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Create a container entry from its DN. The object class is chosen using the naming attribute of the RDN.
+     *
+     * @param dn The DN of the container.
+     * @return The container entry.
+     * @throws LDAPException If the DN is not valid.
+     */
+    private static Entry createContainer(final String dn) throws LDAPException {
+        final Entry entry = new Entry(dn);
+        final RDN rdn = entry.getRDN();
+        final String name = rdn.getAttributeNames()[0];
+        final String value = rdn.getAttributeValues()[0];
+        if ("cn".equalsIgnoreCase(name)) {
+            entry.addAttribute("objectClass", "top", "applicationProcess");
+        } else {
+            entry.addAttribute("objectClass", "top", "organizationalUnit");
+        }
+        entry.addAttribute(name, value);
+        return entry;
+    }
+
+    /**
+     * Choose {@code count} distinct users from {@code population} using Floyd's sampling algorithm.
+     *
+     * @param random     The pseudo-random number generator.
+     * @param population The number of users.
+     * @param count      The number of users to choose.
+     * @return The indexes of the chosen users in ascending order.
+     */
+    private static Set<Integer> pickMembers(final Random random,
+                                            final int population,
+                                            final int count) {
+        final Set<Integer> members = new TreeSet<>();
+        for (int j = population - count; j < population; j++) {
+            final int t = random.nextInt(j + 1);
+            if (!members.add(t)) {
+                members.add(j);
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Calculate the {@code n}th harmonic number.
+     *
+     * @param n The number of terms.
+     * @return The sum of {@code 1/i} for {@code i} from {@code 1} to {@code n}.
+     */
+    private static double harmonic(final int n) {
+        double sum = 0.0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1.0 / i;
+        }
+        return sum;
+    }
+
+    /**
+     * Derive the e-mail domain from the {@code dc} components of the base DN.
+     *
+     * @param baseDN The base DN.
+     * @return The e-mail domain or {@code example.com} if the base DN does not have any {@code dc} components.
+     * @throws LDAPException If the base DN is not valid.
+     */
+    private static String getDomain(final String baseDN) throws LDAPException {
+        final StringBuilder domain = new StringBuilder();
+        for (final RDN rdn : new DN(baseDN).getRDNs()) {
+            if (rdn.hasAttribute("dc")) {
+                if (domain.length() > 0) {
+                    domain.append('.');
+                }
+                domain.append(rdn.getAttributeValues()[0]);
+            }
+        }
+        return domain.length() == 0 ? "example.com" : domain.toString();
+    }
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.util.json.JSONBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The operations recorded by an embedded LDAP directory server configured with an enabled
+ * {@link DirectoryServerConfiguration#accessLog()}. The most recent records are kept in a ring buffer that is written
+ * without locking, so recording an operation costs little more than creating the record. The records of operations
+ * processed in-process, such as the loading of LDIF data, are not included.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class DirectoryAccessLog {
+
+    /**
+     * The settings.
+     */
+    private final AccessLog accessLog;
+
+    /**
+     * The records indexed by their sequence number modulo the capacity.
+     */
+    private final AtomicReferenceArray<Record> records;
+
+    /**
+     * The sequence number of the next record.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The sequence number of the first record that has not been cleared.
+     */
+    private final AtomicLong cleared = new AtomicLong();
+
+    /**
+     * The file to which the records are appended or {@code null} if they are only kept in memory.
+     */
+    private final Path file;
+
+    /**
+     * Initialise the access log.
+     *
+     * @param accessLog The settings.
+     */
+    DirectoryAccessLog(final AccessLog accessLog) {
+        this.accessLog = accessLog;
+        this.records = new AtomicReferenceArray<>(Math.max(1, accessLog.capacity()));
+        this.file = accessLog.file().isEmpty() ? null : Paths.get(accessLog.file());
+    }
+
+    /**
+     * Find the access log of an embedded LDAP directory server.
+     *
+     * @param server The embedded LDAP directory server.
+     * @return The access log or {@code null} if the server does not record its operations.
+     */
+    static DirectoryAccessLog find(final InMemoryDirectoryServer server) {
+        for (final InMemoryOperationInterceptor interceptor : server.getConfig().getOperationInterceptors()) {
+            if (interceptor instanceof AccessLogInterceptor) {
+                return ((AccessLogInterceptor) interceptor).getAccessLog();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the settings.
+     *
+     * @return The settings.
+     */
+    AccessLog getSettings() {
+        return accessLog;
+    }
+
+    /**
+     * Get the maximum number of records kept in memory.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return records.length();
+    }
+
+    /**
+     * Get the file to which the records are appended.
+     *
+     * @return The file or {@code null} if the records are only kept in memory.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the number of operations recorded since the server was started or the log was last cleared, including
+     * those whose records have been overwritten.
+     *
+     * @return The number of operations.
+     */
+    public long getRecordCount() {
+        return sequence.get() - cleared.get();
+    }
+
+    /**
+     * Get the records that are still held in memory, oldest first.
+     *
+     * @return The records.
+     */
+    public List<Record> getRecords() {
+        final long end = sequence.get();
+        final long start = Math.max(cleared.get(), end - records.length());
+        final List<Record> result = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            final Record record = records.get((int) (i % records.length()));
+            if (record != null && record.sequence == i) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Discard the records held in memory, for example to ignore the operations performed while setting up a test.
+     * Records that have already been queued for the file are still written.
+     */
+    public void clear() {
+        cleared.set(sequence.get());
+    }
+
+    /**
+     * Wait for the records queued so far to be appended to the file.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of {@code timeout}.
+     * @return {@code true} if the records were written. Otherwise, {@code false}.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public boolean flush(final long timeout,
+                         final TimeUnit unit)
+            throws InterruptedException {
+        return file == null || BackgroundFileWriter.flush(timeout, unit);
+    }
+
+    /**
+     * Record an operation.
+     *
+     * @param type       The type of operation.
+     * @param started    The value of {@link System#currentTimeMillis()} when the operation was received.
+     * @param duration   The time taken to process the operation in nanoseconds.
+     * @param dn         The base DN or target DN or {@code null} if the operation does not have one.
+     * @param scope      The scope of a search or {@code null}.
+     * @param filter     The filter of a search or {@code null}.
+     * @param attributes The attributes requested, added, modified or compared.
+     * @param resultCode The result code.
+     * @param entryCount The number of entries returned.
+     */
+    void add(final OperationType type,
+             final long started,
+             final long duration,
+             final String dn,
+             final SearchScope scope,
+             final String filter,
+             final List<String> attributes,
+             final ResultCode resultCode,
+             final int entryCount) {
+        final long next = sequence.getAndIncrement();
+        final Record record = new Record(next, type, started, duration, dn, scope, filter, attributes, resultCode,
+                entryCount);
+        records.set((int) (next % records.length()), record);
+        if (file != null) {
+            BackgroundFileWriter.write(file, outputStream -> {
+                outputStream.write(record.toJSON().getBytes(StandardCharsets.UTF_8));
+                outputStream.write('\n');
+            });
+        }
+    }
+
+    /**
+     * The types of operations that are recorded.
+     *
+     * @since 3.2.0
+     */
+    public enum OperationType {
+
+        /**
+         * An add operation.
+         */
+        ADD,
+
+        /**
+         * A simple or SASL bind operation.
+         */
+        BIND,
+
+        /**
+         * A compare operation.
+         */
+        COMPARE,
+
+        /**
+         * A delete operation.
+         */
+        DELETE,
+
+        /**
+         * An extended operation.
+         */
+        EXTENDED,
+
+        /**
+         * A modify operation.
+         */
+        MODIFY,
+
+        /**
+         * A modify DN operation.
+         */
+        MODIFY_DN,
+
+        /**
+         * A search operation.
+         */
+        SEARCH
+    }
+
+    /**
+     * The record of a single operation.
+     *
+     * @since 3.2.0
+     */
+    public static final class Record {
+
+        /**
+         * The sequence number of the record.
+         */
+        private final long sequence;
+
+        /**
+         * The type of operation.
+         */
+        private final OperationType type;
+
+        /**
+         * The value of {@link System#currentTimeMillis()} when the operation was received.
+         */
+        private final long timestamp;
+
+        /**
+         * The time taken to process the operation in nanoseconds.
+         */
+        private final long duration;
+
+        /**
+         * The base DN or target DN or {@code null}.
+         */
+        private final String dn;
+
+        /**
+         * The scope of a search or {@code null}.
+         */
+        private final SearchScope scope;
+
+        /**
+         * The filter of a search or {@code null}.
+         */
+        private final String filter;
+
+        /**
+         * The attributes requested, added, modified or compared.
+         */
+        private final List<String> attributes;
+
+        /**
+         * The result code.
+         */
+        private final ResultCode resultCode;
+
+        /**
+         * The number of entries returned.
+         */
+        private final int entryCount;
+
+        /**
+         * Initialise the record.
+         *
+         * @param sequence   The sequence number of the record.
+         * @param type       The type of operation.
+         * @param timestamp  The value of {@link System#currentTimeMillis()} when the operation was received.
+         * @param duration   The time taken to process the operation in nanoseconds.
+         * @param dn         The base DN or target DN or {@code null}.
+         * @param scope      The scope of a search or {@code null}.
+         * @param filter     The filter of a search or {@code null}.
+         * @param attributes The attributes requested, added, modified or compared.
+         * @param resultCode The result code.
+         * @param entryCount The number of entries returned.
+         */
+        private Record(final long sequence,
+                       final OperationType type,
+                       final long timestamp,
+                       final long duration,
+                       final String dn,
+                       final SearchScope scope,
+                       final String filter,
+                       final List<String> attributes,
+                       final ResultCode resultCode,
+                       final int entryCount) {
+            this.sequence = sequence;
+            this.type = type;
+            this.timestamp = timestamp;
+            this.duration = duration;
+            this.dn = dn;
+            this.scope = scope;
+            this.filter = filter;
+            this.attributes = Collections.unmodifiableList(attributes);
+            this.resultCode = resultCode;
+            this.entryCount = entryCount;
+        }
+
+        /**
+         * Get the type of operation.
+         *
+         * @return The type of operation.
+         */
+        public OperationType getType() {
+            return type;
+        }
+
+        /**
+         * Get the time at which the operation was received.
+         *
+         * @return The number of milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Get the time taken to process the operation.
+         *
+         * @return The duration.
+         */
+        public Duration getDuration() {
+            return Duration.ofNanos(duration);
+        }
+
+        /**
+         * Get the base DN of a search or the target DN of other operations.
+         *
+         * @return The DN or {@code null} if the operation does not have one.
+         */
+        public String getDN() {
+            return dn;
+        }
+
+        /**
+         * Get the scope of a search.
+         *
+         * @return The scope or {@code null} if the operation is not a search.
+         */
+        public SearchScope getScope() {
+            return scope;
+        }
+
+        /**
+         * Get the filter of a search.
+         *
+         * @return The filter or {@code null} if the operation is not a search.
+         */
+        public String getFilter() {
+            return filter;
+        }
+
+        /**
+         * Get the attributes requested by a search, added, modified or compared.
+         *
+         * @return The attribute names.
+         */
+        public List<String> getAttributes() {
+            return attributes;
+        }
+
+        /**
+         * Get the result code.
+         *
+         * @return The result code.
+         */
+        public ResultCode getResultCode() {
+            return resultCode;
+        }
+
+        /**
+         * Get the number of entries returned by a search.
+         *
+         * @return The number of entries.
+         */
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        /**
+         * Format the record as a single line of JSON.
+         *
+         * @return The JSON object.
+         */
+        String toJSON() {
+            final JSONBuffer buffer = new JSONBuffer();
+            buffer.beginObject();
+            buffer.appendNumber("timestamp", timestamp);
+            buffer.appendString("type", type.name());
+            if (dn != null) {
+                buffer.appendString("dn", dn);
+            }
+            if (scope != null) {
+                buffer.appendString("scope", scope.getName());
+            }
+            if (filter != null) {
+                buffer.appendString("filter", filter);
+            }
+            buffer.beginArray("attributes");
+            for (final String attribute : attributes) {
+                buffer.appendString(attribute);
+            }
+            buffer.endArray();
+            buffer.appendNumber("resultCode", resultCode.intValue());
+            buffer.appendNumber("entryCount", entryCount);
+            buffer.appendNumber("durationMicros", TimeUnit.NANOSECONDS.toMicros(duration));
+            buffer.endObject();
+            return buffer.toString();
+        }
+
+        /**
+         * Describe the record.
+         *
+         * @return The record formatted as JSON.
+         */
+        @Override
+        public String toString() {
+            return toJSON();
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.buralotech.oss.ldapunit;
 
 import org.assertj.core.api.AbstractAssert;
 
+import java.util.Collection;
+
 /**
  * Assertions for testing existence of entries and attributes in LDAP directory by wrapping a {@link DirectoryTester}.
  */
@@ -43,6 +45,19 @@ public class DirectoryAssertions extends AbstractAssert<DirectoryAssertions, Dir
         return this;
     }
 
+    /**
+     * Assert that an entry exists in the LDAP directory for each of the specified distinguished names. The checks
+     * are run concurrently.
+     *
+     * @param dns The distinguished names.
+     * @return Always returns {@code this}.
+     * @since 3.2.0
+     */
+    public DirectoryAssertions allExist(final Collection<String> dns) {
+        actual.assertDNsExist(dns);
+        return this;
+    }
+
     /**
      * Assert that an entry with the specified distinguished name in the LDAP directory has the required object class.
      *
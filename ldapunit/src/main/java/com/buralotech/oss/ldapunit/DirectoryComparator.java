@@ -0,0 +1,531 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.FullLDAPInterface;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.SearchResultListener;
+import com.unboundid.ldap.sdk.SearchResultReference;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
+import com.unboundid.ldap.sdk.schema.ObjectClassDefinition;
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.ldif.LDIFException;
+import com.unboundid.ldif.LDIFReader;
+import com.unboundid.ldif.LDIFWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Compares a subtree of the LDAP directory with an expected LDIF using bounded memory. Both sides are streamed
+ * through an external merge sort that orders the entries by DN, holding at most a fixed number of entries in memory
+ * and spilling sorted runs to temporary LDIF files, and the two sorted streams are then merged. The entries of the
+ * subtree are handed to the sorter by a search result listener as they are returned, so the search result never
+ * holds the whole subtree. Remote servers are read with a simple paged search so they do not have to return the
+ * subtree in one response. The object classes of the expected entries are expanded with their superior classes, as
+ * the server does when entries are added.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryComparator {
+
+    /**
+     * The maximum number of entries from each side that are held in memory before a sorted run is spilled to disk.
+     */
+    static final int DEFAULT_RUN_SIZE = 10000;
+
+    /**
+     * The maximum number of differences of each kind that are kept in the result.
+     */
+    static final int DEFAULT_REPORT_LIMIT = 100;
+
+    /**
+     * The number of entries requested in each page of the subtree search of a remote server.
+     */
+    private static final int PAGE_SIZE = 500;
+
+    /**
+     * Orders entries by their parsed DN. The DNs are parsed when the entries are added to a sorter so the comparator
+     * only sees valid DNs.
+     */
+    private static final Comparator<Entry> BY_DN = (first, second) -> {
+        try {
+            return first.getParsedDN().compareTo(second.getParsedDN());
+        } catch (final LDAPException e) {
+            throw new IllegalArgumentException(e);
+        }
+    };
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryComparator() {
+    }
+
+    /**
+     * Compare a subtree of the LDAP directory with the expected LDIF. Expected entries outside the subtree are
+     * ignored. If a {@code namespace} is used, the expected entries are mapped into it before they are compared.
+     *
+     * @param connection        The interface to the LDAP directory server.
+     * @param namespace         The namespace or {@code null} if distinguished names are used unchanged.
+     * @param baseDN            The base DN of the subtree.
+     * @param expected          The expected LDIF.
+     * @param runSize           The maximum number of entries from each side held in memory.
+     * @param limit             The maximum number of differences of each kind kept in the result.
+     * @param ignoredAttributes The attributes that are not compared.
+     * @return The differences.
+     * @throws LDAPException If there was a problem searching the LDAP directory.
+     * @throws LDIFException If there was an error in the expected LDIF.
+     * @throws IOException   If there was a problem reading the expected LDIF or spilling sorted runs.
+     */
+    static DirectoryDiff compare(final FullLDAPInterface connection,
+                                 final DirectoryNamespace namespace,
+                                 final String baseDN,
+                                 final InputStream expected,
+                                 final int runSize,
+                                 final int limit,
+                                 final String... ignoredAttributes)
+            throws LDAPException, LDIFException, IOException {
+        final DN base = new DN(baseDN);
+        final DirectoryDiff diff = new DirectoryDiff(baseDN, limit);
+        final Schema schema = connection.getSchema();
+        try (Sorter expectedEntries = new Sorter(runSize);
+             Sorter actualEntries = new Sorter(runSize)) {
+            try (LDIFReader reader = new LDIFReader(expected)) {
+                for (Entry entry = reader.readEntry(); entry != null; entry = reader.readEntry()) {
+                    final Entry mapped = namespace == null ? entry : namespace.map(entry);
+                    if (mapped.getParsedDN().isDescendantOf(base, true)) {
+                        expectedEntries.add(strip(expand(mapped, schema), ignoredAttributes));
+                    }
+                }
+            }
+            final Collector collector = new Collector(actualEntries, ignoredAttributes);
+            final SearchRequest request = new SearchRequest(collector, baseDN, SearchScope.SUB,
+                    Filter.createPresenceFilter("objectClass"));
+            if (connection instanceof InMemoryDirectoryServer) {
+                connection.search(request);
+                collector.rethrow();
+            } else {
+                ASN1OctetString cookie = null;
+                do {
+                    request.setControls(new SimplePagedResultsControl(PAGE_SIZE, cookie));
+                    final SimplePagedResultsControl response = SimplePagedResultsControl.get(
+                            connection.search(request));
+                    collector.rethrow();
+                    cookie = response == null || !response.moreResultsToReturn() ? null : response.getCookie();
+                } while (cookie != null);
+            }
+            merge(expectedEntries.sorted(), actualEntries.sorted(), diff);
+        }
+        return diff;
+    }
+
+    /**
+     * Merge the sorted streams of expected and actual entries, recording the differences.
+     *
+     * @param expected The expected entries in DN order.
+     * @param actual   The actual entries in DN order.
+     * @param diff     The differences.
+     * @throws LDIFException If there was an error reading back a spilled run.
+     * @throws IOException   If there was a problem reading back a spilled run.
+     */
+    private static void merge(final Merger expected,
+                              final Merger actual,
+                              final DirectoryDiff diff)
+            throws LDIFException, IOException {
+        Entry expectedEntry = expected.next();
+        Entry actualEntry = actual.next();
+        while (expectedEntry != null || actualEntry != null) {
+            final int order = expectedEntry == null ? 1 : actualEntry == null ? -1 : BY_DN.compare(expectedEntry,
+                    actualEntry);
+            if (order < 0) {
+                diff.addExpected();
+                diff.addMissing(expectedEntry.getDN());
+                expectedEntry = expected.next();
+            } else if (order > 0) {
+                diff.addUnexpected(actualEntry.getDN());
+                actualEntry = actual.next();
+            } else {
+                diff.addExpected();
+                final List<Modification> modifications = Entry.diff(expectedEntry, actualEntry, true, true, false);
+                if (!modifications.isEmpty()) {
+                    diff.addChanged(actualEntry.getDN(), modifications);
+                }
+                expectedEntry = expected.next();
+                actualEntry = actual.next();
+            }
+        }
+    }
+
+    /**
+     * Add the superior classes of the object classes of an expected entry.
+     *
+     * @param entry  The expected entry.
+     * @param schema The schema of the LDAP directory server or {@code null} if it is not available.
+     * @return The entry with the superior classes.
+     */
+    private static Entry expand(final Entry entry,
+                                final Schema schema) {
+        if (schema == null) {
+            return entry;
+        }
+        final String[] objectClasses = entry.getObjectClassValues();
+        if (objectClasses == null) {
+            return entry;
+        }
+        for (final String objectClass : objectClasses) {
+            final ObjectClassDefinition definition = schema.getObjectClass(objectClass);
+            if (definition != null) {
+                for (final ObjectClassDefinition superior : definition.getSuperiorClasses(schema, true)) {
+                    if (!entry.hasObjectClass(superior.getNameOrOID())) {
+                        entry.addAttribute("objectClass", superior.getNameOrOID());
+                    }
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Remove the ignored attributes from an entry and parse its DN so that it can be sorted.
+     *
+     * @param entry             The entry.
+     * @param ignoredAttributes The attributes that are not compared.
+     * @return The entry without the ignored attributes.
+     * @throws LDAPException If the DN of the entry is not valid.
+     */
+    private static Entry strip(final Entry entry,
+                               final String[] ignoredAttributes)
+            throws LDAPException {
+        Entry stripped = entry;
+        for (final String attributeName : ignoredAttributes) {
+            if (stripped.hasAttribute(attributeName)) {
+                if (stripped == entry) {
+                    stripped = entry.duplicate();
+                }
+                stripped.removeAttribute(attributeName);
+            }
+        }
+        stripped.getParsedDN();
+        return stripped;
+    }
+
+    /**
+     * Adds the entries returned by the subtree search to a sorter as they arrive. A listener cannot throw checked
+     * exceptions, so the first failure is kept, the entries that follow it are ignored and the failure is rethrown
+     * once the search has completed.
+     */
+    private static final class Collector implements SearchResultListener {
+
+        /**
+         * The serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The sorter for the actual entries.
+         */
+        private final transient Sorter sorter;
+
+        /**
+         * The attributes that are not compared.
+         */
+        private final String[] ignoredAttributes;
+
+        /**
+         * The first failure or {@code null} if there has not been one.
+         */
+        private transient Exception failure;
+
+        /**
+         * Create a collector.
+         *
+         * @param sorter            The sorter for the actual entries.
+         * @param ignoredAttributes The attributes that are not compared.
+         */
+        Collector(final Sorter sorter,
+                  final String[] ignoredAttributes) {
+            this.sorter = sorter;
+            this.ignoredAttributes = ignoredAttributes;
+        }
+
+        /**
+         * Add a returned entry to the sorter unless an earlier entry failed.
+         *
+         * @param searchEntry The entry.
+         */
+        @Override
+        public void searchEntryReturned(final SearchResultEntry searchEntry) {
+            if (failure == null) {
+                try {
+                    sorter.add(strip(searchEntry, ignoredAttributes));
+                } catch (final LDAPException | IOException e) {
+                    failure = e;
+                }
+            }
+        }
+
+        /**
+         * Ignore a returned reference.
+         *
+         * @param searchReference The reference.
+         */
+        @Override
+        public void searchReferenceReturned(final SearchResultReference searchReference) {
+        }
+
+        /**
+         * Rethrow the first failure, if there was one.
+         *
+         * @throws LDAPException If the DN of a returned entry was not valid.
+         * @throws IOException   If there was a problem spilling a sorted run.
+         */
+        void rethrow()
+                throws LDAPException, IOException {
+            if (failure instanceof LDAPException) {
+                throw (LDAPException) failure;
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+        }
+    }
+
+    /**
+     * Sorts a stream of entries by DN using at most {@code runSize} entries of memory. When the buffer fills up it is
+     * sorted and spilled to a temporary LDIF file. If everything fits in the buffer, nothing is written to disk.
+     */
+    private static final class Sorter implements Closeable {
+
+        /**
+         * The maximum number of entries held in memory.
+         */
+        private final int runSize;
+
+        /**
+         * The entries that have not been spilled.
+         */
+        private final List<Entry> buffer = new ArrayList<>();
+
+        /**
+         * The temporary files holding the sorted runs that have been spilled.
+         */
+        private final List<Path> runs = new ArrayList<>();
+
+        /**
+         * The readers of the spilled runs once the sorted stream has been opened.
+         */
+        private final List<LDIFReader> readers = new ArrayList<>();
+
+        /**
+         * Create a sorter.
+         *
+         * @param runSize The maximum number of entries held in memory.
+         */
+        Sorter(final int runSize) {
+            this.runSize = runSize;
+        }
+
+        /**
+         * Add an entry, spilling a sorted run if the buffer is full.
+         *
+         * @param entry The entry.
+         * @throws IOException If there was a problem spilling the run.
+         */
+        void add(final Entry entry)
+                throws IOException {
+            buffer.add(entry);
+            if (buffer.size() >= runSize) {
+                spill();
+            }
+        }
+
+        /**
+         * Open the sorted stream of all the entries that have been added.
+         *
+         * @return The sorted stream.
+         * @throws LDIFException If there was an error reading the first entry of a spilled run.
+         * @throws IOException   If there was a problem spilling the last run or reading a spilled run.
+         */
+        Merger sorted()
+                throws LDIFException, IOException {
+            if (runs.isEmpty()) {
+                buffer.sort(BY_DN);
+                return new Merger(buffer, readers);
+            }
+            if (!buffer.isEmpty()) {
+                spill();
+            }
+            for (final Path run : runs) {
+                readers.add(new LDIFReader(run.toFile()));
+            }
+            return new Merger(null, readers);
+        }
+
+        /**
+         * Sort the buffer and write it to a temporary LDIF file.
+         *
+         * @throws IOException If there was a problem writing the file.
+         */
+        private void spill()
+                throws IOException {
+            buffer.sort(BY_DN);
+            final Path run = Files.createTempFile("ldapunit-diff", ".ldif");
+            runs.add(run);
+            try (LDIFWriter writer = new LDIFWriter(run.toFile())) {
+                for (final Entry entry : buffer) {
+                    writer.writeEntry(entry);
+                }
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Close the readers and delete the spilled runs.
+         *
+         * @throws IOException If there was a problem deleting a run.
+         */
+        @Override
+        public void close()
+                throws IOException {
+            for (final LDIFReader reader : readers) {
+                reader.close();
+            }
+            for (final Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Merges sorted runs into a single stream of entries in DN order, holding only the next entry of each run.
+     */
+    private static final class Merger {
+
+        /**
+         * The sorted entries when nothing was spilled or {@code null} if the spilled runs are merged.
+         */
+        private final List<Entry> entries;
+
+        /**
+         * The next entry of each spilled run paired with the reader of that run, ordered by the DN of the entry.
+         */
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((first, second) -> BY_DN.compare(
+                first.entry, second.entry));
+
+        /**
+         * The position of the next entry in {@link #entries}.
+         */
+        private int position;
+
+        /**
+         * Create a merger.
+         *
+         * @param entries The sorted entries when nothing was spilled or {@code null} if the runs are merged.
+         * @param readers The readers of the spilled runs.
+         * @throws LDIFException If there was an error reading the first entry of a run.
+         * @throws IOException   If there was a problem reading the first entry of a run.
+         */
+        Merger(final List<Entry> entries,
+               final List<LDIFReader> readers)
+                throws LDIFException, IOException {
+            this.entries = entries;
+            for (final LDIFReader reader : readers) {
+                advance(reader);
+            }
+        }
+
+        /**
+         * Get the next entry in DN order.
+         *
+         * @return The next entry or {@code null} if there are no more entries.
+         * @throws LDIFException If there was an error reading a spilled run.
+         * @throws IOException   If there was a problem reading a spilled run.
+         */
+        Entry next()
+                throws LDIFException, IOException {
+            if (entries != null) {
+                return position < entries.size() ? entries.get(position++) : null;
+            }
+            final Head head = heads.poll();
+            if (head == null) {
+                return null;
+            }
+            advance(head.reader);
+            return head.entry;
+        }
+
+        /**
+         * Read the next entry of a run and queue it.
+         *
+         * @param reader The reader of the run.
+         * @throws LDIFException If there was an error reading the run.
+         * @throws IOException   If there was a problem reading the run.
+         */
+        private void advance(final LDIFReader reader)
+                throws LDIFException, IOException {
+            final Entry entry = reader.readEntry();
+            if (entry != null) {
+                heads.add(new Head(entry, reader));
+            }
+        }
+    }
+
+    /**
+     * The next entry of a spilled run.
+     */
+    private static final class Head {
+
+        /**
+         * The entry.
+         */
+        private final Entry entry;
+
+        /**
+         * The reader of the run.
+         */
+        private final LDIFReader reader;
+
+        /**
+         * Create the head of a run.
+         *
+         * @param entry  The entry.
+         * @param reader The reader of the run.
+         */
+        Head(final Entry entry,
+             final LDIFReader reader) {
+            this.entry = entry;
+            this.reader = reader;
+        }
+    }
+}
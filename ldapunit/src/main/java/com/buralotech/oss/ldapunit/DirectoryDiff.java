@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.Modification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The differences between a subtree of the LDAP directory and the expected LDIF it was compared with. Every
+ * difference is counted, but only the first few of each kind are kept so that comparing very large directories uses
+ * bounded memory.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class DirectoryDiff {
+
+    /**
+     * The base DN of the subtree.
+     */
+    private final String baseDN;
+
+    /**
+     * The maximum number of differences of each kind that are kept.
+     */
+    private final int limit;
+
+    /**
+     * The DNs of the first expected entries that do not exist.
+     */
+    private final List<String> missing = new ArrayList<>();
+
+    /**
+     * The DNs of the first entries that exist but were not expected.
+     */
+    private final List<String> unexpected = new ArrayList<>();
+
+    /**
+     * The first entries that exist but do not have the expected attributes.
+     */
+    private final List<Change> changed = new ArrayList<>();
+
+    /**
+     * The number of expected entries that were compared.
+     */
+    private int expectedCount;
+
+    /**
+     * The number of expected entries that do not exist.
+     */
+    private int missingCount;
+
+    /**
+     * The number of entries that exist but were not expected.
+     */
+    private int unexpectedCount;
+
+    /**
+     * The number of entries that exist but do not have the expected attributes.
+     */
+    private int changedCount;
+
+    /**
+     * Create an empty difference.
+     *
+     * @param baseDN The base DN of the subtree.
+     * @param limit  The maximum number of differences of each kind that are kept.
+     */
+    DirectoryDiff(final String baseDN,
+                  final int limit) {
+        this.baseDN = baseDN;
+        this.limit = limit;
+    }
+
+    /**
+     * Get the base DN of the subtree that was compared.
+     *
+     * @return The base DN.
+     */
+    public String getBaseDN() {
+        return baseDN;
+    }
+
+    /**
+     * Check if the subtree matched the expected LDIF.
+     *
+     * @return {@code true} if there are no differences. Otherwise, {@code false}.
+     */
+    public boolean isEmpty() {
+        return missingCount == 0 && unexpectedCount == 0 && changedCount == 0;
+    }
+
+    /**
+     * Get the number of entries in the expected LDIF that were compared.
+     *
+     * @return The number of expected entries.
+     */
+    public int getExpectedCount() {
+        return expectedCount;
+    }
+
+    /**
+     * Get the number of expected entries that do not exist.
+     *
+     * @return The number of missing entries.
+     */
+    public int getMissingCount() {
+        return missingCount;
+    }
+
+    /**
+     * Get the DNs of the first expected entries, in DN order, that do not exist.
+     *
+     * @return The DNs of the missing entries.
+     */
+    public List<String> getMissing() {
+        return Collections.unmodifiableList(missing);
+    }
+
+    /**
+     * Get the number of entries that exist but are not in the expected LDIF.
+     *
+     * @return The number of unexpected entries.
+     */
+    public int getUnexpectedCount() {
+        return unexpectedCount;
+    }
+
+    /**
+     * Get the DNs of the first entries, in DN order, that exist but are not in the expected LDIF.
+     *
+     * @return The DNs of the unexpected entries.
+     */
+    public List<String> getUnexpected() {
+        return Collections.unmodifiableList(unexpected);
+    }
+
+    /**
+     * Get the number of entries that exist but do not have the expected attributes.
+     *
+     * @return The number of changed entries.
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Get the first entries, in DN order, that exist but do not have the expected attributes.
+     *
+     * @return The changed entries.
+     */
+    public List<Change> getChanged() {
+        return Collections.unmodifiableList(changed);
+    }
+
+    /**
+     * Count an expected entry that was compared.
+     */
+    void addExpected() {
+        expectedCount++;
+    }
+
+    /**
+     * Record an expected entry that does not exist.
+     *
+     * @param dn The DN of the entry.
+     */
+    void addMissing(final String dn) {
+        if (missingCount++ < limit) {
+            missing.add(dn);
+        }
+    }
+
+    /**
+     * Record an entry that exists but was not expected.
+     *
+     * @param dn The DN of the entry.
+     */
+    void addUnexpected(final String dn) {
+        if (unexpectedCount++ < limit) {
+            unexpected.add(dn);
+        }
+    }
+
+    /**
+     * Record an entry that exists but does not have the expected attributes.
+     *
+     * @param dn            The DN of the entry.
+     * @param modifications The modifications that turn the expected entry into the actual entry.
+     */
+    void addChanged(final String dn,
+                    final List<Modification> modifications) {
+        if (changedCount++ < limit) {
+            changed.add(new Change(dn, modifications));
+        }
+    }
+
+    /**
+     * Describe the differences, listing those that were kept.
+     *
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("Subtree: ");
+        builder.append(baseDN);
+        builder.append(" has ");
+        builder.append(missingCount);
+        builder.append(" missing, ");
+        builder.append(unexpectedCount);
+        builder.append(" unexpected and ");
+        builder.append(changedCount);
+        builder.append(" changed entries");
+        for (final String dn : missing) {
+            builder.append("\n  missing: ");
+            builder.append(dn);
+        }
+        for (final String dn : unexpected) {
+            builder.append("\n  unexpected: ");
+            builder.append(dn);
+        }
+        for (final Change change : changed) {
+            builder.append("\n  changed: ");
+            builder.append(change);
+        }
+        if (missingCount > missing.size() || unexpectedCount > unexpected.size() || changedCount > changed.size()) {
+            builder.append("\n  ...");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * An entry that exists but does not have the expected attributes.
+     */
+    public static final class Change {
+
+        /**
+         * The DN of the entry.
+         */
+        private final String dn;
+
+        /**
+         * The modifications that turn the expected entry into the actual entry.
+         */
+        private final List<Modification> modifications;
+
+        /**
+         * Create a changed entry.
+         *
+         * @param dn            The DN of the entry.
+         * @param modifications The modifications that turn the expected entry into the actual entry.
+         */
+        Change(final String dn,
+               final List<Modification> modifications) {
+            this.dn = dn;
+            this.modifications = Collections.unmodifiableList(modifications);
+        }
+
+        /**
+         * Get the DN of the entry.
+         *
+         * @return The DN.
+         */
+        public String getDN() {
+            return dn;
+        }
+
+        /**
+         * Get the modifications that turn the expected entry into the actual entry. Values that were expected but
+         * are missing are deletes and values that were not expected are adds.
+         *
+         * @return The modifications.
+         */
+        public List<Modification> getModifications() {
+            return modifications;
+        }
+
+        /**
+         * Describe the changed entry.
+         *
+         * @return The DN followed by the modifications.
+         */
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder(dn);
+            for (final Modification modification : modifications) {
+                builder.append(' ');
+                builder.append(modification.getModificationType().getName().toLowerCase());
+                builder.append(' ');
+                builder.append(modification.getAttributeName());
+                builder.append('=');
+                builder.append(String.join("|", modification.getValues()));
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds a small set of LDIF records for a single test method on top of the data described by the
+ * {@link DirectoryServerConfiguration} annotation. Unlike a method level {@link DirectoryServerConfiguration}, which
+ * replaces the class level configuration, the fixture is additive.
+ * <p>
+ * When the configuration comes from the test class and uses the
+ * {@link DirectoryServerConfiguration.Lifecycle#PER_TEST} lifecycle, the {@link DirectoryServerExtension} loads the
+ * class level data once, snapshots it and shares the loaded server between all the test methods of the class that
+ * have a fixture. Only the fixture records are processed for each test method and the snapshot is restored after the
+ * test. Tests sharing the class level server do not run concurrently. Otherwise, the fixture records are applied to
+ * the server created for the test.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DirectoryFixture {
+
+    /**
+     * The LDIF files, on the classpath or file system, containing the records that are applied after the data
+     * described by the {@link DirectoryServerConfiguration} has been loaded. Change records, such as modifications
+     * and deletions of entries from the class level data, are allowed.
+     *
+     * @return The LDIF files.
+     */
+    String[] ldif() default {};
+}
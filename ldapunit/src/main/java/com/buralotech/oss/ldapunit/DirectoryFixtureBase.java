@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerSnapshot;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldif.LDIFException;
+
+import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The loaded embedded LDAP directory server shared by the test methods of a class that layer a
+ * {@link DirectoryFixture} on top of the class level configuration. The class level data is loaded once and
+ * snapshotted. Each test applies its fixture, uses the server and then the snapshot is restored. The server only
+ * listens while it is in use by a test, so it does not conflict with servers created for other tests in the class
+ * that use the same port, and only one test can use it at a time.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryFixtureBase implements AutoCloseable {
+
+    /**
+     * Ensures that only one test uses the server at a time.
+     */
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * The class level directory server configuration.
+     */
+    private final DirectoryServerConfiguration annotation;
+
+    /**
+     * The loaded embedded LDAP directory server or {@code null} if it has not been loaded yet.
+     */
+    private InMemoryDirectoryServer server;
+
+    /**
+     * The snapshot of the class level data.
+     */
+    private InMemoryDirectoryServerSnapshot snapshot;
+
+    /**
+     * Initialise the base.
+     *
+     * @param annotation The class level directory server configuration.
+     */
+    DirectoryFixtureBase(final DirectoryServerConfiguration annotation) {
+        this.annotation = annotation;
+    }
+
+    /**
+     * Acquire the server for a test, loading the class level data if this is the first request, then apply the
+     * fixture and start listening. Waits until any other test has released the server.
+     *
+     * @param fixture The fixture for the test.
+     * @return The embedded LDAP directory server.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    InMemoryDirectoryServer acquire(final DirectoryFixture fixture)
+            throws LDIFException, LDAPException, IOException {
+        lock.lock();
+        try {
+            if (server == null) {
+                final InMemoryDirectoryServer created = DirectoryServerUtils.createServer(annotation);
+                snapshot = created.createSnapshot();
+                server = created;
+            }
+            DirectoryServerUtils.applyFixture(server, fixture, null);
+            DirectoryServerUtils.startListening(server);
+            return server;
+        } catch (final LDIFException | LDAPException | IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Release the server after a test, stopping it from listening and rolling back the changes made by the fixture
+     * and the test.
+     */
+    void release() {
+        try {
+            if (server != null) {
+                server.shutDown(true);
+                server.restoreSnapshot(snapshot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shutdown the embedded LDAP directory server when all the tests of the class have completed.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (server != null) {
+                DirectoryServerUtils.stopServer(server);
+                server = null;
+                snapshot = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServerSnapshot;
+import com.unboundid.ldap.sdk.Version;
+import com.unboundid.ldap.sdk.schema.Schema;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A binary image of a fully loaded embedded LDAP directory server, consisting of its schema, a snapshot of its
+ * entries and their footprint. Images are stored on disk, keyed by a hash of the attributes of the
+ * {@link DirectoryServerConfiguration} annotation that determine its data and the contents of its LDIF and schema
+ * files, so that they can be restored by later test runs without parsing any LDIF.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryImage {
+
+    /**
+     * The system property that names the directory in which images are stored.
+     */
+    static final String IMAGE_DIRECTORY_PROPERTY = "ldapunit.imageDirectory";
+
+    /**
+     * The version of the image file format. It is included in the key so that images written by an incompatible
+     * version are never read.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Restricts the classes that can be deserialized from an image file.
+     */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "com.unboundid.**;java.lang.*;java.util.*;java.math.*;!*");
+
+    /**
+     * The maximum number of trusted fixture images that are remembered. When another image is remembered, the least
+     * recently used one is forgotten and will be validated again the next time it is needed.
+     */
+    static final int MAX_TRUSTED_IMAGES = 8;
+
+    /**
+     * The images of trusted fixtures that have already been validated by this JVM, keyed by
+     * {@link #computeKey(DirectoryServerConfiguration)} and ordered from least to most recently used. Access is
+     * synchronized on the map. The images are accounted against the memory budget by {@link DirectoryServerBudget},
+     * which is never called while the map is locked because the budget evicts images while holding its own lock.
+     */
+    private static final Map<String, DirectoryImage> TRUSTED = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The schema of the LDAP directory.
+     */
+    private final Schema schema;
+
+    /**
+     * The snapshot of the LDAP directory entries.
+     */
+    private final InMemoryDirectoryServerSnapshot snapshot;
+
+    /**
+     * The footprint of the LDAP directory entries.
+     */
+    private final DirectoryServerFootprint footprint;
+
+    /**
+     * Initialise the directory image.
+     *
+     * @param schema    The schema of the LDAP directory.
+     * @param snapshot  The snapshot of the LDAP directory entries.
+     * @param footprint The footprint of the LDAP directory entries.
+     */
+    DirectoryImage(final Schema schema,
+                   final InMemoryDirectoryServerSnapshot snapshot,
+                   final DirectoryServerFootprint footprint) {
+        this.schema = schema;
+        this.snapshot = snapshot;
+        this.footprint = footprint;
+    }
+
+    /**
+     * Get the schema of the LDAP directory.
+     *
+     * @return The schema.
+     */
+    Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Get the snapshot of the LDAP directory entries.
+     *
+     * @return The snapshot.
+     */
+    InMemoryDirectoryServerSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get the footprint of the LDAP directory entries.
+     *
+     * @return The footprint.
+     */
+    DirectoryServerFootprint getFootprint() {
+        return footprint;
+    }
+
+    /**
+     * Get the location of the image file for a directory server configuration.
+     *
+     * @param annotation The directory server configuration.
+     * @return The location of the image file.
+     * @throws IOException If there was a problem reading the LDIF or schema files.
+     */
+    static Path getPath(final DirectoryServerConfiguration annotation) throws IOException {
+        return getPath(computeKey(annotation));
+    }
+
+    /**
+     * Get the location of the image file for a key.
+     *
+     * @param key The key computed by {@link #computeKey(DirectoryServerConfiguration)}.
+     * @return The location of the image file.
+     */
+    static Path getPath(final String key) {
+        final String directory = System.getProperty(
+                IMAGE_DIRECTORY_PROPERTY,
+                Paths.get(System.getProperty("java.io.tmpdir"), "ldapunit").toString());
+        return Paths.get(directory, key + ".image");
+    }
+
+    /**
+     * Get the image of a trusted fixture that has already been validated by this JVM.
+     *
+     * @param key The key computed by {@link #computeKey(DirectoryServerConfiguration)}.
+     * @return The image or {@code null} if the fixture has not been validated yet.
+     */
+    static DirectoryImage getTrusted(final String key) {
+        synchronized (TRUSTED) {
+            return TRUSTED.get(key);
+        }
+    }
+
+    /**
+     * Remember the image of a trusted fixture that has been validated by this JVM. If {@link #MAX_TRUSTED_IMAGES} are
+     * already remembered, the least recently used one is forgotten.
+     *
+     * @param key   The key computed by {@link #computeKey(DirectoryServerConfiguration)}.
+     * @param image The image.
+     */
+    static void putTrusted(final String key,
+                           final DirectoryImage image) {
+        DirectoryImage forgotten = null;
+        synchronized (TRUSTED) {
+            if (TRUSTED.putIfAbsent(key, image) != null) {
+                return;
+            }
+            if (TRUSTED.size() > MAX_TRUSTED_IMAGES) {
+                final Iterator<DirectoryImage> eldest = TRUSTED.values().iterator();
+                forgotten = eldest.next();
+                eldest.remove();
+            }
+        }
+        if (forgotten != null) {
+            DirectoryServerBudget.forget(forgotten.getFootprint());
+        }
+        DirectoryServerBudget.retain(image.getFootprint());
+    }
+
+    /**
+     * Forget the images of all the trusted fixtures so that they no longer count against the memory budget. They are
+     * validated again the next time they are needed.
+     */
+    static void evictTrusted() {
+        final DirectoryImage[] forgotten;
+        synchronized (TRUSTED) {
+            forgotten = TRUSTED.values().toArray(new DirectoryImage[0]);
+            TRUSTED.clear();
+        }
+        for (final DirectoryImage image : forgotten) {
+            DirectoryServerBudget.forget(image.getFootprint());
+        }
+    }
+
+    /**
+     * Compute the key for a directory server configuration. The key is a SHA-256 hash of the image format version,
+     * the LDAP SDK version and only those inputs that determine the data loaded into the directory: the base entry,
+     * the contents of the schema and LDIF files, the generated data, the additional naming contexts, whether
+     * operational attributes are generated and the password encoding. Other attributes, such as the port or the
+     * lifecycle, are applied when a server is created from the image, so configurations that differ only in those
+     * share the same image.
+     *
+     * @param annotation The directory server configuration.
+     * @return The key as a hexadecimal string.
+     * @throws IOException If there was a problem reading the LDIF or schema files.
+     */
+    static String computeKey(final DirectoryServerConfiguration annotation) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, "version", Integer.toString(FORMAT_VERSION), Version.NUMERIC_VERSION_STRING);
+        update(digest, "baseDN", annotation.baseDN());
+        update(digest, "baseObjectClasses", annotation.baseObjectClasses());
+        update(digest, "baseAttributes", annotation.baseAttributes());
+        for (final String path : annotation.schemaFiles()) {
+            updateWithContents(digest, "schemaFile", path);
+        }
+        for (final String path : annotation.ldifFiles()) {
+            updateWithContents(digest, "ldifFile", path);
+        }
+        final GeneratedData generatedData = annotation.generatedData();
+        update(digest, "generatedData",
+                Integer.toString(generatedData.users()),
+                Integer.toString(generatedData.groups()),
+                Integer.toString(generatedData.membersPerGroup()),
+                generatedData.distribution().name(),
+                Integer.toString(generatedData.organizationalUnits()),
+                Integer.toString(generatedData.organizationalUnitDepth()),
+                Long.toString(generatedData.seed()),
+                generatedData.usersRDN(),
+                generatedData.groupsRDN());
+        for (final NamingContext namingContext : annotation.namingContexts()) {
+            update(digest, "namingContext", namingContext.baseDN());
+            update(digest, "baseObjectClasses", namingContext.baseObjectClasses());
+            update(digest, "baseAttributes", namingContext.baseAttributes());
+            for (final String path : namingContext.ldifFiles()) {
+                updateWithContents(digest, "ldifFile", path);
+            }
+        }
+        update(digest, "generateOperationalAttributes", Boolean.toString(annotation.generateOperationalAttributes()));
+        update(digest, "passwordEncoding", annotation.passwordEncoding().name());
+        final StringBuilder key = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Load the image from a file.
+     *
+     * @param path The location of the image file.
+     * @return The image or {@code null} if the file does not exist or could not be read.
+     */
+    static DirectoryImage load(final Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            inputStream.setObjectInputFilter(FILTER);
+            if (inputStream.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final Schema schema = (Schema) inputStream.readObject();
+            final InMemoryDirectoryServerSnapshot snapshot = (InMemoryDirectoryServerSnapshot) inputStream.readObject();
+            final DirectoryServerFootprint footprint = new DirectoryServerFootprint(
+                    inputStream.readLong(),
+                    inputStream.readLong(),
+                    inputStream.readLong());
+            return new DirectoryImage(schema, snapshot, footprint);
+        } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Save the image to a file. The image is written to a temporary file which is then moved into place so that
+     * concurrent readers never see a partial image. Failures are ignored because the image is only a cache.
+     *
+     * @param path The location of the image file.
+     */
+    void save(final Path path) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(path.getParent());
+            temporary = Files.createTempFile(path.getParent(), "ldapunit", ".tmp");
+            try (ObjectOutputStream outputStream = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                outputStream.writeInt(FORMAT_VERSION);
+                outputStream.writeObject(schema);
+                outputStream.writeObject(snapshot);
+                outputStream.writeLong(footprint.getEntryCount());
+                outputStream.writeLong(footprint.getAttributeValueCount());
+                outputStream.writeLong(footprint.getAttributeValueBytes());
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (final IOException ignored) {
+                    // The temporary file will be left behind
+                }
+            }
+        }
+    }
+
+    /**
+     * Update the digest with a named list of values. Each value is prefixed with its length so that different lists
+     * never produce the same input to the digest.
+     *
+     * @param digest The message digest.
+     * @param name   The name of the values.
+     * @param values The values.
+     */
+    private static void update(final MessageDigest digest,
+                               final String name,
+                               final String... values) {
+        final StringBuilder builder = new StringBuilder(name).append('[').append(values.length).append(']');
+        for (final String value : values) {
+            builder.append(value.length()).append(':').append(value);
+        }
+        digest.update(builder.append(';').toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Update the digest with the contents of a classpath resource or file, followed by their length. The location is
+     * not included so that moving a file does not change the key.
+     *
+     * @param digest The message digest.
+     * @param name   The name of the contents.
+     * @param path   The location of the classpath resource or file.
+     * @throws IOException If there was a problem reading the resource or file.
+     */
+    private static void updateWithContents(final MessageDigest digest,
+                                           final String name,
+                                           final String path)
+            throws IOException {
+        long length = 0L;
+        try (InputStream inputStream = DirectoryServerUtils.getInputStream(path)) {
+            if (inputStream != null) {
+                final byte[] buffer = new byte[8192];
+                int count = inputStream.read(buffer);
+                while (count != -1) {
+                    digest.update(buffer, 0, count);
+                    length += count;
+                    count = inputStream.read(buffer);
+                }
+            }
+        }
+        update(digest, name, Long.toString(length));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.RDN;
+import com.unboundid.ldif.LDIFAddChangeRecord;
+import com.unboundid.ldif.LDIFChangeRecord;
+import com.unboundid.ldif.LDIFDeleteChangeRecord;
+import com.unboundid.ldif.LDIFModifyChangeRecord;
+import com.unboundid.ldif.LDIFModifyDNChangeRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A unique subtree directly below the base DN that isolates the data of one test from the data of other tests
+ * sharing the same LDAP directory server. Distinguished names below the base DN, including those used as attribute
+ * values, are mapped into the subtree. For example, {@code uid=bart,ou=People,dc=buralotech,dc=com} becomes
+ * {@code uid=bart,ou=People,ou=test-<uuid>,dc=buralotech,dc=com}.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryNamespace {
+
+    /**
+     * The base DN of the LDAP directory.
+     */
+    private final DN baseDN;
+
+    /**
+     * The RDN of the subtree.
+     */
+    private final RDN rdn;
+
+    /**
+     * The DN of the subtree.
+     */
+    private final DN namespaceDN;
+
+    /**
+     * Create a namespace with a random name below the base DN.
+     *
+     * @param baseDN The base DN of the LDAP directory.
+     * @throws LDAPException If the base DN is not valid.
+     */
+    DirectoryNamespace(final String baseDN) throws LDAPException {
+        this.baseDN = new DN(baseDN);
+        this.rdn = new RDN("ou", "test-" + UUID.randomUUID());
+        this.namespaceDN = new DN(rdn, this.baseDN);
+    }
+
+    /**
+     * Get the DN of the subtree.
+     *
+     * @return The DN.
+     */
+    String getDN() {
+        return namespaceDN.toString();
+    }
+
+    /**
+     * Create the entry for the root of the subtree.
+     *
+     * @return The entry.
+     */
+    Entry createEntry() {
+        final Entry entry = new Entry(namespaceDN);
+        entry.addAttribute("objectClass", "top", "organizationalUnit");
+        entry.addAttribute("ou", rdn.getAttributeValues()[0]);
+        return entry;
+    }
+
+    /**
+     * Map a distinguished name into the subtree. Values that are not distinguished names below the base DN, or are
+     * already in the subtree, are returned unchanged.
+     *
+     * @param value The distinguished name or other value.
+     * @return The mapped value.
+     */
+    String map(final String value) {
+        if (value == null || value.indexOf('=') == -1) {
+            return value;
+        }
+        final DN dn;
+        try {
+            dn = new DN(value);
+        } catch (final LDAPException e) {
+            return value;
+        }
+        if (!dn.isDescendantOf(baseDN, false) || dn.isDescendantOf(namespaceDN, true)) {
+            return value;
+        }
+        final RDN[] rdns = dn.getRDNs();
+        final int depth = rdns.length - baseDN.getRDNs().length;
+        final RDN[] mapped = new RDN[rdns.length + 1];
+        System.arraycopy(rdns, 0, mapped, 0, depth);
+        mapped[depth] = rdn;
+        System.arraycopy(rdns, depth, mapped, depth + 1, rdns.length - depth);
+        return new DN(mapped).toString();
+    }
+
+    /**
+     * Map each of the values into the subtree.
+     *
+     * @param values The distinguished names or other values.
+     * @return The mapped values.
+     */
+    String[] map(final String[] values) {
+        final String[] mapped = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[i] = map(values[i]);
+        }
+        return mapped;
+    }
+
+    /**
+     * Map the DN and attribute values of an entry into the subtree. Attributes without any values that need mapping,
+     * including binary attributes, are copied unchanged.
+     *
+     * @param entry The entry.
+     * @return The mapped entry.
+     */
+    Entry map(final Entry entry) {
+        final List<Attribute> attributes = new ArrayList<>(entry.getAttributes().size());
+        for (final Attribute attribute : entry.getAttributes()) {
+            final String[] values = attribute.getValues();
+            final String[] mapped = map(values);
+            if (Arrays.equals(values, mapped)) {
+                attributes.add(attribute);
+            } else {
+                attributes.add(new Attribute(attribute.getName(), mapped));
+            }
+        }
+        return new Entry(map(entry.getDN()), attributes);
+    }
+
+    /**
+     * Map the DNs and attribute values of an LDIF change record into the subtree.
+     *
+     * @param changeRecord The LDIF change record.
+     * @return The mapped LDIF change record.
+     */
+    LDIFChangeRecord map(final LDIFChangeRecord changeRecord) {
+        if (changeRecord instanceof LDIFAddChangeRecord) {
+            return new LDIFAddChangeRecord(map(((LDIFAddChangeRecord) changeRecord).getEntryToAdd()));
+        } else if (changeRecord instanceof LDIFDeleteChangeRecord) {
+            return new LDIFDeleteChangeRecord(map(changeRecord.getDN()));
+        } else if (changeRecord instanceof LDIFModifyChangeRecord) {
+            final Modification[] modifications = ((LDIFModifyChangeRecord) changeRecord).getModifications();
+            final Modification[] mapped = new Modification[modifications.length];
+            for (int i = 0; i < modifications.length; i++) {
+                final String[] values = modifications[i].getValues();
+                final String[] mappedValues = map(values);
+                if (Arrays.equals(values, mappedValues)) {
+                    mapped[i] = modifications[i];
+                } else {
+                    mapped[i] = new Modification(
+                            modifications[i].getModificationType(),
+                            modifications[i].getAttributeName(),
+                            mappedValues);
+                }
+            }
+            return new LDIFModifyChangeRecord(map(changeRecord.getDN()), mapped);
+        } else if (changeRecord instanceof LDIFModifyDNChangeRecord) {
+            final LDIFModifyDNChangeRecord modifyDN = (LDIFModifyDNChangeRecord) changeRecord;
+            return new LDIFModifyDNChangeRecord(
+                    map(modifyDN.getDN()),
+                    modifyDN.getNewRDN(),
+                    modifyDN.deleteOldRDN(),
+                    map(modifyDN.getNewSuperiorDN()));
+        } else {
+            return changeRecord;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.listener.Base64PasswordEncoderOutputFormatter;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryPasswordEncoder;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldif.LDIFAddChangeRecord;
+import com.unboundid.ldif.LDIFChangeRecord;
+import com.unboundid.ldif.LDIFModifyChangeRecord;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configures the password encoders of embedded LDAP directory servers and encodes the passwords in the data loaded
+ * into them. The servers would encode clear-text passwords themselves, but with a new salt each time, so loading the
+ * same data again would repeat the hashing. Instead, the encoded value of each clear-text password is cached for the
+ * lifetime of the JVM and the servers store the pre-encoded values unchanged. Entries with the same password
+ * therefore share a salt, which does not matter for tests but means the cost of hashing is only paid once per
+ * distinct password.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryPasswords {
+
+    /**
+     * The attribute that holds the passwords of entries.
+     */
+    static final String PASSWORD_ATTRIBUTE = "userPassword";
+
+    /**
+     * The number of bytes in each salt.
+     */
+    private static final int SALT_LENGTH = 8;
+
+    /**
+     * The encoded passwords keyed by the encoding and the clear-text password.
+     */
+    private static final Map<String, String> ENCODED = new ConcurrentHashMap<>();
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryPasswords() {
+    }
+
+    /**
+     * Configure the password encoders of a server. The encoder for {@code encoding} is used to encode new passwords
+     * and the encoders for the other salted schemes are used to verify passwords that were already encoded with them.
+     * No encoders are configured for {@link DirectoryServerConfiguration.PasswordEncoding#CLEAR}.
+     *
+     * @param config   The directory server configuration.
+     * @param encoding The password encoding.
+     * @throws LDAPException If an encoder could not be created.
+     */
+    static void configure(final InMemoryDirectoryServerConfig config,
+                          final DirectoryServerConfiguration.PasswordEncoding encoding)
+            throws LDAPException {
+        if (encoding != DirectoryServerConfiguration.PasswordEncoding.CLEAR) {
+            final List<InMemoryPasswordEncoder> secondaryEncoders = new ArrayList<>();
+            for (final DirectoryServerConfiguration.PasswordEncoding other
+                    : DirectoryServerConfiguration.PasswordEncoding.values()) {
+                if (other != encoding && other != DirectoryServerConfiguration.PasswordEncoding.CLEAR) {
+                    secondaryEncoders.add(createEncoder(other));
+                }
+            }
+            config.setPasswordEncoders(createEncoder(encoding),
+                    secondaryEncoders.toArray(new InMemoryPasswordEncoder[0]));
+        }
+    }
+
+    /**
+     * Get the encoding implemented by an encoder.
+     *
+     * @param encoder The encoder or {@code null} if passwords are not encoded.
+     * @return The password encoding.
+     */
+    static DirectoryServerConfiguration.PasswordEncoding getEncoding(final InMemoryPasswordEncoder encoder) {
+        if (encoder != null) {
+            for (final DirectoryServerConfiguration.PasswordEncoding encoding
+                    : DirectoryServerConfiguration.PasswordEncoding.values()) {
+                if (encoder.getPrefix().equals(getPrefix(encoding))) {
+                    return encoding;
+                }
+            }
+        }
+        return DirectoryServerConfiguration.PasswordEncoding.CLEAR;
+    }
+
+    /**
+     * Create an encoder for a salted scheme. The encoder is thread-safe, so it can be shared by the threads that
+     * process concurrent binds and by forks of the same server.
+     *
+     * @param encoding The password encoding, which must not be
+     *                 {@link DirectoryServerConfiguration.PasswordEncoding#CLEAR}.
+     * @return The encoder.
+     * @throws LDAPException If the message digest algorithm is not available.
+     */
+    static InMemoryPasswordEncoder createEncoder(final DirectoryServerConfiguration.PasswordEncoding encoding)
+            throws LDAPException {
+        try {
+            return new SaltedDigestPasswordEncoder(
+                    getPrefix(encoding),
+                    Base64PasswordEncoderOutputFormatter.getInstance(),
+                    getAlgorithm(encoding),
+                    SALT_LENGTH);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new LDAPException(ResultCode.LOCAL_ERROR, "Password encoding not supported: " + encoding, e);
+        }
+    }
+
+    /**
+     * Encode a clear-text password, reusing the encoded value from a previous request if there is one. Passwords
+     * that are already encoded with one of the salted schemes are returned unchanged.
+     *
+     * @param password The password.
+     * @param encoding The password encoding.
+     * @return The encoded password.
+     * @throws LDAPException If the password could not be encoded.
+     */
+    static String encode(final String password,
+                         final DirectoryServerConfiguration.PasswordEncoding encoding)
+            throws LDAPException {
+        if (encoding == DirectoryServerConfiguration.PasswordEncoding.CLEAR || isEncoded(password)) {
+            return password;
+        }
+        final String key = encoding.name() + ':' + password;
+        String encoded = ENCODED.get(key);
+        if (encoded == null) {
+            encoded = createEncoder(encoding).encodePassword(new ASN1OctetString(password), null,
+                    Collections.emptyList()).stringValue();
+            final String existing = ENCODED.putIfAbsent(key, encoded);
+            if (existing != null) {
+                encoded = existing;
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Encode the passwords of an entry.
+     *
+     * @param entry    The entry.
+     * @param encoding The password encoding.
+     * @return The entry with encoded passwords or {@code entry} itself if it does not have any passwords.
+     * @throws LDAPException If a password could not be encoded.
+     */
+    static Entry encode(final Entry entry,
+                        final DirectoryServerConfiguration.PasswordEncoding encoding)
+            throws LDAPException {
+        final Attribute attribute = entry.getAttribute(PASSWORD_ATTRIBUTE);
+        if (encoding == DirectoryServerConfiguration.PasswordEncoding.CLEAR || attribute == null) {
+            return entry;
+        }
+        final Entry encoded = entry.duplicate();
+        encoded.setAttribute(new Attribute(attribute.getName(), encode(attribute.getValues(), encoding)));
+        return encoded;
+    }
+
+    /**
+     * Encode the passwords of a list of entries.
+     *
+     * @param entries  The entries.
+     * @param encoding The password encoding.
+     * @return The entries with encoded passwords.
+     * @throws LDAPException If a password could not be encoded.
+     */
+    static List<Entry> encode(final List<Entry> entries,
+                              final DirectoryServerConfiguration.PasswordEncoding encoding)
+            throws LDAPException {
+        if (encoding == DirectoryServerConfiguration.PasswordEncoding.CLEAR) {
+            return entries;
+        }
+        final List<Entry> encoded = new ArrayList<>(entries.size());
+        for (final Entry entry : entries) {
+            encoded.add(encode(entry, encoding));
+        }
+        return encoded;
+    }
+
+    /**
+     * Encode the passwords added by an LDIF add or modify change record.
+     *
+     * @param changeRecord The LDIF change record.
+     * @param encoding     The password encoding.
+     * @return The LDIF change record with encoded passwords.
+     * @throws LDAPException If a password could not be encoded.
+     */
+    static LDIFChangeRecord encode(final LDIFChangeRecord changeRecord,
+                                   final DirectoryServerConfiguration.PasswordEncoding encoding)
+            throws LDAPException {
+        if (encoding == DirectoryServerConfiguration.PasswordEncoding.CLEAR) {
+            return changeRecord;
+        } else if (changeRecord instanceof LDIFAddChangeRecord) {
+            final Entry entry = ((LDIFAddChangeRecord) changeRecord).getEntryToAdd();
+            final Entry encoded = encode(entry, encoding);
+            return encoded == entry ? changeRecord : new LDIFAddChangeRecord(encoded);
+        } else if (changeRecord instanceof LDIFModifyChangeRecord) {
+            final Modification[] modifications = ((LDIFModifyChangeRecord) changeRecord).getModifications();
+            final Modification[] encoded = new Modification[modifications.length];
+            for (int i = 0; i < modifications.length; i++) {
+                final Modification modification = modifications[i];
+                if (modification.getAttributeName().equalsIgnoreCase(PASSWORD_ATTRIBUTE)
+                        && modification.getModificationType() != ModificationType.DELETE) {
+                    encoded[i] = new Modification(
+                            modification.getModificationType(),
+                            modification.getAttributeName(),
+                            encode(modification.getValues(), encoding));
+                } else {
+                    encoded[i] = modification;
+                }
+            }
+            return new LDIFModifyChangeRecord(changeRecord.getDN(), encoded);
+        } else {
+            return changeRecord;
+        }
+    }
+
+    /**
+     * Encode each of the passwords.
+     *
+     * @param passwords The passwords.
+     * @param encoding  The password encoding.
+     * @return The encoded passwords.
+     * @throws LDAPException If a password could not be encoded.
+     */
+    private static String[] encode(final String[] passwords,
+                                   final DirectoryServerConfiguration.PasswordEncoding encoding)
+            throws LDAPException {
+        final String[] encoded = new String[passwords.length];
+        for (int i = 0; i < passwords.length; i++) {
+            encoded[i] = encode(passwords[i], encoding);
+        }
+        return encoded;
+    }
+
+    /**
+     * Check if a password is already encoded with one of the salted schemes.
+     *
+     * @param password The password.
+     * @return {@code true} if the password is encoded. Otherwise, {@code false}.
+     */
+    private static boolean isEncoded(final String password) {
+        for (final DirectoryServerConfiguration.PasswordEncoding encoding
+                : DirectoryServerConfiguration.PasswordEncoding.values()) {
+            final String prefix = getPrefix(encoding);
+            if (prefix != null && password.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the prefix that identifies passwords encoded with a scheme.
+     *
+     * @param encoding The password encoding.
+     * @return The prefix or {@code null} for {@link DirectoryServerConfiguration.PasswordEncoding#CLEAR}.
+     */
+    private static String getPrefix(final DirectoryServerConfiguration.PasswordEncoding encoding) {
+        switch (encoding) {
+            case SALTED_SHA256:
+                return "{SSHA256}";
+            case SALTED_SHA384:
+                return "{SSHA384}";
+            case SALTED_SHA512:
+                return "{SSHA512}";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the message digest algorithm used by a salted scheme.
+     *
+     * @param encoding The password encoding.
+     * @return The algorithm or {@code null} for {@link DirectoryServerConfiguration.PasswordEncoding#CLEAR}.
+     */
+    private static String getAlgorithm(final DirectoryServerConfiguration.PasswordEncoding encoding) {
+        switch (encoding) {
+            case SALTED_SHA256:
+                return "SHA-256";
+            case SALTED_SHA384:
+                return "SHA-384";
+            case SALTED_SHA512:
+                return "SHA-512";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldif.LDIFChangeRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copies the writes accepted by one node of a {@link DirectoryTopology} to the other nodes on a background thread,
+ * as described by {@link Replication}. Changes are applied to the other nodes in-process, which bypasses their
+ * interceptors, so replicated changes are not replicated again, are not counted as requests and are not held by
+ * paused nodes. Changes that cannot be applied, for example because a test made a conflicting change directly on
+ * another node, are counted as conflicts and skipped.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryReplicator {
+
+    /**
+     * The nodes.
+     */
+    private final List<InMemoryDirectoryServer> servers;
+
+    /**
+     * The replication lag in nanoseconds.
+     */
+    private final long delay;
+
+    /**
+     * The maximum number of changes applied together.
+     */
+    private final int batchSize;
+
+    /**
+     * The changes waiting to be applied in the order they were accepted.
+     */
+    private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * The number of changes applied to the other nodes.
+     */
+    private final LongAdder replicated = new LongAdder();
+
+    /**
+     * The number of batches applied.
+     */
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * The number of times a change could not be applied to a node.
+     */
+    private final LongAdder conflicts = new LongAdder();
+
+    /**
+     * The thread that applies the changes.
+     */
+    private final Thread thread;
+
+    /**
+     * The number of changes that have been accepted but not yet applied.
+     */
+    private int backlog;
+
+    /**
+     * Initialise the replicator and start its thread.
+     *
+     * @param servers     The nodes. The list may still be filled after the replicator has been created.
+     * @param replication The replication settings.
+     */
+    DirectoryReplicator(final List<InMemoryDirectoryServer> servers,
+                        final Replication replication) {
+        this.servers = servers;
+        this.delay = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, replication.delay()));
+        this.batchSize = Math.max(1, replication.batchSize());
+        this.thread = new Thread(this::run, "ldapunit-replication");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue a change accepted by a node so that it is applied to the other nodes.
+     *
+     * @param origin The index of the node that accepted the change.
+     * @param record The change.
+     */
+    void accept(final int origin,
+                final LDIFChangeRecord record) {
+        synchronized (this) {
+            backlog++;
+        }
+        queue.add(new Change(origin, record, System.nanoTime()));
+    }
+
+    /**
+     * Wait for every change accepted so far to be applied to the other nodes.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of {@code timeout}.
+     * @return {@code true} if the nodes caught up. Otherwise, {@code false}.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    synchronized boolean await(final long timeout,
+                               final TimeUnit unit)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (backlog > 0) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of changes that have been accepted but not yet applied to the other nodes.
+     *
+     * @return The number of changes.
+     */
+    synchronized int getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * Get the number of changes applied to the other nodes.
+     *
+     * @return The number of changes.
+     */
+    long getReplicatedChangeCount() {
+        return replicated.sum();
+    }
+
+    /**
+     * Get the number of batches applied to the other nodes.
+     *
+     * @return The number of batches.
+     */
+    long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Get the number of times a change could not be applied to a node.
+     *
+     * @return The number of conflicts.
+     */
+    long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Stop the replicator. Changes that have not been applied yet are discarded.
+     */
+    void close() {
+        thread.interrupt();
+    }
+
+    /**
+     * Wait for the oldest change to reach the replication lag and then apply it, together with the changes queued
+     * behind it up to the batch size, to the other nodes.
+     */
+    private void run() {
+        final List<Change> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                final Change oldest = queue.take();
+                final long remaining = oldest.accepted + delay - System.nanoTime();
+                if (remaining > 0L) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+                batch.add(oldest);
+                queue.drainTo(batch, batchSize - 1);
+                for (final Change change : batch) {
+                    apply(change);
+                }
+                batches.increment();
+                synchronized (this) {
+                    backlog -= batch.size();
+                    notifyAll();
+                }
+                batch.clear();
+            }
+        } catch (final InterruptedException e) {
+            // The topology has been closed
+        }
+    }
+
+    /**
+     * Apply a change to every node apart from the one that accepted it.
+     *
+     * @param change The change.
+     */
+    private void apply(final Change change) {
+        for (int i = 0; i < servers.size(); i++) {
+            if (i != change.origin) {
+                try {
+                    change.record.processChange(servers.get(i));
+                } catch (final LDAPException e) {
+                    conflicts.increment();
+                }
+            }
+        }
+        replicated.increment();
+    }
+
+    /**
+     * A change waiting to be replicated.
+     */
+    private static final class Change {
+
+        /**
+         * The index of the node that accepted the change.
+         */
+        private final int origin;
+
+        /**
+         * The change.
+         */
+        private final LDIFChangeRecord record;
+
+        /**
+         * The value of {@link System#nanoTime()} when the change was accepted.
+         */
+        private final long accepted;
+
+        /**
+         * Initialise the change.
+         *
+         * @param origin   The index of the node that accepted the change.
+         * @param record   The change.
+         * @param accepted The value of {@link System#nanoTime()} when the change was accepted.
+         */
+        private Change(final int origin,
+                       final LDIFChangeRecord record,
+                       final long accepted) {
+            this.origin = origin;
+            this.record = record;
+            this.accepted = accepted;
+        }
+    }
+}
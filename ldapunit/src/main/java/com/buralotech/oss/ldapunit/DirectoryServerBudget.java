@@ -0,0 +1,304 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts for the estimated heap footprint of the embedded LDAP directory servers that are alive in this JVM and
+ * enforces the optional memory budget set by the {@link #MEMORY_BUDGET_PROPERTY} system property, which is read each
+ * time a server is accounted. When a server would take the total over the budget, pre-warmed servers, the images of
+ * trusted fixtures and fork templates, which can be rebuilt on demand, are evicted first. If that does not free enough
+ * space, the new server is refused with {@link ResultCode#ADMIN_LIMIT_EXCEEDED}.
+ * <p>
+ * When the footprint of a configuration is already known, the bytes for a new server are reserved before it is built
+ * and the reservation is settled once it has been built, so concurrent builds cannot take the total over the budget.
+ * Servers built from a configuration are accounted until they are stopped and the images of trusted fixtures until
+ * they are forgotten. Forks share the entries of their template and the data loaded into namespaces on a shared
+ * server is short-lived, so neither is accounted separately.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryServerBudget {
+
+    /**
+     * The system property that sets the memory budget. The value is a number of bytes with an optional {@code k},
+     * {@code m} or {@code g} suffix. There is no budget if the property is not set or is not valid.
+     */
+    static final String MEMORY_BUDGET_PROPERTY = "ldapunit.memoryBudget";
+
+    /**
+     * The footprints of the servers that are being accounted.
+     */
+    private static final Map<InMemoryDirectoryServer, DirectoryServerFootprint> ACCOUNTED = new ConcurrentHashMap<>();
+
+    /**
+     * The footprints of the configurations that have been loaded.
+     */
+    private static final Map<DirectoryServerConfiguration, DirectoryServerFootprint> KNOWN = new ConcurrentHashMap<>();
+
+    /**
+     * The estimated number of bytes retained by the servers that are being accounted.
+     */
+    private static final AtomicLong USED = new AtomicLong();
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerBudget() {
+    }
+
+    /**
+     * Get the memory budget.
+     *
+     * @return The memory budget in bytes or zero if there is no budget.
+     */
+    static long getBudget() {
+        return parseSize(System.getProperty(MEMORY_BUDGET_PROPERTY));
+    }
+
+    /**
+     * Get the estimated number of bytes retained by the servers that are being accounted.
+     *
+     * @return The estimated retained size.
+     */
+    static long getUsedBytes() {
+        return USED.get();
+    }
+
+    /**
+     * Get the number of servers that are being accounted.
+     *
+     * @return The number of servers.
+     */
+    static int getAccountedServerCount() {
+        return ACCOUNTED.size();
+    }
+
+    /**
+     * Remember the footprint of the data loaded for a configuration.
+     *
+     * @param annotation The configuration.
+     * @param footprint  The footprint.
+     */
+    static void remember(final DirectoryServerConfiguration annotation,
+                         final DirectoryServerFootprint footprint) {
+        KNOWN.put(annotation, footprint);
+    }
+
+    /**
+     * Get the footprint of the data loaded for a configuration.
+     *
+     * @param annotation The configuration.
+     * @return The footprint or {@code null} if a server has not been loaded for the configuration.
+     */
+    static DirectoryServerFootprint getKnown(final DirectoryServerConfiguration annotation) {
+        return KNOWN.get(annotation);
+    }
+
+    /**
+     * Get the footprints of all the configurations that have been loaded.
+     *
+     * @return The footprints keyed by configuration.
+     */
+    static Map<DirectoryServerConfiguration, DirectoryServerFootprint> getKnown() {
+        return Collections.unmodifiableMap(new HashMap<>(KNOWN));
+    }
+
+    /**
+     * Reserve room in the budget for a server with a configuration before building it. This is only possible if a
+     * server has already been loaded for the configuration. The reservation must be passed to
+     * {@link #register(InMemoryDirectoryServer, DirectoryServerFootprint, long)} once the server has been built or to
+     * {@link #cancel(long)} if the build fails.
+     *
+     * @param annotation The configuration.
+     * @return The number of bytes reserved or zero if the footprint of the configuration is not known yet.
+     * @throws LDAPException If there is no room in the budget even after evicting servers that can be rebuilt.
+     */
+    static synchronized long reserve(final DirectoryServerConfiguration annotation)
+            throws LDAPException {
+        final DirectoryServerFootprint footprint = KNOWN.get(annotation);
+        if (footprint == null) {
+            return 0L;
+        }
+        final long bytes = footprint.getEstimatedRetainedBytes();
+        if (!makeRoom(bytes)) {
+            throw refuse(footprint);
+        }
+        USED.addAndGet(bytes);
+        return bytes;
+    }
+
+    /**
+     * Return the bytes reserved for a server that could not be built.
+     *
+     * @param reserved The number of bytes returned by {@link #reserve(DirectoryServerConfiguration)}.
+     */
+    static void cancel(final long reserved) {
+        USED.addAndGet(-reserved);
+    }
+
+    /**
+     * Start accounting for a server, settling the bytes reserved for it against its actual footprint.
+     *
+     * @param server    The server.
+     * @param footprint The footprint of the server or {@code null} if it is not known.
+     * @param reserved  The number of bytes returned by {@link #reserve(DirectoryServerConfiguration)}.
+     * @throws LDAPException If the server takes the total over the budget even after evicting servers that can be
+     *                       rebuilt. The server is no longer accounted for.
+     */
+    static synchronized void register(final InMemoryDirectoryServer server,
+                                      final DirectoryServerFootprint footprint,
+                                      final long reserved)
+            throws LDAPException {
+        if (footprint == null || ACCOUNTED.putIfAbsent(server, footprint) != null) {
+            cancel(reserved);
+            return;
+        }
+        USED.addAndGet(footprint.getEstimatedRetainedBytes() - reserved);
+        if (!makeRoom(0L)) {
+            release(server);
+            throw refuse(footprint);
+        }
+    }
+
+    /**
+     * Start accounting for the image of a trusted fixture. Images that take the total over the budget are evicted,
+     * together with any other images, pre-warmed servers or templates that can be rebuilt.
+     *
+     * @param footprint The footprint of the image.
+     */
+    static void retain(final DirectoryServerFootprint footprint) {
+        USED.addAndGet(footprint.getEstimatedRetainedBytes());
+        makeRoom(0L);
+    }
+
+    /**
+     * Stop accounting for the image of a trusted fixture.
+     *
+     * @param footprint The footprint of the image.
+     */
+    static void forget(final DirectoryServerFootprint footprint) {
+        USED.addAndGet(-footprint.getEstimatedRetainedBytes());
+    }
+
+    /**
+     * Move the accounting for a server to a server that has replaced it.
+     *
+     * @param server      The server that has been replaced.
+     * @param replacement The replacement.
+     */
+    static void transfer(final InMemoryDirectoryServer server,
+                         final InMemoryDirectoryServer replacement) {
+        final DirectoryServerFootprint footprint = ACCOUNTED.remove(server);
+        if (footprint != null) {
+            ACCOUNTED.put(replacement, footprint);
+        }
+    }
+
+    /**
+     * Stop accounting for a server.
+     *
+     * @param server The server.
+     */
+    static void release(final InMemoryDirectoryServer server) {
+        final DirectoryServerFootprint footprint = ACCOUNTED.remove(server);
+        if (footprint != null) {
+            USED.addAndGet(-footprint.getEstimatedRetainedBytes());
+        }
+    }
+
+    /**
+     * Make sure there is room in the budget for an additional number of bytes, evicting pre-warmed servers, the images
+     * of trusted fixtures and fork templates if necessary.
+     *
+     * @param bytes The additional number of bytes.
+     * @return {@code true} if there is room or there is no budget. Otherwise, {@code false}.
+     */
+    private static synchronized boolean makeRoom(final long bytes) {
+        final long budget = getBudget();
+        if (budget == 0L || USED.get() + bytes <= budget) {
+            return true;
+        }
+        DirectoryServerPrewarmer.evict();
+        if (USED.get() + bytes <= budget) {
+            return true;
+        }
+        DirectoryImage.evictTrusted();
+        if (USED.get() + bytes <= budget) {
+            return true;
+        }
+        DirectoryServerRegistry.evictTemplates();
+        return USED.get() + bytes <= budget;
+    }
+
+    /**
+     * Create the exception used to refuse a server.
+     *
+     * @param footprint The footprint of the server.
+     * @return The exception.
+     */
+    private static LDAPException refuse(final DirectoryServerFootprint footprint) {
+        DirectoryServerMetrics.serverRefused();
+        return new LDAPException(ResultCode.ADMIN_LIMIT_EXCEEDED, "Embedded Directory Server with " + footprint
+                + " would exceed the memory budget of " + getBudget() + " bytes with " + USED.get()
+                + " bytes already in use");
+    }
+
+    /**
+     * Parse a size with an optional {@code k}, {@code m} or {@code g} suffix.
+     *
+     * @param value The size.
+     * @return The size in bytes or zero if the value is {@code null} or not valid.
+     */
+    static long parseSize(final String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return 0L;
+        }
+        final String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        final long multiplier;
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 'k':
+                multiplier = 1024L;
+                break;
+            case 'm':
+                multiplier = 1024L * 1024L;
+                break;
+            case 'g':
+                multiplier = 1024L * 1024L * 1024L;
+                break;
+            default:
+                multiplier = 1L;
+                break;
+        }
+        try {
+            final String digits = multiplier == 1L ? trimmed : trimmed.substring(0, trimmed.length() - 1);
+            return Math.max(0L, Long.parseLong(digits.trim()) * multiplier);
+        } catch (final NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
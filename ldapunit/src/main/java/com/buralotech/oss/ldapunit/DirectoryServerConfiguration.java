@@ -0,0 +1,382 @@
+/*
+ * Copyright 2013-2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation is used to specify the parameters used to configure the LDAP directory server. The
+ * annotation can be applied to the test class or method. If the annotation has been applied to both
+ * the test class and the test method the the annotation on the test method is used.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 1.0.0
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DirectoryServerConfiguration {
+
+    /**
+     * Controls how the LDAP directory servers used by tests are created.
+     *
+     * @since 3.2.0
+     */
+    enum Lifecycle {
+
+        /**
+         * A new LDAP directory server is created and loaded for each test.
+         */
+        PER_TEST,
+
+        /**
+         * A template LDAP directory server is created and loaded once per JVM for each distinct configuration. Each
+         * test gets a fork of the template that is restored from a snapshot of it. The snapshot copies the references
+         * to the template's immutable entries, so forking takes time proportional to the number of entries but does
+         * not parse the fixture data again. Use a {@link #port()} of zero to give each fork an ephemeral port when
+         * tests run in parallel and read the port from {@link DirectoryServerRule#getPort()} or a
+         * {@link DirectoryServerPort} parameter.
+         */
+        FORK,
+
+        /**
+         * A single running LDAP directory server is shared by all tests with the same configuration. Each test gets
+         * its own subtree {@code ou=test-<uuid>} directly below the {@link #baseDN()}. The generated data and LDIF
+         * records are loaded into that subtree and the {@link DirectoryTester} maps distinguished names below the
+         * base DN into it, so tests can run concurrently without interfering with each other. The subtree is
+         * deleted in the background after the test.
+         */
+        NAMESPACE,
+
+        /**
+         * A single running LDAP directory server, fully loaded with the generated data and LDIF records, is shared
+         * by all tests with the same configuration. Add, delete, modify, modify DN, password modify and transaction
+         * requests are rejected with {@code UNWILLING_TO_PERFORM}, so tests can run concurrently and a test that
+         * writes fails immediately instead of corrupting the data seen by other tests.
+         */
+        READ_ONLY
+    }
+
+    /**
+     * Controls whether the LDAP directory server protects connections with TLS. The key material is a self-signed
+     * certificate that is generated once per JVM, and the server and client SSL contexts are shared by every server
+     * and connection so that TLS sessions can be resumed. Clients obtain a socket factory that trusts the certificate
+     * from {@link DirectoryServerTls}.
+     *
+     * @since 3.2.0
+     */
+    enum Security {
+
+        /**
+         * The listener only accepts plain LDAP connections.
+         */
+        NONE,
+
+        /**
+         * The listener only accepts LDAPS connections, which negotiate TLS as soon as they are established.
+         */
+        LDAPS,
+
+        /**
+         * The listener accepts plain LDAP connections that can be upgraded to TLS with the StartTLS extended
+         * operation.
+         */
+        START_TLS
+    }
+
+    /**
+     * The scheme used to encode the {@code userPassword} values of entries and the credentials of the
+     * {@link #authDN()}. Salted hashes make binds as expensive to verify as they are against a production directory.
+     * Passwords in the LDIF data and generated data are encoded once per JVM and the encoded values are reused
+     * whenever a server with the same encoding is started.
+     *
+     * @since 3.2.0
+     */
+    enum PasswordEncoding {
+
+        /**
+         * Passwords are stored and compared in clear text.
+         */
+        CLEAR,
+
+        /**
+         * Passwords are stored as salted SHA-256 digests with the {@code {SSHA256}} prefix.
+         */
+        SALTED_SHA256,
+
+        /**
+         * Passwords are stored as salted SHA-384 digests with the {@code {SSHA384}} prefix.
+         */
+        SALTED_SHA384,
+
+        /**
+         * Passwords are stored as salted SHA-512 digests with the {@code {SSHA512}} prefix.
+         */
+        SALTED_SHA512
+    }
+
+    /**
+     * The default TCP port for the directory server.
+     */
+    int DEFAULT_PORT = 10389;
+
+    /**
+     * The TCP port that the LDAP directory server will be configured to listen on. Zero selects an ephemeral port.
+     *
+     * @return The TCP port.
+     */
+    int port() default DEFAULT_PORT;
+
+    /**
+     * The DN that will be configured as the root of the LDAP directory.
+     *
+     * @return The DN.
+     */
+    String baseDN() default "dc=buralotech,dc=com";
+
+    /**
+     * The object classes used for the base DN.
+     *
+     * @return The object classes.
+     */
+    String[] baseObjectClasses() default {"domain", "top"};
+
+    /**
+     * The attribute name/value pairs used for the base DN.
+     *
+     * @return The attribute name/value pairs.
+     */
+    String[] baseAttributes() default {};
+
+    /**
+     * The DN that will be configured as the administrator account identifier.
+     *
+     * @return The DN.
+     */
+    String authDN() default "uid=admin,ou=system";
+
+    /**
+     * The password that will be configured as the authentication credentials for the administrator account.
+     *
+     * @return The password.
+     */
+    String authPassword() default "secret";
+
+    /**
+     * The locations of optional LDIF files that can be used to see the LDAP directory with an initial data set.
+     * The files may localed on the file system or the classpath. The classpath is checked first and then falls back
+     * to che file system if it was not found on the class path.
+     *
+     * @return An array of LDIF file paths.
+     */
+    String[] ldifFiles() default {};
+
+    /**
+     * The location of the optional schema LDIF files that can be use to have a LDAP directory with a custom schema.
+     * The file may located on the file system or the classpath. The classpath is checked first and then falls back
+     * to the file system if it was no found on the class path.
+     *
+     * @return The file paths of the schemas in LDIF.
+     */
+    String[] schemaFiles() default {};
+
+    /**
+     * The synthetic data set that is generated in memory and loaded before the {@link #ldifFiles()}. No data is
+     * generated by default.
+     *
+     * @return The description of the synthetic data set.
+     * @since 3.2.0
+     */
+    GeneratedData generatedData() default @GeneratedData;
+
+    /**
+     * If {@code true}, the fully loaded directory (schema and entries) is saved as a binary image keyed by a hash of
+     * this annotation and the contents of the {@link #ldifFiles()} and {@link #schemaFiles()}. Later starts with the
+     * same configuration and inputs, including those in other JVMs, restore the image instead of parsing the LDIF
+     * and generating data again. The images are stored in the directory named by the {@code ldapunit.imageDirectory}
+     * system property, which defaults to {@code ldapunit} below {@code java.io.tmpdir}.
+     *
+     * @return {@code true} if the directory image is persisted.
+     * @since 3.2.0
+     */
+    boolean persistentImage() default false;
+
+    /**
+     * If {@code true}, the LDAP directory server is not started before the test. Instead, it is started when a
+     * {@link DirectoryTester} parameter is resolved or, for {@link DirectoryServerRule}, when one of the rule's verify
+     * or assert methods is first called. Tests that never use the server do not pay to start it. Tests that connect to
+     * the {@link #port()} directly must not use lazy mode.
+     *
+     * @return {@code true} if the server is started on first use.
+     * @since 3.2.0
+     */
+    boolean lazy() default false;
+
+    /**
+     * If {@code true}, once the LDAP directory server for a test has been started, a server for the next test with an
+     * identical configuration is built on a background thread while the current test runs. The next test then picks
+     * up a server that has already loaded its schema and data. Pre-warmed servers do not listen until they are used.
+     *
+     * @return {@code true} if the server for the next test is pre-warmed.
+     * @since 3.2.0
+     */
+    boolean prewarm() default false;
+
+    /**
+     * The names of the attributes for which the LDAP directory server maintains equality indexes. Searches with
+     * equality filters on indexed attributes, such as {@code (uid=...)} or {@code (mail=...)}, do not need to scan the
+     * whole LDAP directory. The embedded LDAP directory server does not support substring indexes.
+     *
+     * @return The attribute names.
+     * @since 3.2.0
+     */
+    String[] equalityIndexAttributes() default {};
+
+    /**
+     * The maximum number of entries that the LDAP directory server returns for a search. Zero means no limit.
+     *
+     * @return The maximum number of entries.
+     * @since 3.2.0
+     */
+    int maxSizeLimit() default 0;
+
+    /**
+     * If {@code true}, the LDAP directory server maintains operational attributes such as {@code creatorsName} and
+     * {@code modifyTimestamp} for each entry that is added or modified. Turning this off reduces the cost of loading
+     * large data sets.
+     *
+     * @return {@code true} if operational attributes are generated.
+     * @since 3.2.0
+     */
+    boolean generateOperationalAttributes() default true;
+
+    /**
+     * If {@code true}, the schema, generated data and LDIF fixtures are validated only once per JVM for each distinct
+     * configuration and fixture content. The validated directory is remembered and later starts restore it without
+     * checking the fixture entries against the schema again. The schema is still enforced for the operations
+     * performed by the tests. The validated directories are held in memory until the JVM exits.
+     *
+     * @return {@code true} if the fixtures are only validated once.
+     * @since 3.2.0
+     */
+    boolean trustedFixtures() default false;
+
+    /**
+     * Controls how the LDAP directory servers used by tests are created. {@link #prewarm()} is ignored when the
+     * {@link Lifecycle#FORK} lifecycle is used.
+     *
+     * @return The lifecycle.
+     * @since 3.2.0
+     */
+    Lifecycle lifecycle() default Lifecycle.PER_TEST;
+
+    /**
+     * If {@code true} and a directory server daemon has been published to the test JVM using the
+     * {@link DirectoryServerDaemon#PORT_PROPERTY} system property, the test connects to the daemon, binding as
+     * {@link #authDN()}, instead of starting its own embedded LDAP directory server. The rest of the configuration is
+     * ignored because the daemon was loaded with its own fixtures and its data is shared by every test JVM, so
+     * attaching is opt-in. Tests that leave this {@code false} start their own server even when a daemon is running.
+     *
+     * @return {@code true} if the test attaches to a running daemon.
+     * @since 3.2.0
+     */
+    boolean attach() default false;
+
+    /**
+     * The number of LDAP directory servers, called nodes, that are started with identical data. When this is more
+     * than one, each node listens on its own free port and {@link #port()} is ignored. Tests can take a
+     * {@link DirectoryTopology} parameter, or call {@link DirectoryServerRule#getTopology()}, to find the nodes and to
+     * stop, pause or slow them down. The {@link DirectoryTester} connects to the first node. Topologies cannot be used
+     * with the {@link Lifecycle#NAMESPACE} or {@link Lifecycle#READ_ONLY} lifecycles.
+     *
+     * @return The number of nodes.
+     * @since 3.2.0
+     */
+    int nodes() default 1;
+
+    /**
+     * How writes accepted by one node of a topology are copied to the other nodes. Writes are not replicated by
+     * default. It is ignored unless {@link #nodes()} is more than one.
+     *
+     * @return The replication settings.
+     * @since 3.2.0
+     */
+    Replication replication() default @Replication;
+
+    /**
+     * Additional naming contexts served by the same LDAP directory server as the {@link #baseDN()}. Each naming
+     * context has its own base entry and LDIF fixtures, which are loaded after the {@link #ldifFiles()}. With the
+     * {@link Lifecycle#NAMESPACE} lifecycle, only the data below the {@link #baseDN()} is isolated in a namespace; the
+     * data in the additional naming contexts is loaded once and shared by the tests.
+     *
+     * @return The additional naming contexts.
+     * @since 3.2.0
+     */
+    NamingContext[] namingContexts() default {};
+
+    /**
+     * Controls whether the LDAP directory server accepts LDAPS connections or plain LDAP connections that can be
+     * upgraded with StartTLS. The connections made by {@link DirectoryServerRule} and {@link DirectoryTester} are
+     * protected accordingly.
+     *
+     * @return The security of the listener.
+     * @since 3.2.0
+     */
+    Security security() default Security.NONE;
+
+    /**
+     * The scheme used to encode the {@code userPassword} values of entries and to verify the credentials of the
+     * {@link #authDN()}. Values that are already encoded with one of the salted schemes are stored unchanged.
+     *
+     * @return The password encoding.
+     * @since 3.2.0
+     */
+    PasswordEncoding passwordEncoding() default PasswordEncoding.CLEAR;
+
+    /**
+     * Controls whether the operations received over LDAP are recorded. When enabled, tests can take a
+     * {@link DirectoryAccessLog} parameter, or call {@link DirectoryServerRule#getAccessLog()}, to inspect the
+     * records.
+     *
+     * @return The access log settings.
+     * @since 3.2.0
+     */
+    AccessLog accessLog() default @AccessLog;
+
+    /**
+     * The file to which the requests received over LDAP are appended, exactly as they were sent, or an empty string
+     * if they are not recorded. The recording can be loaded and replayed against another server with
+     * {@link DirectoryTraffic}.
+     *
+     * @return The path of the file.
+     * @since 3.2.0
+     */
+    String trafficFile() default "";
+
+    /**
+     * If {@code true}, the LDAP directory server notifies the await assertions of {@link DirectoryTester} as soon as
+     * it applies a write received over LDAP, so that they do not wait for their next periodic re-check. It is off by
+     * default because it adds an interceptor to every operation received over LDAP, including those of tests that
+     * never wait.
+     *
+     * @return {@code true} if waiting tests are woken by changes.
+     * @since 3.2.0
+     */
+    boolean awaitNotifications() default false;
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldif.LDIFException;
+
+import java.io.IOException;
+
+/**
+ * The system properties that attach tests to a directory server daemon that was started outside the test JVM, for
+ * example by the {@code start} goal of the {@code ldapunit-maven-plugin} in the {@code pre-integration-test} phase.
+ * When {@link #PORT_PROPERTY} is set, tests using {@link DirectoryServerExtension} or {@link DirectoryServerRule} with
+ * a configuration that opts in connect to the daemon instead of booting their own embedded LDAP directory server.
+ * The daemon is shared by every test JVM in the build so tests must leave its data as they found it.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @see DirectoryServerConfiguration#attach()
+ * @since 3.2.0
+ */
+public final class DirectoryServerDaemon {
+
+    /**
+     * The system property that holds the name of the host on which the daemon is listening. It defaults to
+     * {@code localhost}.
+     */
+    public static final String HOST_PROPERTY = "ldapunit.host";
+
+    /**
+     * The system property that holds the port on which the daemon is listening.
+     */
+    public static final String PORT_PROPERTY = "ldapunit.port";
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerDaemon() {
+    }
+
+    /**
+     * Create and configure the LDAP directory server for a daemon, load its fixtures and start it. The caller is
+     * responsible for publishing the port and shutting the server down.
+     *
+     * @param port              The TCP port that the LDAP directory server will listen on or zero to use any free
+     *                          port.
+     * @param baseDN            The DN that will be configured as the root of the LDAP directory.
+     * @param baseObjectClasses The object classes to use when creating the base DN.
+     * @param baseAttributes    The attributes to set on the base DN.
+     * @param authDN            The DN that will be configured as the administrator account identifier.
+     * @param authPassword      The password that will be configured as the authentication credentials for
+     *                          the administrator account.
+     * @param ldifFiles         The LDIF resources or files from which LDIF records will be loaded.
+     * @param schemaFiles       The resources or files from which to load custom schemas.
+     * @return The running LDAP directory server.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    public static InMemoryDirectoryServer startServer(final int port,
+                                                      final String baseDN,
+                                                      final String[] baseObjectClasses,
+                                                      final String[] baseAttributes,
+                                                      final String authDN,
+                                                      final String authPassword,
+                                                      final String[] ldifFiles,
+                                                      final String[] schemaFiles)
+            throws LDIFException, LDAPException, IOException {
+        return DirectoryServerUtils.startServer(port, baseDN, baseObjectClasses, baseAttributes, authDN,
+                authPassword, ldifFiles, schemaFiles);
+    }
+
+    /**
+     * Check if a daemon has been published to this JVM.
+     *
+     * @return {@code true} if {@link #PORT_PROPERTY} is set to a valid port. Otherwise, {@code false}.
+     */
+    public static boolean isRunning() {
+        return getPort() > 0;
+    }
+
+    /**
+     * Get the name of the host on which the daemon is listening.
+     *
+     * @return The host name.
+     */
+    public static String getHost() {
+        final String host = System.getProperty(HOST_PROPERTY);
+        return host == null || host.isBlank() ? "localhost" : host.trim();
+    }
+
+    /**
+     * Get the port on which the daemon is listening.
+     *
+     * @return The port or zero if {@link #PORT_PROPERTY} is not set or is not a valid port.
+     */
+    public static int getPort() {
+        final String port = System.getProperty(PORT_PROPERTY);
+        if (port == null) {
+            return 0;
+        }
+        try {
+            final int value = Integer.parseInt(port.trim());
+            return value > 0 && value <= 65535 ? value : 0;
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+}
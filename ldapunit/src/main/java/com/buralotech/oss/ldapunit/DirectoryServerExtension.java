@@ -0,0 +1,256 @@
+/*
+ * Copyright 2021-2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldif.LDIFException;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.io.IOException;
+
+/**
+ * JUnit 5 (Jupiter) extension that will start an embedded directory server before the test method execution and
+ * stop the embedded directory server when the test method completes.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 2.0.0
+ */
+public class DirectoryServerExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback,
+        ParameterResolver {
+
+    /**
+     * The name of the property used to cache the holder for the embedded directory server.
+     */
+    private static final String SERVER = "server";
+
+    /**
+     * The name of the property in the root context store used to shut down the shared servers when the test plan
+     * completes.
+     */
+    private static final String SHARED_SERVERS = "sharedServers";
+
+    /**
+     * The name of the namespace in the class context store used to drop the servers pre-warmed for the configurations
+     * used by the test class when the class completes.
+     */
+    private static final String PREWARMED = "prewarmed";
+
+    /**
+     * The name of the property in the class context store used to cache the class level server shared by test methods
+     * with a {@link DirectoryFixture}.
+     */
+    private static final String FIXTURE_BASE = "fixtureBase";
+
+    /**
+     * This callback is invoked before the test method is executed and is responsible for starting the embedded
+     * directory server. If {@link DirectoryServerConfiguration#lazy()} is set, the server is not started until a
+     * {@link DirectoryTester} parameter is resolved.
+     *
+     * @param extensionContext – the extension context for the Executable about to be invoked; never {@code null}.
+     */
+    @Override
+    public void beforeTestExecution(final ExtensionContext extensionContext) {
+        final DirectoryServerConfiguration annotation = getAnnotation(extensionContext);
+        if (annotation != null) {
+            final DirectoryServerHolder holder = createHolder(extensionContext, annotation);
+            getStore(extensionContext).put(SERVER, holder);
+            if (annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.NAMESPACE
+                    || annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.READ_ONLY) {
+                extensionContext.getRoot().getStore(Namespace.create(DirectoryServerExtension.class)).computeIfAbsent(
+                        SHARED_SERVERS,
+                        key -> (AutoCloseable) DirectoryServerRegistry::shutDownSharedServers,
+                        AutoCloseable.class);
+            }
+            if (annotation.prewarm()) {
+                extensionContext.getParent().orElse(extensionContext.getRoot())
+                        .getStore(Namespace.create(DirectoryServerExtension.class, PREWARMED))
+                        .computeIfAbsent(
+                                annotation,
+                                key -> (AutoCloseable) () -> DirectoryServerPrewarmer.drop(annotation),
+                                AutoCloseable.class);
+            }
+            if (!annotation.lazy()) {
+                try {
+                    holder.start();
+                } catch (final LDIFException | LDAPException | IOException e) {
+                    throw new AssertionError("Failed to launch embedded Directory Server", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * This callback is invoked after the test method is executed and is responsible for stopping the embedded
+     * directory server.
+     *
+     * @param extensionContext – the extension context for the Executable about to be invoked; never {@code null}.
+     */
+    @Override
+    public void afterTestExecution(final ExtensionContext extensionContext) {
+        final Store store = getStore(extensionContext);
+        final DirectoryServerHolder holder = store.get(SERVER, DirectoryServerHolder.class);
+        if (holder != null) {
+            holder.close();
+        }
+    }
+
+    /**
+     * Create the holder for the embedded directory server used by the test. If the test method has a
+     * {@link DirectoryFixture} and the configuration comes from the test class with the
+     * {@link DirectoryServerConfiguration.Lifecycle#PER_TEST} lifecycle, the fixture is applied to a class level
+     * server that is shared with the other test methods of the class and shut down when the class completes.
+     *
+     * @param extensionContext – the extension context for the Executable about to be invoked; never {@code null}.
+     * @param annotation       The directory server configuration.
+     * @return The holder.
+     */
+    private DirectoryServerHolder createHolder(final ExtensionContext extensionContext,
+                                               final DirectoryServerConfiguration annotation) {
+        final DirectoryFixture fixture = extensionContext.getRequiredTestMethod().getAnnotation(DirectoryFixture.class);
+        if (fixture == null) {
+            return new DirectoryServerHolder(annotation);
+        }
+        if (annotation.lifecycle() != DirectoryServerConfiguration.Lifecycle.PER_TEST
+                || annotation.nodes() > 1
+                || extensionContext.getRequiredTestMethod().isAnnotationPresent(DirectoryServerConfiguration.class)
+                || extensionContext.getParent().isEmpty()) {
+            return new DirectoryServerHolder(annotation, fixture, null);
+        }
+        final DirectoryFixtureBase base = extensionContext.getParent().get()
+                .getStore(Namespace.create(DirectoryServerExtension.class, extensionContext.getRequiredTestClass()))
+                .computeIfAbsent(FIXTURE_BASE, key -> new DirectoryFixtureBase(annotation), DirectoryFixtureBase.class);
+        return new DirectoryServerHolder(annotation, fixture, base);
+    }
+
+    /**
+     * Get teh context storage for the method invocation.
+     *
+     * @param extensionContext – the extension context for the Executable about to be invoked; never {@code null}.
+     * @return The context store.
+     */
+    private Store getStore(final ExtensionContext extensionContext) {
+        final Namespace namespace = Namespace.create(
+                DirectoryServerExtension.class,
+                extensionContext.getRequiredTestMethod());
+        return extensionContext.getStore(namespace);
+    }
+
+    /**
+     * Locate the annotation that specifies the configuration for the embedded directory server. The annotation is
+     * sought on the test method declaration before falling back to check the test class.
+     *
+     * @param extensionContext – the extension context for the Executable about to be invoked; never {@code null}.
+     * @return The {@code DirectoryServerConfiguration} annotation if found. Otherwise, {@code null}.
+     */
+    private DirectoryServerConfiguration getAnnotation(final ExtensionContext extensionContext) {
+        final DirectoryServerConfiguration annotation = extensionContext.getRequiredTestMethod()
+                .getAnnotation(DirectoryServerConfiguration.class);
+        if (annotation == null) {
+            return extensionContext.getRequiredTestClass().getAnnotation(DirectoryServerConfiguration.class);
+        } else {
+            return annotation;
+        }
+    }
+
+    /**
+     * Check the parameter type is {@link DirectoryTester}, {@link DirectoryTopology} or {@link DirectoryAccessLog}, or
+     * that it is an {@code int} annotated with {@link DirectoryServerPort}.
+     *
+     * @param parameterContext The context for the parameter for which an argument should be resolved;
+     *                         never {@code null}.
+     * @param extensionContext The extension context for the Executable about to be invoked; never {@code null}.
+     * @return {@code true} if the parameter type is {@link DirectoryTester}, {@link DirectoryTopology} or
+     * {@link DirectoryAccessLog}, or it is an {@code int} annotated with {@link DirectoryServerPort}. Otherwise,
+     * {@code false}.
+     */
+    @Override
+    public boolean supportsParameter(final ParameterContext parameterContext,
+                                     final ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        final Class<?> type = parameterContext.getParameter().getType();
+        return DirectoryTester.class.equals(type) || DirectoryTopology.class.equals(type)
+                || DirectoryAccessLog.class.equals(type)
+                || int.class.equals(type) && parameterContext.isAnnotated(DirectoryServerPort.class);
+    }
+
+    /**
+     * Resolve {@link DirectoryTester}, {@link DirectoryTopology}, {@link DirectoryAccessLog} and
+     * {@link DirectoryServerPort} parameters.
+     *
+     * @param parameterContext The context for the parameter for which an argument should be resolved;
+     *                         never {@code null}.
+     * @param extensionContext –The extension context for the Executable about to be invoked; never {@code null}.
+     * @return The resolved parameter.
+     * @throws ParameterResolutionException If a connection to the directory server could not be established.
+     */
+    @Override
+    public Object resolveParameter(final ParameterContext parameterContext,
+                                   final ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        final DirectoryServerHolder holder = getStore(extensionContext).get(SERVER, DirectoryServerHolder.class);
+        if (holder != null) {
+            if (DirectoryTopology.class.equals(parameterContext.getParameter().getType())) {
+                try {
+                    return holder.getTopology();
+                } catch (final LDIFException | LDAPException | IOException e) {
+                    throw new ParameterResolutionException("Failed to launch embedded Directory Server topology", e);
+                }
+            }
+            if (DirectoryAccessLog.class.equals(parameterContext.getParameter().getType())) {
+                try {
+                    return holder.getAccessLog();
+                } catch (final LDIFException | LDAPException | IOException e) {
+                    throw new ParameterResolutionException("Failed to get embedded Directory Server access log", e);
+                }
+            }
+            if (parameterContext.isAnnotated(DirectoryServerPort.class)) {
+                try {
+                    return holder.getPort();
+                } catch (final LDIFException | LDAPException | IOException e) {
+                    throw new ParameterResolutionException("Failed to launch embedded Directory Server", e);
+                }
+            }
+            if (holder.isAttached()) {
+                try {
+                    return new DirectoryTester(holder.getConnectionPool(), null);
+                } catch (final LDIFException | LDAPException | IOException e) {
+                    throw new ParameterResolutionException("Cannot connect to directory server daemon", e);
+                }
+            }
+            final InMemoryDirectoryServer server;
+            try {
+                server = holder.getServer();
+            } catch (final LDIFException | LDAPException | IOException e) {
+                throw new ParameterResolutionException("Failed to launch embedded Directory Server", e);
+            }
+            try {
+                return new DirectoryTester(server.getConnection(), holder.getNamespace(), ChangeNotifier.find(server));
+            } catch (final LDAPException e) {
+                throw new ParameterResolutionException("Cannot connect to directory server", e);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldif.LDIFAddChangeRecord;
+import com.unboundid.ldif.LDIFChangeRecord;
+import com.unboundid.ldif.LDIFModifyChangeRecord;
+
+/**
+ * The estimated heap footprint of the data loaded into an embedded LDAP directory server. The figures are collected
+ * while the base entry, generated data and LDIF records are loaded. The retained size is an estimate based on typical
+ * per-entry and per-value overheads of the in-memory directory server; it is intended for comparing fixtures and
+ * enforcing a memory budget, not for exact accounting.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class DirectoryServerFootprint {
+
+    /**
+     * The estimated overhead of an entry, including its DN, the parsed and normalized RDNs and the node in the entry
+     * map.
+     */
+    private static final long ENTRY_OVERHEAD = 512L;
+
+    /**
+     * The estimated overhead of an attribute value, excluding its bytes.
+     */
+    private static final long VALUE_OVERHEAD = 64L;
+
+    /**
+     * The number of entries.
+     */
+    private final long entryCount;
+
+    /**
+     * The number of attribute values.
+     */
+    private final long attributeValueCount;
+
+    /**
+     * The total size of the attribute values in bytes.
+     */
+    private final long attributeValueBytes;
+
+    /**
+     * Initialise the footprint.
+     *
+     * @param entryCount          The number of entries.
+     * @param attributeValueCount The number of attribute values.
+     * @param attributeValueBytes The total size of the attribute values in bytes.
+     */
+    DirectoryServerFootprint(final long entryCount,
+                             final long attributeValueCount,
+                             final long attributeValueBytes) {
+        this.entryCount = entryCount;
+        this.attributeValueCount = attributeValueCount;
+        this.attributeValueBytes = attributeValueBytes;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Get the number of attribute values.
+     *
+     * @return The number of attribute values.
+     */
+    public long getAttributeValueCount() {
+        return attributeValueCount;
+    }
+
+    /**
+     * Get the total size of the attribute values in bytes.
+     *
+     * @return The size of the attribute values.
+     */
+    public long getAttributeValueBytes() {
+        return attributeValueBytes;
+    }
+
+    /**
+     * Get the estimated number of bytes of heap retained by the entries. Attribute values are counted twice because
+     * the server keeps both the raw and the normalized form of most values.
+     *
+     * @return The estimated retained size.
+     */
+    public long getEstimatedRetainedBytes() {
+        return entryCount * ENTRY_OVERHEAD + attributeValueCount * VALUE_OVERHEAD + 2L * attributeValueBytes;
+    }
+
+    /**
+     * Describe the footprint.
+     *
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        return "DirectoryServerFootprint{entries=" + entryCount
+                + ", attributeValues=" + attributeValueCount
+                + ", attributeValueBytes=" + attributeValueBytes
+                + ", estimatedRetainedBytes=" + getEstimatedRetainedBytes() + "}";
+    }
+
+    /**
+     * Collects the footprint while data is being loaded. It is not thread-safe.
+     */
+    static final class Counter {
+
+        /**
+         * The number of entries.
+         */
+        private long entryCount;
+
+        /**
+         * The number of attribute values.
+         */
+        private long attributeValueCount;
+
+        /**
+         * The total size of the attribute values in bytes.
+         */
+        private long attributeValueBytes;
+
+        /**
+         * Count an entry that was added.
+         *
+         * @param entry The entry.
+         */
+        void add(final Entry entry) {
+            entryCount++;
+            for (final Attribute attribute : entry.getAttributes()) {
+                add(attribute.getValueByteArrays());
+            }
+        }
+
+        /**
+         * Count the entries added and the values added or replaced by an LDIF change record. The space freed by
+         * deletions is not subtracted, so the footprint is an upper bound when the LDIF deletes entries.
+         *
+         * @param changeRecord The LDIF change record.
+         */
+        void add(final LDIFChangeRecord changeRecord) {
+            if (changeRecord instanceof LDIFAddChangeRecord) {
+                add(((LDIFAddChangeRecord) changeRecord).getEntryToAdd());
+            } else if (changeRecord instanceof LDIFModifyChangeRecord) {
+                for (final Modification modification : ((LDIFModifyChangeRecord) changeRecord).getModifications()) {
+                    add(modification.getValueByteArrays());
+                }
+            }
+        }
+
+        /**
+         * Count attribute values.
+         *
+         * @param values The attribute values.
+         */
+        private void add(final byte[][] values) {
+            attributeValueCount += values.length;
+            for (final byte[] value : values) {
+                attributeValueBytes += value.length;
+            }
+        }
+
+        /**
+         * Get the footprint that has been collected.
+         *
+         * @return The footprint.
+         */
+        DirectoryServerFootprint toFootprint() {
+            return new DirectoryServerFootprint(entryCount, attributeValueCount, attributeValueBytes);
+        }
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.ExtendedResult;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPConnectionPool;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.StartTLSPostConnectProcessor;
+import com.unboundid.ldap.sdk.extensions.StartTLSExtendedRequest;
+import com.unboundid.ldif.LDIFException;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the embedded LDAP directory server for a single test. The server is started when it is first requested,
+ * which allows tests that never use the server to skip starting it when
+ * {@link DirectoryServerConfiguration#lazy()} is set. When the test is attached to a directory server daemon, no
+ * server is started and the connection pool connects to the daemon instead.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryServerHolder implements AutoCloseable {
+
+    /**
+     * The maximum number of connections kept in the connection pool.
+     */
+    private static final int MAX_POOLED_CONNECTIONS = 8;
+
+    /**
+     * Deletes the namespaces of completed tests from shared servers.
+     */
+    private static final ExecutorService CLEANER = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "ldapunit-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The annotation that defines the directory server configuration.
+     */
+    private final DirectoryServerConfiguration annotation;
+
+    /**
+     * The fixture applied on top of the configuration or {@code null} if there is none.
+     */
+    private final DirectoryFixture fixture;
+
+    /**
+     * The class level server to which the fixture is applied or {@code null} if the fixture is applied to a server
+     * created for the test.
+     */
+    private final DirectoryFixtureBase base;
+
+    /**
+     * {@code true} if the test connects to a directory server daemon instead of starting its own server.
+     */
+    private final boolean attached;
+
+    /**
+     * The embedded LDAP directory server or {@code null} if it has not been started.
+     */
+    private InMemoryDirectoryServer server;
+
+    /**
+     * The nodes started for the test or {@code null} if {@link DirectoryServerConfiguration#nodes()} is one or they
+     * have not been started.
+     */
+    private DirectoryTopology topology;
+
+    /**
+     * The namespace that holds the data for the test on a shared server or {@code null} if the server is not shared.
+     */
+    private DirectoryNamespace namespace;
+
+    /**
+     * The pool of connections to the embedded LDAP directory server or {@code null} if it has not been created.
+     */
+    private LDAPConnectionPool connectionPool;
+
+    /**
+     * Initialise the holder.
+     *
+     * @param annotation The directory server configuration.
+     */
+    DirectoryServerHolder(final DirectoryServerConfiguration annotation) {
+        this(annotation, null, null);
+    }
+
+    /**
+     * Initialise the holder for a test with a fixture.
+     *
+     * @param annotation The directory server configuration.
+     * @param fixture    The fixture or {@code null} if there is none.
+     * @param base       The class level server to which the fixture is applied or {@code null} if the fixture is
+     *                   applied to a server created for the test.
+     */
+    DirectoryServerHolder(final DirectoryServerConfiguration annotation,
+                          final DirectoryFixture fixture,
+                          final DirectoryFixtureBase base) {
+        this.annotation = annotation;
+        this.fixture = fixture;
+        this.base = base;
+        this.attached = annotation.attach() && DirectoryServerDaemon.isRunning();
+    }
+
+    /**
+     * Get the directory server configuration.
+     *
+     * @return The directory server configuration.
+     */
+    DirectoryServerConfiguration getAnnotation() {
+        return annotation;
+    }
+
+    /**
+     * Check if the test connects to a directory server daemon instead of starting its own server.
+     *
+     * @return {@code true} if the test is attached to a daemon. Otherwise, {@code false}.
+     */
+    boolean isAttached() {
+        return attached;
+    }
+
+    /**
+     * Start the embedded LDAP directory server or, if the test is attached to a directory server daemon, connect to
+     * the daemon.
+     *
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem starting or connecting to the LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    synchronized void start()
+            throws LDIFException, LDAPException, IOException {
+        if (attached) {
+            getConnectionPool();
+        } else {
+            getServer();
+        }
+    }
+
+    /**
+     * Get the embedded LDAP directory server, starting it if this is the first request. With the
+     * {@link DirectoryServerConfiguration.Lifecycle#NAMESPACE} lifecycle, the shared server is returned after the
+     * test data has been loaded into a new namespace. With the {@link DirectoryServerConfiguration.Lifecycle#READ_ONLY}
+     * lifecycle, the shared read-only server is returned. With the {@link DirectoryServerConfiguration.Lifecycle#FORK}
+     * lifecycle, the server is forked from a shared template.
+     * Otherwise, if {@link DirectoryServerConfiguration#prewarm()} is set, a pre-warmed server is used when one is
+     * available and the server for the next test with the same configuration is pre-warmed in the background.
+     * If there is a fixture, it is applied to the class level server, when there is one, or to the server created
+     * for the test. If {@link DirectoryServerConfiguration#nodes()} is more than one, a topology is started and its
+     * first node is returned.
+     *
+     * @return The embedded LDAP directory server.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server or the
+     *                       test is attached to a directory server daemon.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    synchronized InMemoryDirectoryServer getServer()
+            throws LDIFException, LDAPException, IOException {
+        if (attached) {
+            throw new LDAPException(ResultCode.UNWILLING_TO_PERFORM,
+                    "Attached to the directory server daemon at " + DirectoryServerDaemon.getHost() + ":"
+                            + DirectoryServerDaemon.getPort());
+        }
+        if (server == null) {
+            if (base != null) {
+                server = base.acquire(fixture);
+                return server;
+            }
+            if (fixture != null && annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.READ_ONLY) {
+                throw new LDAPException(ResultCode.UNWILLING_TO_PERFORM,
+                        "Fixtures cannot be applied to a read-only directory server");
+            }
+            if (annotation.nodes() > 1) {
+                topology = DirectoryTopology.start(annotation, fixture);
+                server = topology.getServer(0);
+                return server;
+            }
+            if (annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.NAMESPACE) {
+                final InMemoryDirectoryServer shared = DirectoryServerRegistry.getSharedServer(annotation);
+                final DirectoryNamespace created = new DirectoryNamespace(annotation.baseDN());
+                try {
+                    DirectoryServerUtils.populateNamespace(shared, annotation, created);
+                } catch (final LDIFException | LDAPException | IOException | RuntimeException e) {
+                    deleteNamespace(shared, created);
+                    throw e;
+                }
+                namespace = created;
+                server = shared;
+            } else if (annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.READ_ONLY) {
+                server = DirectoryServerRegistry.getSharedServer(annotation);
+            } else if (annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.FORK) {
+                final InMemoryDirectoryServer fork = DirectoryServerUtils.forkServer(
+                        DirectoryServerRegistry.getTemplate(annotation),
+                        annotation.port());
+                server = listen(fork);
+            } else if (annotation.prewarm()) {
+                final InMemoryDirectoryServer prewarmed = DirectoryServerPrewarmer.take(annotation);
+                final InMemoryDirectoryServer created = prewarmed == null
+                        ? DirectoryServerUtils.createServer(annotation)
+                        : prewarmed;
+                server = listen(created);
+                DirectoryServerPrewarmer.prewarm(annotation);
+            } else {
+                server = DirectoryServerUtils.startServer(annotation);
+            }
+            if (fixture != null) {
+                DirectoryServerUtils.applyFixture(server, fixture, namespace);
+            }
+        }
+        return server;
+    }
+
+    /**
+     * Start a server that was created for the test listening for connections. If it cannot start listening, it is
+     * stopped so that it no longer counts against the memory budget.
+     *
+     * @param created The server.
+     * @return The server.
+     * @throws LDAPException If the server could not start listening.
+     */
+    private static InMemoryDirectoryServer listen(final InMemoryDirectoryServer created)
+            throws LDAPException {
+        try {
+            DirectoryServerUtils.startListening(created);
+        } catch (final LDAPException | RuntimeException e) {
+            DirectoryServerUtils.stopServer(created);
+            throw e;
+        }
+        return created;
+    }
+
+    /**
+     * Get the port on which the embedded LDAP directory server listens, starting the server if this is the first
+     * request. With a topology, the port of the first node is returned. If the test is attached to a directory server
+     * daemon, the port of the daemon is returned.
+     *
+     * @return The port.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    synchronized int getPort()
+            throws LDIFException, LDAPException, IOException {
+        return attached ? DirectoryServerDaemon.getPort() : getServer().getListenPort();
+    }
+
+    /**
+     * Get the nodes started for the test, starting them if this is the first request.
+     *
+     * @return The topology.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the nodes or
+     *                       {@link DirectoryServerConfiguration#nodes()} is one.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    synchronized DirectoryTopology getTopology()
+            throws LDIFException, LDAPException, IOException {
+        if (annotation.nodes() <= 1) {
+            throw new LDAPException(ResultCode.UNWILLING_TO_PERFORM,
+                    "A topology requires the configuration to have more than one node");
+        }
+        getServer();
+        return topology;
+    }
+
+    /**
+     * Get the access log of the embedded LDAP directory server, starting the server if this is the first request.
+     * Servers shared by tests with the {@link DirectoryServerConfiguration.Lifecycle#NAMESPACE} or
+     * {@link DirectoryServerConfiguration.Lifecycle#READ_ONLY} lifecycle share their access log. With a topology, the
+     * access log of the first node is returned.
+     *
+     * @return The access log.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server, the
+     *                       test is attached to a directory server daemon or the access log is not enabled.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    synchronized DirectoryAccessLog getAccessLog()
+            throws LDIFException, LDAPException, IOException {
+        final DirectoryAccessLog accessLog = DirectoryAccessLog.find(getServer());
+        if (accessLog == null) {
+            throw new LDAPException(ResultCode.UNWILLING_TO_PERFORM,
+                    "The access log is not enabled for the embedded Directory Server");
+        }
+        return accessLog;
+    }
+
+    /**
+     * Get a pool of connections to the embedded LDAP directory server, or to the directory server daemon if the test
+     * is attached to one, that are bound using the {@link DirectoryServerConfiguration#authDN()} and
+     * {@link DirectoryServerConfiguration#authPassword()}. The server is started first if this is the first request.
+     * The pool is closed with the holder.
+     *
+     * @return The connection pool.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem starting or connecting to the LDAP directory server or a fixture
+     *                       was to be applied to a directory server daemon.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    synchronized LDAPConnectionPool getConnectionPool()
+            throws LDIFException, LDAPException, IOException {
+        if (connectionPool == null) {
+            final LDAPConnection connection;
+            if (attached) {
+                if (fixture != null) {
+                    throw new LDAPException(ResultCode.UNWILLING_TO_PERFORM,
+                            "Fixtures cannot be applied to a directory server daemon");
+                }
+                connection = new LDAPConnection(DirectoryServerDaemon.getHost(), DirectoryServerDaemon.getPort(),
+                        annotation.authDN(), annotation.authPassword());
+            } else {
+                connection = connect(getServer().getListenPort());
+            }
+            if (annotation.security() == DirectoryServerConfiguration.Security.START_TLS && !attached) {
+                connectionPool = new LDAPConnectionPool(connection, 1, MAX_POOLED_CONNECTIONS,
+                        new StartTLSPostConnectProcessor(DirectoryServerTls.getClientContext()));
+            } else {
+                connectionPool = new LDAPConnectionPool(connection, 1, MAX_POOLED_CONNECTIONS);
+            }
+        }
+        return connectionPool;
+    }
+
+    /**
+     * Open a connection to the embedded LDAP directory server that is protected as specified by
+     * {@link DirectoryServerConfiguration#security()} and bound using the {@link DirectoryServerConfiguration#authDN()}
+     * and {@link DirectoryServerConfiguration#authPassword()}.
+     *
+     * @param port The port the server is listening on.
+     * @return The connection.
+     * @throws LDAPException If there was a problem connecting, negotiating TLS or binding.
+     */
+    private LDAPConnection connect(final int port)
+            throws LDAPException {
+        switch (annotation.security()) {
+            case LDAPS:
+                return new LDAPConnection(DirectoryServerTls.getClientSocketFactory(), "localhost", port,
+                        annotation.authDN(), annotation.authPassword());
+            case START_TLS:
+                final LDAPConnection connection = new LDAPConnection("localhost", port);
+                try {
+                    final ExtendedResult result = connection.processExtendedOperation(
+                            new StartTLSExtendedRequest(DirectoryServerTls.getClientContext()));
+                    if (result.getResultCode() != ResultCode.SUCCESS) {
+                        throw new LDAPException(result);
+                    }
+                    connection.bind(annotation.authDN(), annotation.authPassword());
+                } catch (final LDAPException e) {
+                    connection.close();
+                    throw e;
+                }
+                return connection;
+            default:
+                return new LDAPConnection("localhost", port, annotation.authDN(), annotation.authPassword());
+        }
+    }
+
+    /**
+     * Check if the embedded LDAP directory server has been started.
+     *
+     * @return {@code true} if the server has been started. Otherwise, {@code false}.
+     */
+    synchronized boolean isStarted() {
+        return server != null;
+    }
+
+    /**
+     * Get the namespace that holds the data for the test on a shared server.
+     *
+     * @return The namespace or {@code null} if the server is not shared or has not been started.
+     */
+    synchronized DirectoryNamespace getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Close the connection pool and shutdown the embedded LDAP directory server, or every node of the topology, if it
+     * was started. Shared servers are left running but the namespace that holds the data for the test, if any, is
+     * deleted in the background. The class level server used with a fixture is released so that its data is rolled
+     * back.
+     */
+    @Override
+    public synchronized void close() {
+        if (connectionPool != null) {
+            connectionPool.close();
+            connectionPool = null;
+        }
+        if (topology != null) {
+            topology.close();
+            topology = null;
+            server = null;
+        }
+        if (server != null) {
+            if (base != null) {
+                base.release();
+            } else if (namespace != null) {
+                deleteNamespace(server, namespace);
+                namespace = null;
+            } else if (annotation.lifecycle() != DirectoryServerConfiguration.Lifecycle.READ_ONLY) {
+                DirectoryServerUtils.stopServer(server);
+            }
+            server = null;
+        }
+    }
+
+    /**
+     * Delete the subtree for a namespace from a shared server in the background.
+     *
+     * @param shared    The shared server.
+     * @param namespace The namespace.
+     */
+    private static void deleteNamespace(final InMemoryDirectoryServer shared,
+                                        final DirectoryNamespace namespace) {
+        CLEANER.execute(() -> {
+            try {
+                shared.deleteSubtree(namespace.getDN());
+            } catch (final LDAPException e) {
+                // The server has been shut down
+            }
+        });
+    }
+}
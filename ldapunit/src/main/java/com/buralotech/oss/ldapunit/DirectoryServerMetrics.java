@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics describing how the embedded LDAP directory servers used by tests in this JVM were built. Server builds are
+ * admitted by a JVM-wide scheduler that limits the number of builds running at the same time to the value of the
+ * {@code ldapunit.maxConcurrentBuilds} system property, which defaults to the number of available processors. Tests
+ * that request a server with the same configuration as a build that is already in progress share that build.
+ * <p>
+ * The estimated heap footprint of each server is collected while its data is loaded. If the
+ * {@code ldapunit.memoryBudget} system property is set, pre-warmed servers and fork templates are evicted, and new
+ * servers are refused, rather than letting the total estimated footprint of the live servers exceed the budget.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class DirectoryServerMetrics {
+
+    /**
+     * The number of servers built.
+     */
+    private static final LongAdder BUILDS = new LongAdder();
+
+    /**
+     * The number of servers copied from a build that was already in progress.
+     */
+    private static final LongAdder SHARED_BUILDS = new LongAdder();
+
+    /**
+     * The total time, in nanoseconds, that builds waited to be admitted.
+     */
+    private static final LongAdder QUEUE_WAIT = new LongAdder();
+
+    /**
+     * The longest time, in nanoseconds, that a build waited to be admitted.
+     */
+    private static final LongAccumulator MAX_QUEUE_WAIT = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * The number of builds waiting to be admitted.
+     */
+    private static final AtomicLong QUEUED = new AtomicLong();
+
+    /**
+     * The number of servers evicted to stay within the memory budget.
+     */
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    /**
+     * The number of servers refused because they would exceed the memory budget.
+     */
+    private static final LongAdder REFUSALS = new LongAdder();
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerMetrics() {
+    }
+
+    /**
+     * Get the number of servers that have been built.
+     *
+     * @return The number of builds.
+     */
+    public static long getBuildCount() {
+        return BUILDS.sum();
+    }
+
+    /**
+     * Get the number of servers that were copied from a build with the same configuration that was already in
+     * progress instead of being built.
+     *
+     * @return The number of shared builds.
+     */
+    public static long getSharedBuildCount() {
+        return SHARED_BUILDS.sum();
+    }
+
+    /**
+     * Get the total time that builds have waited to be admitted.
+     *
+     * @return The total queue wait time.
+     */
+    public static Duration getTotalQueueWaitTime() {
+        return Duration.ofNanos(QUEUE_WAIT.sum());
+    }
+
+    /**
+     * Get the longest time that a build has waited to be admitted.
+     *
+     * @return The maximum queue wait time.
+     */
+    public static Duration getMaxQueueWaitTime() {
+        return Duration.ofNanos(MAX_QUEUE_WAIT.get());
+    }
+
+    /**
+     * Get the number of builds that are currently waiting to be admitted.
+     *
+     * @return The number of queued builds.
+     */
+    public static long getQueuedBuildCount() {
+        return QUEUED.get();
+    }
+
+    /**
+     * Get the memory budget set by the {@code ldapunit.memoryBudget} system property.
+     *
+     * @return The memory budget in bytes or zero if there is no budget.
+     */
+    public static long getMemoryBudget() {
+        return DirectoryServerBudget.getBudget();
+    }
+
+    /**
+     * Get the total estimated heap footprint of the servers that are alive and counted against the memory budget.
+     *
+     * @return The estimated retained size in bytes.
+     */
+    public static long getEstimatedRetainedBytes() {
+        return DirectoryServerBudget.getUsedBytes();
+    }
+
+    /**
+     * Get the number of servers that are alive and counted against the memory budget.
+     *
+     * @return The number of servers.
+     */
+    public static int getAccountedServerCount() {
+        return DirectoryServerBudget.getAccountedServerCount();
+    }
+
+    /**
+     * Get the number of servers that were evicted to stay within the memory budget.
+     *
+     * @return The number of evictions.
+     */
+    public static long getEvictionCount() {
+        return EVICTIONS.sum();
+    }
+
+    /**
+     * Get the number of servers that were refused because they would exceed the memory budget.
+     *
+     * @return The number of refusals.
+     */
+    public static long getRefusedServerCount() {
+        return REFUSALS.sum();
+    }
+
+    /**
+     * Get the number of access log records and recorded requests that were not appended to their files because the
+     * background writer had fallen too far behind.
+     *
+     * @return The number of dropped records.
+     */
+    public static long getDroppedRecordCount() {
+        return BackgroundFileWriter.getDroppedCount();
+    }
+
+    /**
+     * Get the footprint of the data loaded for a configuration.
+     *
+     * @param annotation The configuration.
+     * @return The footprint or {@code null} if no server has been loaded for the configuration.
+     */
+    public static DirectoryServerFootprint getFootprint(final DirectoryServerConfiguration annotation) {
+        return DirectoryServerBudget.getKnown(annotation);
+    }
+
+    /**
+     * Get the footprints of the data loaded for all the configurations used so far.
+     *
+     * @return The footprints keyed by configuration.
+     */
+    public static Map<DirectoryServerConfiguration, DirectoryServerFootprint> getFootprints() {
+        return DirectoryServerBudget.getKnown();
+    }
+
+    /**
+     * Record that a server was evicted to stay within the memory budget.
+     */
+    static void serverEvicted() {
+        EVICTIONS.increment();
+    }
+
+    /**
+     * Record that a server was refused because it would exceed the memory budget.
+     */
+    static void serverRefused() {
+        REFUSALS.increment();
+    }
+
+    /**
+     * Record that a build has started waiting to be admitted.
+     */
+    static void buildQueued() {
+        QUEUED.incrementAndGet();
+    }
+
+    /**
+     * Record that a build has been admitted.
+     *
+     * @param waitNanos The time, in nanoseconds, that the build waited.
+     */
+    static void buildAdmitted(final long waitNanos) {
+        QUEUED.decrementAndGet();
+        BUILDS.increment();
+        QUEUE_WAIT.add(waitNanos);
+        MAX_QUEUE_WAIT.accumulate(waitNanos);
+    }
+
+    /**
+     * Record that a build was abandoned while waiting to be admitted.
+     */
+    static void buildAbandoned() {
+        QUEUED.decrementAndGet();
+    }
+
+    /**
+     * Record that a server was copied from a build that was already in progress.
+     */
+    static void buildShared() {
+        SHARED_BUILDS.increment();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds embedded LDAP directory servers on a background thread so that the next test with the same configuration
+ * can pick up a server that has already loaded its schema and data. Pre-warmed servers are not listening, so they do
+ * not conflict with the server used by the current test. At most one server is pre-warmed for each configuration and
+ * at most {@link #MAX_PENDING} configurations are pre-warmed at a time. The pre-warmed server for a configuration is
+ * dropped by {@link #drop(DirectoryServerConfiguration)} when the tests that use it have finished.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryServerPrewarmer {
+
+    /**
+     * The maximum number of configurations with a server that is being, or has been, built.
+     */
+    static final int MAX_PENDING = 4;
+
+    /**
+     * The executor that builds the servers. It uses a single daemon thread so that pre-warming never competes with
+     * more than one core and never prevents the JVM from exiting.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "ldapunit-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The servers that are being, or have been, built keyed by their configuration.
+     */
+    private static final Map<DirectoryServerConfiguration, Future<InMemoryDirectoryServer>> PENDING =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerPrewarmer() {
+    }
+
+    /**
+     * Start building a server for the configuration in the background unless one is already pending or
+     * {@link #MAX_PENDING} other configurations already have a pending server.
+     *
+     * @param annotation The configuration.
+     */
+    static void prewarm(final DirectoryServerConfiguration annotation) {
+        if (PENDING.size() < MAX_PENDING) {
+            PENDING.computeIfAbsent(annotation, key -> EXECUTOR.submit(() -> DirectoryServerUtils.createServer(key)));
+        }
+    }
+
+    /**
+     * Discard the server pre-warmed for the configuration, if any, so that it no longer counts against the memory
+     * budget. A build that has not started is cancelled. A build that is in progress is released once it completes,
+     * which happens before the executor runs anything else because it only has one thread.
+     *
+     * @param annotation The configuration.
+     */
+    static void drop(final DirectoryServerConfiguration annotation) {
+        final Future<InMemoryDirectoryServer> future = PENDING.remove(annotation);
+        if (future != null && !future.cancel(false)) {
+            EXECUTOR.execute(() -> {
+                try {
+                    DirectoryServerBudget.release(future.get());
+                } catch (final ExecutionException | InterruptedException e) {
+                    // The build failed so there is nothing to release
+                }
+            });
+        }
+    }
+
+    /**
+     * Discard the pre-warmed servers that have finished building so that they no longer count against the memory
+     * budget. Builds that are still in progress are left alone.
+     */
+    static void evict() {
+        for (final Map.Entry<DirectoryServerConfiguration, Future<InMemoryDirectoryServer>> entry
+                : PENDING.entrySet()) {
+            final Future<InMemoryDirectoryServer> future = entry.getValue();
+            if (future.isDone() && PENDING.remove(entry.getKey(), future)) {
+                try {
+                    DirectoryServerBudget.release(future.get());
+                    DirectoryServerMetrics.serverEvicted();
+                } catch (final ExecutionException | InterruptedException e) {
+                    // The build failed so there is nothing to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Take the pre-warmed server for the configuration, waiting for it to finish building if necessary.
+     *
+     * @param annotation The configuration.
+     * @return The server, which has not been started, or {@code null} if no server was pre-warmed or the build
+     *         failed. The caller should build the server itself in that case so that any error is reported.
+     */
+    static InMemoryDirectoryServer take(final DirectoryServerConfiguration annotation) {
+        final Future<InMemoryDirectoryServer> future = PENDING.remove(annotation);
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuts down embedded LDAP directory servers on a background thread so that tearing down the server for one test
+ * does not delay setting up the server for the next. A server that is about to listen on a fixed port first waits
+ * for any pending shutdown of a server on the same port. The number of pending shutdowns is bounded; when the limit
+ * is reached, the server is shut down on the calling thread instead.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryServerReaper {
+
+    /**
+     * The maximum number of shutdowns that can be queued.
+     */
+    private static final int MAX_PENDING_SHUTDOWNS = 4;
+
+    /**
+     * The executor that shuts the servers down. It uses a single daemon thread so that teardown never competes with
+     * more than one core and never prevents the JVM from exiting.
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_SHUTDOWNS),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "ldapunit-teardown");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    /**
+     * The most recent shutdowns keyed by the fixed ports that the servers were listening on.
+     */
+    private static final Map<Integer, Future<?>> PENDING = new ConcurrentHashMap<>();
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerReaper() {
+    }
+
+    /**
+     * Shut down a server in the background.
+     *
+     * @param server The embedded LDAP directory server.
+     */
+    static void stop(final InMemoryDirectoryServer server) {
+        final FutureTask<Void> task = new FutureTask<>(() -> server.shutDown(true), null);
+        for (final InMemoryListenerConfig listenerConfig : server.getConfig().getListenerConfigs()) {
+            if (listenerConfig.getListenPort() != 0) {
+                PENDING.put(listenerConfig.getListenPort(), task);
+            }
+        }
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Wait for any pending shutdown of a server listening on a fixed port to complete.
+     *
+     * @param port The port.
+     */
+    static void awaitPort(final int port) {
+        final Future<?> pending = PENDING.get(port);
+        if (pending != null) {
+            try {
+                pending.get();
+            } catch (final ExecutionException e) {
+                // The server failed to shut down cleanly but its listener is closed
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            PENDING.remove(port, pending);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldif.LDIFException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Holds the embedded LDAP directory servers that are shared by tests. These are the template servers from which the
+ * servers for tests using the {@link DirectoryServerConfiguration.Lifecycle#FORK} lifecycle are forked and the
+ * running servers that are shared by tests using the {@link DirectoryServerConfiguration.Lifecycle#NAMESPACE} or
+ * {@link DirectoryServerConfiguration.Lifecycle#READ_ONLY} lifecycle. Each server is built once even if several
+ * tests request it at the same time. Templates are never started and are kept until the JVM exits or they are
+ * evicted to stay within the memory budget. Shared servers are shut down by {@link #shutDownSharedServers()}.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryServerRegistry {
+
+    /**
+     * The templates keyed by their configuration.
+     */
+    private static final Map<DirectoryServerConfiguration, FutureTask<InMemoryDirectoryServer>> TEMPLATES =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The shared servers keyed by their configuration.
+     */
+    private static final Map<DirectoryServerConfiguration, FutureTask<InMemoryDirectoryServer>> SHARED =
+            new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                DirectoryServerRegistry::shutDownSharedServers,
+                "ldapunit-shutdown"));
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerRegistry() {
+    }
+
+    /**
+     * Get the template for a configuration, building it if this is the first request.
+     *
+     * @param annotation The configuration.
+     * @return The template.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer getTemplate(final DirectoryServerConfiguration annotation)
+            throws LDIFException, LDAPException, IOException {
+        return get(TEMPLATES, annotation, () -> DirectoryServerUtils.createServer(annotation));
+    }
+
+    /**
+     * Get the running shared server for a configuration, creating and starting it if this is the first request.
+     *
+     * @param annotation The configuration.
+     * @return The shared server.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer getSharedServer(final DirectoryServerConfiguration annotation)
+            throws LDIFException, LDAPException, IOException {
+        return get(SHARED, annotation, () -> DirectoryServerUtils.startSharedServer(annotation));
+    }
+
+    /**
+     * Shut down all the shared servers.
+     */
+    static void shutDownSharedServers() {
+        for (final FutureTask<InMemoryDirectoryServer> task : SHARED.values()) {
+            SHARED.values().remove(task);
+            if (task.isDone()) {
+                try {
+                    DirectoryServerUtils.stopServer(task.get());
+                } catch (final ExecutionException | InterruptedException e) {
+                    // The server was never started
+                }
+            }
+        }
+    }
+
+    /**
+     * Discard the templates that have finished building so that they no longer count against the memory budget.
+     * Forks that have already been created keep the entries they share with their template. A discarded template is
+     * rebuilt when it is next requested.
+     */
+    static void evictTemplates() {
+        for (final Map.Entry<DirectoryServerConfiguration, FutureTask<InMemoryDirectoryServer>> entry
+                : TEMPLATES.entrySet()) {
+            final FutureTask<InMemoryDirectoryServer> task = entry.getValue();
+            if (task.isDone() && TEMPLATES.remove(entry.getKey(), task)) {
+                try {
+                    DirectoryServerBudget.release(task.get());
+                    DirectoryServerMetrics.serverEvicted();
+                } catch (final ExecutionException | InterruptedException e) {
+                    // The build failed so there is nothing to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a server from a registry, building it if this is the first request. If the build fails, the failure is
+     * not remembered so that the next request tries again.
+     *
+     * @param registry   The registry.
+     * @param annotation The configuration.
+     * @param factory    Builds the server.
+     * @return The server.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    private static InMemoryDirectoryServer get(
+            final Map<DirectoryServerConfiguration, FutureTask<InMemoryDirectoryServer>> registry,
+            final DirectoryServerConfiguration annotation,
+            final Callable<InMemoryDirectoryServer> factory)
+            throws LDIFException, LDAPException, IOException {
+        final FutureTask<InMemoryDirectoryServer> task = new FutureTask<>(factory);
+        FutureTask<InMemoryDirectoryServer> existing = registry.putIfAbsent(annotation, task);
+        if (existing == null) {
+            existing = task;
+            task.run();
+        }
+        try {
+            return DirectoryServerUtils.await(existing);
+        } catch (final LDIFException | LDAPException | IOException | RuntimeException | Error e) {
+            if (existing.isDone()) {
+                registry.remove(annotation, existing);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2013-2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldif.LDIFException;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * A JUnit test rule that starts an embedded LDAP directory server. The configuration for the directory server
+ * is obtained from the {@link DirectoryServerConfiguration} annotation applied to either the test method or the test
+ * class. The rule can be used as a {@link org.junit.Rule} to start a server for each test or as a
+ * {@link org.junit.ClassRule} to start one server that is shared by all the tests of the class. It is safe to use
+ * when tests are run in parallel.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 1.0.0
+ */
+public final class DirectoryServerRule implements TestRule {
+
+    /**
+     * Holds the in-memory LDAP directory server for the test executing on the current thread. The holder is inherited
+     * by threads started by the test.
+     * @since 3.2.0
+     */
+    private final ThreadLocal<DirectoryServerHolder> testHolder = new InheritableThreadLocal<>();
+
+    /**
+     * Holds the in-memory LDAP directory server shared by all the tests of the class when the rule is used as a
+     * {@link org.junit.ClassRule} or {@code null} if there is none.
+     * @since 3.2.0
+     */
+    private volatile DirectoryServerHolder classHolder;
+
+    /**
+     * Modifies the method-running {@link Statement} to implement this test-running rule. The configuration for
+     * the embedded LDAP directory server is obtained from the {@link DirectoryServerConfiguration} annotation that was
+     * applied to either the test class or test method. The records of a {@link DirectoryFixture} annotation on the
+     * test method are applied on top of that configuration.
+     * <p>
+     * When the rule is used as a {@link org.junit.ClassRule}, one server is started for the test class using the
+     * configuration applied to the test class and is shared by all of its tests. If the same rule is also used as a
+     * {@link org.junit.Rule}, only the tests with their own {@link DirectoryServerConfiguration} get a server of their
+     * own. The state for each test is held per thread, so tests can be run in parallel.
+     *
+     * @param base        The {@link Statement} to be modified
+     * @param description A {@link Description} of the test implemented in {@code base}
+     * @return If no configuration was found then {@code base} is returned. Otherwise, a new
+     *         {@link DirectoryServerStatement} that wraps {@code base} is returned.
+     */
+    public Statement apply(final Statement base, final Description description) {
+        if (!description.isTest()) {
+            final Class<?> testClass = description.getTestClass();
+            final DirectoryServerConfiguration annotation = testClass == null
+                    ? null
+                    : testClass.getAnnotation(DirectoryServerConfiguration.class);
+            if (annotation != null) {
+                return new DirectoryServerStatement(base, new DirectoryServerHolder(annotation),
+                        holder -> classHolder = holder);
+            }
+            return base;
+        }
+        DirectoryServerConfiguration annotation = description.getAnnotation(DirectoryServerConfiguration.class);
+        if (annotation == null && classHolder == null) {
+            final Class<?> testClass = description.getTestClass();
+            annotation = testClass.getAnnotation(DirectoryServerConfiguration.class);
+        }
+        if (annotation != null) {
+            final DirectoryServerHolder holder = new DirectoryServerHolder(annotation,
+                    description.getAnnotation(DirectoryFixture.class), null);
+            return new DirectoryServerStatement(base, holder, this::bindTestHolder);
+        }
+        return base;
+    }
+
+    /**
+     * Verify that an entry identified by {@code dn} exists.
+     *
+     * @param dn The distinguished name.
+     * @return {@code true} if an entry identified by {@code dn} exists. Otherwise, {@code false} is returned.
+     * @since 1.0.2
+     */
+    public boolean verifyDNExists(final String dn) {
+        return getDirectoryTester().verifyDNExists(dn);
+    }
+
+    /**
+     * Verify that the entry identified by {@code dn} is of type {@code objectclass}.
+     *
+     * @param dn          The distinguished name.
+     * @param objectclass The type name.
+     * @return {@code true} if an entry identified by {@code dn} exists and has attribute named {@code objectclass}.
+     *         Otherwise, {@code false} is returned.
+     * @since 1.0.2
+     */
+    public boolean verifyDNIsA(final String dn,
+                               final String objectclass) {
+        return getDirectoryTester().verifyDNIsA(dn, objectclass);
+    }
+
+    /**
+     * Verify that the entry identified by {@code dn} has an attribute named {@code attributeName}.
+     *
+     * @param dn            The distinguished name.
+     * @param attributeName The attribute name.
+     * @return {@code true} if an entry identified by {@code dn} exists and has an attributed named
+     *         {@code attributeName}. Otherwise, {@code false} is returned.
+     * @since 1.0.2
+     */
+    public boolean verifyDNHasAttribute(final String dn,
+                                        final String attributeName) {
+        return getDirectoryTester().verifyDNHasAttribute(dn, attributeName);
+    }
+
+    /**
+     * Verify that the entry identified by {@code dn} has an attribute named {@code attributeName} with
+     * the attribute value(s) {@code attributeName}.
+     *
+     * @param dn             The distinguished name.
+     * @param attributeName  The attribute name.
+     * @param attributeValue The attribute value(s).
+     * @return {@code true} if an antry identified by {@code dn} exists with an an attribute named {@code attributeName}
+     *         that has value(s) {@code attributeValue}. Otherwise, {@code false} is returned.
+     * @since 1.0.2
+     */
+    public boolean verifyDNHasAttributeValue(final String dn,
+                                             final String attributeName,
+                                             final String... attributeValue) {
+        return getDirectoryTester().verifyDNHasAttributeValue(dn, attributeName, attributeValue);
+    }
+
+    /**
+     * Assert that an entry identified by {@code dn} exists.
+     *
+     * @param dn The distinguished name.
+     * @since 1.0.2
+     */
+    public void assertDNExists(final String dn) {
+        getDirectoryTester().assertDNExists(dn);
+    }
+
+    /**
+     * Assert that the entry identified by {@code dn} is of type {@code objectclass}.
+     *
+     * @param dn          The distinguished name.
+     * @param objectclass The type name.
+     * @since 1.0.2
+     */
+    public void assertDNIsA(final String dn,
+                            final String objectclass) {
+        getDirectoryTester().assertDNIsA(dn, objectclass);
+    }
+
+    /**
+     * Assert that the entry identified by {@code dn} has an attribute named {@code attributeName}.
+     *
+     * @param dn            The distinguished name
+     * @param attributeName The attribute name
+     * @since 1.0.2
+     */
+    public void assertDNHasAttribute(final String dn,
+                                     final String attributeName) {
+        getDirectoryTester().assertDNHasAttribute(dn, attributeName);
+    }
+
+    /**
+     * Assert that the entry identified by {@code dn} has an attribute named {@code attributeName} with
+     * the attribute value(s) {@code attributeName}.
+     *
+     * @param dn             The distinguished name
+     * @param attributeName  The attribute name
+     * @param attributeValue The attribute value(s)
+     * @since 1.0.2
+     */
+    public void assertDNHasAttributeValue(final String dn,
+                                          final String attributeName,
+                                          final String... attributeValue) {
+        getDirectoryTester().assertDNHasAttributeValue(dn, attributeName, attributeValue);
+    }
+
+    /**
+     * Wait until an entry identified by {@code dn} exists.
+     *
+     * @param dn      The distinguished name
+     * @param timeout The maximum time to wait
+     * @return The time it took for the entry to appear
+     * @since 3.2.0
+     */
+    public Duration awaitDNExists(final String dn,
+                                  final Duration timeout) {
+        return getDirectoryTester().awaitDNExists(dn, timeout);
+    }
+
+    /**
+     * Wait until the entry identified by {@code dn} has an attribute named {@code attributeName}.
+     *
+     * @param dn            The distinguished name
+     * @param attributeName The attribute name
+     * @param timeout       The maximum time to wait
+     * @return The time it took for the attribute to appear
+     * @since 3.2.0
+     */
+    public Duration awaitDNHasAttribute(final String dn,
+                                        final String attributeName,
+                                        final Duration timeout) {
+        return getDirectoryTester().awaitDNHasAttribute(dn, attributeName, timeout);
+    }
+
+    /**
+     * Wait until the entry identified by {@code dn} has an attribute named {@code attributeName} with the attribute
+     * value(s) {@code attributeValue}.
+     *
+     * @param dn             The distinguished name
+     * @param attributeName  The attribute name
+     * @param timeout        The maximum time to wait
+     * @param attributeValue The attribute value(s)
+     * @return The time it took for the attribute to have the value(s)
+     * @since 3.2.0
+     */
+    public Duration awaitDNHasAttributeValue(final String dn,
+                                             final String attributeName,
+                                             final Duration timeout,
+                                             final String... attributeValue) {
+        return getDirectoryTester().awaitDNHasAttributeValue(dn, attributeName, timeout, attributeValue);
+    }
+
+    /**
+     * Compare the subtree below {@code baseDN} with the entries of an expected LDIF file.
+     *
+     * @param baseDN            The base DN of the subtree
+     * @param ldifFile          The expected LDIF file on the classpath or file system
+     * @param ignoredAttributes The attributes that are not compared
+     * @return The missing, unexpected and changed entries
+     * @since 3.2.0
+     */
+    public DirectoryDiff compareSubtree(final String baseDN,
+                                        final String ldifFile,
+                                        final String... ignoredAttributes) {
+        return getDirectoryTester().compareSubtree(baseDN, ldifFile, ignoredAttributes);
+    }
+
+    /**
+     * Assert that the subtree below {@code baseDN} contains exactly the entries of an expected LDIF file.
+     *
+     * @param baseDN            The base DN of the subtree
+     * @param ldifFile          The expected LDIF file on the classpath or file system
+     * @param ignoredAttributes The attributes that are not compared
+     * @since 3.2.0
+     */
+    public void assertSubtreeMatches(final String baseDN,
+                                     final String ldifFile,
+                                     final String... ignoredAttributes) {
+        getDirectoryTester().assertSubtreeMatches(baseDN, ldifFile, ignoredAttributes);
+    }
+
+    /**
+     * Publish the holder for the test executing on the current thread or clear it when passed {@code null}.
+     *
+     * @param holder The holder or {@code null}.
+     * @since 3.2.0
+     */
+    private void bindTestHolder(final DirectoryServerHolder holder) {
+        if (holder == null) {
+            testHolder.remove();
+        } else {
+            testHolder.set(holder);
+        }
+    }
+
+    /**
+     * Get the nodes started for the current test or, if the test does not have its own server, for the test class.
+     * The nodes are started first if {@link DirectoryServerConfiguration#lazy()} is set and they have not been used
+     * yet.
+     *
+     * @return The topology.
+     * @throws DirectoryTesterException If the nodes could not be started or the configuration does not have more than
+     *                                  one node.
+     * @since 3.2.0
+     */
+    public DirectoryTopology getTopology() {
+        try {
+            return getHolder().getTopology();
+        } catch (final LDIFException | LDAPException | IOException e) {
+            throw new DirectoryTesterException("Failed to launch embedded Directory Server topology", e);
+        }
+    }
+
+    /**
+     * Get the access log of the server for the current test or, if the test does not have its own server, for the
+     * test class. The server is started first if {@link DirectoryServerConfiguration#lazy()} is set and it has not
+     * been used yet.
+     *
+     * @return The access log.
+     * @throws DirectoryTesterException If the server could not be started or the access log is not enabled.
+     * @since 3.2.0
+     */
+    public DirectoryAccessLog getAccessLog() {
+        try {
+            return getHolder().getAccessLog();
+        } catch (final LDIFException | LDAPException | IOException e) {
+            throw new DirectoryTesterException("Failed to get embedded Directory Server access log", e);
+        }
+    }
+
+    /**
+     * Get the port on which the server for the current test or, if the test does not have its own server, for the
+     * test class listens. This is how tests that use a {@code port} of zero learn which ephemeral port the server was
+     * given. The server is started first if {@link DirectoryServerConfiguration#lazy()} is set and it has not been
+     * used yet.
+     *
+     * @return The port.
+     * @throws DirectoryTesterException If the server could not be started.
+     * @since 3.2.0
+     */
+    public int getPort() {
+        try {
+            return getHolder().getPort();
+        } catch (final LDIFException | LDAPException | IOException e) {
+            throw new DirectoryTesterException("Failed to launch embedded Directory Server", e);
+        }
+    }
+
+    /**
+     * Get the distinguished name of the {@code ou=test-<uuid>} subtree that holds the data for the current test when
+     * it uses the {@link DirectoryServerConfiguration.Lifecycle#NAMESPACE} lifecycle. The server is started first if
+     * {@link DirectoryServerConfiguration#lazy()} is set and it has not been used yet.
+     *
+     * @return The distinguished name of the subtree or {@code null} if the test does not use a namespace.
+     * @throws DirectoryTesterException If the server could not be started.
+     * @since 3.2.0
+     */
+    public String getNamespaceDN() {
+        return getDirectoryTester().getNamespaceDN();
+    }
+
+    /**
+     * Get the holder for the test executing on the current thread or, if the test does not have its own server, the
+     * holder for the test class.
+     *
+     * @return The holder.
+     * @throws DirectoryTesterException If there is no server.
+     * @since 3.2.0
+     */
+    private DirectoryServerHolder getHolder() {
+        DirectoryServerHolder holder = testHolder.get();
+        if (holder == null) {
+            holder = classHolder;
+            if (holder == null) {
+                throw new DirectoryTesterException("Embedded Directory Server is not running");
+            }
+        }
+        return holder;
+    }
+
+    /**
+     * Create a {@link DirectoryTester} that uses the pool of connections to the in-memory LDAP directory server for
+     * the current test or, if the test does not have its own server, the server for the test class. The server is
+     * started first if {@link DirectoryServerConfiguration#lazy()} is set and it has not been used yet. The tester
+     * must not be closed because the pool is shared by all the assertions made by the test.
+     *
+     * @return The {@link DirectoryTester}.
+     * @since 1.0.2
+     */
+    private DirectoryTester getDirectoryTester() {
+        final DirectoryServerHolder holder = getHolder();
+        try {
+            return new DirectoryTester(holder.getConnectionPool(), holder.getNamespace(),
+                    holder.isAttached() ? null : ChangeNotifier.find(holder.getServer()));
+        } catch (final LDIFException | LDAPException | IOException e) {
+            throw new DirectoryTesterException("Failed to launch embedded Directory Server", e);
+        }
+    }
+}
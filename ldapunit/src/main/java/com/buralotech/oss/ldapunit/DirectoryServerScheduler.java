@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerSnapshot;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldif.LDIFException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Admits the builds of embedded LDAP directory servers so that no more than {@link #MAX_CONCURRENT_BUILDS_PROPERTY}
+ * servers parse their schema and LDIF at the same time across the JVM. A request for a server with the same
+ * configuration as a build that is already in progress does not start another build. It waits for that build and
+ * gets its own server restored from a snapshot of the result, with its own copy of the per-server state such as the
+ * access log.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class DirectoryServerScheduler {
+
+    /**
+     * The system property that sets the maximum number of server builds that can run at the same time. The default
+     * is the number of available processors.
+     */
+    static final String MAX_CONCURRENT_BUILDS_PROPERTY = "ldapunit.maxConcurrentBuilds";
+
+    /**
+     * Limits the number of builds running at the same time. The semaphore is fair so that builds are admitted in the
+     * order they were requested.
+     */
+    private static final Semaphore PERMITS = new Semaphore(Math.max(1, Integer.getInteger(
+            MAX_CONCURRENT_BUILDS_PROPERTY,
+            Runtime.getRuntime().availableProcessors())), true);
+
+    /**
+     * The builds that are in progress keyed by their configuration.
+     */
+    private static final Map<DirectoryServerConfiguration, Flight> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerScheduler() {
+    }
+
+    /**
+     * Build a server once it has been admitted or, if a build with the same configuration is already in progress,
+     * wait for that build and restore a copy of its result. A snapshot of the result is only taken when another
+     * request has joined the build, so a build that is not shared hands over its server without copying its entries.
+     *
+     * @param annotation The configuration.
+     * @param builder    Builds the server.
+     * @return The server, which has not been started.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer build(final DirectoryServerConfiguration annotation,
+                                         final Callable<InMemoryDirectoryServer> builder)
+            throws LDIFException, LDAPException, IOException {
+        final Flight flight = new Flight(new FutureTask<>(() -> admit(builder)));
+        while (true) {
+            final Flight existing = IN_FLIGHT.putIfAbsent(annotation, flight);
+            if (existing == null) {
+                InMemoryDirectoryServer server = null;
+                try {
+                    flight.task.run();
+                    server = DirectoryServerUtils.await(flight.task);
+                    return server;
+                } finally {
+                    IN_FLIGHT.remove(annotation, flight);
+                    flight.land(server);
+                }
+            }
+            if (existing.join()) {
+                final InMemoryDirectoryServer server = DirectoryServerUtils.await(existing.task);
+                final InMemoryDirectoryServer copy = new InMemoryDirectoryServer(
+                        DirectoryServerUtils.copyConfig(server.getConfig()));
+                copy.restoreSnapshot(DirectoryServerUtils.await(existing.snapshot));
+                DirectoryServerMetrics.buildShared();
+                return copy;
+            }
+        }
+    }
+
+    /**
+     * Wait until the build is admitted and then run it.
+     *
+     * @param builder Builds the server.
+     * @return The server.
+     * @throws Exception If the build failed or the thread was interrupted while waiting to be admitted.
+     */
+    private static InMemoryDirectoryServer admit(final Callable<InMemoryDirectoryServer> builder)
+            throws Exception {
+        final long queued = System.nanoTime();
+        DirectoryServerMetrics.buildQueued();
+        try {
+            PERMITS.acquire();
+        } catch (final InterruptedException e) {
+            DirectoryServerMetrics.buildAbandoned();
+            Thread.currentThread().interrupt();
+            throw new LDAPException(ResultCode.LOCAL_ERROR, "Interrupted while waiting to build server", e);
+        }
+        DirectoryServerMetrics.buildAdmitted(System.nanoTime() - queued);
+        try {
+            return builder.call();
+        } finally {
+            PERMITS.release();
+        }
+    }
+
+    /**
+     * A build that is in progress and the requests that have joined it.
+     */
+    private static final class Flight {
+
+        /**
+         * Runs the build.
+         */
+        private final FutureTask<InMemoryDirectoryServer> task;
+
+        /**
+         * Completed with the snapshot from which the servers for the requests that joined the build are restored, or
+         * with {@code null} if no request joined it or it failed.
+         */
+        private final CompletableFuture<InMemoryDirectoryServerSnapshot> snapshot = new CompletableFuture<>();
+
+        /**
+         * {@code true} if a request has joined the build.
+         */
+        private boolean joined;
+
+        /**
+         * {@code true} once the build has completed and its server is about to be handed over.
+         */
+        private boolean landed;
+
+        /**
+         * Initialise the build.
+         *
+         * @param task Runs the build.
+         */
+        private Flight(final FutureTask<InMemoryDirectoryServer> task) {
+            this.task = task;
+        }
+
+        /**
+         * Join the build so that a snapshot of its server is taken before the server is handed over.
+         *
+         * @return {@code true} if the build was joined or {@code false} if it has already handed over its server.
+         */
+        private synchronized boolean join() {
+            if (landed) {
+                return false;
+            }
+            joined = true;
+            return true;
+        }
+
+        /**
+         * Complete the build, taking a snapshot of its server if any request joined it. No request can join the build
+         * afterwards.
+         *
+         * @param server The server or {@code null} if the build failed.
+         */
+        private synchronized void land(final InMemoryDirectoryServer server) {
+            landed = true;
+            snapshot.complete(joined && server != null ? server.createSnapshot() : null);
+        }
+    }
+}
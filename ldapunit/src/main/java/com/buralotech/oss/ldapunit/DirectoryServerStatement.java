@@ -16,9 +16,10 @@
 
 package com.buralotech.oss.ldapunit;
 
-import com.unboundid.ldap.listener.InMemoryDirectoryServer;
 import org.junit.runners.model.Statement;
 
+import java.util.function.Consumer;
+
 /**
  * A {@link Statement} wrapper that launches an embedded LDAP directory server before executing the wrapped statement.
  * The embedded LDAP directory server is shutdown after the wrapped statement has been executed.
@@ -33,33 +34,49 @@ final class DirectoryServerStatement extends Statement {
      */
     private final Statement base;
     /**
-     * The annotation that defines the directory server configuration.
+     * Holds the embedded LDAP directory server.
+     */
+    private final DirectoryServerHolder holder;
+    /**
+     * Publishes the holder while the wrapped statement is executing and is passed {@code null} afterwards.
      */
-    private final DirectoryServerConfiguration annotation;
+    private final Consumer<DirectoryServerHolder> binder;
 
     /**
      * Initialise the wrapper statement that starts an embedded LDAP directory server and shuts it down before and after
      * executing the wrapped statement.
      *
-     * @param stmt The wrapped statement.
-     * @param cfg  The directory server configuration.
+     * @param stmt   The wrapped statement.
+     * @param holder Holds the embedded LDAP directory server.
+     * @param binder Publishes the holder while the wrapped statement is executing and is passed {@code null}
+     *               afterwards.
      */
-    DirectoryServerStatement(final Statement stmt, final DirectoryServerConfiguration cfg) {
+    DirectoryServerStatement(final Statement stmt,
+                             final DirectoryServerHolder holder,
+                             final Consumer<DirectoryServerHolder> binder) {
         base = stmt;
-        annotation = cfg;
+        this.holder = holder;
+        this.binder = binder;
     }
 
     /**
      * Start an embedded LDAP directory server before executing the wrapped statement and shutdown the LDAP directory
-     * server after the wrapped statement completes.
+     * server after the wrapped statement completes. If {@link DirectoryServerConfiguration#lazy()} is set, the
+     * server is not started until it is first used.
      *
      * @throws Throwable If there was an error starting the server, executing the wrapped statement or shutting the
      *                   wrapped server.
      */
     @Override
     public void evaluate() throws Throwable {
-        try (InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation)) {
+        binder.accept(holder);
+        try (DirectoryServerHolder ignored = holder) {
+            if (!holder.getAnnotation().lazy()) {
+                holder.start();
+            }
             base.evaluate();
+        } finally {
+            binder.accept(null);
         }
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.SelfSignedCertificateGenerator;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.util.ObjectPair;
+import com.unboundid.util.ssl.KeyStoreKeyManager;
+import com.unboundid.util.ssl.SSLUtil;
+import com.unboundid.util.ssl.cert.CertException;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Collections;
+
+/**
+ * The TLS key material used by LDAP directory servers configured with
+ * {@link DirectoryServerConfiguration#security()}. A self-signed certificate is generated the first time it is needed
+ * and cached for the lifetime of the JVM, so starting a server with TLS does not pay for key generation. The server and
+ * client SSL contexts are also shared. Each keeps a cache of TLS sessions, so connections from clients that use
+ * {@link #getClientSocketFactory()} or {@link #getClientContext()} resume earlier sessions with an abbreviated
+ * handshake. This lets tests compare the cost of full and resumed handshakes.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class DirectoryServerTls {
+
+    /**
+     * The type of the generated key store.
+     */
+    private static final String KEY_STORE_TYPE = "PKCS12";
+
+    /**
+     * The maximum number of TLS sessions cached by each SSL context.
+     */
+    private static final int SESSION_CACHE_SIZE = 1024;
+
+    /**
+     * How long, in seconds, a cached TLS session can be resumed.
+     */
+    private static final int SESSION_TIMEOUT = 3600;
+
+    /**
+     * The SSL context used by the servers or {@code null} if it has not been created.
+     */
+    private static SSLContext serverContext;
+
+    /**
+     * The SSL context that trusts the generated certificate or {@code null} if it has not been created.
+     */
+    private static SSLContext clientContext;
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerTls() {
+    }
+
+    /**
+     * Get the SSL context that clients use to connect to servers configured with TLS. It trusts the generated
+     * certificate and caches the TLS sessions so that they can be resumed.
+     *
+     * @return The SSL context.
+     * @throws LDAPException If the key material could not be generated.
+     */
+    public static SSLContext getClientContext()
+            throws LDAPException {
+        initialise();
+        return clientContext;
+    }
+
+    /**
+     * Get a socket factory that clients use to make LDAPS connections or to perform StartTLS. It uses the shared
+     * client SSL context, so TLS sessions are resumed.
+     *
+     * @return The socket factory.
+     * @throws LDAPException If the key material could not be generated.
+     */
+    public static SSLSocketFactory getClientSocketFactory()
+            throws LDAPException {
+        return getClientContext().getSocketFactory();
+    }
+
+    /**
+     * Get the SSL context used by the servers. It holds the generated certificate and caches the TLS sessions so that
+     * they can be resumed.
+     *
+     * @return The SSL context.
+     * @throws LDAPException If the key material could not be generated.
+     */
+    static SSLContext getServerContext()
+            throws LDAPException {
+        initialise();
+        return serverContext;
+    }
+
+    /**
+     * Generate the self-signed certificate and create the SSL contexts unless this has already been done.
+     *
+     * @throws LDAPException If the key material could not be generated.
+     */
+    private static synchronized void initialise()
+            throws LDAPException {
+        if (serverContext == null) {
+            try {
+                final ObjectPair<File, char[]> keyStore =
+                        SelfSignedCertificateGenerator.generateTemporarySelfSignedCertificate("ldapunit",
+                                KEY_STORE_TYPE);
+                keyStore.getFirst().deleteOnExit();
+                final SSLContext server = new SSLUtil(
+                        new KeyStoreKeyManager(keyStore.getFirst(), keyStore.getSecond(), KEY_STORE_TYPE, null),
+                        null).createSSLContext();
+                final SSLContext client = new SSLUtil(createTrustManagerFactory(keyStore.getFirst(),
+                        keyStore.getSecond()).getTrustManagers()).createSSLContext();
+                configureSessionCache(server.getServerSessionContext());
+                configureSessionCache(client.getClientSessionContext());
+                clientContext = client;
+                serverContext = server;
+            } catch (final CertException | GeneralSecurityException | IOException e) {
+                throw new LDAPException(ResultCode.LOCAL_ERROR, "Failed to generate the TLS key material", e);
+            }
+        }
+    }
+
+    /**
+     * Create a trust manager factory that trusts the certificates in a key store.
+     *
+     * @param file The key store.
+     * @param pin  The key store password.
+     * @return The trust manager factory.
+     * @throws GeneralSecurityException If the key store could not be loaded.
+     * @throws IOException              If the key store could not be read.
+     */
+    private static TrustManagerFactory createTrustManagerFactory(final File file,
+                                                                 final char[] pin)
+            throws GeneralSecurityException, IOException {
+        final KeyStore keyStore = KeyStore.getInstance(KEY_STORE_TYPE);
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            keyStore.load(inputStream, pin);
+        }
+        final KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        trustStore.load(null, null);
+        for (final String alias : Collections.list(keyStore.aliases())) {
+            trustStore.setCertificateEntry(alias, keyStore.getCertificate(alias));
+        }
+        final TrustManagerFactory factory = TrustManagerFactory.getInstance(
+                TrustManagerFactory.getDefaultAlgorithm());
+        factory.init(trustStore);
+        return factory;
+    }
+
+    /**
+     * Size the TLS session cache of an SSL context so that sessions can be resumed for the duration of a test run.
+     *
+     * @param sessionContext The session context.
+     */
+    private static void configureSessionCache(final SSLSessionContext sessionContext) {
+        sessionContext.setSessionCacheSize(SESSION_CACHE_SIZE);
+        sessionContext.setSessionTimeout(SESSION_TIMEOUT);
+    }
+}
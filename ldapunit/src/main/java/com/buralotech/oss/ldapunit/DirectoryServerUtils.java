@@ -0,0 +1,758 @@
+/*
+ * Copyright 2013-2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.ldif.LDIFChangeRecord;
+import com.unboundid.ldif.LDIFException;
+import com.unboundid.ldif.LDIFReader;
+
+import javax.net.ServerSocketFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+/**
+ * Helper functions to start the in-memory LDAP directory server, load LDAP directory entries from an LDIF files and
+ * shut down the in-memory LDAP directory server.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 1.0.1
+ */
+final class DirectoryServerUtils {
+
+    /**
+     * Hidden constructor.
+     */
+    private DirectoryServerUtils() {
+    }
+
+    /**
+     * Start the directory server using the configuration specified by the {@link DirectoryServerConfiguration}
+     * annotation.
+     *
+     * @param annotation The configuration.
+     * @return The {@link  InMemoryDirectoryServer} object.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer startServer(final DirectoryServerConfiguration annotation)
+            throws LDIFException, LDAPException, IOException {
+        final InMemoryDirectoryServer server = createServer(annotation);
+        try {
+            startListening(server);
+        } catch (final LDAPException | RuntimeException e) {
+            stopServer(server);
+            throw e;
+        }
+        return server;
+    }
+
+    /**
+     * Create the directory server and load its data using the configuration specified by the
+     * {@link DirectoryServerConfiguration} annotation. The server is not started so it does not claim its port.
+     *
+     * @param annotation The configuration.
+     * @return The {@link  InMemoryDirectoryServer} object.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer createServer(final DirectoryServerConfiguration annotation)
+            throws LDIFException, LDAPException, IOException {
+        final long reserved = DirectoryServerBudget.reserve(annotation);
+        final InMemoryDirectoryServer server;
+        try {
+            server = DirectoryServerScheduler.build(annotation, () -> loadServer(annotation));
+        } catch (final LDIFException | LDAPException | IOException | RuntimeException e) {
+            DirectoryServerBudget.cancel(reserved);
+            throw e;
+        }
+        DirectoryServerBudget.register(server, DirectoryServerBudget.getKnown(annotation), reserved);
+        return server;
+    }
+
+    /**
+     * Create the directory server and load its data, restoring it from an image when
+     * {@link DirectoryServerConfiguration#persistentImage()} or {@link DirectoryServerConfiguration#trustedFixtures()}
+     * is set and a matching image is available.
+     *
+     * @param annotation The configuration.
+     * @return The {@link  InMemoryDirectoryServer} object.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer loadServer(final DirectoryServerConfiguration annotation)
+            throws LDIFException, LDAPException, IOException {
+        if (!annotation.persistentImage() && !annotation.trustedFixtures()) {
+            final DirectoryServerFootprint.Counter counter = new DirectoryServerFootprint.Counter();
+            final InMemoryDirectoryServer server = buildServer(annotation, counter);
+            DirectoryServerBudget.remember(annotation, counter.toFootprint());
+            return server;
+        }
+        final String key = DirectoryImage.computeKey(annotation);
+        DirectoryImage image = annotation.trustedFixtures() ? DirectoryImage.getTrusted(key) : null;
+        if (image == null && annotation.persistentImage()) {
+            image = DirectoryImage.load(DirectoryImage.getPath(key));
+        }
+        if (image == null) {
+            final DirectoryServerFootprint.Counter counter = new DirectoryServerFootprint.Counter();
+            final InMemoryDirectoryServer server = buildServer(annotation, counter);
+            image = new DirectoryImage(server.getSchema(), server.createSnapshot(), counter.toFootprint());
+            if (annotation.persistentImage()) {
+                image.save(DirectoryImage.getPath(key));
+            }
+            if (annotation.trustedFixtures()) {
+                DirectoryImage.putTrusted(key, image);
+            }
+            DirectoryServerBudget.remember(annotation, image.getFootprint());
+            return server;
+        }
+        if (annotation.trustedFixtures()) {
+            DirectoryImage.putTrusted(key, image);
+        }
+        DirectoryServerBudget.remember(annotation, image.getFootprint());
+        final InMemoryDirectoryServerConfig config = createConfig(annotation, image.getSchema());
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer(config);
+        server.restoreSnapshot(image.getSnapshot());
+        return server;
+    }
+
+    /**
+     * Create and start the directory server shared by tests that use the
+     * {@link DirectoryServerConfiguration.Lifecycle#NAMESPACE} or
+     * {@link DirectoryServerConfiguration.Lifecycle#READ_ONLY} lifecycle. For the namespace lifecycle, only the base
+     * entry is created and the data for each test is loaded into its own namespace by {@link #populateNamespace}. For
+     * the read-only lifecycle, all the data is loaded and then write operations are rejected.
+     *
+     * @param annotation The configuration.
+     * @return The {@link  InMemoryDirectoryServer} object.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer startSharedServer(final DirectoryServerConfiguration annotation)
+            throws LDIFException, LDAPException, IOException {
+        if (annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.READ_ONLY) {
+            final InMemoryDirectoryServer loaded = createServer(annotation);
+            final InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(loaded.getConfig());
+            config.addInMemoryOperationInterceptor(new ReadOnlyInterceptor());
+            final InMemoryDirectoryServer server = new InMemoryDirectoryServer(config);
+            server.restoreSnapshot(loaded.createSnapshot());
+            DirectoryServerBudget.transfer(loaded, server);
+            startListening(server);
+            return server;
+        }
+        final InMemoryDirectoryServerConfig config = createConfig(annotation, loadSchema(annotation.schemaFiles()));
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer(config);
+        addBaseEntry(server, annotation.baseDN(), annotation.baseObjectClasses(), annotation.baseAttributes());
+        addNamingContexts(server, annotation, null);
+        startListening(server);
+        return server;
+    }
+
+    /**
+     * Create the root entry of a namespace and load the generated data and LDIF records into it.
+     *
+     * @param server     The embedded LDAP directory server.
+     * @param annotation The configuration.
+     * @param namespace  The namespace.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem loading the data into the LDAP directory.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static void populateNamespace(final InMemoryDirectoryServer server,
+                                  final DirectoryServerConfiguration annotation,
+                                  final DirectoryNamespace namespace)
+            throws LDIFException, LDAPException, IOException {
+        server.add(namespace.createEntry());
+        final List<Entry> generatedEntries = DirectoryPasswords.encode(
+                DataGenerator.generate(namespace.getDN(), annotation.generatedData()),
+                annotation.passwordEncoding());
+        if (!generatedEntries.isEmpty()) {
+            server.addEntries(generatedEntries);
+        }
+        for (final String ldifFile : annotation.ldifFiles()) {
+            try (InputStream inputStream = getInputStream(ldifFile)) {
+                if (inputStream != null) {
+                    loadData(server, inputStream, namespace, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the LDIF records of a fixture to a loaded directory server. The records are applied in-process so the
+     * server does not need to be listening.
+     *
+     * @param server    The embedded LDAP directory server.
+     * @param fixture   The fixture.
+     * @param namespace The namespace into which the records are mapped or {@code null}.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem applying the LDIF records.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static void applyFixture(final InMemoryDirectoryServer server,
+                             final DirectoryFixture fixture,
+                             final DirectoryNamespace namespace)
+            throws LDIFException, LDAPException, IOException {
+        for (final String ldifFile : fixture.ldif()) {
+            try (InputStream inputStream = getInputStream(ldifFile)) {
+                if (inputStream != null) {
+                    loadData(server, inputStream, namespace, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the configuration of a server for another server. The copy shares the stateless parts of the
+     * configuration, but the interceptors that keep state for one server are renewed so that the new server has its
+     * own access log and change notifier, when they are enabled, and records its traffic in a session of its own.
+     *
+     * @param source The configuration of the existing server.
+     * @return The copy.
+     * @throws LDAPException If there was a problem copying the configuration.
+     */
+    static InMemoryDirectoryServerConfig copyConfig(final InMemoryDirectoryServerConfig source)
+            throws LDAPException {
+        final InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(source);
+        final List<InMemoryOperationInterceptor> inherited = config.getOperationInterceptors();
+        for (int i = 0; i < inherited.size(); i++) {
+            if (inherited.get(i) instanceof AccessLogInterceptor) {
+                inherited.set(i, ((AccessLogInterceptor) inherited.get(i)).renew());
+            } else if (inherited.get(i) instanceof TrafficRecorder) {
+                inherited.set(i, ((TrafficRecorder) inherited.get(i)).renew());
+            } else if (inherited.get(i) instanceof ChangeNotifier) {
+                inherited.set(i, ((ChangeNotifier) inherited.get(i)).renew());
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Fork a fully loaded directory server. The fork has the same configuration as the {@code parent}, apart from
+     * the port its listener uses, and starts with the same entries. The configuration is copied with
+     * {@link #copyConfig}, so the fork has its own change notifier if the parent has one. Entries are immutable, so
+     * the fork shares them with the parent and only copies the references to them. Changes made to either server
+     * afterwards are not visible to the other. The fork is not started, so it can be used in-process or started to
+     * listen on {@code port}.
+     *
+     * @param parent       The directory server to fork.
+     * @param port         The TCP port that the fork will be configured to listen on or zero for an ephemeral port.
+     * @param interceptors Additional interceptors for the operations processed by the fork.
+     * @return The fork.
+     * @throws LDAPException If there was a problem configuring the fork.
+     */
+    static InMemoryDirectoryServer forkServer(final InMemoryDirectoryServer parent,
+                                              final int port,
+                                              final InMemoryOperationInterceptor... interceptors)
+            throws LDAPException {
+        return forkServer(parent, port, UnaryOperator.identity(), interceptors);
+    }
+
+    /**
+     * Fork a fully loaded directory server as described by
+     * {@link #forkServer(InMemoryDirectoryServer, int, InMemoryOperationInterceptor...)}, wrapping the factory that
+     * creates the server sockets for the listener of the fork.
+     *
+     * @param parent              The directory server to fork.
+     * @param port                The TCP port that the fork will be configured to listen on or zero for an ephemeral
+     *                            port.
+     * @param serverSocketFactory Wraps the server socket factory of the parent for the fork.
+     * @param interceptors        Additional interceptors for the operations processed by the fork.
+     * @return The fork.
+     * @throws LDAPException If there was a problem configuring the fork.
+     */
+    static InMemoryDirectoryServer forkServer(final InMemoryDirectoryServer parent,
+                                              final int port,
+                                              final UnaryOperator<ServerSocketFactory> serverSocketFactory,
+                                              final InMemoryOperationInterceptor... interceptors)
+            throws LDAPException {
+        final InMemoryDirectoryServerConfig config = copyConfig(parent.getConfig());
+        final InMemoryListenerConfig listenerConfig = parent.getConfig().getListenerConfigs().get(0);
+        config.setListenerConfigs(new InMemoryListenerConfig(
+                listenerConfig.getListenerName(),
+                listenerConfig.getListenAddress(),
+                port,
+                serverSocketFactory.apply(listenerConfig.getServerSocketFactory()),
+                listenerConfig.getClientSocketFactory(),
+                listenerConfig.getStartTLSSocketFactory()));
+        for (final InMemoryOperationInterceptor interceptor : interceptors) {
+            config.addInMemoryOperationInterceptor(interceptor);
+        }
+        final InMemoryDirectoryServer fork = new InMemoryDirectoryServer(config);
+        fork.restoreSnapshot(parent.createSnapshot());
+        return fork;
+    }
+
+    /**
+     * Create and configure an embedded LDAP directory server and generate and load the seed data using the
+     * configuration specified by the {@link DirectoryServerConfiguration} annotation.
+     *
+     * @param annotation The configuration.
+     * @param counter    Collects the footprint of the loaded data.
+     * @return The {@link  InMemoryDirectoryServer} object.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    private static InMemoryDirectoryServer buildServer(final DirectoryServerConfiguration annotation,
+                                                       final DirectoryServerFootprint.Counter counter)
+            throws LDIFException, LDAPException, IOException {
+        final InMemoryDirectoryServerConfig config = createConfig(annotation, loadSchema(annotation.schemaFiles()));
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer(config);
+        counter.add(addBaseEntry(server, annotation.baseDN(), annotation.baseObjectClasses(),
+                annotation.baseAttributes()));
+        final List<Entry> generatedEntries = DirectoryPasswords.encode(
+                DataGenerator.generate(annotation.baseDN(), annotation.generatedData()),
+                annotation.passwordEncoding());
+        if (!generatedEntries.isEmpty()) {
+            server.addEntries(generatedEntries);
+            for (final Entry entry : generatedEntries) {
+                counter.add(entry);
+            }
+        }
+        for (final String ldifFile : annotation.ldifFiles()) {
+            loadData(server, ldifFile, counter);
+        }
+        addNamingContexts(server, annotation, counter);
+        return server;
+    }
+
+    /**
+     * Create the base entries of the additional naming contexts and load their LDIF records.
+     *
+     * @param server     The embedded LDAP directory server.
+     * @param annotation The configuration.
+     * @param counter    Collects the footprint of the loaded data or {@code null}.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem adding the entries to the LDAP directory.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    private static void addNamingContexts(final InMemoryDirectoryServer server,
+                                          final DirectoryServerConfiguration annotation,
+                                          final DirectoryServerFootprint.Counter counter)
+            throws LDIFException, LDAPException, IOException {
+        for (final NamingContext namingContext : annotation.namingContexts()) {
+            final Entry entry = addBaseEntry(server, namingContext.baseDN(), namingContext.baseObjectClasses(),
+                    namingContext.baseAttributes());
+            if (counter != null) {
+                counter.add(entry);
+            }
+            for (final String ldifFile : namingContext.ldifFiles()) {
+                loadData(server, ldifFile, counter);
+            }
+        }
+    }
+
+    /**
+     * Create and configure an embedded LDAP directory server, load seed data and start the server.
+     *
+     * @param port              The TCP port that the LDAP directory server will be configured to listen on.
+     * @param baseDN            The DN that will be configured as the root of the LDAP directory.
+     * @param baseObjectClasses The object classes to use when creating the base DN.
+     * @param baseAttributes    The attributes to set on the base DN.
+     * @param authDN            The DN that will be configured as the administrator account identifier.
+     * @param authPassword      The password that will be configured as the authentication credentials for
+     *                          the administrator account.
+     * @param ldifFiles         The LDIF resources or files from which LDIF records will be loaded.
+     * @param schemaFiles       The files from which to load custom schemas.
+     * @return The {@link  InMemoryDirectoryServer} object.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the embedded LDAP directory server.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static InMemoryDirectoryServer startServer(final int port,
+                                               final String baseDN,
+                                               final String[] baseObjectClasses,
+                                               final String[] baseAttributes,
+                                               final String authDN,
+                                               final String authPassword,
+                                               final String[] ldifFiles,
+                                               final String[] schemaFiles)
+            throws LDIFException, LDAPException, IOException {
+        final InMemoryDirectoryServerConfig config = createConfig(port, baseDN, authDN, authPassword,
+                loadSchema(schemaFiles));
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer(config);
+        addBaseEntry(server, baseDN, baseObjectClasses, baseAttributes);
+        for (final String ldifFile : ldifFiles) {
+            loadData(server, ldifFile, null);
+        }
+        startListening(server);
+        return server;
+    }
+
+    /**
+     * Create the configuration for an embedded LDAP directory server using the configuration specified by the
+     * {@link DirectoryServerConfiguration} annotation, including its additional naming contexts and its indexing and
+     * tuning options.
+     *
+     * @param annotation The configuration.
+     * @param schema     The custom schema or {@code null} to use the default standard schema.
+     * @return The directory server configuration.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     */
+    private static InMemoryDirectoryServerConfig createConfig(final DirectoryServerConfiguration annotation,
+                                                              final Schema schema)
+            throws LDAPException {
+        final InMemoryDirectoryServerConfig config = createConfig(
+                annotation.port(),
+                annotation.baseDN(),
+                annotation.authDN(),
+                annotation.authPassword(),
+                schema);
+        if (annotation.namingContexts().length > 0) {
+            final DN[] baseDNs = new DN[1 + annotation.namingContexts().length];
+            baseDNs[0] = new DN(annotation.baseDN());
+            for (int i = 0; i < annotation.namingContexts().length; i++) {
+                baseDNs[i + 1] = new DN(annotation.namingContexts()[i].baseDN());
+            }
+            config.setBaseDNs(baseDNs);
+        }
+        if (annotation.security() != DirectoryServerConfiguration.Security.NONE) {
+            config.setListenerConfigs(createListenerConfig(annotation.port(), annotation.security()));
+        }
+        if (annotation.passwordEncoding() != DirectoryServerConfiguration.PasswordEncoding.CLEAR) {
+            DirectoryPasswords.configure(config, annotation.passwordEncoding());
+            config.addInMemoryOperationInterceptor(new PasswordVerificationInterceptor(
+                    annotation.authDN(),
+                    DirectoryPasswords.createEncoder(annotation.passwordEncoding()),
+                    DirectoryPasswords.encode(annotation.authPassword(), annotation.passwordEncoding())));
+        }
+        if (annotation.awaitNotifications()) {
+            config.addInMemoryOperationInterceptor(new ChangeNotifier());
+        }
+        if (annotation.accessLog().enabled()) {
+            config.addInMemoryOperationInterceptor(new AccessLogInterceptor(new DirectoryAccessLog(
+                    annotation.accessLog())));
+        }
+        if (!annotation.trafficFile().isEmpty()) {
+            config.addInMemoryOperationInterceptor(new TrafficRecorder(Paths.get(annotation.trafficFile())));
+        }
+        config.setEqualityIndexAttributes(annotation.equalityIndexAttributes());
+        config.setMaxSizeLimit(annotation.maxSizeLimit());
+        config.setGenerateOperationalAttributes(annotation.generateOperationalAttributes());
+        return config;
+    }
+
+    /**
+     * Create the configuration for an embedded LDAP directory server.
+     *
+     * @param port         The TCP port that the LDAP directory server will be configured to listen on.
+     * @param baseDN       The DN that will be configured as the root of the LDAP directory.
+     * @param authDN       The DN that will be configured as the administrator account identifier.
+     * @param authPassword The password that will be configured as the authentication credentials for
+     *                     the administrator account.
+     * @param schema       The custom schema or {@code null} to use the default standard schema.
+     * @return The directory server configuration.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server.
+     */
+    private static InMemoryDirectoryServerConfig createConfig(final int port,
+                                                              final String baseDN,
+                                                              final String authDN,
+                                                              final String authPassword,
+                                                              final Schema schema)
+            throws LDAPException {
+        final InMemoryListenerConfig listenerConfig = createListenerConfig(port);
+        final InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(new DN(baseDN));
+        if (schema != null) {
+            config.setSchema(schema);
+        }
+        config.setListenerConfigs(listenerConfig);
+        config.addAdditionalBindCredentials(authDN, authPassword);
+        return config;
+    }
+
+    /**
+     * Create the entry for the base DN.
+     *
+     * @param server            The embedded LDAP directory server.
+     * @param baseDN            The DN that will be configured as the root of the LDAP directory.
+     * @param baseObjectClasses The object classes to use when creating the base DN.
+     * @param baseAttributes    The attributes to set on the base DN.
+     * @return The entry that was added.
+     * @throws LDAPException If there was a problem adding the entry to the LDAP directory.
+     */
+    private static Entry addBaseEntry(final InMemoryDirectoryServer server,
+                                     final String baseDN,
+                                     final String[] baseObjectClasses,
+                                     final String[] baseAttributes)
+            throws LDAPException {
+        final int n = baseAttributes.length;
+        final Attribute[] attributes = new Attribute[1 + n];
+        for (int i = 0; i < n; i++) {
+            final int j = baseAttributes[i].indexOf('=');
+            final String name;
+            final String value;
+            if (j == -1) {
+                name = baseAttributes[i];
+                value = "";
+            } else {
+                name = baseAttributes[i].substring(0, j);
+                value = baseAttributes[i].substring(j + 1);
+            }
+            attributes[i] = new Attribute(name, value);
+        }
+        attributes[n] = new Attribute("objectclass", baseObjectClasses);
+        final Entry entry = new Entry(baseDN, attributes);
+        server.add(entry);
+        return entry;
+    }
+
+    /**
+     * Look for path on the classpath or file system and return an {@link InputStream} if found.
+     *
+     * @param path The path.
+     * @return An {@link InputStream} if the path exists on the classpath or file sytem. Otherwise, {@code null}.
+     */
+    static InputStream getInputStream(final String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final InputStream inputStream = classLoader.getResourceAsStream(path);
+        if (inputStream == null) {
+            final File file = new File(path);
+            if (file.exists()) {
+                try {
+                    return new FileInputStream(file);
+                } catch (final FileNotFoundException e) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        } else {
+            return inputStream;
+        }
+    }
+
+    /**
+     * Load a custom schema.
+     *
+     * @param schemaFiles The schema files.
+     * @return The custom schema or {@code null} if there are no schema files.
+     * @throws LDIFException If there was a problem loading the schema into the LDAP directory.
+     * @throws LDAPException If there was a problem loading the schema into the LDAP directory.
+     * @throws IOException   If there was a problem reading the schema from the file.
+     */
+    private static Schema loadSchema(final String[] schemaFiles)
+            throws LDIFException, LDAPException, IOException {
+        if (schemaFiles.length == 0) {
+            return null;
+        } else {
+            final Schema[] schemas = new Schema[schemaFiles.length];
+            for (int i = 0; i < schemaFiles.length; i++) {
+                if ("default".equals(schemaFiles[i])) {
+                    schemas[i] = Schema.getDefaultStandardSchema();
+                } else {
+                    try (InputStream inputStream = getInputStream(schemaFiles[i])) {
+                        if (inputStream != null) {
+                            schemas[i] = Schema.getSchema(inputStream);
+                        }
+                    }
+                }
+            }
+            return Schema.mergeSchemas(schemas);
+        }
+    }
+
+    /**
+     * Load LDIF records from a file to seed the LDAP directory.
+     *
+     * @param server   The embedded LDAP directory server.
+     * @param ldifFile The LDIF resource or file from which LDIF records will be loaded.
+     * @param counter  Collects the footprint of the loaded data or {@code null}.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem loading the LDIF records into the LDAP directory.
+     * @throws IOException   If there was a problem reading the LDIF records from the file.
+     */
+    private static void loadData(final InMemoryDirectoryServer server,
+                                 final String ldifFile,
+                                 final DirectoryServerFootprint.Counter counter)
+            throws LDIFException, LDAPException, IOException {
+        try (InputStream inputStream = getInputStream(ldifFile)) {
+            if (inputStream != null) {
+                loadData(server, inputStream, null, counter);
+            }
+        }
+    }
+
+    /**
+     * Load LDIF records from an input stream to seed the LDAP directory. The records are applied in-process so the
+     * server does not need to be listening. Passwords are encoded with the server's password encoding using the
+     * cached encoded values.
+     *
+     * @param server      The embedded LDAP directory server.
+     * @param inputStream TThe input stream from which LDIF records will be loaded.
+     * @param namespace   The namespace into which the records are mapped or {@code null}.
+     * @param counter     Collects the footprint of the loaded data or {@code null}.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem loading the LDIF records into the LDAP directory.
+     * @throws IOException   If there was a problem reading the LDIF records from the file.
+     */
+    private static void loadData(final InMemoryDirectoryServer server,
+                                 final InputStream inputStream,
+                                 final DirectoryNamespace namespace,
+                                 final DirectoryServerFootprint.Counter counter)
+            throws LDIFException, LDAPException, IOException {
+        final DirectoryServerConfiguration.PasswordEncoding encoding =
+                DirectoryPasswords.getEncoding(server.getConfig().getPrimaryPasswordEncoder());
+        try (LDIFReader reader = new LDIFReader(inputStream)) {
+            LDIFChangeRecord changeRecord = reader.readChangeRecord(true);
+            while (changeRecord != null) {
+                if (namespace == null) {
+                    DirectoryPasswords.encode(changeRecord, encoding).processChange(server);
+                } else {
+                    DirectoryPasswords.encode(namespace.map(changeRecord), encoding).processChange(server);
+                }
+                if (counter != null) {
+                    counter.add(changeRecord);
+                }
+                changeRecord = reader.readChangeRecord(true);
+            }
+        }
+    }
+
+    /**
+     * Wait for a background task to complete and return its result, rethrowing the exception that caused it to fail.
+     *
+     * @param future The background task.
+     * @param <T>    The type of the result.
+     * @return The result.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring the embedded LDAP directory server or the thread was
+     *                       interrupted.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static <T> T await(final Future<T> future)
+            throws LDIFException, LDAPException, IOException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof LDIFException) {
+                throw (LDIFException) cause;
+            } else if (cause instanceof LDAPException) {
+                throw (LDAPException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new LDAPException(ResultCode.LOCAL_ERROR, "Failed to build embedded Directory Server", cause);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LDAPException(ResultCode.LOCAL_ERROR, "Interrupted while waiting for embedded Directory Server",
+                    e);
+        }
+    }
+
+    /**
+     * Shutdown the embedded LDAP directory server. The shutdown happens in the background so that it does not delay
+     * the next test. {@link #startListening(InMemoryDirectoryServer)} waits for the shutdown to complete before
+     * another server listens on the same port.
+     * <p>
+     * The server is no longer counted against the memory budget.
+     *
+     * @param server The embedded LDAP directory server.
+     */
+    static void stopServer(final InMemoryDirectoryServer server) {
+        DirectoryServerBudget.release(server);
+        DirectoryServerReaper.stop(server);
+    }
+
+    /**
+     * Start the embedded LDAP directory server listening for connections, first waiting for any pending shutdown of
+     * a server on the same fixed port to complete.
+     *
+     * @param server The embedded LDAP directory server.
+     * @throws LDAPException If the server could not start listening.
+     */
+    static void startListening(final InMemoryDirectoryServer server)
+            throws LDAPException {
+        for (final InMemoryListenerConfig listenerConfig : server.getConfig().getListenerConfigs()) {
+            if (listenerConfig.getListenPort() != 0) {
+                DirectoryServerReaper.awaitPort(listenerConfig.getListenPort());
+            }
+        }
+        server.startListening();
+    }
+
+    /**
+     * Create the configuration for the LDAP listener. Address reuse is enabled so that the listener can bind to the
+     * port used by the previous test straight away.
+     *
+     * @param port The TCP port to listen on or zero for an ephemeral port.
+     * @return The listener configuration.
+     * @throws LDAPException If there was a problem creating the listener configuration.
+     */
+    private static InMemoryListenerConfig createListenerConfig(final int port)
+            throws LDAPException {
+        return createListenerConfig(port, DirectoryServerConfiguration.Security.NONE);
+    }
+
+    /**
+     * Create the configuration for an LDAP listener that is protected with TLS as specified by {@code security}.
+     * Address reuse is enabled so that the listener can bind to the port used by the previous test straight away.
+     *
+     * @param port     The TCP port to listen on or zero for an ephemeral port.
+     * @param security Whether the listener accepts LDAPS connections or plain connections that can use StartTLS.
+     * @return The listener configuration.
+     * @throws LDAPException If there was a problem creating the listener configuration or the TLS key material.
+     */
+    private static InMemoryListenerConfig createListenerConfig(final int port,
+                                                               final DirectoryServerConfiguration.Security security)
+            throws LDAPException {
+        switch (security) {
+            case LDAPS:
+                return new InMemoryListenerConfig("default", null, port,
+                        new ReuseAddressServerSocketFactory(DirectoryServerTls.getServerContext()
+                                .getServerSocketFactory()),
+                        DirectoryServerTls.getClientSocketFactory(), null);
+            case START_TLS:
+                return new InMemoryListenerConfig("default", null, port, ReuseAddressServerSocketFactory.INSTANCE,
+                        null, DirectoryServerTls.getServerContext().getSocketFactory());
+            default:
+                return new InMemoryListenerConfig("default", null, port, ReuseAddressServerSocketFactory.INSTANCE,
+                        null, null);
+        }
+    }
+}
@@ -0,0 +1,798 @@
+/*
+ * Copyright 2013-2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.FullLDAPInterface;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPConnectionOptions;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldif.LDIFException;
+import org.assertj.core.api.AssertProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Utility that maintains a connection to the LDAP directory server and provides assert and verify methods to
+ * test the LDAP directory contents.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 1.0.0
+ */
+public final class DirectoryTester implements AssertProvider<DirectoryAssertions>, AutoCloseable {
+
+    /**
+     * The default for the maximum connection attempts.
+     *
+     * @since 1.0.1
+     */
+    private static final int DEFAULT_RETRIES = 3;
+    /**
+     * The default for the connection timeout.
+     *
+     * @since 1.0.1
+     */
+    private static final int DEFAULT_TIMEOUT = 5000;
+    /**
+     * The default for the number of concurrent checks used when verifying many entries.
+     *
+     * @since 3.2.0
+     */
+    private static final int DEFAULT_PARALLELISM = 8;
+    /**
+     * The maximum number of missing entries listed in an assertion failure message.
+     *
+     * @since 3.2.0
+     */
+    private static final int MAX_REPORTED_DNS = 10;
+    /**
+     * The maximum time in milliseconds that the await methods wait before checking their condition again. Waiters
+     * are woken as soon as a change notifier reports a write, so this only bounds how late changes that bypass the
+     * notifier are noticed.
+     *
+     * @since 3.2.0
+     */
+    private static final long AWAIT_RECHECK_INTERVAL = 100L;
+    /**
+     * The connection to the LDAP directory server.
+     */
+    private final FullLDAPInterface connection;
+    /**
+     * The namespace to which distinguished names are mapped or {@code null} if they are used unchanged.
+     *
+     * @since 3.2.0
+     */
+    private final DirectoryNamespace namespace;
+    /**
+     * Reports the writes applied to the embedded LDAP directory server or {@code null} if the await methods have to
+     * check their condition periodically.
+     *
+     * @since 3.2.0
+     */
+    private final ChangeNotifier notifier;
+
+    /**
+     * Initialise the LDAP directory tester using an existing LDAP connection.
+     *
+     * @param connection The LDAP connection.
+     */
+    public DirectoryTester(final LDAPConnection connection) {
+        this((FullLDAPInterface) connection);
+    }
+
+    /**
+     * Initialise the LDAP directory tester using any interface to the LDAP directory server. For example, an
+     * {@link com.unboundid.ldap.listener.InMemoryDirectoryServer} can be used to test its contents in-process without
+     * a network connection. Closing the directory tester closes the interface.
+     *
+     * @param connection The interface to the LDAP directory server.
+     * @since 3.2.0
+     */
+    public DirectoryTester(final FullLDAPInterface connection) {
+        this(connection, null);
+    }
+
+    /**
+     * Initialise the LDAP directory tester using any interface to the LDAP directory server. Distinguished names
+     * below the base DN are mapped into the {@code namespace}.
+     *
+     * @param connection The interface to the LDAP directory server.
+     * @param namespace  The namespace or {@code null} if distinguished names are used unchanged.
+     * @since 3.2.0
+     */
+    DirectoryTester(final FullLDAPInterface connection,
+                    final DirectoryNamespace namespace) {
+        this(connection, namespace, connection instanceof InMemoryDirectoryServer
+                ? ChangeNotifier.find((InMemoryDirectoryServer) connection) : null);
+    }
+
+    /**
+     * Initialise the LDAP directory tester using any interface to the LDAP directory server. Distinguished names
+     * below the base DN are mapped into the {@code namespace} and the await methods re-check their condition
+     * whenever the {@code notifier} reports a write.
+     *
+     * @param connection The interface to the LDAP directory server.
+     * @param namespace  The namespace or {@code null} if distinguished names are used unchanged.
+     * @param notifier   The change notifier or {@code null} if the conditions are checked periodically.
+     * @since 3.2.0
+     */
+    DirectoryTester(final FullLDAPInterface connection,
+                    final DirectoryNamespace namespace,
+                    final ChangeNotifier notifier) {
+        this.connection = connection;
+        this.namespace = namespace;
+        this.notifier = notifier;
+    }
+
+    /**
+     * Initialise the LDAP directory tester using the default hostname of {@code localhost} and port number of
+     * {@link DirectoryServerConfiguration#DEFAULT_PORT}.
+     *
+     * @since 1.0.1
+     */
+    public DirectoryTester() {
+        this("localhost", DirectoryServerConfiguration.DEFAULT_PORT);
+    }
+
+    /**
+     * Initialise the LDAP directory tester by connecting to the LDAP directory server using the {@code hostname} and
+     * {@code port}.
+     *
+     * @param hostname The host name of the directory server.
+     * @param port     The TCP port number of the directory server.
+     * @throws DirectoryTesterException If there was a problem connecting to the LDAP directory server.
+     */
+    public DirectoryTester(final String hostname, final int port) {
+        this(hostname, port, DEFAULT_RETRIES, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Initialise the LDAP directory tester by connecting to the LDAP directory server using the {@code hostname} and
+     * {@code port}.The connection attempt is retried a maximum of {@code retries} times with a timeout of
+     * {@code timeout} for each attempt.
+     *
+     * @param hostname The host name of the directory server.
+     * @param port     The TCP port number of the directory server.
+     * @param retries  The maximum number of connection attempts.
+     * @param timeout  The timeout for each connection attempt.
+     * @throws DirectoryTesterException If there was a problem connecting to the LDAP directory server.
+     * @since 1.0.1
+     */
+    public DirectoryTester(final String hostname,
+                           final int port,
+                           final int retries,
+                           final int timeout) {
+        this(connect(hostname, port, retries, timeout));
+    }
+
+    /**
+     * Connect to the LDAP directory server using the {@code hostname} and {@code port}. The connection attempt is
+     * retried a maximum of {@code retries} times with a timeout of {@code timeout} for each attempt.
+     *
+     * @param hostname The host name of the directory server.
+     * @param port     The TCP port number of the directory server.
+     * @param retries  The maximum number of connection attempts.
+     * @param timeout  The timeout for each connection attempt.
+     * @return The connection.
+     * @throws DirectoryTesterException If there was a problem connecting to the LDAP directory server.
+     * @since 3.2.0
+     */
+    private static LDAPConnection connect(final String hostname,
+                                          final int port,
+                                          final int retries,
+                                          final int timeout) {
+        final LDAPConnection connection = new LDAPConnection();
+        final LDAPConnectionOptions options = new LDAPConnectionOptions();
+        options.setConnectTimeoutMillis(timeout);
+        int attempt = 0;
+        while (true) {
+            final long startTime = System.currentTimeMillis();
+            try {
+                connection.connect(hostname, port, timeout);
+                return connection;
+            } catch (final LDAPException e) {
+                if (attempt++ >= retries) {
+                    throw new DirectoryTesterException("Could not connect to LDAP directory server", e);
+                } else {
+                    long timeDifference = System.currentTimeMillis() - startTime;
+                    if (timeDifference < timeout) {
+                        try {
+                            Thread.sleep(timeout - timeDifference);
+                        } catch (final InterruptedException i) {
+                            throw new DirectoryTesterException("Could not connect to LDAP directory server", e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Initialise the LDAP directory tester by connecting to the LDAP directory server using the {@code hostname} and
+     * {@code port} and bind to it using the {@code bindDN} and {@code password}.
+     *
+     * @param hostname The host name of the directory server.
+     * @param port     The TCP port number of the directory server.
+     * @param bindDN   The DN used to bind to the LDAP directory server.
+     * @param password The password used to bind to the LDAP directory server.
+     * @throws DirectoryTesterException If there was a problem connecting to the LDAP directory server.
+     */
+    public DirectoryTester(final String hostname,
+                           final int port,
+                           final String bindDN,
+                           final String password) {
+        this(hostname, port, bindDN, password, DEFAULT_RETRIES, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Initialise the LDAP directory tester by connecting to the LDAP directory server using the {@code hostname} and
+     * {@code port} and bind to it using the {@code bindDN} and {@code password}. The connection attempt is retried
+     * a maximum of {@code retries} times with a timeout of {@code timeout} for each attempt.
+     *
+     * @param hostname The host name of the directory server.
+     * @param port     The TCP port number of the directory server.
+     * @param bindDN   The DN used to bind to the LDAP directory server.
+     * @param password The password used to bind to the LDAP directory server.
+     * @param retries  The maximum number of connection attempts.
+     * @param timeout  The timeout for each connection attempt.
+     * @throws DirectoryTesterException If there was a problem connecting to the LDAP directory server.
+     * @since 1.0.1
+     */
+    public DirectoryTester(final String hostname,
+                           final int port,
+                           final String bindDN,
+                           final String password,
+                           final int retries,
+                           final int timeout) {
+        this(hostname, port, retries, timeout);
+        try {
+            connection.bind(bindDN, password);
+        } catch (final LDAPException e) {
+            throw new DirectoryTesterException("Could not bind to LDAP directory server", e);
+        }
+    }
+
+    /**
+     * Verify that an entry identified by {@code dn} exists.
+     *
+     * @param dn The distinguished name.
+     * @return {@code true} if an entry identified by {@code dn} exists. Otherwise, {@code false} is returned.
+     */
+    public boolean verifyDNExists(final String dn) {
+        try {
+            final SearchResultEntry entry = connection.getEntry(map(dn));
+            return entry != null;
+        } catch (final LDAPException e) {
+            throw new DirectoryTesterException("Error communicating with LDAP directory server", e);
+        }
+    }
+
+    /**
+     * Verify that the entry identified by {@code dn} is of type {@code objectclass}.
+     *
+     * @param dn          The distinguished name.
+     * @param objectclass The type name.
+     * @return {@code true} if an entry identified by {@code dn} exists and has attribute named {@code objectclass}.
+     * Otherwise, {@code false} is returned.
+     */
+    public boolean verifyDNIsA(final String dn,
+                               final String objectclass) {
+        try {
+            final SearchResultEntry entry = connection.getEntry(map(dn), "objectclass");
+            return entry != null
+                    && entry.hasAttribute("objectclass")
+                    && arrayContains(entry.getAttributeValues("objectclass"), objectclass);
+        } catch (final LDAPException e) {
+            throw new DirectoryTesterException("Error communicating with LDAP directory server", e);
+        }
+    }
+
+    /**
+     * Verify that the entry identified by {@code dn} has an attribute named {@code attributeName}.
+     *
+     * @param dn            The distinguished name.
+     * @param attributeName The attribute name.
+     * @return {@code true} if an entry identified by {@code dn} exists and has an attributed named
+     * {@code attributeName}. Otherwise, {@code false} is returned.
+     */
+    public boolean verifyDNHasAttribute(final String dn,
+                                        final String attributeName) {
+        try {
+            final SearchResultEntry entry = connection.getEntry(map(dn), attributeName);
+            return entry != null && entry.hasAttribute(attributeName);
+        } catch (final LDAPException e) {
+            throw new DirectoryTesterException("Error communicating with LDAP directory server", e);
+        }
+    }
+
+    /**
+     * Verify that the entry identified by {@code dn} has an attribute named {@code attributeName} with
+     * the attribute value(s) {@code attributeName}.
+     *
+     * @param dn             The distinguished name.
+     * @param attributeName  The attribute name.
+     * @param attributeValue The attribute value(s).
+     * @return {@code true} if an antry identified by {@code dn} exists with an an attribute named {@code attributeName}
+     * that has value(s) {@code attributeValue}. Otherwise, {@code false} is returned.
+     */
+    public boolean verifyDNHasAttributeValue(final String dn,
+                                             final String attributeName,
+                                             final String... attributeValue) {
+        try {
+            final SearchResultEntry entry = connection.getEntry(map(dn), attributeName);
+            if (entry != null && entry.hasAttribute(attributeName)) {
+                final Set<String> expectedValues = new HashSet<>(Arrays.asList(
+                        namespace == null ? attributeValue : namespace.map(attributeValue)));
+                final Set<String> actualValues = new HashSet<>(Arrays.asList(entry.getAttributeValues(attributeName)));
+                if (actualValues.containsAll(expectedValues)) {
+                    actualValues.removeAll(expectedValues);
+                    if (actualValues.size() == 0) {
+                        return true;
+                    }
+                }
+            }
+        } catch (final LDAPException e) {
+            throw new DirectoryTesterException("Error communicating with LDAP directory server", e);
+        }
+        return false;
+    }
+
+    /**
+     * Verify that an entry exists for each of the distinguished names in {@code dns}. The checks are run
+     * concurrently using a pool of connections to the LDAP directory server.
+     *
+     * @param dns The distinguished names.
+     * @return {@code true} if an entry exists for each of the {@code dns}. Otherwise, {@code false} is returned.
+     * @since 3.2.0
+     */
+    public boolean verifyDNsExist(final Collection<String> dns) {
+        return findMissingDNs(dns).isEmpty();
+    }
+
+    /**
+     * Find the distinguished names in {@code dns} that do not identify an entry. The checks are run concurrently
+     * using a pool of connections to the LDAP directory server.
+     *
+     * @param dns The distinguished names.
+     * @return The distinguished names that do not identify an entry.
+     * @since 3.2.0
+     */
+    public Set<String> findMissingDNs(final Collection<String> dns) {
+        return findMissingDNs(dns, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Find the distinguished names in {@code dns} that do not identify an entry. The checks are run concurrently
+     * using a pool of {@code parallelism} connections to the LDAP directory server. Virtual threads are used to
+     * run the checks on Java 21 or later and a bounded pool of platform threads is used otherwise.
+     *
+     * @param dns         The distinguished names.
+     * @param parallelism The maximum number of concurrent checks.
+     * @return The distinguished names that do not identify an entry.
+     * @since 3.2.0
+     */
+    public Set<String> findMissingDNs(final Collection<String> dns,
+                                      final int parallelism) {
+        try {
+            if (namespace == null) {
+                return findMissingMappedDNs(dns, parallelism);
+            }
+            final Map<String, String> originalDNs = new HashMap<>();
+            for (final String dn : dns) {
+                originalDNs.put(namespace.map(dn), dn);
+            }
+            final Set<String> missing = new HashSet<>();
+            for (final String dn : findMissingMappedDNs(originalDNs.keySet(), parallelism)) {
+                missing.add(originalDNs.get(dn));
+            }
+            return missing;
+        } catch (final LDAPException e) {
+            throw new DirectoryTesterException("Error communicating with LDAP directory server", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DirectoryTesterException("Interrupted while communicating with LDAP directory server", e);
+        }
+    }
+
+    /**
+     * Find the distinguished names in {@code dns}, which have already been mapped into the namespace, that do not
+     * identify an entry.
+     *
+     * @param dns         The distinguished names.
+     * @param parallelism The maximum number of concurrent checks.
+     * @return The distinguished names that do not identify an entry.
+     * @throws LDAPException        If there was a problem communicating with the LDAP directory server.
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the checks to complete.
+     * @since 3.2.0
+     */
+    private Set<String> findMissingMappedDNs(final Collection<String> dns,
+                                             final int parallelism)
+            throws LDAPException, InterruptedException {
+        if (connection instanceof LDAPConnection) {
+            return ParallelVerifier.findMissingDNs((LDAPConnection) connection, dns, parallelism);
+        } else {
+            return ParallelVerifier.findMissingDNs(connection, dns, parallelism);
+        }
+    }
+
+    /**
+     * Map a distinguished name into the namespace.
+     *
+     * @param dn The distinguished name.
+     * @return The mapped distinguished name.
+     * @since 3.2.0
+     */
+    private String map(final String dn) {
+        return namespace == null ? dn : namespace.map(dn);
+    }
+
+    /**
+     * Create a directory tester that shares the connection of this one but maps distinguished names into the
+     * {@code namespace}.
+     *
+     * @param namespace The namespace.
+     * @return The directory tester.
+     * @since 3.2.0
+     */
+    DirectoryTester inNamespace(final DirectoryNamespace namespace) {
+        return new DirectoryTester(connection, namespace, notifier);
+    }
+
+    /**
+     * Get the distinguished name of the {@code ou=test-<uuid>} subtree that holds the data for the test when it
+     * uses the {@link DirectoryServerConfiguration.Lifecycle#NAMESPACE} lifecycle. Code under test that talks to the
+     * directory server directly, rather than through this tester, has to read and write below this subtree.
+     *
+     * @return The distinguished name of the subtree or {@code null} if distinguished names are used unchanged.
+     * @since 3.2.0
+     */
+    public String getNamespaceDN() {
+        return namespace == null ? null : namespace.getDN();
+    }
+
+    /**
+     * Assert that an entry identified by {@code dn} exists.
+     *
+     * @param dn The distinguished name.
+     */
+    public void assertDNExists(final String dn) {
+        if (!verifyDNExists(dn)) {
+            final StringBuilder message = new StringBuilder("Entry for DN: ");
+            message.append(dn);
+            message.append(" does not exist");
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Assert that an entry exists for each of the distinguished names in {@code dns}. The checks are run
+     * concurrently using a pool of connections to the LDAP directory server.
+     *
+     * @param dns The distinguished names.
+     * @since 3.2.0
+     */
+    public void assertDNsExist(final Collection<String> dns) {
+        final Set<String> missing = findMissingDNs(dns);
+        if (!missing.isEmpty()) {
+            final StringBuilder message = new StringBuilder("Entries for ");
+            message.append(missing.size());
+            message.append(" of ");
+            message.append(dns.size());
+            message.append(" DNs do not exist: [");
+            final Iterator<String> iterator = new TreeSet<>(missing).iterator();
+            for (int i = 0; i < MAX_REPORTED_DNS && iterator.hasNext(); i++) {
+                if (i > 0) {
+                    message.append(';');
+                }
+                message.append(iterator.next());
+            }
+            if (iterator.hasNext()) {
+                message.append(";...");
+            }
+            message.append(']');
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Assert that the entry identified by {@code dn} is of type {@code objectclass}.
+     *
+     * @param dn          The distinguished name.
+     * @param objectclass The type name.
+     */
+    public void assertDNIsA(final String dn,
+                            final String objectclass) {
+        if (!verifyDNIsA(dn, objectclass)) {
+            final StringBuilder message = new StringBuilder("Entry for DN: ");
+            message.append(dn);
+            message.append(" is not of type: ");
+            message.append(objectclass);
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Assert that the entry identified by {@code dn} has an attribute named {@code attributeName}.
+     *
+     * @param dn            The distinguished name.
+     * @param attributeName The attribute name.
+     */
+    public void assertDNHasAttribute(final String dn,
+                                     final String attributeName) {
+        if (!verifyDNHasAttribute(dn, attributeName)) {
+            final StringBuilder message = new StringBuilder("Entry for DN: ");
+            message.append(dn);
+            message.append(" does not have attribute: ");
+            message.append(attributeName);
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Assert that the entry identified by {@code dn} has an attribute named {@code attributeName} with
+     * the attribute value(s) {@code attributeName}.
+     *
+     * @param dn             The distinguished name.
+     * @param attributeName  The attribute name.
+     * @param attributeValue The attribute value(s).
+     */
+    public void assertDNHasAttributeValue(final String dn,
+                                          final String attributeName,
+                                          final String... attributeValue) {
+        if (!verifyDNHasAttributeValue(dn, attributeName, attributeValue)) {
+            final StringBuilder message = new StringBuilder("Attribute named: ");
+            message.append(attributeName);
+            message.append(" for entry for DN: ");
+            message.append(dn);
+            message.append(" is does not match: ");
+            message.append(arrayToString(attributeValue));
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Wait until an entry identified by {@code dn} exists. The condition is checked again as soon as the embedded LDAP
+     * directory server applies a write, so the wait ends the moment the entry is added.
+     *
+     * @param dn      The distinguished name.
+     * @param timeout The maximum time to wait.
+     * @return The time it took for the entry to appear.
+     * @since 3.2.0
+     */
+    public Duration awaitDNExists(final String dn,
+                                  final Duration timeout) {
+        return await(() -> verifyDNExists(dn), timeout, () -> {
+            final StringBuilder message = new StringBuilder("Entry for DN: ");
+            message.append(dn);
+            message.append(" does not exist");
+            return message;
+        });
+    }
+
+    /**
+     * Wait until the entry identified by {@code dn} has an attribute named {@code attributeName}. The condition is
+     * checked again as soon as the embedded LDAP directory server applies a write.
+     *
+     * @param dn            The distinguished name.
+     * @param attributeName The attribute name.
+     * @param timeout       The maximum time to wait.
+     * @return The time it took for the attribute to appear.
+     * @since 3.2.0
+     */
+    public Duration awaitDNHasAttribute(final String dn,
+                                        final String attributeName,
+                                        final Duration timeout) {
+        return await(() -> verifyDNHasAttribute(dn, attributeName), timeout, () -> {
+            final StringBuilder message = new StringBuilder("Entry for DN: ");
+            message.append(dn);
+            message.append(" does not have attribute: ");
+            message.append(attributeName);
+            return message;
+        });
+    }
+
+    /**
+     * Wait until the entry identified by {@code dn} has an attribute named {@code attributeName} with the attribute
+     * value(s) {@code attributeValue}. The condition is checked again as soon as the embedded LDAP directory server
+     * applies a write.
+     *
+     * @param dn             The distinguished name.
+     * @param attributeName  The attribute name.
+     * @param timeout        The maximum time to wait.
+     * @param attributeValue The attribute value(s).
+     * @return The time it took for the attribute to have the value(s).
+     * @since 3.2.0
+     */
+    public Duration awaitDNHasAttributeValue(final String dn,
+                                             final String attributeName,
+                                             final Duration timeout,
+                                             final String... attributeValue) {
+        return await(() -> verifyDNHasAttributeValue(dn, attributeName, attributeValue), timeout, () -> {
+            final StringBuilder message = new StringBuilder("Attribute named: ");
+            message.append(attributeName);
+            message.append(" for entry for DN: ");
+            message.append(dn);
+            message.append(" is does not match: ");
+            message.append(arrayToString(attributeValue));
+            return message;
+        });
+    }
+
+    /**
+     * Compare the subtree below {@code baseDN} with the entries of an expected LDIF file. Both are sorted by DN with an
+     * external merge sort and merged, so the memory used does not depend on the size of the directory. Expected
+     * entries outside the subtree are ignored.
+     *
+     * @param baseDN            The base DN of the subtree.
+     * @param ldifFile          The expected LDIF file on the classpath or file system.
+     * @param ignoredAttributes The attributes that are not compared, such as generated timestamps.
+     * @return The missing, unexpected and changed entries.
+     * @since 3.2.0
+     */
+    public DirectoryDiff compareSubtree(final String baseDN,
+                                        final String ldifFile,
+                                        final String... ignoredAttributes) {
+        final InputStream expected = DirectoryServerUtils.getInputStream(ldifFile);
+        if (expected == null) {
+            throw new DirectoryTesterException("Cannot find LDIF file: " + ldifFile);
+        }
+        try (InputStream inputStream = expected) {
+            return DirectoryComparator.compare(connection, namespace, map(baseDN), inputStream,
+                    DirectoryComparator.DEFAULT_RUN_SIZE, DirectoryComparator.DEFAULT_REPORT_LIMIT, ignoredAttributes);
+        } catch (final LDAPException e) {
+            throw new DirectoryTesterException("Error communicating with LDAP directory server", e);
+        } catch (final LDIFException | IOException e) {
+            throw new DirectoryTesterException("Error reading LDIF file: " + ldifFile, e);
+        }
+    }
+
+    /**
+     * Assert that the subtree below {@code baseDN} contains exactly the entries of an expected LDIF file.
+     *
+     * @param baseDN            The base DN of the subtree.
+     * @param ldifFile          The expected LDIF file on the classpath or file system.
+     * @param ignoredAttributes The attributes that are not compared, such as generated timestamps.
+     * @since 3.2.0
+     */
+    public void assertSubtreeMatches(final String baseDN,
+                                     final String ldifFile,
+                                     final String... ignoredAttributes) {
+        final DirectoryDiff diff = compareSubtree(baseDN, ldifFile, ignoredAttributes);
+        if (!diff.isEmpty()) {
+            throw new AssertionError(diff.toString());
+        }
+    }
+
+    /**
+     * Disconnect from the LDAP directory server.
+     */
+    public void disconnect() {
+        connection.close();
+    }
+
+    /**
+     * Close The directory tester by disconnecting from the LDAP directory server.
+     *
+     * @since 2.0.0
+     */
+    public void close() {
+        disconnect();
+    }
+
+    /**
+     * Wait until a condition holds. The version of the change notifier is read before the condition is checked so
+     * that a write made while checking wakes the waiter straight away. Without a change notifier the condition is
+     * checked periodically.
+     *
+     * @param condition The condition.
+     * @param timeout   The maximum time to wait.
+     * @param message   Describes the condition that did not hold when the wait times out.
+     * @return The time it took for the condition to hold.
+     * @since 3.2.0
+     */
+    private Duration await(final BooleanSupplier condition,
+                           final Duration timeout,
+                           final Supplier<StringBuilder> message) {
+        final long start = System.nanoTime();
+        final long deadline = start + timeout.toNanos();
+        try {
+            while (true) {
+                final long version = notifier == null ? 0L : notifier.getVersion();
+                if (condition.getAsBoolean()) {
+                    return Duration.ofNanos(System.nanoTime() - start);
+                }
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    final StringBuilder failure = message.get();
+                    failure.append(" after waiting ");
+                    failure.append(timeout.toMillis());
+                    failure.append("ms");
+                    throw new AssertionError(failure);
+                }
+                final long wait = Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(AWAIT_RECHECK_INTERVAL));
+                if (notifier == null) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } else {
+                    notifier.awaitChange(version, wait);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DirectoryTesterException("Interrupted while waiting for LDAP directory server", e);
+        }
+    }
+
+    /**
+     * Check if {@code item} is present in {@code items} ignoring case.
+     *
+     * @param items An array of items.
+     * @param item  The item being searched for.
+     * @return {@code true} if {@code item} is present in {@code items}. Otherwise, {@code false}.
+     */
+    private boolean arrayContains(final String[] items,
+                                  final String item) {
+        for (final String value : items) {
+            if (item.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convert an array of strings to string.
+     *
+     * @param items The array of strings.
+     * @return The formatted string.
+     */
+    private String arrayToString(final String[] items) {
+        final StringBuilder builder = new StringBuilder("[");
+        if (items.length > 0) {
+            builder.append(items[0]);
+            for (int i = 1; i < items.length; i++) {
+                builder.append(',');
+                builder.append(items[i]);
+            }
+        }
+        builder.append(']');
+        return builder.toString();
+    }
+
+    /**
+     * Provide the assertions object.
+     *
+     * @return The assertions object.
+     */
+    @Override
+    public DirectoryAssertions assertThat() {
+        return new DirectoryAssertions(this);
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldif.LDIFException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A set of LDAP directory servers, called nodes, that start with identical data and each listen on their own port.
+ * A topology is created for tests whose configuration sets {@link DirectoryServerConfiguration#nodes()} to more than
+ * one. The {@link #getAddresses()} and {@link #getPorts()} methods return the arrays expected by the UnboundID
+ * server sets, such as {@code RoundRobinServerSet}, {@code FewestConnectionsServerSet} and {@code FailoverServerSet},
+ * so that tests can exercise the connection pool and failover logic of their clients. Individual nodes can be
+ * stopped and restarted on the same port, paused or slowed down, and the number of requests each node has received
+ * shows how the load was spread.
+ * <p>
+ * The nodes are forks of one loaded server. Unless {@link DirectoryServerConfiguration#replication()} is enabled,
+ * changes made on one node are not copied to the others. When it is enabled, writes received over LDAP are copied to
+ * the other nodes asynchronously after the configured lag, so tests can observe how their clients behave when they
+ * read from a replica that has not caught up. Changes made in-process by calling the node's methods directly are
+ * never replicated.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class DirectoryTopology {
+
+    /**
+     * The nodes.
+     */
+    private final List<InMemoryDirectoryServer> servers;
+
+    /**
+     * The interceptors that control the nodes.
+     */
+    private final List<TopologyInterceptor> interceptors;
+
+    /**
+     * The ports on which the nodes listen.
+     */
+    private final int[] ports;
+
+    /**
+     * Copies writes between the nodes or {@code null} if replication is not enabled.
+     */
+    private final DirectoryReplicator replicator;
+
+    /**
+     * Initialise the topology.
+     *
+     * @param servers      The nodes.
+     * @param interceptors The interceptors that control the nodes.
+     * @param ports        The ports on which the nodes listen.
+     * @param replicator   Copies writes between the nodes or {@code null} if replication is not enabled.
+     */
+    private DirectoryTopology(final List<InMemoryDirectoryServer> servers,
+                              final List<TopologyInterceptor> interceptors,
+                              final int[] ports,
+                              final DirectoryReplicator replicator) {
+        this.servers = Collections.unmodifiableList(servers);
+        this.interceptors = interceptors;
+        this.ports = ports;
+        this.replicator = replicator;
+    }
+
+    /**
+     * Create and start the nodes of a topology. The data is loaded once, or taken from the shared template with the
+     * {@link DirectoryServerConfiguration.Lifecycle#FORK} lifecycle, and every node is forked from it. The fixture,
+     * if any, is applied to every node. If replication is enabled, each node passes the writes it accepts to a
+     * replicator shared by the topology.
+     *
+     * @param annotation The configuration.
+     * @param fixture    The fixture or {@code null} if there is none.
+     * @return The topology.
+     * @throws LDIFException If there was an error in the LDIF data.
+     * @throws LDAPException If there was a problem configuring or starting the nodes or the lifecycle shares servers
+     *                       between tests.
+     * @throws IOException   If there was a problem reading the LDIF data.
+     */
+    static DirectoryTopology start(final DirectoryServerConfiguration annotation,
+                                   final DirectoryFixture fixture)
+            throws LDIFException, LDAPException, IOException {
+        if (annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.NAMESPACE
+                || annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.READ_ONLY) {
+            throw new LDAPException(ResultCode.UNWILLING_TO_PERFORM,
+                    "A topology cannot be created with the " + annotation.lifecycle() + " lifecycle");
+        }
+        final boolean fork = annotation.lifecycle() == DirectoryServerConfiguration.Lifecycle.FORK;
+        final InMemoryDirectoryServer source = fork
+                ? DirectoryServerRegistry.getTemplate(annotation)
+                : DirectoryServerUtils.createServer(annotation);
+        final List<InMemoryDirectoryServer> servers = new ArrayList<>(annotation.nodes());
+        final List<TopologyInterceptor> interceptors = new ArrayList<>(annotation.nodes());
+        final int[] ports = new int[annotation.nodes()];
+        final DirectoryReplicator replicator = annotation.replication().enabled()
+                ? new DirectoryReplicator(servers, annotation.replication())
+                : null;
+        final DirectoryTopology topology = new DirectoryTopology(servers, interceptors, ports, replicator);
+        try {
+            for (int i = 0; i < ports.length; i++) {
+                final TopologyInterceptor interceptor = new TopologyInterceptor();
+                final InMemoryDirectoryServer server = replicator == null
+                        ? DirectoryServerUtils.forkServer(source, 0, PinnedPortServerSocketFactory::new, interceptor)
+                        : DirectoryServerUtils.forkServer(source, 0, PinnedPortServerSocketFactory::new, interceptor,
+                                new ReplicationInterceptor(i, replicator));
+                servers.add(server);
+                interceptors.add(interceptor);
+                if (fixture != null) {
+                    DirectoryServerUtils.applyFixture(server, fixture, null);
+                }
+                DirectoryServerUtils.startListening(server);
+                ports[i] = server.getListenPort();
+            }
+        } catch (final LDIFException | LDAPException | IOException | RuntimeException e) {
+            topology.close();
+            throw e;
+        } finally {
+            if (!fork) {
+                DirectoryServerUtils.stopServer(source);
+            }
+        }
+        return topology;
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return The number of nodes.
+     */
+    public int size() {
+        return servers.size();
+    }
+
+    /**
+     * Get the addresses of the nodes in the form expected by the UnboundID server sets.
+     *
+     * @return The addresses, which are all {@code localhost}.
+     */
+    public String[] getAddresses() {
+        final String[] addresses = new String[ports.length];
+        Arrays.fill(addresses, "localhost");
+        return addresses;
+    }
+
+    /**
+     * Get the ports of the nodes in the form expected by the UnboundID server sets.
+     *
+     * @return The ports.
+     */
+    public int[] getPorts() {
+        return ports.clone();
+    }
+
+    /**
+     * Get the port on which a node listens. The port does not change when the node is restarted.
+     *
+     * @param node The index of the node.
+     * @return The port.
+     */
+    public int getPort(final int node) {
+        return ports[node];
+    }
+
+    /**
+     * Get a node. Changes made directly to the node are not visible to the other nodes.
+     *
+     * @param node The index of the node.
+     * @return The node.
+     */
+    public InMemoryDirectoryServer getServer(final int node) {
+        return servers.get(node);
+    }
+
+    /**
+     * Stop a node from listening and close its connections. Requests held by {@link #pause(int)} are released first.
+     *
+     * @param node The index of the node.
+     */
+    public void stop(final int node) {
+        interceptors.get(node).resume();
+        servers.get(node).shutDown(true);
+    }
+
+    /**
+     * Restart a stopped node on the same port.
+     *
+     * @param node The index of the node.
+     * @throws LDAPException If the node could not be started.
+     */
+    public void start(final int node)
+            throws LDAPException {
+        if (!isRunning(node)) {
+            DirectoryServerUtils.startListening(servers.get(node));
+        }
+    }
+
+    /**
+     * Check if a node is listening.
+     *
+     * @param node The index of the node.
+     * @return {@code true} if the node is listening. Otherwise, {@code false}.
+     */
+    public boolean isRunning(final int node) {
+        return servers.get(node).getListenPort() > 0;
+    }
+
+    /**
+     * Hold the requests sent to a node until it is resumed, simulating a node that accepts connections but has stopped
+     * responding.
+     *
+     * @param node The index of the node.
+     */
+    public void pause(final int node) {
+        interceptors.get(node).pause();
+    }
+
+    /**
+     * Release the requests held by a paused node and stop holding new ones.
+     *
+     * @param node The index of the node.
+     */
+    public void resume(final int node) {
+        interceptors.get(node).resume();
+    }
+
+    /**
+     * Check if a node is paused.
+     *
+     * @param node The index of the node.
+     * @return {@code true} if the node is paused. Otherwise, {@code false}.
+     */
+    public boolean isPaused(final int node) {
+        return interceptors.get(node).isPaused();
+    }
+
+    /**
+     * Slow down a node by delaying every request it receives.
+     *
+     * @param node   The index of the node.
+     * @param millis The delay in milliseconds or zero to remove the delay.
+     */
+    public void setDelay(final int node,
+                         final long millis) {
+        interceptors.get(node).setDelay(millis);
+    }
+
+    /**
+     * Get the number of requests, including binds, that a node has received.
+     *
+     * @param node The index of the node.
+     * @return The number of requests.
+     */
+    public long getOperationCount(final int node) {
+        return interceptors.get(node).getOperationCount();
+    }
+
+    /**
+     * Reset the number of requests received by every node to zero.
+     */
+    public void resetOperationCounts() {
+        for (final TopologyInterceptor interceptor : interceptors) {
+            interceptor.resetOperationCount();
+        }
+    }
+
+    /**
+     * Wait for the writes accepted so far to be copied to every node. It returns immediately if replication is not
+     * enabled.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of {@code timeout}.
+     * @return {@code true} if the nodes caught up. Otherwise, {@code false}.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public boolean awaitReplication(final long timeout,
+                                    final TimeUnit unit)
+            throws InterruptedException {
+        return replicator == null || replicator.await(timeout, unit);
+    }
+
+    /**
+     * Get the number of writes that have been accepted but not yet copied to the other nodes.
+     *
+     * @return The number of writes or zero if replication is not enabled.
+     */
+    public int getReplicationBacklog() {
+        return replicator == null ? 0 : replicator.getBacklog();
+    }
+
+    /**
+     * Get the number of writes copied to the other nodes.
+     *
+     * @return The number of writes or zero if replication is not enabled.
+     */
+    public long getReplicatedChangeCount() {
+        return replicator == null ? 0L : replicator.getReplicatedChangeCount();
+    }
+
+    /**
+     * Get the number of batches in which writes were copied to the other nodes.
+     *
+     * @return The number of batches or zero if replication is not enabled.
+     */
+    public long getReplicationBatchCount() {
+        return replicator == null ? 0L : replicator.getBatchCount();
+    }
+
+    /**
+     * Get the number of times a write could not be copied to a node because it conflicted with a change made on that
+     * node.
+     *
+     * @return The number of conflicts or zero if replication is not enabled.
+     */
+    public long getReplicationConflictCount() {
+        return replicator == null ? 0L : replicator.getConflictCount();
+    }
+
+    /**
+     * Stop replication, release any held requests and shut down every node.
+     */
+    void close() {
+        if (replicator != null) {
+            replicator.close();
+        }
+        for (final TopologyInterceptor interceptor : interceptors) {
+            interceptor.resume();
+        }
+        for (final InMemoryDirectoryServer server : servers) {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.asn1.ASN1Element;
+import com.unboundid.asn1.ASN1Exception;
+import com.unboundid.asn1.ASN1Long;
+import com.unboundid.asn1.ASN1Sequence;
+import com.unboundid.asn1.ASN1StreamReader;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.protocol.AddRequestProtocolOp;
+import com.unboundid.ldap.protocol.BindRequestProtocolOp;
+import com.unboundid.ldap.protocol.CompareRequestProtocolOp;
+import com.unboundid.ldap.protocol.DeleteRequestProtocolOp;
+import com.unboundid.ldap.protocol.ExtendedRequestProtocolOp;
+import com.unboundid.ldap.protocol.LDAPMessage;
+import com.unboundid.ldap.protocol.ModifyDNRequestProtocolOp;
+import com.unboundid.ldap.protocol.ModifyRequestProtocolOp;
+import com.unboundid.ldap.protocol.ProtocolOp;
+import com.unboundid.ldap.protocol.SearchRequestProtocolOp;
+import com.unboundid.ldap.sdk.Control;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPResult;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldif.LDIFException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The requests recorded by embedded LDAP directory servers configured with
+ * {@link DirectoryServerConfiguration#trafficFile()}. The recording can be replayed against another server, such as
+ * a fresh embedded server loaded with the same data, to turn a functional test into a load test. Each recorded
+ * connection is replayed on a connection of its own, so connections that were concurrent when the traffic was
+ * recorded are concurrent when it is replayed, up to {@link #MAX_THREADS} at a time. The connections are established
+ * before the replay is timed. Within a connection, requests are sent in the order they were received and, unless the
+ * replay is unthrottled, no earlier than their original offset from the first request divided by the speed-up factor.
+ * The recording contains the credentials of simple binds.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class DirectoryTraffic {
+
+    /**
+     * The maximum number of recorded connections that are replayed at the same time. The remaining connections are
+     * replayed, in the order of their first request, as earlier ones complete.
+     */
+    static final int MAX_THREADS = 64;
+
+    /**
+     * The recorded requests in the order they were received.
+     */
+    private final List<Request> requests;
+
+    /**
+     * Initialise the traffic.
+     *
+     * @param requests The recorded requests in the order they were received.
+     */
+    private DirectoryTraffic(final List<Request> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Wait for the requests recorded so far by every server in the JVM to be written to their files.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of {@code timeout}.
+     * @return {@code true} if the requests were written. Otherwise, {@code false}.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public static boolean flush(final long timeout,
+                                final TimeUnit unit)
+            throws InterruptedException {
+        return BackgroundFileWriter.flush(timeout, unit);
+    }
+
+    /**
+     * Load the requests recorded in a file.
+     *
+     * @param file The file.
+     * @return The traffic.
+     * @throws IOException   If the file could not be read.
+     * @throws LDAPException If the file does not contain recorded requests.
+     */
+    public static DirectoryTraffic load(final Path file)
+            throws IOException, LDAPException {
+        final List<Request> requests = new ArrayList<>();
+        try (InputStream inputStream = Files.newInputStream(file);
+             ASN1StreamReader reader = new ASN1StreamReader(inputStream)) {
+            ASN1Element element = reader.readElement();
+            while (element != null) {
+                requests.add(Request.decode(element));
+                element = reader.readElement();
+            }
+        }
+        requests.sort(Comparator.comparingLong(request -> request.timestamp));
+        return new DirectoryTraffic(Collections.unmodifiableList(requests));
+    }
+
+    /**
+     * Get the number of recorded requests.
+     *
+     * @return The number of requests.
+     */
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Get the number of recorded connections.
+     *
+     * @return The number of connections.
+     */
+    public int getConnectionCount() {
+        return groupByConnection().size();
+    }
+
+    /**
+     * Get the time between the first and last recorded requests.
+     *
+     * @return The duration.
+     */
+    public Duration getDuration() {
+        if (requests.isEmpty()) {
+            return Duration.ZERO;
+        }
+        return Duration.of(requests.get(requests.size() - 1).timestamp - requests.get(0).timestamp,
+                ChronoUnit.MICROS);
+    }
+
+    /**
+     * Replay the requests against an embedded LDAP directory server.
+     *
+     * @param server  The embedded LDAP directory server, which must be listening.
+     * @param speedUp How many times faster than recorded to send the requests or
+     *                {@link Double#POSITIVE_INFINITY} to send each request as soon as the previous request on the
+     *                same connection has completed.
+     * @return The outcome of the replay.
+     * @throws LDAPException If a connection could not be established or the thread was interrupted.
+     */
+    public Result replay(final InMemoryDirectoryServer server,
+                         final double speedUp)
+            throws LDAPException {
+        return replay("localhost", server.getListenPort(), speedUp);
+    }
+
+    /**
+     * Replay the requests against an LDAP directory server.
+     *
+     * @param host    The host name or address of the server.
+     * @param port    The port the server is listening on.
+     * @param speedUp How many times faster than recorded to send the requests or
+     *                {@link Double#POSITIVE_INFINITY} to send each request as soon as the previous request on the
+     *                same connection has completed.
+     * @return The outcome of the replay.
+     * @throws LDAPException If a connection could not be established or the thread was interrupted.
+     */
+    public Result replay(final String host,
+                         final int port,
+                         final double speedUp)
+            throws LDAPException {
+        if (!(speedUp > 0.0)) {
+            throw new LDAPException(ResultCode.PARAM_ERROR, "The speed-up factor must be positive");
+        }
+        final Collection<List<Request>> connections = groupByConnection().values();
+        final Result result = new Result();
+        if (requests.isEmpty()) {
+            return result;
+        }
+        final long first = requests.get(0).timestamp;
+        final List<LDAPConnection> established = new ArrayList<>(connections.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(connections.size(), MAX_THREADS),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "ldapunit-replay");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            for (int i = 0; i < connections.size(); i++) {
+                established.add(new LDAPConnection(host, port));
+            }
+            final long started = System.nanoTime();
+            final List<Future<Void>> futures = new ArrayList<>(connections.size());
+            int index = 0;
+            for (final List<Request> connection : connections) {
+                final LDAPConnection ldapConnection = established.get(index++);
+                futures.add(executor.submit(() -> {
+                    replay(ldapConnection, connection, first, started, speedUp, result);
+                    return null;
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                DirectoryServerUtils.await(future);
+            }
+            result.elapsed = System.nanoTime() - started;
+        } catch (final LDIFException | IOException e) {
+            throw new LDAPException(ResultCode.LOCAL_ERROR, "Failed to replay the recorded traffic", e);
+        } finally {
+            executor.shutdownNow();
+            for (final LDAPConnection connection : established) {
+                connection.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replay the requests of one recorded connection on an established connection.
+     *
+     * @param connection The connection.
+     * @param requests   The requests of the recorded connection.
+     * @param first      The time the first request of the recording was received in microseconds since the epoch.
+     * @param started    The value of {@link System#nanoTime()} when the replay started.
+     * @param speedUp    How many times faster than recorded to send the requests.
+     * @param result     Collects the outcome of the replay.
+     * @throws InterruptedException If the thread was interrupted while waiting to send a request.
+     */
+    private static void replay(final LDAPConnection connection,
+                               final List<Request> requests,
+                               final long first,
+                               final long started,
+                               final double speedUp,
+                               final Result result)
+            throws InterruptedException {
+        for (final Request request : requests) {
+            if (!Double.isInfinite(speedUp)) {
+                final long due = started + (long) (TimeUnit.MICROSECONDS.toNanos(request.timestamp - first)
+                        / speedUp);
+                final long remaining = due - System.nanoTime();
+                if (remaining > 0L) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            }
+            result.operations.increment();
+            try {
+                final LDAPResult ldapResult = request.send(connection);
+                if (ldapResult.getResultCode() != ResultCode.SUCCESS
+                        && ldapResult.getResultCode() != ResultCode.COMPARE_TRUE
+                        && ldapResult.getResultCode() != ResultCode.COMPARE_FALSE) {
+                    result.failures.increment();
+                }
+            } catch (final LDAPException e) {
+                result.failures.increment();
+            }
+        }
+    }
+
+    /**
+     * Group the requests by the connection on which they were received, keeping the order in which they were
+     * received.
+     *
+     * @return The requests of each connection.
+     */
+    private Map<List<Long>, List<Request>> groupByConnection() {
+        final Map<List<Long>, List<Request>> connections = new LinkedHashMap<>();
+        for (final Request request : requests) {
+            connections.computeIfAbsent(List.of(request.session, request.connectionID), key -> new ArrayList<>())
+                    .add(request);
+        }
+        return connections;
+    }
+
+    /**
+     * The outcome of a replay.
+     *
+     * @since 3.2.0
+     */
+    public static final class Result {
+
+        /**
+         * The number of requests sent.
+         */
+        private final LongAdder operations = new LongAdder();
+
+        /**
+         * The number of requests that did not succeed.
+         */
+        private final LongAdder failures = new LongAdder();
+
+        /**
+         * The time taken by the replay in nanoseconds.
+         */
+        private long elapsed;
+
+        /**
+         * Hidden constructor.
+         */
+        private Result() {
+        }
+
+        /**
+         * Get the number of requests sent.
+         *
+         * @return The number of requests.
+         */
+        public long getOperationCount() {
+            return operations.sum();
+        }
+
+        /**
+         * Get the number of requests that did not succeed. A request that failed when it was recorded, such as a
+         * search used to check that an entry does not exist, also fails when it is replayed.
+         *
+         * @return The number of requests.
+         */
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        /**
+         * Get the time taken by the replay.
+         *
+         * @return The duration.
+         */
+        public Duration getElapsed() {
+            return Duration.ofNanos(elapsed);
+        }
+
+        /**
+         * Get the number of requests sent per second.
+         *
+         * @return The throughput.
+         */
+        public double getThroughput() {
+            return elapsed == 0L ? 0.0 : getOperationCount() * 1.0e9 / elapsed;
+        }
+    }
+
+    /**
+     * A recorded request.
+     */
+    private static final class Request {
+
+        /**
+         * The time the request was received in microseconds since the epoch.
+         */
+        private final long timestamp;
+
+        /**
+         * The session of the server that received the request.
+         */
+        private final long session;
+
+        /**
+         * The connection on which the request was received.
+         */
+        private final long connectionID;
+
+        /**
+         * The request.
+         */
+        private final LDAPMessage message;
+
+        /**
+         * Initialise the request.
+         *
+         * @param timestamp    The time the request was received in microseconds since the epoch.
+         * @param session      The session of the server that received the request.
+         * @param connectionID The connection on which the request was received.
+         * @param message      The request.
+         */
+        private Request(final long timestamp,
+                        final long session,
+                        final long connectionID,
+                        final LDAPMessage message) {
+            this.timestamp = timestamp;
+            this.session = session;
+            this.connectionID = connectionID;
+            this.message = message;
+        }
+
+        /**
+         * Decode a request written by {@link TrafficRecorder}.
+         *
+         * @param element The encoded request.
+         * @return The request.
+         * @throws LDAPException If the element is not a recorded request.
+         */
+        private static Request decode(final ASN1Element element)
+                throws LDAPException {
+            try {
+                final ASN1Element[] elements = ASN1Sequence.decodeAsSequence(element).elements();
+                return new Request(
+                        ASN1Long.decodeAsLong(elements[0]).longValue(),
+                        ASN1Long.decodeAsLong(elements[1]).longValue(),
+                        ASN1Long.decodeAsLong(elements[2]).longValue(),
+                        LDAPMessage.decode(elements[3]));
+            } catch (final ASN1Exception | ArrayIndexOutOfBoundsException e) {
+                throw new LDAPException(ResultCode.DECODING_ERROR, "Not a recorded request", e);
+            }
+        }
+
+        /**
+         * Send the request on a connection.
+         *
+         * @param connection The connection.
+         * @return The result.
+         * @throws LDAPException If the request failed.
+         */
+        private LDAPResult send(final LDAPConnection connection)
+                throws LDAPException {
+            final ProtocolOp protocolOp = message.getProtocolOp();
+            final Control[] controls = message.getControls().toArray(new Control[0]);
+            if (protocolOp instanceof SearchRequestProtocolOp) {
+                return connection.search(((SearchRequestProtocolOp) protocolOp).toSearchRequest(controls));
+            } else if (protocolOp instanceof BindRequestProtocolOp) {
+                return connection.bind(((BindRequestProtocolOp) protocolOp).toBindRequest(controls));
+            } else if (protocolOp instanceof AddRequestProtocolOp) {
+                return connection.add(((AddRequestProtocolOp) protocolOp).toAddRequest(controls));
+            } else if (protocolOp instanceof ModifyRequestProtocolOp) {
+                return connection.modify(((ModifyRequestProtocolOp) protocolOp).toModifyRequest(controls));
+            } else if (protocolOp instanceof DeleteRequestProtocolOp) {
+                return connection.delete(((DeleteRequestProtocolOp) protocolOp).toDeleteRequest(controls));
+            } else if (protocolOp instanceof ModifyDNRequestProtocolOp) {
+                return connection.modifyDN(((ModifyDNRequestProtocolOp) protocolOp).toModifyDNRequest(controls));
+            } else if (protocolOp instanceof CompareRequestProtocolOp) {
+                return connection.compare(((CompareRequestProtocolOp) protocolOp).toCompareRequest(controls));
+            } else if (protocolOp instanceof ExtendedRequestProtocolOp) {
+                return connection.processExtendedOperation(
+                        ((ExtendedRequestProtocolOp) protocolOp).toExtendedRequest(controls));
+            } else {
+                throw new LDAPException(ResultCode.NOT_SUPPORTED, "Cannot replay " + protocolOp);
+            }
+        }
+    }
+}
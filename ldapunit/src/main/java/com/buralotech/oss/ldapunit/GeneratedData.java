@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes a synthetic data set that is generated directly in memory while the embedded LDAP directory server is
+ * being set up. It is used as the value of {@link DirectoryServerConfiguration#generatedData()}. The generated data
+ * is deterministic for a given {@link #seed()}.
+ * <p>
+ * Users are created as {@code inetOrgPerson} entries named {@code uid=user<n>} below {@link #usersRDN()}, optionally
+ * spread over a tree of nested organizational units. The password of each user is the same as its {@code uid}.
+ * Groups are created as {@code groupOfNames} entries named {@code cn=group<n>} below {@link #groupsRDN()}.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GeneratedData {
+
+    /**
+     * The distribution used to decide how many members each generated group has.
+     */
+    enum Distribution {
+
+        /**
+         * Every group has {@link #membersPerGroup()} members.
+         */
+        UNIFORM,
+
+        /**
+         * The group sizes follow a Zipf distribution. The first group is the largest and the average group size is
+         * {@link #membersPerGroup()}.
+         */
+        ZIPF
+    }
+
+    /**
+     * The number of users to generate.
+     *
+     * @return The number of users.
+     */
+    int users() default 0;
+
+    /**
+     * The number of groups to generate. Groups can only be generated if users are also being generated.
+     *
+     * @return The number of groups.
+     */
+    int groups() default 0;
+
+    /**
+     * The average number of members in a generated group.
+     *
+     * @return The average number of members.
+     */
+    int membersPerGroup() default 10;
+
+    /**
+     * The distribution of group sizes.
+     *
+     * @return The distribution.
+     */
+    Distribution distribution() default Distribution.UNIFORM;
+
+    /**
+     * The number of organizational units created below each level of the users container. If zero, the users are
+     * created directly below the users container.
+     *
+     * @return The number of organizational units per level.
+     */
+    int organizationalUnits() default 0;
+
+    /**
+     * The number of levels of nested organizational units. The users are spread evenly over the organizational
+     * units at the deepest level.
+     *
+     * @return The number of levels.
+     */
+    int organizationalUnitDepth() default 1;
+
+    /**
+     * The seed for the pseudo-random number generator used to pick names and group members.
+     *
+     * @return The seed.
+     */
+    long seed() default 0L;
+
+    /**
+     * The RDN of the container, below the base DN, that holds the generated users.
+     *
+     * @return The RDN.
+     */
+    String usersRDN() default "ou=Users";
+
+    /**
+     * The RDN of the container, below the base DN, that holds the generated groups.
+     *
+     * @return The RDN.
+     */
+    String groupsRDN() default "ou=Groups";
+}
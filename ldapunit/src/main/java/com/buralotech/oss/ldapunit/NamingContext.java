@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes an additional naming context served by the same embedded LDAP directory server as the
+ * {@link DirectoryServerConfiguration#baseDN()}. It is used as a value of
+ * {@link DirectoryServerConfiguration#namingContexts()}. Each naming context has its own base entry and LDIF
+ * fixtures, so tests that need, for example, {@code dc=example,dc=com} and {@code o=partners} can use one server
+ * instead of two.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NamingContext {
+
+    /**
+     * The DN of the root of the naming context.
+     *
+     * @return The base DN.
+     */
+    String baseDN();
+
+    /**
+     * The object classes used when creating the base entry.
+     *
+     * @return The object classes.
+     */
+    String[] baseObjectClasses() default {"domain", "top"};
+
+    /**
+     * The attributes set on the base entry as {@code name=value} pairs.
+     *
+     * @return The attributes.
+     */
+    String[] baseAttributes() default {};
+
+    /**
+     * The LDIF resources or files from which the entries of the naming context are loaded.
+     *
+     * @return The LDIF resources or files.
+     */
+    String[] ldifFiles() default {};
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPConnectionPool;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPInterface;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SingleServerSet;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans out independent entry checks over a pool of connections to the LDAP directory server. Virtual threads are
+ * used when the runtime supports them (Java 21 or later). Otherwise, the checks run on a bounded pool of platform
+ * threads.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class ParallelVerifier {
+
+    /**
+     * Hidden constructor.
+     */
+    private ParallelVerifier() {
+    }
+
+    /**
+     * Check which of the {@code dns} do not identify an entry in the LDAP directory. At most {@code parallelism}
+     * checks are in flight at any time and each of them uses its own pooled connection.
+     *
+     * @param connection  The connection used as the template for the pooled connections.
+     * @param dns         The distinguished names.
+     * @param parallelism The maximum number of concurrent checks.
+     * @return The distinguished names that do not identify an entry.
+     * @throws LDAPException        If there was a problem communicating with the LDAP directory server.
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the checks to complete.
+     */
+    static Set<String> findMissingDNs(final LDAPConnection connection,
+                                      final Collection<String> dns,
+                                      final int parallelism)
+            throws LDAPException, InterruptedException {
+        final LDAPConnectionPool pool = createPool(connection, parallelism);
+        try {
+            return findMissingDNs(pool, dns, parallelism);
+        } finally {
+            pool.close();
+        }
+    }
+
+    /**
+     * Check which of the {@code dns} do not identify an entry in the LDAP directory. At most {@code parallelism}
+     * checks are in flight at any time. If a check fails, no further checks are started and the first failure is
+     * rethrown, so an entry is never reported as present because its check did not complete.
+     *
+     * @param ldap        A thread-safe interface to the LDAP directory server.
+     * @param dns         The distinguished names.
+     * @param parallelism The maximum number of concurrent checks.
+     * @return The distinguished names that do not identify an entry.
+     * @throws LDAPException        If there was a problem communicating with the LDAP directory server.
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the checks to complete.
+     */
+    static Set<String> findMissingDNs(final LDAPInterface ldap,
+                                      final Collection<String> dns,
+                                      final int parallelism)
+            throws LDAPException, InterruptedException {
+        final Set<String> missing = ConcurrentHashMap.newKeySet();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Semaphore permits = new Semaphore(parallelism);
+        final ExecutorService executor = newExecutor(parallelism);
+        try {
+            for (final String dn : dns) {
+                if (failure.get() != null) {
+                    break;
+                }
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        if (ldap.getEntry(dn, SearchRequest.NO_ATTRIBUTES) == null) {
+                            missing.add(dn);
+                        }
+                    } catch (final Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            permits.acquire(parallelism);
+        } finally {
+            executor.shutdown();
+        }
+        rethrow(failure.get());
+        return missing;
+    }
+
+    /**
+     * Rethrow the failure of a check on the calling thread. Checked exceptions other than {@link LDAPException} are
+     * wrapped in one.
+     *
+     * @param failure The failure or {@code null} if all the checks completed.
+     * @throws LDAPException If the check failed with an {@link LDAPException} or a checked exception.
+     */
+    private static void rethrow(final Throwable failure)
+            throws LDAPException {
+        if (failure instanceof LDAPException) {
+            throw (LDAPException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new LDAPException(ResultCode.LOCAL_ERROR, "Failed to check entry", failure);
+        }
+    }
+
+    /**
+     * Create a connection pool that connects to the same server and binds with the same credentials as
+     * {@code connection}.
+     *
+     * @param connection  The template connection.
+     * @param parallelism The number of connections in the pool.
+     * @return The connection pool.
+     * @throws LDAPException If the pooled connections could not be established.
+     */
+    private static LDAPConnectionPool createPool(final LDAPConnection connection,
+                                                 final int parallelism)
+            throws LDAPException {
+        if (!connection.isConnected()) {
+            throw new LDAPException(ResultCode.CONNECT_ERROR, "Not connected to LDAP directory server");
+        }
+        final SingleServerSet serverSet = new SingleServerSet(
+                connection.getConnectedAddress(),
+                connection.getConnectedPort(),
+                connection.getLastUsedSocketFactory(),
+                connection.getConnectionOptions());
+        final LDAPConnectionPool pool = new LDAPConnectionPool(serverSet,
+                connection.getLastBindRequest() == null ? null : connection.getLastBindRequest().duplicate(),
+                parallelism,
+                parallelism);
+        pool.setCreateIfNecessary(false);
+        return pool;
+    }
+
+    /**
+     * Create the executor that runs the checks. A virtual thread per task executor is used if it is available.
+     * Otherwise, fall back to a fixed size pool of daemon platform threads.
+     *
+     * @param parallelism The number of platform threads used by the fallback executor.
+     * @return The executor.
+     */
+    static ExecutorService newExecutor(final int parallelism) {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(parallelism, runnable -> {
+                final Thread thread = new Thread(runnable, "ldapunit-verifier");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
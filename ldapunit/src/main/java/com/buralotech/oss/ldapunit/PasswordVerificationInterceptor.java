@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.listener.InMemoryPasswordEncoder;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSimpleBindRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SimpleBindRequest;
+
+/**
+ * Verifies the credentials of simple binds as the {@link DirectoryServerConfiguration#authDN()} against its encoded
+ * password. The server compares the credentials of the administrator account as clear text, so without this binds as
+ * the administrator would not pay the cost of the configured
+ * {@link DirectoryServerConfiguration#passwordEncoding()}.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class PasswordVerificationInterceptor extends InMemoryOperationInterceptor {
+
+    /**
+     * The DN of the administrator account.
+     */
+    private final DN authDN;
+
+    /**
+     * Verifies the credentials.
+     */
+    private final InMemoryPasswordEncoder encoder;
+
+    /**
+     * The encoded password of the administrator account.
+     */
+    private final ASN1OctetString encodedPassword;
+
+    /**
+     * Initialise the interceptor.
+     *
+     * @param authDN          The DN of the administrator account.
+     * @param encoder         Verifies the credentials.
+     * @param encodedPassword The encoded password of the administrator account.
+     * @throws LDAPException If the DN is not valid.
+     */
+    PasswordVerificationInterceptor(final String authDN,
+                                    final InMemoryPasswordEncoder encoder,
+                                    final String encodedPassword)
+            throws LDAPException {
+        this.authDN = new DN(authDN);
+        this.encoder = encoder;
+        this.encodedPassword = new ASN1OctetString(encodedPassword);
+    }
+
+    /**
+     * Reject simple binds as the administrator account whose credentials do not match the encoded password. Other
+     * binds are left to the server.
+     *
+     * @param request The simple bind request.
+     * @throws LDAPException If the credentials are not valid.
+     */
+    @Override
+    public void processSimpleBindRequest(final InMemoryInterceptedSimpleBindRequest request)
+            throws LDAPException {
+        final SimpleBindRequest bindRequest = request.getRequest();
+        if (authDN.equals(new DN(bindRequest.getBindDN()))) {
+            if (!encoder.clearPasswordMatchesEncodedPassword(bindRequest.getPassword(), encodedPassword, null)) {
+                throw new LDAPException(ResultCode.INVALID_CREDENTIALS, "Invalid credentials");
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+
+/**
+ * Creates server sockets that listen on the same port every time. The first socket bound to an ephemeral port pins
+ * the port it was given and later requests for an ephemeral port are bound to the pinned port instead. This allows a
+ * listener that was started on port zero to be restarted on the same port without allocating the port in advance,
+ * which would leave a window in which another process could take it. The sockets are created by a delegate, which
+ * allows address reuse and LDAPS.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class PinnedPortServerSocketFactory extends ServerSocketFactory {
+
+    /**
+     * Creates the server sockets.
+     */
+    private final ServerSocketFactory delegate;
+
+    /**
+     * The pinned port or zero if no socket has been bound yet.
+     */
+    private int pinnedPort;
+
+    /**
+     * Initialise the factory.
+     *
+     * @param delegate Creates the server sockets.
+     */
+    PinnedPortServerSocketFactory(final ServerSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Create an unbound server socket. The caller chooses the port when it binds the socket, so it is not pinned.
+     *
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created.
+     */
+    @Override
+    public ServerSocket createServerSocket()
+            throws IOException {
+        return delegate.createServerSocket();
+    }
+
+    /**
+     * Create a server socket that is bound to a port on all local addresses.
+     *
+     * @param port The port or zero for the pinned port.
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created or bound.
+     */
+    @Override
+    public ServerSocket createServerSocket(final int port)
+            throws IOException {
+        return createServerSocket(port, 0, null);
+    }
+
+    /**
+     * Create a server socket that is bound to a port on all local addresses.
+     *
+     * @param port    The port or zero for the pinned port.
+     * @param backlog The maximum length of the queue of incoming connections or zero for the default.
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created or bound.
+     */
+    @Override
+    public ServerSocket createServerSocket(final int port,
+                                          final int backlog)
+            throws IOException {
+        return createServerSocket(port, backlog, null);
+    }
+
+    /**
+     * Create a server socket that is bound to a port on a local address. If the port is zero, the socket is bound to
+     * the pinned port or, if no port has been pinned yet, to an ephemeral port which is then pinned.
+     *
+     * @param port      The port or zero for the pinned port.
+     * @param backlog   The maximum length of the queue of incoming connections or zero for the default.
+     * @param ifAddress The local address or {@code null} for all local addresses.
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created or bound.
+     */
+    @Override
+    public synchronized ServerSocket createServerSocket(final int port,
+                                                       final int backlog,
+                                                       final InetAddress ifAddress)
+            throws IOException {
+        if (port != 0) {
+            return delegate.createServerSocket(port, backlog, ifAddress);
+        }
+        final ServerSocket serverSocket = delegate.createServerSocket(pinnedPort, backlog, ifAddress);
+        pinnedPort = serverSocket.getLocalPort();
+        return serverSocket;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedAddRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedDeleteRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedExtendedRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyDNRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Rejects every operation that would change the contents of a shared LDAP directory server used by tests with the
+ * {@link DirectoryServerConfiguration.Lifecycle#READ_ONLY} lifecycle, so that a test that writes fails immediately
+ * instead of corrupting the data seen by other tests.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class ReadOnlyInterceptor extends InMemoryOperationInterceptor {
+
+    /**
+     * The OIDs of the extended operations that change the contents of the directory: password modify and start
+     * transaction.
+     */
+    private static final Set<String> WRITE_EXTENDED_OPERATIONS = new HashSet<>(Arrays.asList(
+            "1.3.6.1.4.1.4203.1.11.1",
+            "1.3.6.1.1.21.1"));
+
+    /**
+     * Reject add requests.
+     *
+     * @param request The add request.
+     * @throws LDAPException Always.
+     */
+    @Override
+    public void processAddRequest(final InMemoryInterceptedAddRequest request)
+            throws LDAPException {
+        throw reject("add");
+    }
+
+    /**
+     * Reject delete requests.
+     *
+     * @param request The delete request.
+     * @throws LDAPException Always.
+     */
+    @Override
+    public void processDeleteRequest(final InMemoryInterceptedDeleteRequest request)
+            throws LDAPException {
+        throw reject("delete");
+    }
+
+    /**
+     * Reject modify requests.
+     *
+     * @param request The modify request.
+     * @throws LDAPException Always.
+     */
+    @Override
+    public void processModifyRequest(final InMemoryInterceptedModifyRequest request)
+            throws LDAPException {
+        throw reject("modify");
+    }
+
+    /**
+     * Reject modify DN requests.
+     *
+     * @param request The modify DN request.
+     * @throws LDAPException Always.
+     */
+    @Override
+    public void processModifyDNRequest(final InMemoryInterceptedModifyDNRequest request)
+            throws LDAPException {
+        throw reject("modify DN");
+    }
+
+    /**
+     * Reject extended requests that change the contents of the directory.
+     *
+     * @param request The extended request.
+     * @throws LDAPException If the extended request changes the contents of the directory.
+     */
+    @Override
+    public void processExtendedRequest(final InMemoryInterceptedExtendedRequest request)
+            throws LDAPException {
+        if (WRITE_EXTENDED_OPERATIONS.contains(request.getRequest().getOID())) {
+            throw reject("extended");
+        }
+    }
+
+    /**
+     * Create the exception used to reject a write operation.
+     *
+     * @param operation The name of the operation.
+     * @return The exception.
+     */
+    private static LDAPException reject(final String operation) {
+        return new LDAPException(ResultCode.UNWILLING_TO_PERFORM,
+                "The " + operation + " operation is not allowed because the directory server is read-only");
+    }
+}
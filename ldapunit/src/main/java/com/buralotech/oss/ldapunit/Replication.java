@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes how the writes accepted by one node of a {@link DirectoryTopology} are copied to the other nodes. It is
+ * used as the value of {@link DirectoryServerConfiguration#replication()}. Replication is asynchronous: a successful
+ * add, delete, modify or modify DN request received over LDAP is acknowledged straight away and applied to the other
+ * nodes once it is {@link #delay()} milliseconds old. Changes are shipped in batches of up to {@link #batchSize()}
+ * changes, so the changes that queued up behind the oldest change are applied together with it.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Replication {
+
+    /**
+     * If {@code true}, writes are replicated between the nodes.
+     *
+     * @return {@code true} if writes are replicated.
+     */
+    boolean enabled() default false;
+
+    /**
+     * The replication lag in milliseconds. A change is not applied to the other nodes until it is this old.
+     *
+     * @return The replication lag in milliseconds.
+     */
+    long delay() default 100L;
+
+    /**
+     * The maximum number of changes applied to the other nodes together.
+     *
+     * @return The maximum number of changes in a batch.
+     */
+    int batchSize() default 1;
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedAddResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedDeleteResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyDNResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.LDAPResult;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldif.LDIFChangeRecord;
+
+/**
+ * Passes the writes that one node of a {@link DirectoryTopology} accepted successfully to the
+ * {@link DirectoryReplicator} so that they are copied to the other nodes.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class ReplicationInterceptor extends InMemoryOperationInterceptor {
+
+    /**
+     * The index of the node.
+     */
+    private final int node;
+
+    /**
+     * Copies the changes to the other nodes.
+     */
+    private final DirectoryReplicator replicator;
+
+    /**
+     * Initialise the interceptor.
+     *
+     * @param node       The index of the node.
+     * @param replicator Copies the changes to the other nodes.
+     */
+    ReplicationInterceptor(final int node,
+                           final DirectoryReplicator replicator) {
+        this.node = node;
+        this.replicator = replicator;
+    }
+
+    /**
+     * Replicate successful add requests.
+     *
+     * @param result The add result.
+     */
+    @Override
+    public void processAddResult(final InMemoryInterceptedAddResult result) {
+        replicate(result.getResult(), result.getRequest().toLDIFChangeRecord());
+    }
+
+    /**
+     * Replicate successful delete requests.
+     *
+     * @param result The delete result.
+     */
+    @Override
+    public void processDeleteResult(final InMemoryInterceptedDeleteResult result) {
+        replicate(result.getResult(), result.getRequest().toLDIFChangeRecord());
+    }
+
+    /**
+     * Replicate successful modify requests.
+     *
+     * @param result The modify result.
+     */
+    @Override
+    public void processModifyResult(final InMemoryInterceptedModifyResult result) {
+        replicate(result.getResult(), result.getRequest().toLDIFChangeRecord());
+    }
+
+    /**
+     * Replicate successful modify DN requests.
+     *
+     * @param result The modify DN result.
+     */
+    @Override
+    public void processModifyDNResult(final InMemoryInterceptedModifyDNResult result) {
+        replicate(result.getResult(), result.getRequest().toLDIFChangeRecord());
+    }
+
+    /**
+     * Queue a change for replication if it was applied successfully.
+     *
+     * @param result The result of the request.
+     * @param record The change.
+     */
+    private void replicate(final LDAPResult result,
+                           final LDIFChangeRecord record) {
+        if (result.getResultCode() == ResultCode.SUCCESS) {
+            replicator.accept(node, record);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+/**
+ * Creates server sockets with {@code SO_REUSEADDR} enabled before they are bound so that a test can listen on the
+ * same fixed port as the previous test immediately, even if connections to the previous server are still in the
+ * {@code TIME_WAIT} state. The sockets are created by a delegate, which allows LDAPS listeners to use an SSL server
+ * socket factory.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class ReuseAddressServerSocketFactory extends ServerSocketFactory {
+
+    /**
+     * The shared instance for plain sockets.
+     */
+    static final ReuseAddressServerSocketFactory INSTANCE =
+            new ReuseAddressServerSocketFactory(ServerSocketFactory.getDefault());
+
+    /**
+     * Creates the unbound server sockets.
+     */
+    private final ServerSocketFactory delegate;
+
+    /**
+     * Initialise the factory.
+     *
+     * @param delegate Creates the unbound server sockets.
+     */
+    ReuseAddressServerSocketFactory(final ServerSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Create an unbound server socket with address reuse enabled.
+     *
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created.
+     */
+    @Override
+    public ServerSocket createServerSocket()
+            throws IOException {
+        final ServerSocket serverSocket = delegate.createServerSocket();
+        serverSocket.setReuseAddress(true);
+        return serverSocket;
+    }
+
+    /**
+     * Create a server socket with address reuse enabled that is bound to a port on all local addresses.
+     *
+     * @param port The port or zero for an ephemeral port.
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created or bound.
+     */
+    @Override
+    public ServerSocket createServerSocket(final int port)
+            throws IOException {
+        return createServerSocket(port, 0, null);
+    }
+
+    /**
+     * Create a server socket with address reuse enabled that is bound to a port on all local addresses.
+     *
+     * @param port    The port or zero for an ephemeral port.
+     * @param backlog The maximum length of the queue of incoming connections or zero for the default.
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created or bound.
+     */
+    @Override
+    public ServerSocket createServerSocket(final int port,
+                                          final int backlog)
+            throws IOException {
+        return createServerSocket(port, backlog, null);
+    }
+
+    /**
+     * Create a server socket with address reuse enabled that is bound to a port on a local address.
+     *
+     * @param port      The port or zero for an ephemeral port.
+     * @param backlog   The maximum length of the queue of incoming connections or zero for the default.
+     * @param ifAddress The local address or {@code null} for all local addresses.
+     * @return The server socket.
+     * @throws IOException If the server socket could not be created or bound.
+     */
+    @Override
+    public ServerSocket createServerSocket(final int port,
+                                          final int backlog,
+                                          final InetAddress ifAddress)
+            throws IOException {
+        final ServerSocket serverSocket = createServerSocket();
+        try {
+            serverSocket.bind(new InetSocketAddress(ifAddress, port), backlog);
+        } catch (final IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        return serverSocket;
+    }
+}
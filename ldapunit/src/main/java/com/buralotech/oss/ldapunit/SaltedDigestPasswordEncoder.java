@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryPasswordEncoder;
+import com.unboundid.ldap.listener.PasswordEncoderOutputFormatter;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ReadOnlyEntry;
+import com.unboundid.ldap.sdk.ResultCode;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A thread-safe password encoder for salted message digest schemes. It produces the same encoding as the SDK's
+ * {@link com.unboundid.ldap.listener.SaltedMessageDigestInMemoryPasswordEncoder} with the salt appended to both the
+ * clear-text password and the digest, but that encoder shares one {@link MessageDigest} between all the threads of a
+ * server and the server verifies concurrent binds without locking. Each thread here uses a digest of its own.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class SaltedDigestPasswordEncoder extends InMemoryPasswordEncoder {
+
+    /**
+     * Generates the salts. {@link SecureRandom} is thread-safe.
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * The message digest algorithm.
+     */
+    private final String algorithm;
+
+    /**
+     * The number of bytes in each digest.
+     */
+    private final int digestLength;
+
+    /**
+     * The number of bytes in each salt.
+     */
+    private final int saltLength;
+
+    /**
+     * The message digest used by each thread.
+     */
+    private final ThreadLocal<MessageDigest> digests;
+
+    /**
+     * Initialise the encoder.
+     *
+     * @param prefix          The prefix that identifies passwords encoded with the scheme.
+     * @param outputFormatter Formats the encoded bytes.
+     * @param algorithm       The message digest algorithm.
+     * @param saltLength      The number of bytes in each salt.
+     * @throws NoSuchAlgorithmException If the message digest algorithm is not available.
+     */
+    SaltedDigestPasswordEncoder(final String prefix,
+                                final PasswordEncoderOutputFormatter outputFormatter,
+                                final String algorithm,
+                                final int saltLength)
+            throws NoSuchAlgorithmException {
+        super(prefix, outputFormatter);
+        this.algorithm = algorithm;
+        this.digestLength = MessageDigest.getInstance(algorithm).getDigestLength();
+        this.saltLength = saltLength;
+        this.digests = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance(algorithm);
+            } catch (final NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * Encode a clear-text password with a new salt.
+     *
+     * @param clearPassword The clear-text password.
+     * @param userEntry     The entry in which the password will be stored.
+     * @param modifications The modifications being applied to the entry.
+     * @return The digest followed by the salt.
+     */
+    @Override
+    protected byte[] encodePassword(final byte[] clearPassword,
+                                    final ReadOnlyEntry userEntry,
+                                    final List<Modification> modifications) {
+        final byte[] salt = new byte[saltLength];
+        RANDOM.nextBytes(salt);
+        final byte[] digest = digest(clearPassword, salt);
+        final byte[] encoded = Arrays.copyOf(digest, digest.length + salt.length);
+        System.arraycopy(salt, 0, encoded, digest.length, salt.length);
+        return encoded;
+    }
+
+    /**
+     * Check that a pre-encoded password is long enough to hold a digest and a salt.
+     *
+     * @param encodedPassword The encoded password without its prefix and formatting.
+     * @param userEntry       The entry in which the password will be stored.
+     * @param modifications   The modifications being applied to the entry.
+     * @throws LDAPException If the encoded password is too short.
+     */
+    @Override
+    protected void ensurePreEncodedPasswordAppearsValid(final byte[] encodedPassword,
+                                                        final ReadOnlyEntry userEntry,
+                                                        final List<Modification> modifications)
+            throws LDAPException {
+        if (encodedPassword.length <= digestLength) {
+            throw new LDAPException(ResultCode.PARAM_ERROR,
+                    "Encoded " + algorithm + " password is too short to include a salt");
+        }
+    }
+
+    /**
+     * Check if a clear-text password matches an encoded password.
+     *
+     * @param clearPassword   The clear-text password.
+     * @param encodedPassword The encoded password without its prefix and formatting.
+     * @param userEntry       The entry in which the password is stored.
+     * @return {@code true} if the passwords match. Otherwise, {@code false}.
+     */
+    @Override
+    protected boolean passwordMatches(final byte[] clearPassword,
+                                      final byte[] encodedPassword,
+                                      final ReadOnlyEntry userEntry) {
+        if (encodedPassword.length <= digestLength) {
+            return false;
+        }
+        final byte[] salt = Arrays.copyOfRange(encodedPassword, digestLength, encodedPassword.length);
+        return MessageDigest.isEqual(digest(clearPassword, salt), Arrays.copyOf(encodedPassword, digestLength));
+    }
+
+    /**
+     * Message digests cannot be reversed.
+     *
+     * @param encodedPassword The encoded password without its prefix and formatting.
+     * @param userEntry       The entry in which the password is stored.
+     * @return Never returns.
+     * @throws LDAPException Always.
+     */
+    @Override
+    protected byte[] extractClearPassword(final byte[] encodedPassword,
+                                          final ReadOnlyEntry userEntry)
+            throws LDAPException {
+        throw new LDAPException(ResultCode.NOT_SUPPORTED,
+                "Clear-text passwords cannot be extracted from " + algorithm + " digests");
+    }
+
+    /**
+     * Describe the encoder.
+     *
+     * @param buffer The buffer to which the description is appended.
+     */
+    @Override
+    public void toString(final StringBuilder buffer) {
+        buffer.append("SaltedDigestPasswordEncoder(prefix='");
+        buffer.append(getPrefix());
+        buffer.append("', algorithm='");
+        buffer.append(algorithm);
+        buffer.append("', saltLength=");
+        buffer.append(saltLength);
+        buffer.append(')');
+    }
+
+    /**
+     * Compute the digest of a clear-text password followed by a salt using this thread's message digest.
+     *
+     * @param clearPassword The clear-text password.
+     * @param salt          The salt.
+     * @return The digest.
+     */
+    private byte[] digest(final byte[] clearPassword,
+                          final byte[] salt) {
+        final MessageDigest digest = digests.get();
+        digest.update(clearPassword);
+        digest.update(salt);
+        return digest.digest();
+    }
+}
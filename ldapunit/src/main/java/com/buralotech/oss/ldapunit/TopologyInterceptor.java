@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedAddRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedCompareRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedDeleteRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedExtendedRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyDNRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSASLBindRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSimpleBindRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Controls how one node of a {@link DirectoryTopology} responds to requests. Every request is counted so that tests
+ * can see how their clients spread load across the nodes. Requests can be delayed to simulate a slow node or held
+ * until the node is resumed to simulate one that has stopped responding without closing its connections.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class TopologyInterceptor extends InMemoryOperationInterceptor {
+
+    /**
+     * The number of requests received.
+     */
+    private final LongAdder operations = new LongAdder();
+
+    /**
+     * The time, in milliseconds, that each request is delayed.
+     */
+    private volatile long delay;
+
+    /**
+     * {@code true} if requests are held until the node is resumed.
+     */
+    private boolean paused;
+
+    /**
+     * Get the number of requests received.
+     *
+     * @return The number of requests.
+     */
+    long getOperationCount() {
+        return operations.sum();
+    }
+
+    /**
+     * Reset the number of requests received to zero.
+     */
+    void resetOperationCount() {
+        operations.reset();
+    }
+
+    /**
+     * Set the time that each request is delayed.
+     *
+     * @param millis The delay in milliseconds or zero for no delay.
+     */
+    void setDelay(final long millis) {
+        delay = Math.max(0L, millis);
+    }
+
+    /**
+     * Hold requests until {@link #resume()} is called.
+     */
+    synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Release the held requests and stop holding new ones.
+     */
+    synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    /**
+     * Check if requests are being held.
+     *
+     * @return {@code true} if requests are being held. Otherwise, {@code false}.
+     */
+    synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Count, delay or hold add requests.
+     *
+     * @param request The add request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processAddRequest(final InMemoryInterceptedAddRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold simple bind requests.
+     *
+     * @param request The simple bind request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processSimpleBindRequest(final InMemoryInterceptedSimpleBindRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold SASL bind requests.
+     *
+     * @param request The SASL bind request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processSASLBindRequest(final InMemoryInterceptedSASLBindRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold compare requests.
+     *
+     * @param request The compare request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processCompareRequest(final InMemoryInterceptedCompareRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold delete requests.
+     *
+     * @param request The delete request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processDeleteRequest(final InMemoryInterceptedDeleteRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold extended requests.
+     *
+     * @param request The extended request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processExtendedRequest(final InMemoryInterceptedExtendedRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold modify requests.
+     *
+     * @param request The modify request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processModifyRequest(final InMemoryInterceptedModifyRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold modify DN requests.
+     *
+     * @param request The modify DN request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processModifyDNRequest(final InMemoryInterceptedModifyDNRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count, delay or hold search requests.
+     *
+     * @param request The search request.
+     * @throws LDAPException If the request was interrupted.
+     */
+    @Override
+    public void processSearchRequest(final InMemoryInterceptedSearchRequest request)
+            throws LDAPException {
+        intercept();
+    }
+
+    /**
+     * Count the request and then hold it while the node is paused and delay it if the node is slowed down.
+     *
+     * @throws LDAPException If the request was interrupted while it was held or delayed.
+     */
+    private void intercept()
+            throws LDAPException {
+        operations.increment();
+        try {
+            synchronized (this) {
+                while (paused) {
+                    wait();
+                }
+            }
+            final long millis = delay;
+            if (millis > 0L) {
+                Thread.sleep(millis);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LDAPException(ResultCode.UNAVAILABLE, "The directory server node was stopped", e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.asn1.ASN1Long;
+import com.unboundid.asn1.ASN1Sequence;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedAddRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedCompareRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedDeleteRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedExtendedRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyDNRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedModifyRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSimpleBindRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.protocol.AddRequestProtocolOp;
+import com.unboundid.ldap.protocol.BindRequestProtocolOp;
+import com.unboundid.ldap.protocol.CompareRequestProtocolOp;
+import com.unboundid.ldap.protocol.DeleteRequestProtocolOp;
+import com.unboundid.ldap.protocol.ExtendedRequestProtocolOp;
+import com.unboundid.ldap.protocol.LDAPMessage;
+import com.unboundid.ldap.protocol.ModifyDNRequestProtocolOp;
+import com.unboundid.ldap.protocol.ModifyRequestProtocolOp;
+import com.unboundid.ldap.protocol.ProtocolOp;
+import com.unboundid.ldap.protocol.SearchRequestProtocolOp;
+import com.unboundid.ldap.sdk.Control;
+import com.unboundid.ldap.sdk.extensions.StartTLSExtendedRequest;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records the requests received over LDAP by an embedded LDAP directory server, exactly as they were sent, so that
+ * they can be replayed by {@link DirectoryTraffic}. Each request is encoded on the thread processing it and appended
+ * to the file by the {@link BackgroundFileWriter}. The StartTLS extended operation is not recorded because it cannot
+ * be replayed on a plain connection, and SASL binds are not recorded because their credentials cannot be reused.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class TrafficRecorder extends InMemoryOperationInterceptor {
+
+    /**
+     * The file to which the requests are appended.
+     */
+    private final Path file;
+
+    /**
+     * Distinguishes the connections of this server from those of other servers that record to the same file.
+     */
+    private final long session = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * Initialise the recorder.
+     *
+     * @param file The file to which the requests are appended.
+     */
+    TrafficRecorder(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Create a recorder that appends to the same file in a session of its own. This is used when the server is
+     * forked.
+     *
+     * @return The new recorder.
+     */
+    TrafficRecorder renew() {
+        return new TrafficRecorder(file);
+    }
+
+    /**
+     * Record an add request.
+     *
+     * @param request The add request.
+     */
+    @Override
+    public void processAddRequest(final InMemoryInterceptedAddRequest request) {
+        record(request, new AddRequestProtocolOp(request.getRequest().duplicate()),
+                request.getRequest().getControls());
+    }
+
+    /**
+     * Record a simple bind request.
+     *
+     * @param request The simple bind request.
+     */
+    @Override
+    public void processSimpleBindRequest(final InMemoryInterceptedSimpleBindRequest request) {
+        record(request, new BindRequestProtocolOp(request.getRequest()), request.getRequest().getControls());
+    }
+
+    /**
+     * Record a compare request.
+     *
+     * @param request The compare request.
+     */
+    @Override
+    public void processCompareRequest(final InMemoryInterceptedCompareRequest request) {
+        record(request, new CompareRequestProtocolOp(request.getRequest().duplicate()),
+                request.getRequest().getControls());
+    }
+
+    /**
+     * Record a delete request.
+     *
+     * @param request The delete request.
+     */
+    @Override
+    public void processDeleteRequest(final InMemoryInterceptedDeleteRequest request) {
+        record(request, new DeleteRequestProtocolOp(request.getRequest().duplicate()),
+                request.getRequest().getControls());
+    }
+
+    /**
+     * Record an extended request other than StartTLS.
+     *
+     * @param request The extended request.
+     */
+    @Override
+    public void processExtendedRequest(final InMemoryInterceptedExtendedRequest request) {
+        if (!StartTLSExtendedRequest.STARTTLS_REQUEST_OID.equals(request.getRequest().getOID())) {
+            record(request, new ExtendedRequestProtocolOp(request.getRequest()), request.getRequest().getControls());
+        }
+    }
+
+    /**
+     * Record a modify request.
+     *
+     * @param request The modify request.
+     */
+    @Override
+    public void processModifyRequest(final InMemoryInterceptedModifyRequest request) {
+        record(request, new ModifyRequestProtocolOp(request.getRequest().duplicate()),
+                request.getRequest().getControls());
+    }
+
+    /**
+     * Record a modify DN request.
+     *
+     * @param request The modify DN request.
+     */
+    @Override
+    public void processModifyDNRequest(final InMemoryInterceptedModifyDNRequest request) {
+        record(request, new ModifyDNRequestProtocolOp(request.getRequest().duplicate()),
+                request.getRequest().getControls());
+    }
+
+    /**
+     * Record a search request.
+     *
+     * @param request The search request.
+     */
+    @Override
+    public void processSearchRequest(final InMemoryInterceptedSearchRequest request) {
+        record(request, new SearchRequestProtocolOp(request.getRequest().duplicate()),
+                request.getRequest().getControls());
+    }
+
+    /**
+     * Encode a request, together with the time it was received and the connection it was received on, and queue it to
+     * be appended to the file.
+     *
+     * @param request    The intercepted request.
+     * @param protocolOp The protocol operation.
+     * @param controls   The request controls.
+     */
+    private void record(final InMemoryInterceptedRequest request,
+                        final ProtocolOp protocolOp,
+                        final Control[] controls) {
+        final byte[] encoded = new ASN1Sequence(
+                new ASN1Long(ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now())),
+                new ASN1Long(session),
+                new ASN1Long(request.getConnectionID()),
+                new LDAPMessage(request.getMessageID(), protocolOp, controls).encode()).encode();
+        BackgroundFileWriter.write(file, outputStream -> outputStream.write(encoded));
+    }
+}
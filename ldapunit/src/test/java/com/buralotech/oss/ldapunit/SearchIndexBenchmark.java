@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.SearchScope;
+
+import java.util.Random;
+
+/**
+ * Compares the latency of {@code (uid=...)} and {@code (mail=...)} searches against a directory of 200,000 generated
+ * users with and without equality indexes. It is not run as part of the build. Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.buralotech.oss.ldapunit.SearchIndexBenchmark
+ * </pre>
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public final class SearchIndexBenchmark {
+
+    /**
+     * The number of generated users.
+     */
+    private static final int USERS = 200000;
+
+    /**
+     * The number of searches used to warm up the JIT compiler.
+     */
+    private static final int WARM_UP = 50;
+
+    /**
+     * The number of timed searches.
+     */
+    private static final int ITERATIONS = 200;
+
+    /**
+     * Hidden constructor.
+     */
+    private SearchIndexBenchmark() {
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args Ignored.
+     * @throws Exception If there was a problem starting the server.
+     */
+    public static void main(final String[] args) throws Exception {
+        run("unindexed", "unindexed");
+        run("indexed", "indexed");
+    }
+
+    /**
+     * Provides the configuration without equality indexes.
+     */
+    @DirectoryServerConfiguration(
+            port = 10394,
+            generatedData = @GeneratedData(users = USERS))
+    private static void unindexed() {
+    }
+
+    /**
+     * Provides the configuration with equality indexes on {@code uid} and {@code mail}.
+     */
+    @DirectoryServerConfiguration(
+            port = 10394,
+            generatedData = @GeneratedData(users = USERS),
+            equalityIndexAttributes = {"uid", "mail"})
+    private static void indexed() {
+    }
+
+    /**
+     * Start a server with the configuration from the named method and report the mean search latency.
+     *
+     * @param label      The label for the results.
+     * @param methodName The name of the method that provides the configuration.
+     * @throws Exception If there was a problem starting the server.
+     */
+    private static void run(final String label,
+                            final String methodName)
+            throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(SearchIndexBenchmark.class,
+                methodName);
+        final long start = System.nanoTime();
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try {
+            final long load = System.nanoTime() - start;
+            final Random random = new Random(0L);
+            search(server, random, WARM_UP);
+            final long searchStart = System.nanoTime();
+            search(server, random, ITERATIONS);
+            final long elapsed = System.nanoTime() - searchStart;
+            System.out.printf("%-10s load %6d ms, mean search latency %10.3f ms%n",
+                    label, load / 1000000L, elapsed / (ITERATIONS * 2 * 1000000.0));
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Perform pairs of {@code uid} and {@code mail} searches for randomly chosen users.
+     *
+     * @param server The embedded LDAP directory server.
+     * @param random The pseudo-random number generator.
+     * @param count  The number of pairs of searches.
+     * @throws LDAPException If a search failed or did not find exactly one entry.
+     */
+    private static void search(final InMemoryDirectoryServer server,
+                               final Random random,
+                               final int count)
+            throws LDAPException {
+        for (int i = 0; i < count; i++) {
+            final String uid = "user" + (1 + random.nextInt(USERS));
+            if (server.search("dc=buralotech,dc=com", SearchScope.SUB, "(uid=" + uid + ")").getEntryCount() != 1
+                    || server.search("dc=buralotech,dc=com", SearchScope.SUB,
+                    "(mail=" + uid + "@buralotech.com)").getEntryCount() != 1) {
+                throw new IllegalStateException("Expected exactly one entry for " + uid);
+            }
+        }
+    }
+}
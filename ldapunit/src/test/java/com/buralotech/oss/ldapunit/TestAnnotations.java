@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+/**
+ * Looks up the configurations that the tests declare on their methods.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+final class TestAnnotations {
+
+    /**
+     * Hidden constructor.
+     */
+    private TestAnnotations() {
+    }
+
+    /**
+     * Get the {@link DirectoryServerConfiguration} annotation from a method of a test class.
+     *
+     * @param testClass      The test class.
+     * @param methodName     The name of the method.
+     * @param parameterTypes The parameter types of the method.
+     * @return The annotation or {@code null} if the method is not annotated.
+     */
+    static DirectoryServerConfiguration getConfiguration(final Class<?> testClass,
+                                                         final String methodName,
+                                                         final Class<?>... parameterTypes) {
+        try {
+            return testClass.getDeclaredMethod(methodName, parameterTypes)
+                    .getAnnotation(DirectoryServerConfiguration.class);
+        } catch (final NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the background writer that appends access log records and recorded requests to files.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestBackgroundFileWriter {
+
+    /**
+     * The number of chunks written after the queue is full.
+     */
+    private static final int OVERFLOW = 10;
+
+    /**
+     * Verify that chunks are dropped and counted once the queue is full and that the chunks that were queued are
+     * still written.
+     *
+     * @param directory A temporary directory for the file.
+     * @throws Exception If there was a problem writing or reading the file.
+     */
+    @Test
+    void dropsChunksWhenTheQueueIsFull(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("chunks.txt");
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        BackgroundFileWriter.write(file, outputStream -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(writing.await(10L, TimeUnit.SECONDS));
+        final long dropped = DirectoryServerMetrics.getDroppedRecordCount();
+        try {
+            for (int i = 0; i < BackgroundFileWriter.CAPACITY + OVERFLOW; i++) {
+                BackgroundFileWriter.write(file, outputStream -> outputStream.write('x'));
+            }
+        } finally {
+            release.countDown();
+        }
+        assertEquals(dropped + OVERFLOW, DirectoryServerMetrics.getDroppedRecordCount());
+        assertTrue(BackgroundFileWriter.flush(30L, TimeUnit.SECONDS));
+        assertEquals(BackgroundFileWriter.CAPACITY, Files.size(file));
+    }
+}
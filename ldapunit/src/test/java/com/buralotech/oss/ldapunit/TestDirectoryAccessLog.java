@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.util.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the capture of the operations processed by an embedded LDAP directory server.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryAccessLog {
+
+    /**
+     * Verify that the searches performed by the tester are recorded.
+     *
+     * @param tester    Used to perform assertions.
+     * @param accessLog The access log of the server.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            accessLog = @AccessLog(enabled = true))
+    void searchesAreRecorded(final DirectoryTester tester,
+                             final DirectoryAccessLog accessLog) {
+        accessLog.clear();
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        final List<DirectoryAccessLog.Record> records = accessLog.getRecords();
+        final DirectoryAccessLog.Record record = records.get(records.size() - 1);
+        assertEquals(DirectoryAccessLog.OperationType.SEARCH, record.getType());
+        assertEquals("uid=lsimpson,ou=People,dc=buralotech,dc=com", record.getDN());
+        assertEquals(SearchScope.BASE, record.getScope());
+        assertNotNull(record.getFilter());
+        assertEquals(ResultCode.SUCCESS, record.getResultCode());
+        assertEquals(1, record.getEntryCount());
+        assertFalse(record.getDuration().isNegative());
+    }
+
+    /**
+     * Verify that only the most recent records are kept, that they are written to the file and that a fork records
+     * its operations in its own access log.
+     *
+     * @throws Exception If there was a problem starting or connecting to the server or reading the file.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            accessLog = @AccessLog(enabled = true, capacity = 3, file = "target/ldapunit/access-log.jsonl"))
+    void recordsAreBoundedAndWritten() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "recordsAreBoundedAndWritten");
+        final Path file = Paths.get("target/ldapunit/access-log.jsonl");
+        Files.deleteIfExists(file);
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try {
+            final DirectoryAccessLog accessLog = DirectoryAccessLog.find(server);
+            assertNotNull(accessLog);
+            assertEquals(3, accessLog.getCapacity());
+            try (LDAPConnection connection = new LDAPConnection("localhost", server.getListenPort())) {
+                connection.bind("uid=admin,ou=system", "secret");
+                for (int i = 0; i < 4; i++) {
+                    connection.search("ou=People,dc=buralotech,dc=com", SearchScope.ONE, "(uid=*)", "cn", "sn");
+                }
+            }
+            assertEquals(5, accessLog.getRecordCount());
+            final List<DirectoryAccessLog.Record> records = accessLog.getRecords();
+            assertEquals(3, records.size());
+            for (final DirectoryAccessLog.Record record : records) {
+                assertEquals(DirectoryAccessLog.OperationType.SEARCH, record.getType());
+                assertEquals("(uid=*)", record.getFilter());
+                assertEquals(List.of("cn", "sn"), record.getAttributes());
+                assertTrue(record.getEntryCount() > 1);
+            }
+
+            assertTrue(accessLog.flush(10L, TimeUnit.SECONDS));
+            final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(5, lines.size());
+            final JSONObject bind = new JSONObject(lines.get(0));
+            assertEquals("BIND", bind.getFieldAsString("type"));
+            assertEquals("uid=admin,ou=system", bind.getFieldAsString("dn"));
+            assertEquals(0, bind.getFieldAsInteger("resultCode").intValue());
+            final JSONObject search = new JSONObject(lines.get(4));
+            assertEquals("SEARCH", search.getFieldAsString("type"));
+            assertEquals("ONE", search.getFieldAsString("scope"));
+            assertEquals(records.get(2).getEntryCount(), search.getFieldAsInteger("entryCount").intValue());
+
+            accessLog.clear();
+            assertEquals(0, accessLog.getRecordCount());
+            assertTrue(accessLog.getRecords().isEmpty());
+
+            final InMemoryDirectoryServer fork = DirectoryServerUtils.forkServer(server, 0);
+            assertNotSame(accessLog, DirectoryAccessLog.find(fork));
+            assertEquals(3, DirectoryAccessLog.find(fork).getCapacity());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that servers do not record their operations by default.
+     *
+     * @throws Exception If there was a problem creating the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(port = 0)
+    void disabledByDefault() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "disabledByDefault");
+        assertNull(DirectoryAccessLog.find(DirectoryServerUtils.createServer(annotation)));
+    }
+}
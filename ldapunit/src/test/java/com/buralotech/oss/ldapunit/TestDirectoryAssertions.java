@@ -21,6 +21,8 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 /**
@@ -76,6 +78,38 @@ public class TestDirectoryAssertions {
                 () -> tester.assertThat().exists("ou=People,dc=buralotech,dc=com"));
     }
 
+    /**
+     * Verify that the {@link DirectoryAssertions#allExist(java.util.Collection)} assertion succeeds when every DN
+     * exists.
+     */
+    @Test
+    @DirectoryServerConfiguration(ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    public void checkAssertAllExistSucceeds() {
+        tester.assertThat().allExist(Arrays.asList(
+                "dc=buralotech,dc=com",
+                "ou=People,dc=buralotech,dc=com",
+                "uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                "uid=hsimpson,ou=People,dc=buralotech,dc=com"));
+    }
+
+    /**
+     * Verify that the {@link DirectoryAssertions#allExist(java.util.Collection)} assertion fails and reports the
+     * missing DNs when some of them do not exist.
+     */
+    @Test
+    @DirectoryServerConfiguration(ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    public void checkAssertAllExistFails() {
+        final AssertionError e = assertThrows(
+                AssertionError.class,
+                () -> tester.assertThat().allExist(Arrays.asList(
+                        "dc=buralotech,dc=com",
+                        "uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                        "uid=nflanders,ou=People,dc=buralotech,dc=com",
+                        "ou=Groups,dc=buralotech,dc=com")));
+        assertEquals("Entries for 2 of 4 DNs do not exist: "
+                + "[ou=Groups,dc=buralotech,dc=com;uid=nflanders,ou=People,dc=buralotech,dc=com]", e.getMessage());
+    }
+
     /**
      * Verify that the {@link DirectoryTester#assertDNIsA(String, String)} method succeeds if the LDAP
      * directory entry is a member of the object class.
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.InputStream;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the streaming comparison of a subtree of the LDAP directory with an expected LDIF.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryDiff {
+
+    /**
+     * Verify that a subtree loaded from an LDIF file matches it.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    void subtreeMatches(final DirectoryTester tester) {
+        tester.assertSubtreeMatches("ou=People,dc=buralotech,dc=com", "com/buralotech/oss/ldapunit/initial.ldif");
+    }
+
+    /**
+     * Verify that the expected entries are mapped into the namespace of the test.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.NAMESPACE)
+    void subtreeMatchesInNamespace(final DirectoryTester tester) {
+        final DirectoryDiff diff = tester.compareSubtree("ou=People,dc=buralotech,dc=com",
+                "com/buralotech/oss/ldapunit/initial.ldif");
+        assertTrue(diff.isEmpty(), diff::toString);
+        assertTrue(diff.getExpectedCount() > 0);
+    }
+
+    /**
+     * Verify that missing, unexpected and changed entries are reported when the sorted runs are spilled to disk and
+     * that only the configured number of differences are kept.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    void reportsDifferences() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "reportsDifferences");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.createServer(annotation);
+        server.delete("uid=ccarlson,ou=People,dc=buralotech,dc=com");
+        server.add("uid=nflanders,ou=People,dc=buralotech,dc=com",
+                new Attribute("objectClass", "inetOrgPerson"),
+                new Attribute("uid", "nflanders"),
+                new Attribute("cn", "Ned Flanders"),
+                new Attribute("sn", "Flanders"));
+        server.add("uid=tflanders,ou=People,dc=buralotech,dc=com",
+                new Attribute("objectClass", "inetOrgPerson"),
+                new Attribute("uid", "tflanders"),
+                new Attribute("cn", "Todd Flanders"),
+                new Attribute("sn", "Flanders"));
+        server.modify("uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                new Modification(ModificationType.REPLACE, "title", "Saxophonist"));
+        server.modify("uid=hsimpson,ou=People,dc=buralotech,dc=com",
+                new Modification(ModificationType.REPLACE, "givenName", "Max"));
+
+        try (InputStream expected = DirectoryServerUtils.getInputStream("com/buralotech/oss/ldapunit/initial.ldif")) {
+            final DirectoryDiff diff = DirectoryComparator.compare(server, null, "ou=People,dc=buralotech,dc=com",
+                    expected, 2, 1, "givenName");
+            assertFalse(diff.isEmpty());
+            assertEquals(Collections.singletonList("uid=ccarlson,ou=People,dc=buralotech,dc=com"), diff.getMissing());
+            assertEquals(2, diff.getUnexpectedCount());
+            assertEquals(Collections.singletonList("uid=nflanders,ou=People,dc=buralotech,dc=com"),
+                    diff.getUnexpected());
+            assertEquals(1, diff.getChangedCount());
+            final DirectoryDiff.Change change = diff.getChanged().get(0);
+            assertEquals("uid=lsimpson,ou=People,dc=buralotech,dc=com", change.getDN());
+            assertEquals(2, change.getModifications().size());
+            assertTrue(diff.toString().contains("changed: uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+        }
+    }
+
+    /**
+     * Verify that a subtree read from a remote server over paged searches is streamed into sorted runs that are
+     * spilled to disk.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    void reportsDifferencesOverConnection() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "reportsDifferencesOverConnection");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try (LDAPConnection connection = server.getConnection();
+             InputStream expected = DirectoryServerUtils.getInputStream(
+                     "com/buralotech/oss/ldapunit/initial.ldif")) {
+            connection.delete("uid=ccarlson,ou=People,dc=buralotech,dc=com");
+            final DirectoryDiff diff = DirectoryComparator.compare(connection, null,
+                    "ou=People,dc=buralotech,dc=com", expected, 2, 10);
+            assertEquals(Collections.singletonList("uid=ccarlson,ou=People,dc=buralotech,dc=com"), diff.getMissing());
+            assertEquals(0, diff.getUnexpectedCount());
+            assertEquals(0, diff.getChangedCount());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+}
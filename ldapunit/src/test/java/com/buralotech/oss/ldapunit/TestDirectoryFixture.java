@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the delta fixtures that are layered on top of the class level configuration.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@ExtendWith(DirectoryServerExtension.class)
+@DirectoryServerConfiguration(
+        port = 10397,
+        ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+public class TestDirectoryFixture {
+
+    /**
+     * Verify that the class level server is loaded once and that the changes made by each fixture are rolled back.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lazy = true)
+    void rollsBackFixtures() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "rollsBackFixtures");
+        final DirectoryFixture addFixture = getClass().getDeclaredMethod("addsAndDeletesEntries", DirectoryTester.class)
+                .getAnnotation(DirectoryFixture.class);
+        final DirectoryFixture modifyFixture = getClass().getDeclaredMethod("modifiesEntry", DirectoryTester.class)
+                .getAnnotation(DirectoryFixture.class);
+        try (DirectoryFixtureBase base = new DirectoryFixtureBase(annotation)) {
+            final InMemoryDirectoryServer server = base.acquire(addFixture);
+            assertTrue(server.getListenPort() > 0);
+            assertNotNull(server.getEntry("uid=nflanders,ou=People,dc=buralotech,dc=com"));
+            assertNull(server.getEntry("uid=hsimpson,ou=People,dc=buralotech,dc=com"));
+            server.delete("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+            base.release();
+
+            assertSame(server, base.acquire(modifyFixture));
+            assertNull(server.getEntry("uid=nflanders,ou=People,dc=buralotech,dc=com"));
+            assertNotNull(server.getEntry("uid=hsimpson,ou=People,dc=buralotech,dc=com"));
+            assertEquals("Saxophonist", server.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com")
+                    .getAttributeValue("title"));
+            base.release();
+        }
+    }
+
+    /**
+     * Verify that a fixture can add and delete entries.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @DirectoryFixture(ldif = "com/buralotech/oss/ldapunit/fixture-add.ldif")
+    void addsAndDeletesEntries(final DirectoryTester tester) {
+        tester.assertDNExists("uid=nflanders,ou=People,dc=buralotech,dc=com");
+        assertFalse(tester.verifyDNExists("uid=hsimpson,ou=People,dc=buralotech,dc=com"));
+        tester.assertDNHasAttributeValue("uid=lsimpson,ou=People,dc=buralotech,dc=com", "title", "Kid");
+    }
+
+    /**
+     * Verify that a fixture can modify entries and does not see the changes made by other fixtures.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @DirectoryFixture(ldif = "com/buralotech/oss/ldapunit/fixture-modify.ldif")
+    void modifiesEntry(final DirectoryTester tester) {
+        tester.assertDNHasAttributeValue("uid=lsimpson,ou=People,dc=buralotech,dc=com", "title", "Saxophonist");
+        tester.assertDNExists("uid=hsimpson,ou=People,dc=buralotech,dc=com");
+        assertFalse(tester.verifyDNExists("uid=nflanders,ou=People,dc=buralotech,dc=com"));
+    }
+
+    /**
+     * Verify that a test without a fixture still gets its own server on the same port.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    void usesOwnServer(final DirectoryTester tester) {
+        tester.assertDNExists("uid=hsimpson,ou=People,dc=buralotech,dc=com");
+        assertFalse(tester.verifyDNExists("uid=nflanders,ou=People,dc=buralotech,dc=com"));
+    }
+}
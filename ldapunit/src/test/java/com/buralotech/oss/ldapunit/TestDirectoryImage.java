@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the persistence and restoration of directory images.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryImage {
+
+    /**
+     * The DN of the marker entry that is only present in a restored server.
+     */
+    private static final String MARKER_DN = "ou=Restored,dc=buralotech,dc=com";
+
+    /**
+     * The directory in which the images are stored.
+     */
+    @TempDir
+    Path imageDirectory;
+
+    /**
+     * Point the image directory system property at the temporary directory.
+     */
+    @BeforeEach
+    void setUp() {
+        System.setProperty(DirectoryImage.IMAGE_DIRECTORY_PROPERTY, imageDirectory.toString());
+    }
+
+    /**
+     * Clear the image directory system property.
+     */
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(DirectoryImage.IMAGE_DIRECTORY_PROPERTY);
+    }
+
+    /**
+     * Verify that the image is written by the first start and that the second start restores the entries and the
+     * custom schema from it. The image is replaced by one with a marker entry that is not in the LDIF or generated
+     * data, so the marker is only present if the second server was restored from the image.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/custom-data-with-default.ldif",
+            schemaFiles = {"default", "com/buralotech/oss/ldapunit/custom-schema.ldif"},
+            generatedData = @GeneratedData(users = 50, groups = 5),
+            persistentImage = true)
+    void restoresFromImage() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "restoresFromImage");
+        final Path imagePath = DirectoryImage.getPath(annotation);
+        assertFalse(Files.exists(imagePath));
+        final int entryCount;
+        InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try {
+            assertTrue(Files.exists(imagePath));
+            assertEquals(imageDirectory, imagePath.getParent());
+            server.add(new Entry(
+                    MARKER_DN,
+                    new Attribute("objectclass", "organizationalUnit"),
+                    new Attribute("ou", "Restored")));
+            entryCount = server.countEntries();
+            new DirectoryImage(server.getSchema(), server.createSnapshot(), DirectoryImage.load(imagePath)
+                    .getFootprint()).save(imagePath);
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+
+        server = DirectoryServerUtils.startServer(annotation);
+        try {
+            assertNotNull(server.getEntry(MARKER_DN));
+            assertEquals(entryCount, server.countEntries());
+            assertNotNull(server.getEntry("user-id=brian,group-id=users,dc=buralotech,dc=com"));
+            assertNotNull(server.getEntry("cn=group5,ou=Groups,dc=buralotech,dc=com"));
+            server.add(new Entry(
+                    "user-id=lisa,group-id=users,dc=buralotech,dc=com",
+                    new Attribute("objectclass", "user"),
+                    new Attribute("user-id", "lisa"),
+                    new Attribute("user-name", "Lisa")));
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that the key depends on the annotation attributes that determine the data and the contents of the input
+     * files but not on the attributes that are applied when a server is created from the image.
+     *
+     * @throws Exception If there was a problem reading the input files.
+     */
+    @Test
+    void keyDependsOnConfiguration() throws Exception {
+        final String key = DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(), "restoresFromImage"));
+        assertEquals(key, DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(), "restoresFromImage")));
+        assertEquals(key, DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(), "differentPort")));
+        assertEquals(key, DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(), "differentRuntime")));
+        assertNotEquals(key, DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(), "differentData")));
+        assertNotEquals(key, DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(),
+                "differentNamingContext")));
+        assertNotEquals(key, DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(),
+                "differentPasswordEncoding")));
+    }
+
+    /**
+     * Verify that a corrupt image is ignored and replaced.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            persistentImage = true)
+    void replacesCorruptImage() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "replacesCorruptImage");
+        final Path imagePath = DirectoryImage.getPath(annotation);
+        Files.write(imagePath, "corrupt".getBytes(StandardCharsets.UTF_8));
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try {
+            assertNotNull(server.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+        assertNotNull(DirectoryImage.load(imagePath));
+    }
+
+    /**
+     * Provides a configuration that only differs from {@link #restoresFromImage()} by its port.
+     */
+    @DirectoryServerConfiguration(
+            port = 10390,
+            ldifFiles = "com/buralotech/oss/ldapunit/custom-data-with-default.ldif",
+            schemaFiles = {"default", "com/buralotech/oss/ldapunit/custom-schema.ldif"},
+            generatedData = @GeneratedData(users = 50, groups = 5),
+            persistentImage = true)
+    void differentPort() {
+    }
+
+    /**
+     * Provides a configuration that only differs from {@link #restoresFromImage()} by its generated data.
+     */
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/custom-data-with-default.ldif",
+            schemaFiles = {"default", "com/buralotech/oss/ldapunit/custom-schema.ldif"},
+            generatedData = @GeneratedData(users = 50, groups = 5, seed = 1L),
+            persistentImage = true)
+    void differentData() {
+    }
+
+    /**
+     * Provides a configuration that only differs from {@link #restoresFromImage()} by attributes that are applied
+     * when a server is created from the image.
+     */
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/custom-data-with-default.ldif",
+            schemaFiles = {"default", "com/buralotech/oss/ldapunit/custom-schema.ldif"},
+            generatedData = @GeneratedData(users = 50, groups = 5),
+            persistentImage = true,
+            trustedFixtures = true,
+            lifecycle = DirectoryServerConfiguration.Lifecycle.FORK,
+            equalityIndexAttributes = "uid",
+            accessLog = @AccessLog(enabled = true))
+    void differentRuntime() {
+    }
+
+    /**
+     * Provides a configuration that only differs from {@link #restoresFromImage()} by an additional naming context.
+     */
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/custom-data-with-default.ldif",
+            schemaFiles = {"default", "com/buralotech/oss/ldapunit/custom-schema.ldif"},
+            generatedData = @GeneratedData(users = 50, groups = 5),
+            namingContexts = @NamingContext(baseDN = "o=partners", baseObjectClasses = {"organization", "top"}),
+            persistentImage = true)
+    void differentNamingContext() {
+    }
+
+    /**
+     * Provides a configuration that only differs from {@link #restoresFromImage()} by its password encoding.
+     */
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/custom-data-with-default.ldif",
+            schemaFiles = {"default", "com/buralotech/oss/ldapunit/custom-schema.ldif"},
+            generatedData = @GeneratedData(users = 50, groups = 5),
+            passwordEncoding = DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA256,
+            persistentImage = true)
+    void differentPasswordEncoding() {
+    }
+}
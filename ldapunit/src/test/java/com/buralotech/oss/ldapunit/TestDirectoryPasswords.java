@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryPasswordEncoder;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the configurable password encoding.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryPasswords {
+
+    /**
+     * Verify that loaded passwords are hashed with the configured scheme, that the hashes are reused when the server
+     * is built again and that binds are verified against them.
+     *
+     * @throws Exception If there was a problem starting or connecting to the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 5),
+            passwordEncoding = DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA256)
+    void passwordsAreHashed() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "passwordsAreHashed");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try {
+            final String password = server.getEntry("uid=user1,ou=Users,dc=buralotech,dc=com")
+                    .getAttributeValue("userPassword");
+            assertTrue(password.startsWith("{SSHA256}"));
+            final InMemoryDirectoryServer rebuilt = DirectoryServerUtils.createServer(annotation);
+            assertEquals(password, rebuilt.getEntry("uid=user1,ou=Users,dc=buralotech,dc=com")
+                    .getAttributeValue("userPassword"));
+
+            try (LDAPConnection connection = new LDAPConnection("localhost", server.getListenPort())) {
+                connection.bind("uid=user1,ou=Users,dc=buralotech,dc=com", "user1");
+                connection.bind("uid=admin,ou=system", "secret");
+                assertEquals(ResultCode.INVALID_CREDENTIALS, assertThrows(LDAPException.class,
+                        () -> connection.bind("uid=user1,ou=Users,dc=buralotech,dc=com", "user2")).getResultCode());
+                assertEquals(ResultCode.INVALID_CREDENTIALS, assertThrows(LDAPException.class,
+                        () -> connection.bind("uid=admin,ou=system", "wrong")).getResultCode());
+            }
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that forks keep the password encoding.
+     *
+     * @throws Exception If there was a problem creating the servers.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            generatedData = @GeneratedData(users = 1),
+            passwordEncoding = DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA512)
+    void forksKeepThePasswordEncoding() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "forksKeepThePasswordEncoding");
+        final InMemoryDirectoryServer parent = DirectoryServerUtils.createServer(annotation);
+        final InMemoryDirectoryServer fork = DirectoryServerUtils.forkServer(parent, 0);
+        assertEquals("{SSHA512}", fork.getConfig().getPrimaryPasswordEncoder().getPrefix());
+        assertEquals(2, fork.getConfig().getSecondaryPasswordEncoders().size());
+    }
+
+    /**
+     * Verify that concurrent binds to one server are verified correctly even though they share its password encoders.
+     *
+     * @throws Exception If there was a problem starting or connecting to the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            generatedData = @GeneratedData(users = 16),
+            passwordEncoding = DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA256)
+    void concurrentBindsAreVerified() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "concurrentBindsAreVerified");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            final List<Future<Integer>> failures = new ArrayList<>();
+            for (int i = 1; i <= 16; i++) {
+                final String uid = "user" + i;
+                failures.add(executor.submit(() -> {
+                    int count = 0;
+                    try (LDAPConnection connection = new LDAPConnection("localhost", server.getListenPort())) {
+                        for (int j = 0; j < 250; j++) {
+                            try {
+                                connection.bind("uid=" + uid + ",ou=Users,dc=buralotech,dc=com", uid);
+                                connection.bind("uid=admin,ou=system", "secret");
+                            } catch (final LDAPException e) {
+                                count++;
+                            }
+                        }
+                    }
+                    return count;
+                }));
+            }
+            for (final Future<Integer> failure : failures) {
+                assertEquals(0, failure.get());
+            }
+
+            final InMemoryPasswordEncoder encoder = server.getConfig().getPrimaryPasswordEncoder();
+            final ASN1OctetString encoded = encoder.encodePassword(new ASN1OctetString("bart"), null,
+                    Collections.emptyList());
+            final List<Future<Integer>> mismatches = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                mismatches.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int j = 0; j < 20000; j++) {
+                        if (!encoder.clearPasswordMatchesEncodedPassword(new ASN1OctetString("bart"), encoded, null)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            for (final Future<Integer> mismatch : mismatches) {
+                assertEquals(0, mismatch.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that passwords are cached per encoding and that encoded or clear-text passwords are left unchanged.
+     *
+     * @throws Exception If there was a problem encoding the passwords.
+     */
+    @Test
+    void encodedPasswordsAreCached() throws Exception {
+        final String encoded = DirectoryPasswords.encode("bart",
+                DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA384);
+        assertTrue(encoded.startsWith("{SSHA384}"));
+        assertEquals(encoded, DirectoryPasswords.encode("bart",
+                DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA384));
+        assertNotEquals(encoded, DirectoryPasswords.encode("bart",
+                DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA256));
+        assertEquals(encoded, DirectoryPasswords.encode(encoded,
+                DirectoryServerConfiguration.PasswordEncoding.SALTED_SHA256));
+        assertEquals("bart", DirectoryPasswords.encode("bart", DirectoryServerConfiguration.PasswordEncoding.CLEAR));
+    }
+
+    /**
+     * Verify that passwords are stored in clear text by default.
+     *
+     * @throws Exception If there was a problem creating the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            generatedData = @GeneratedData(users = 1))
+    void passwordsAreClearByDefault() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "passwordsAreClearByDefault");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.createServer(annotation);
+        assertNull(server.getConfig().getPrimaryPasswordEncoder());
+        assertEquals("user1", server.getEntry("uid=user1,ou=Users,dc=buralotech,dc=com")
+                .getAttributeValue("userPassword"));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the simulated replication of writes between the nodes of a topology.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryReplication {
+
+    /**
+     * The DN of an entry loaded from the LDIF file.
+     */
+    private static final String LISA = "uid=lsimpson,ou=People,dc=buralotech,dc=com";
+
+    /**
+     * Verify that a write is only visible on the other nodes once the replication lag has passed.
+     *
+     * @param topology The nodes.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 3,
+            replication = @Replication(enabled = true, delay = 300L))
+    void writesArriveAfterLag(final DirectoryTopology topology) throws Exception {
+        final long start = System.nanoTime();
+        try (LDAPConnection connection = new LDAPConnection("localhost", topology.getPort(0))) {
+            connection.add("dn: ou=Replicated,dc=buralotech,dc=com", "objectClass: organizationalUnit",
+                    "ou: Replicated");
+        }
+        assertNotNull(topology.getServer(0).getEntry("ou=Replicated,dc=buralotech,dc=com"));
+        assertNull(topology.getServer(1).getEntry("ou=Replicated,dc=buralotech,dc=com"));
+        assertEquals(1, topology.getReplicationBacklog());
+
+        assertTrue(topology.awaitReplication(5L, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300L));
+        assertNotNull(topology.getServer(1).getEntry("ou=Replicated,dc=buralotech,dc=com"));
+        assertNotNull(topology.getServer(2).getEntry("ou=Replicated,dc=buralotech,dc=com"));
+        assertEquals(0, topology.getReplicationBacklog());
+        assertEquals(1L, topology.getReplicatedChangeCount());
+    }
+
+    /**
+     * Verify that changes queued behind the oldest change are shipped with it and that modifications and deletes are
+     * replicated from any node.
+     *
+     * @param topology The nodes.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 2,
+            replication = @Replication(enabled = true, delay = 500L, batchSize = 10))
+    void changesAreBatched(final DirectoryTopology topology) throws Exception {
+        try (LDAPConnection connection = new LDAPConnection("localhost", topology.getPort(1))) {
+            for (int i = 0; i < 5; i++) {
+                connection.add("dn: ou=Batch" + i + ",dc=buralotech,dc=com", "objectClass: organizationalUnit",
+                        "ou: Batch" + i);
+            }
+            connection.modify(LISA, new Modification(ModificationType.REPLACE, "title", "Saxophonist"));
+            connection.delete("ou=Batch0,dc=buralotech,dc=com");
+        }
+        assertTrue(topology.awaitReplication(5L, TimeUnit.SECONDS));
+        assertEquals(7L, topology.getReplicatedChangeCount());
+        assertEquals(1L, topology.getReplicationBatchCount());
+        assertEquals(0L, topology.getReplicationConflictCount());
+        assertNull(topology.getServer(0).getEntry("ou=Batch0,dc=buralotech,dc=com"));
+        assertNotNull(topology.getServer(0).getEntry("ou=Batch4,dc=buralotech,dc=com"));
+        assertEquals("Saxophonist", topology.getServer(0).getEntry(LISA).getAttributeValue("title"));
+    }
+
+    /**
+     * Verify that a change that conflicts with a change made directly on another node is counted and skipped.
+     *
+     * @param topology The nodes.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 2,
+            replication = @Replication(enabled = true, delay = 0L))
+    void conflictsAreCounted(final DirectoryTopology topology) throws Exception {
+        topology.getServer(1).delete(LISA);
+        try (LDAPConnection connection = new LDAPConnection("localhost", topology.getPort(0))) {
+            connection.modify(LISA, new Modification(ModificationType.REPLACE, "title", "Saxophonist"));
+        }
+        assertTrue(topology.awaitReplication(5L, TimeUnit.SECONDS));
+        assertEquals(1L, topology.getReplicationConflictCount());
+        assertNull(topology.getServer(1).getEntry(LISA));
+    }
+
+    /**
+     * Verify that writes are not replicated unless replication is enabled.
+     *
+     * @param topology The nodes.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 2)
+    void replicationIsOffByDefault(final DirectoryTopology topology) throws Exception {
+        try (LDAPConnection connection = new LDAPConnection("localhost", topology.getPort(0))) {
+            connection.delete(LISA);
+        }
+        assertTrue(topology.awaitReplication(0L, TimeUnit.SECONDS));
+        assertNotNull(topology.getServer(1).getEntry(LISA));
+        assertEquals(0L, topology.getReplicatedChangeCount());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the accounting of the heap footprint of embedded LDAP directory servers and the memory budget.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryServerBudget {
+
+    /**
+     * Remove the memory budget after each test.
+     */
+    @AfterEach
+    void clearBudget() {
+        System.clearProperty(DirectoryServerBudget.MEMORY_BUDGET_PROPERTY);
+    }
+
+    /**
+     * Verify that sizes with and without suffixes are parsed and that invalid sizes mean there is no budget.
+     */
+    @Test
+    void parsesSizes() {
+        assertEquals(0L, DirectoryServerBudget.parseSize(null));
+        assertEquals(0L, DirectoryServerBudget.parseSize(""));
+        assertEquals(1000L, DirectoryServerBudget.parseSize("1000"));
+        assertEquals(64L * 1024L, DirectoryServerBudget.parseSize("64k"));
+        assertEquals(512L * 1024L * 1024L, DirectoryServerBudget.parseSize(" 512M "));
+        assertEquals(2L * 1024L * 1024L * 1024L, DirectoryServerBudget.parseSize("2g"));
+        assertEquals(0L, DirectoryServerBudget.parseSize("lots"));
+        assertEquals(0L, DirectoryServerBudget.parseSize("-5"));
+    }
+
+    /**
+     * Verify that the footprint is collected while the data is loaded and that the server is accounted until it is
+     * stopped.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 20))
+    void collectsFootprint() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                TestDirectoryServerBudget.class, "collectsFootprint");
+        final long usedBefore = DirectoryServerMetrics.getEstimatedRetainedBytes();
+        final InMemoryDirectoryServer server = DirectoryServerUtils.createServer(annotation);
+        final DirectoryServerFootprint footprint = DirectoryServerMetrics.getFootprint(annotation);
+        assertNotNull(footprint);
+        assertSame(footprint, DirectoryServerMetrics.getFootprints().get(annotation));
+        assertEquals(server.countEntries(), footprint.getEntryCount());
+        assertTrue(footprint.getAttributeValueCount() > footprint.getEntryCount());
+        assertTrue(footprint.getAttributeValueBytes() > footprint.getAttributeValueCount());
+        assertTrue(footprint.getEstimatedRetainedBytes() > 2L * footprint.getAttributeValueBytes());
+        assertEquals(usedBefore + footprint.getEstimatedRetainedBytes(),
+                DirectoryServerMetrics.getEstimatedRetainedBytes());
+
+        DirectoryServerUtils.stopServer(server);
+        assertEquals(usedBefore, DirectoryServerMetrics.getEstimatedRetainedBytes());
+    }
+
+    /**
+     * Verify that templates are evicted to make room for a new server and that a server is refused when there is
+     * nothing left to evict.
+     *
+     * @throws Exception If there was a problem starting the servers.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 50),
+            lifecycle = DirectoryServerConfiguration.Lifecycle.FORK)
+    void evictsAndRefuses() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                TestDirectoryServerBudget.class, "evictsAndRefuses");
+        DirectoryServerPrewarmer.evict();
+        DirectoryImage.evictTrusted();
+        DirectoryServerRegistry.evictTemplates();
+        final long baseline = DirectoryServerMetrics.getEstimatedRetainedBytes();
+
+        DirectoryServerRegistry.getTemplate(annotation);
+        final long size = DirectoryServerMetrics.getFootprint(annotation).getEstimatedRetainedBytes();
+        assertEquals(baseline + size, DirectoryServerMetrics.getEstimatedRetainedBytes());
+
+        System.setProperty(DirectoryServerBudget.MEMORY_BUDGET_PROPERTY, Long.toString(baseline + size + size / 2));
+        final long evictions = DirectoryServerMetrics.getEvictionCount();
+        final InMemoryDirectoryServer server = DirectoryServerUtils.createServer(annotation);
+        try {
+            assertEquals(evictions + 1, DirectoryServerMetrics.getEvictionCount());
+            assertEquals(baseline + size, DirectoryServerMetrics.getEstimatedRetainedBytes());
+
+            final long refusals = DirectoryServerMetrics.getRefusedServerCount();
+            final LDAPException e = assertThrows(LDAPException.class,
+                    () -> DirectoryServerUtils.createServer(annotation));
+            assertEquals(ResultCode.ADMIN_LIMIT_EXCEEDED, e.getResultCode());
+            assertEquals(refusals + 1, DirectoryServerMetrics.getRefusedServerCount());
+            assertEquals(baseline + size, DirectoryServerMetrics.getEstimatedRetainedBytes());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+        assertEquals(baseline, DirectoryServerMetrics.getEstimatedRetainedBytes());
+    }
+
+    /**
+     * Verify that the bytes for a server are reserved before it is built, so that a second build cannot claim the
+     * same room in the budget, and that a cancelled reservation is returned.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 30))
+    void reservesBeforeBuilding() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                TestDirectoryServerBudget.class, "reservesBeforeBuilding");
+        DirectoryServerUtils.stopServer(DirectoryServerUtils.createServer(annotation));
+        DirectoryServerPrewarmer.evict();
+        DirectoryImage.evictTrusted();
+        DirectoryServerRegistry.evictTemplates();
+        final long baseline = DirectoryServerMetrics.getEstimatedRetainedBytes();
+        final long size = DirectoryServerMetrics.getFootprint(annotation).getEstimatedRetainedBytes();
+
+        System.setProperty(DirectoryServerBudget.MEMORY_BUDGET_PROPERTY, Long.toString(baseline + size + size / 2));
+        final long reserved = DirectoryServerBudget.reserve(annotation);
+        assertEquals(size, reserved);
+        assertEquals(baseline + size, DirectoryServerMetrics.getEstimatedRetainedBytes());
+        final LDAPException e = assertThrows(LDAPException.class, () -> DirectoryServerBudget.reserve(annotation));
+        assertEquals(ResultCode.ADMIN_LIMIT_EXCEEDED, e.getResultCode());
+
+        DirectoryServerBudget.cancel(reserved);
+        assertEquals(baseline, DirectoryServerMetrics.getEstimatedRetainedBytes());
+        final InMemoryDirectoryServer server = DirectoryServerUtils.createServer(annotation);
+        try {
+            assertEquals(baseline + size, DirectoryServerMetrics.getEstimatedRetainedBytes());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+        assertEquals(baseline, DirectoryServerMetrics.getEstimatedRetainedBytes());
+    }
+
+    /**
+     * Verify that the images of trusted fixtures count against the budget until they are forgotten and that they are
+     * evicted to make room for a server.
+     *
+     * @throws Exception If there was a problem creating the server.
+     */
+    @Test
+    void accountsTrustedImages() throws Exception {
+        DirectoryImage.evictTrusted();
+        final long baseline = DirectoryServerMetrics.getEstimatedRetainedBytes();
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer("dc=buralotech,dc=com");
+        final DirectoryServerFootprint footprint = new DirectoryServerFootprint(100L, 500L, 10000L);
+        final long size = footprint.getEstimatedRetainedBytes();
+        DirectoryImage.putTrusted("accountsTrustedImages",
+                new DirectoryImage(server.getSchema(), server.createSnapshot(), footprint));
+        assertEquals(baseline + size, DirectoryServerMetrics.getEstimatedRetainedBytes());
+
+        DirectoryImage.evictTrusted();
+        assertNull(DirectoryImage.getTrusted("accountsTrustedImages"));
+        assertEquals(baseline, DirectoryServerMetrics.getEstimatedRetainedBytes());
+
+        System.setProperty(DirectoryServerBudget.MEMORY_BUDGET_PROPERTY, Long.toString(baseline + size / 2));
+        DirectoryImage.putTrusted("accountsTrustedImages",
+                new DirectoryImage(server.getSchema(), server.createSnapshot(), footprint));
+        assertNull(DirectoryImage.getTrusted("accountsTrustedImages"));
+        assertEquals(baseline, DirectoryServerMetrics.getEstimatedRetainedBytes());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test the {@link DirectoryServerRule} rule when it is used as a {@link ClassRule} and when tests are run in
+ * parallel.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@DirectoryServerConfiguration(
+        port = 10398,
+        ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+public class TestDirectoryServerClassRule {
+
+    /**
+     * The rule being tested. It is used both as a class rule, to start the shared server, and as a method rule, so
+     * tests with their own configuration get their own server.
+     */
+    @Rule
+    @ClassRule
+    public static final DirectoryServerRule RULE = new DirectoryServerRule();
+
+    /**
+     * Verify that tests without their own configuration use the shared server.
+     */
+    @Test
+    public void usesClassServer() {
+        RULE.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+    }
+
+    /**
+     * Verify that a test with its own configuration gets its own server.
+     */
+    @Test
+    @DirectoryServerConfiguration(port = 0)
+    public void usesOwnServer() {
+        RULE.assertDNExists("dc=buralotech,dc=com");
+        assertFalse(RULE.verifyDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+    }
+
+    /**
+     * Verify that the rule can be used by several threads started by a test at the same time.
+     *
+     * @throws Exception If one of the threads failed.
+     */
+    @Test
+    public void usedByManyThreads() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() ->
+                        RULE.verifyDNHasAttributeValue("uid=hsimpson,ou=People,dc=buralotech,dc=com", "uid",
+                                "hsimpson")));
+            }
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Verify that the tests of a class using the rule as a method rule can be run in parallel.
+     */
+    @Test
+    public void runsInParallel() {
+        final Result result = JUnitCore.runClasses(ParallelComputer.methods(), ParallelTests.class);
+        assertEquals(0, result.getFailureCount());
+        assertEquals(3, result.getRunCount());
+    }
+
+    /**
+     * Tests that are run in parallel, each with its own server on an ephemeral port.
+     */
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    public static class ParallelTests {
+
+        /**
+         * The rule being tested.
+         */
+        @Rule
+        public DirectoryServerRule rule = new DirectoryServerRule();
+
+        /**
+         * Verify the first entry.
+         */
+        @Test
+        public void first() {
+            rule.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        }
+
+        /**
+         * Verify the second entry.
+         */
+        @Test
+        public void second() {
+            rule.assertDNExists("uid=hsimpson,ou=People,dc=buralotech,dc=com");
+        }
+
+        /**
+         * Verify the third entry.
+         */
+        @Test
+        public void third() {
+            rule.assertDNExists("uid=msimpson,ou=People,dc=buralotech,dc=com");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test attaching tests to a directory server daemon that was started outside the test.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryServerDaemon {
+
+    /**
+     * Stands in for the directory server daemon.
+     */
+    private static InMemoryDirectoryServer daemon;
+
+    /**
+     * Start the stand-in for the directory server daemon and publish its port.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @BeforeAll
+    static void startDaemon() throws Exception {
+        daemon = DirectoryServerUtils.startServer(TestAnnotations.getConfiguration(TestDirectoryServerDaemon.class,
+                "daemonConfiguration"));
+        System.setProperty(DirectoryServerDaemon.PORT_PROPERTY, Integer.toString(daemon.getListenPort()));
+    }
+
+    /**
+     * Withdraw the port and stop the stand-in for the directory server daemon.
+     */
+    @AfterAll
+    static void stopDaemon() {
+        System.clearProperty(DirectoryServerDaemon.PORT_PROPERTY);
+        DirectoryServerUtils.stopServer(daemon);
+    }
+
+    /**
+     * The configuration of the stand-in for the directory server daemon.
+     */
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    private static void daemonConfiguration() {
+    }
+
+    /**
+     * Verify that the port and host are read from the system properties.
+     */
+    @Test
+    void readsProperties() {
+        assertTrue(DirectoryServerDaemon.isRunning());
+        assertEquals(daemon.getListenPort(), DirectoryServerDaemon.getPort());
+        assertEquals("localhost", DirectoryServerDaemon.getHost());
+        final String port = System.getProperty(DirectoryServerDaemon.PORT_PROPERTY);
+        try {
+            System.setProperty(DirectoryServerDaemon.PORT_PROPERTY, "none");
+            assertFalse(DirectoryServerDaemon.isRunning());
+            System.setProperty(DirectoryServerDaemon.PORT_PROPERTY, "70000");
+            assertFalse(DirectoryServerDaemon.isRunning());
+        } finally {
+            System.setProperty(DirectoryServerDaemon.PORT_PROPERTY, port);
+        }
+    }
+
+    /**
+     * Verify that a test attaches to the daemon rather than booting its own server without the daemon's data.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(port = 0, attach = true)
+    void attachesToDaemon(final DirectoryTester tester) {
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+    }
+
+    /**
+     * Verify that a test that does not opt in boots its own server even though a daemon is running.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(port = 0)
+    void doesNotAttachByDefault(final DirectoryTester tester) {
+        tester.assertDNExists("dc=buralotech,dc=com");
+        assertFalse(tester.verifyDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+    }
+
+    /**
+     * Verify that an attached test has no embedded server and cannot apply fixtures to the daemon.
+     *
+     * @throws Exception If there was a problem connecting to the daemon.
+     */
+    @Test
+    @DirectoryServerConfiguration(port = 0, attach = true)
+    @DirectoryFixture(ldif = "com/buralotech/oss/ldapunit/fixture-add.ldif")
+    void rejectsFixtures() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                TestDirectoryServerDaemon.class, "rejectsFixtures");
+        try (DirectoryServerHolder holder = new DirectoryServerHolder(annotation)) {
+            assertTrue(holder.isAttached());
+            holder.start();
+            assertEquals(ResultCode.UNWILLING_TO_PERFORM,
+                    assertThrows(LDAPException.class, holder::getServer).getResultCode());
+        }
+        final DirectoryFixture fixture = getClass().getDeclaredMethod("rejectsFixtures")
+                .getAnnotation(DirectoryFixture.class);
+        try (DirectoryServerHolder holder = new DirectoryServerHolder(annotation, fixture, null)) {
+            assertEquals(ResultCode.UNWILLING_TO_PERFORM,
+                    assertThrows(LDAPException.class, holder::start).getResultCode());
+        }
+    }
+}
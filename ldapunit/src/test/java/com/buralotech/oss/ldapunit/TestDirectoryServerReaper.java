@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the background teardown of embedded LDAP directory servers and the reuse of their ports.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryServerReaper {
+
+    /**
+     * The fixed port used by the servers.
+     */
+    private static final int PORT = 10399;
+
+    /**
+     * Verify that the listener sockets are created with address reuse enabled.
+     *
+     * @throws Exception If the server socket could not be created.
+     */
+    @Test
+    void enablesAddressReuse() throws Exception {
+        try (ServerSocket serverSocket = ReuseAddressServerSocketFactory.INSTANCE.createServerSocket(0, 10)) {
+            assertTrue(serverSocket.getReuseAddress());
+            assertTrue(serverSocket.isBound());
+            assertTrue(serverSocket.getLocalPort() > 0);
+        }
+    }
+
+    /**
+     * Verify that servers can be started on the same fixed port straight after the previous server was stopped in
+     * the background, including after clients have connected to it.
+     *
+     * @throws Exception If there was a problem starting a server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = PORT,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    void restartsOnSamePort() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "restartsOnSamePort");
+        for (int i = 0; i < 20; i++) {
+            final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+            assertEquals(PORT, server.getListenPort());
+            try (LDAPConnection connection = new LDAPConnection("localhost", PORT)) {
+                assertNotNull(connection.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            }
+            DirectoryServerUtils.stopServer(server);
+        }
+        DirectoryServerReaper.awaitPort(PORT);
+        assertThrows(LDAPException.class, () -> new LDAPConnection("localhost", PORT).close());
+    }
+}
@@ -16,10 +16,13 @@
 
 package com.buralotech.oss.ldapunit;
 
+import com.unboundid.ldap.sdk.LDAPConnection;
 import org.junit.Rule;
 import org.junit.Test;
 
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit test the {@link DirectoryServerRule} rule when the methods are annotated
@@ -91,4 +94,48 @@ public class TestDirectoryServerRuleMethodConfiguration {
         directoryServerRule.assertDNExists("uid=msimpson,ou=People,dc=buralotech,dc=com");
         directoryServerRule.assertDNExists("uid=ccarlson,ou=People,dc=buralotech,dc=com");
     }
+
+    /**
+     * Verify that code which connects to the shared server directly can read and write the data for the test below
+     * the namespace DN exposed by the rule.
+     *
+     * @throws Exception If there was a problem connecting to the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 10401,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.NAMESPACE)
+    public void codeUnderTestUsesNamespace() throws Exception {
+        final String namespaceDN = directoryServerRule.getNamespaceDN();
+        assertTrue(namespaceDN.startsWith("ou=test-"));
+        try (LDAPConnection connection = new LDAPConnection("localhost", 10401)) {
+            assertNotNull(connection.getEntry("uid=lsimpson,ou=People," + namespaceDN));
+            connection.add(
+                    "dn: uid=mhouten,ou=People," + namespaceDN,
+                    "objectClass: inetOrgPerson",
+                    "uid: mhouten",
+                    "cn: Milhouse Van Houten",
+                    "sn: Van Houten");
+        }
+        directoryServerRule.assertDNExists("uid=mhouten,ou=People,dc=buralotech,dc=com");
+    }
+
+    /**
+     * Verify that the rule reports the ephemeral port of a forked server so that code under test can connect to it.
+     *
+     * @throws Exception If there was a problem connecting to the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.FORK)
+    public void codeUnderTestConnectsToFork() throws Exception {
+        final int port = directoryServerRule.getPort();
+        assertTrue(port > 0);
+        try (LDAPConnection connection = new LDAPConnection("localhost", port)) {
+            assertNotNull(connection.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+        }
+    }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the admission control for concurrent server builds.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryServerScheduler {
+
+    /**
+     * Verify that requests for a configuration that is already being built share the build but get their own
+     * servers.
+     *
+     * @throws Exception If there was a problem building the servers.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    void sharesInFlightBuilds() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                TestDirectoryServerScheduler.class, "sharesInFlightBuilds");
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger builds = new AtomicInteger();
+        final long sharedBefore = DirectoryServerMetrics.getSharedBuildCount();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<InMemoryDirectoryServer> first = executor.submit(() ->
+                    DirectoryServerScheduler.build(annotation, () -> {
+                        builds.incrementAndGet();
+                        started.countDown();
+                        release.await();
+                        return createServer();
+                    }));
+            started.await();
+            final List<Future<InMemoryDirectoryServer>> others = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                others.add(executor.submit(() -> DirectoryServerScheduler.build(annotation, () -> {
+                    builds.incrementAndGet();
+                    return createServer();
+                })));
+            }
+            Thread.sleep(200L);
+            release.countDown();
+
+            final InMemoryDirectoryServer server = first.get();
+            server.delete("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+            for (final Future<InMemoryDirectoryServer> other : others) {
+                final InMemoryDirectoryServer copy = other.get();
+                assertNotSame(server, copy);
+                assertNotNull(copy.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            }
+            assertEquals(1, builds.get());
+            assertEquals(sharedBefore + 3, DirectoryServerMetrics.getSharedBuildCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Verify that a build that no other request joined hands over the server it built.
+     *
+     * @throws Exception If there was a problem building the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            baseDN = "dc=unshared")
+    void handsOverUnsharedBuild() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                TestDirectoryServerScheduler.class, "handsOverUnsharedBuild");
+        final long sharedBefore = DirectoryServerMetrics.getSharedBuildCount();
+        final InMemoryDirectoryServer built = createServer();
+        assertSame(built, DirectoryServerScheduler.build(annotation, () -> built));
+        assertEquals(sharedBefore, DirectoryServerMetrics.getSharedBuildCount());
+    }
+
+    /**
+     * Verify that a server restored from a shared build has its own access log rather than the one of the server
+     * that ran the build.
+     *
+     * @throws Exception If there was a problem building the servers.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            accessLog = @AccessLog(enabled = true))
+    void sharedBuildsHaveTheirOwnAccessLog() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                TestDirectoryServerScheduler.class, "sharedBuildsHaveTheirOwnAccessLog");
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<InMemoryDirectoryServer> first = executor.submit(() ->
+                    DirectoryServerScheduler.build(annotation, () -> {
+                        started.countDown();
+                        release.await();
+                        return DirectoryServerUtils.loadServer(annotation);
+                    }));
+            started.await();
+            final Future<InMemoryDirectoryServer> second = executor.submit(() ->
+                    DirectoryServerScheduler.build(annotation, () -> DirectoryServerUtils.loadServer(annotation)));
+            Thread.sleep(200L);
+            release.countDown();
+
+            final InMemoryDirectoryServer server = first.get();
+            final InMemoryDirectoryServer copy = second.get();
+            final DirectoryAccessLog accessLog = DirectoryAccessLog.find(server);
+            final DirectoryAccessLog copyAccessLog = DirectoryAccessLog.find(copy);
+            assertNotNull(copyAccessLog);
+            assertNotSame(accessLog, copyAccessLog);
+
+            copy.startListening();
+            try (LDAPConnection connection = copy.getConnection()) {
+                connection.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+            } finally {
+                copy.shutDown(true);
+            }
+            assertTrue(copyAccessLog.getRecordCount() > 0);
+            assertEquals(0, accessLog.getRecordCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Verify that no more builds than the limit run at the same time and that queue wait time is recorded.
+     *
+     * @throws Exception If there was a problem building the servers.
+     */
+    @Test
+    void limitsConcurrentBuilds() throws Exception {
+        final String[] methods = {"buildsFirst", "buildsSecond", "buildsThird", "buildsFourth"};
+        final int limit = Integer.getInteger(
+                DirectoryServerScheduler.MAX_CONCURRENT_BUILDS_PROPERTY,
+                Runtime.getRuntime().availableProcessors());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final long buildsBefore = DirectoryServerMetrics.getBuildCount();
+        final ExecutorService executor = Executors.newFixedThreadPool(methods.length);
+        try {
+            final List<Future<InMemoryDirectoryServer>> results = new ArrayList<>();
+            for (final String method : methods) {
+                final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(
+                        TestDirectoryServerScheduler.class, method);
+                results.add(executor.submit(() -> DirectoryServerScheduler.build(annotation, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(50L);
+                        return createServer();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                })));
+            }
+            for (final Future<InMemoryDirectoryServer> result : results) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(maxRunning.get() <= Math.max(1, limit));
+        assertTrue(DirectoryServerMetrics.getBuildCount() >= buildsBefore + methods.length);
+        assertEquals(0, DirectoryServerMetrics.getQueuedBuildCount());
+        if (limit < methods.length) {
+            assertTrue(DirectoryServerMetrics.getMaxQueueWaitTime().toMillis() >= 40L);
+            assertTrue(DirectoryServerMetrics.getTotalQueueWaitTime().compareTo(
+                    DirectoryServerMetrics.getMaxQueueWaitTime()) >= 0);
+        }
+    }
+
+    /**
+     * Create a small server directly, without going through the scheduler, for use by the builders.
+     *
+     * @return The server.
+     * @throws Exception If there was a problem creating the server.
+     */
+    private static InMemoryDirectoryServer createServer() throws Exception {
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer("dc=buralotech,dc=com");
+        server.add("dn: dc=buralotech,dc=com", "objectClass: domain", "dc: buralotech");
+        server.add("dn: ou=People,dc=buralotech,dc=com", "objectClass: organizationalUnit", "ou: People");
+        server.add("dn: uid=lsimpson,ou=People,dc=buralotech,dc=com", "objectClass: inetOrgPerson",
+                "uid: lsimpson", "cn: Lisa Simpson", "sn: Simpson");
+        return server;
+    }
+
+    /**
+     * Provides a distinct configuration.
+     */
+    @DirectoryServerConfiguration(port = 0, baseDN = "dc=first")
+    private void buildsFirst() {
+    }
+
+    /**
+     * Provides a distinct configuration.
+     */
+    @DirectoryServerConfiguration(port = 0, baseDN = "dc=second")
+    private void buildsSecond() {
+    }
+
+    /**
+     * Provides a distinct configuration.
+     */
+    @DirectoryServerConfiguration(port = 0, baseDN = "dc=third")
+    private void buildsThird() {
+    }
+
+    /**
+     * Provides a distinct configuration.
+     */
+    @DirectoryServerConfiguration(port = 0, baseDN = "dc=fourth")
+    private void buildsFourth() {
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the LDAPS and StartTLS listeners and the shared TLS key material.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryServerTls {
+
+    /**
+     * Verify that the tester can use an LDAPS server.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            security = DirectoryServerConfiguration.Security.LDAPS)
+    void testerUsesLdaps(final DirectoryTester tester) {
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        tester.assertDNHasAttributeValue("uid=lsimpson,ou=People,dc=buralotech,dc=com", "title", "Kid");
+    }
+
+    /**
+     * Verify that connections to an LDAPS server negotiate TLS, that the key material is generated only once and that
+     * a later connection resumes the TLS session of an earlier one.
+     *
+     * @throws Exception If there was a problem starting or connecting to the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            security = DirectoryServerConfiguration.Security.LDAPS)
+    void connectionsUseLdaps() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "connectionsUseLdaps");
+        final DirectoryServerHolder holder = new DirectoryServerHolder(annotation);
+        try {
+            final InMemoryDirectoryServer server = holder.getServer();
+            assertSame(DirectoryServerTls.getClientContext(), DirectoryServerTls.getClientContext());
+            try (LDAPConnection first = new LDAPConnection(DirectoryServerTls.getClientSocketFactory(), "localhost",
+                    server.getListenPort());
+                 LDAPConnection second = new LDAPConnection(DirectoryServerTls.getClientSocketFactory(), "localhost",
+                         server.getListenPort())) {
+                assertNotNull(first.getSSLSession());
+                assertNotNull(second.getSSLSession());
+                assertNotNull(first.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            }
+            assertTrue(DirectoryServerTls.getClientContext().getClientSessionContext().getIds().hasMoreElements());
+            final LDAPConnection connection = holder.getConnectionPool().getConnection();
+            try {
+                assertNotNull(connection.getSSLSession());
+            } finally {
+                holder.getConnectionPool().releaseConnection(connection);
+            }
+        } finally {
+            holder.close();
+        }
+    }
+
+    /**
+     * Verify that connections made by the holder upgrade to TLS with StartTLS.
+     *
+     * @throws Exception If there was a problem starting or connecting to the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            security = DirectoryServerConfiguration.Security.START_TLS)
+    void connectionsUseStartTls() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "connectionsUseStartTls");
+        final DirectoryServerHolder holder = new DirectoryServerHolder(annotation);
+        try {
+            final LDAPConnection connection = holder.getConnectionPool().getConnection();
+            try {
+                assertNotNull(connection.getSSLSession());
+                assertNotNull(connection.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            } finally {
+                holder.getConnectionPool().releaseConnection(connection);
+            }
+            try (LDAPConnection plain = new LDAPConnection("localhost", holder.getServer().getListenPort())) {
+                assertNull(plain.getSSLSession());
+            }
+        } finally {
+            holder.close();
+        }
+    }
+
+    /**
+     * Verify that forks keep the TLS settings of their parent.
+     *
+     * @throws Exception If there was a problem creating the servers.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            security = DirectoryServerConfiguration.Security.START_TLS)
+    void forksKeepTls() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(), "forksKeepTls");
+        final InMemoryDirectoryServer parent = DirectoryServerUtils.createServer(annotation);
+        final InMemoryDirectoryServer fork = DirectoryServerUtils.forkServer(parent, 0);
+        final InMemoryListenerConfig listenerConfig = fork.getConfig().getListenerConfigs().get(0);
+        assertNotNull(listenerConfig.getStartTLSSocketFactory());
+        assertSame(parent.getConfig().getListenerConfigs().get(0).getStartTLSSocketFactory(),
+                listenerConfig.getStartTLSSocketFactory());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPSearchException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the indexing and tuning options of {@link DirectoryServerConfiguration}.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryServerTuning {
+
+    /**
+     * Verify that the tuning options are applied to the server configuration and that searches using the
+     * equality index still find the expected entries.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 10393,
+            generatedData = @GeneratedData(users = 100),
+            equalityIndexAttributes = {"uid", "mail"},
+            generateOperationalAttributes = false)
+    void appliesTuningOptions() throws Exception {
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(
+                TestAnnotations.getConfiguration(getClass(), "appliesTuningOptions"));
+        try {
+            assertEquals(new HashSet<>(Arrays.asList("uid", "mail")),
+                    new HashSet<>(server.getConfig().getEqualityIndexAttributes()));
+            assertFalse(server.getConfig().generateOperationalAttributes());
+            assertEquals(1, server.search("dc=buralotech,dc=com", SearchScope.SUB, "(uid=user42)").getEntryCount());
+            assertEquals(1, server.search("dc=buralotech,dc=com", SearchScope.SUB,
+                    "(mail=user7@buralotech.com)").getEntryCount());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that the maximum size limit is enforced.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 10393,
+            generatedData = @GeneratedData(users = 20),
+            maxSizeLimit = 5)
+    void enforcesMaxSizeLimit() throws Exception {
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(
+                TestAnnotations.getConfiguration(getClass(), "enforcesMaxSizeLimit"));
+        try {
+            final LDAPSearchException e = assertThrows(
+                    LDAPSearchException.class,
+                    () -> server.search("dc=buralotech,dc=com", SearchScope.SUB, "(objectClass=inetOrgPerson)"));
+            assertEquals(ResultCode.SIZE_LIMIT_EXCEEDED, e.getResultCode());
+            assertEquals(5, e.getEntryCount());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+}
@@ -16,11 +16,20 @@
 
 package com.buralotech.oss.ldapunit;
 
+import com.unboundid.ldap.sdk.FullLDAPInterface;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
@@ -198,4 +207,84 @@ public class TestDirectoryTester {
                 AssertionError.class,
                 () -> tester.assertDNHasAttributeValue("dc=buralotech,dc=com", "dc", "com"));
     }
+
+    /**
+     * Verify that the {@link DirectoryTester#findMissingDNs(Collection, int)} method reports only the
+     * distinguished names that do not identify an entry.
+     */
+    @Test
+    @DirectoryServerConfiguration(ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    public void checkFindMissingDNs() {
+        final List<String> dns = Arrays.asList(
+                "dc=buralotech,dc=com",
+                "ou=People,dc=buralotech,dc=com",
+                "uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                "uid=nflanders,ou=People,dc=buralotech,dc=com",
+                "ou=Groups,dc=buralotech,dc=com");
+        assertEquals(
+                new HashSet<>(Arrays.asList(
+                        "uid=nflanders,ou=People,dc=buralotech,dc=com",
+                        "ou=Groups,dc=buralotech,dc=com")),
+                tester.findMissingDNs(dns, 2));
+        assertTrue(tester.findMissingDNs(dns.subList(0, 3)).isEmpty());
+        assertTrue(tester.findMissingDNs(Collections.emptyList()).isEmpty());
+    }
+
+    /**
+     * Verify that the {@link DirectoryTester#findMissingDNs(Collection, int)} method rethrows an unchecked exception
+     * raised by a check instead of reporting the entry as present.
+     */
+    @Test
+    public void checkFindMissingDNsRethrowsUncheckedFailure() {
+        final FullLDAPInterface failing = (FullLDAPInterface) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{FullLDAPInterface.class}, (proxy, method, args) -> {
+                    throw new IllegalStateException("Connection pool exhausted");
+                });
+        final DirectoryTester failingTester = new DirectoryTester(failing);
+        final IllegalStateException e = assertThrows(
+                IllegalStateException.class,
+                () -> failingTester.findMissingDNs(Arrays.asList(
+                        "dc=buralotech,dc=com",
+                        "ou=People,dc=buralotech,dc=com"), 2));
+        assertEquals("Connection pool exhausted", e.getMessage());
+    }
+
+    /**
+     * Verify that the {@link DirectoryTester#verifyDNsExist(Collection)} method behaves correctly.
+     */
+    @Test
+    @DirectoryServerConfiguration(ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    public void checkVerifyDNsExist() {
+        assertTrue(tester.verifyDNsExist(Arrays.asList(
+                "ou=People,dc=buralotech,dc=com",
+                "uid=hsimpson,ou=People,dc=buralotech,dc=com",
+                "uid=msimpson,ou=People,dc=buralotech,dc=com")));
+        assertFalse(tester.verifyDNsExist(Arrays.asList(
+                "ou=People,dc=buralotech,dc=com",
+                "uid=nflanders,ou=People,dc=buralotech,dc=com")));
+    }
+
+    /**
+     * Verify that the {@link DirectoryTester#assertDNsExist(Collection)} method throws an exception
+     * identifying the missing entries.
+     */
+    @Test
+    public void assertDNsExistShouldFail() {
+        final AssertionError error = assertThrows(
+                AssertionError.class,
+                () -> tester.assertDNsExist(Arrays.asList(
+                        "dc=buralotech,dc=com",
+                        "ou=People,dc=buralotech,dc=com")));
+        assertEquals("Entries for 1 of 2 DNs do not exist: [ou=People,dc=buralotech,dc=com]", error.getMessage());
+    }
+
+    /**
+     * Verify that an exception is thrown when we try to verify an invalid DN in parallel.
+     */
+    @Test
+    public void throwsExceptionIfInvalidDNInParallel() {
+        assertThrows(
+                DirectoryTesterException.class,
+                () -> tester.verifyDNsExist(Arrays.asList("dc=buralotech,dc=com", "dc:buralotech,dc:com")));
+    }
 }
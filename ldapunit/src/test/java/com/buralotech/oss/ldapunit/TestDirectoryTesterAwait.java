@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the await assertions that wait for the contents of the LDAP directory to change.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryTesterAwait {
+
+    /**
+     * Verify that the await assertions complete once a write made over LDAP by another thread has been applied and
+     * report how long they waited.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            awaitNotifications = true)
+    void awaitsChanges() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(), "awaitsChanges");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try (LDAPConnection connection = server.getConnection()) {
+            final DirectoryTester tester = new DirectoryTester(server);
+            final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(200L);
+                    connection.add("ou=Awaited,dc=buralotech,dc=com",
+                            new Attribute("objectClass", "organizationalUnit"),
+                            new Attribute("ou", "Awaited"));
+                    connection.modify("uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                            new Modification(ModificationType.REPLACE, "title", "Saxophonist"));
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            final Duration latency = tester.awaitDNExists("ou=Awaited,dc=buralotech,dc=com", Duration.ofSeconds(10L));
+            assertTrue(latency.toMillis() >= 150L);
+            tester.awaitDNHasAttributeValue("uid=lsimpson,ou=People,dc=buralotech,dc=com", "title",
+                    Duration.ofSeconds(10L), "Saxophonist");
+            writer.get();
+
+            assertEquals(2L, ChangeNotifier.find(server).getVersion());
+
+            tester.awaitDNHasAttribute("uid=lsimpson,ou=People,dc=buralotech,dc=com", "title", Duration.ZERO);
+            final AssertionError error = assertThrows(AssertionError.class,
+                    () -> tester.awaitDNExists("ou=Missing,dc=buralotech,dc=com", Duration.ofMillis(200L)));
+            assertEquals("Entry for DN: ou=Missing,dc=buralotech,dc=com does not exist after waiting 200ms",
+                    error.getMessage());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that the change notifier is opt-in and that the await assertions still see writes made over LDAP
+     * without it by re-checking periodically.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    void awaitsChangesWithoutNotifications() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "awaitsChangesWithoutNotifications");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try (LDAPConnection connection = server.getConnection()) {
+            assertNull(ChangeNotifier.find(server));
+            final DirectoryTester tester = new DirectoryTester(server);
+            final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(200L);
+                    connection.add("ou=Awaited,dc=buralotech,dc=com",
+                            new Attribute("objectClass", "organizationalUnit"),
+                            new Attribute("ou", "Awaited"));
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            tester.awaitDNExists("ou=Awaited,dc=buralotech,dc=com", Duration.ofSeconds(10L));
+            writer.get();
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that a fork has a change notifier of its own.
+     *
+     * @throws Exception If there was a problem creating the servers.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            awaitNotifications = true)
+    void forksHaveTheirOwnNotifier() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "forksHaveTheirOwnNotifier");
+        final InMemoryDirectoryServer parent = DirectoryServerUtils.createServer(annotation);
+        final InMemoryDirectoryServer fork = DirectoryServerUtils.forkServer(parent, 0);
+        assertNotNull(ChangeNotifier.find(parent));
+        assertNotNull(ChangeNotifier.find(fork));
+        assertNotSame(ChangeNotifier.find(parent), ChangeNotifier.find(fork));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.FailoverServerSet;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPConnectionOptions;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.RoundRobinServerSet;
+import com.unboundid.ldap.sdk.SearchScope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test topologies of several LDAP directory servers started with identical data.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryTopology {
+
+    /**
+     * The DN of an entry loaded from the LDIF file.
+     */
+    private static final String LISA = "uid=lsimpson,ou=People,dc=buralotech,dc=com";
+
+    /**
+     * Verify that every node starts with the same data on its own port and that changes are not replicated.
+     *
+     * @param topology The nodes.
+     * @param tester   Used to perform assertions against the first node.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 3)
+    void nodesStartWithIdenticalData(final DirectoryTopology topology,
+                                     final DirectoryTester tester) throws Exception {
+        assertEquals(3, topology.size());
+        assertEquals(3, Arrays.stream(topology.getPorts()).distinct().count());
+        assertArrayEquals(new String[]{"localhost", "localhost", "localhost"}, topology.getAddresses());
+        for (int node = 0; node < topology.size(); node++) {
+            assertTrue(topology.isRunning(node));
+            assertEquals(topology.getPort(node), topology.getServer(node).getListenPort());
+            assertNotNull(topology.getServer(node).getEntry(LISA));
+        }
+
+        topology.getServer(0).delete(LISA);
+        assertFalse(tester.verifyDNExists(LISA));
+        assertNotNull(topology.getServer(1).getEntry(LISA));
+        assertNotNull(topology.getServer(2).getEntry(LISA));
+    }
+
+    /**
+     * Verify that the operation counts show how a round-robin server set spreads connections across the nodes.
+     *
+     * @param topology The nodes.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 3)
+    void countsOperations(final DirectoryTopology topology) throws Exception {
+        topology.resetOperationCounts();
+        final RoundRobinServerSet serverSet = new RoundRobinServerSet(topology.getAddresses(), topology.getPorts());
+        for (int i = 0; i < 6; i++) {
+            try (LDAPConnection connection = serverSet.getConnection()) {
+                connection.search(LISA, SearchScope.BASE, "(objectClass=*)");
+            }
+        }
+        for (int node = 0; node < topology.size(); node++) {
+            assertEquals(2L, topology.getOperationCount(node));
+        }
+    }
+
+    /**
+     * Verify that a failover server set moves to the next node when the first is stopped and that a restarted node
+     * listens on the same port.
+     *
+     * @param topology The nodes.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 2)
+    void stoppedNodesFailOver(final DirectoryTopology topology) throws Exception {
+        final FailoverServerSet serverSet = new FailoverServerSet(topology.getAddresses(), topology.getPorts());
+        topology.stop(0);
+        assertFalse(topology.isRunning(0));
+        try (LDAPConnection connection = serverSet.getConnection()) {
+            assertEquals(topology.getPort(1), connection.getConnectedPort());
+        }
+
+        topology.start(0);
+        assertTrue(topology.isRunning(0));
+        assertEquals(topology.getPort(0), topology.getServer(0).getListenPort());
+        try (LDAPConnection connection = serverSet.getConnection()) {
+            assertEquals(topology.getPort(0), connection.getConnectedPort());
+        }
+    }
+
+    /**
+     * Verify that requests to a paused node time out until it is resumed and that requests to a slow node are delayed.
+     *
+     * @param topology The nodes.
+     * @throws Exception If there was a problem using the nodes.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            nodes = 2)
+    void pausedAndSlowNodes(final DirectoryTopology topology) throws Exception {
+        final LDAPConnectionOptions options = new LDAPConnectionOptions();
+        options.setResponseTimeoutMillis(200L);
+        try (LDAPConnection connection = new LDAPConnection(options, "localhost", topology.getPort(0))) {
+            topology.pause(0);
+            assertTrue(topology.isPaused(0));
+            final LDAPException e = assertThrows(LDAPException.class,
+                    () -> connection.search(LISA, SearchScope.BASE, "(objectClass=*)"));
+            assertEquals(ResultCode.TIMEOUT, e.getResultCode());
+            topology.resume(0);
+            assertFalse(topology.isPaused(0));
+            assertEquals(1, connection.search(LISA, SearchScope.BASE, "(objectClass=*)").getEntryCount());
+        }
+
+        topology.setDelay(1, 100L);
+        try (LDAPConnection connection = new LDAPConnection("localhost", topology.getPort(1))) {
+            final long start = System.nanoTime();
+            connection.search(LISA, SearchScope.BASE, "(objectClass=*)");
+            assertTrue(System.nanoTime() - start >= 100_000_000L);
+        }
+    }
+
+    /**
+     * Verify that a topology is only available when the configuration has several nodes and does not share servers.
+     *
+     * @throws Exception If there was a problem getting the annotations.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            lifecycle = DirectoryServerConfiguration.Lifecycle.NAMESPACE,
+            nodes = 2)
+    void requiresSeveralUnsharedNodes() throws Exception {
+        try (DirectoryServerHolder holder = new DirectoryServerHolder(TestAnnotations.getConfiguration(getClass(),
+                "singleNode"))) {
+            assertEquals(ResultCode.UNWILLING_TO_PERFORM,
+                    assertThrows(LDAPException.class, holder::getTopology).getResultCode());
+            assertFalse(holder.isStarted());
+        }
+        try (DirectoryServerHolder holder = new DirectoryServerHolder(TestAnnotations.getConfiguration(getClass(),
+                "requiresSeveralUnsharedNodes"))) {
+            assertEquals(ResultCode.UNWILLING_TO_PERFORM,
+                    assertThrows(LDAPException.class, holder::getTopology).getResultCode());
+        }
+    }
+
+    /**
+     * A configuration with a single node.
+     */
+    @DirectoryServerConfiguration(port = 0)
+    private void singleNode() {
+    }
+}
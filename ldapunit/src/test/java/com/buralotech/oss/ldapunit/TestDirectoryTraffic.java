@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchScope;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the recording and replaying of LDAP traffic.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestDirectoryTraffic {
+
+    /**
+     * Verify that the requests sent to a server are recorded and that replaying them against a fresh server repeats
+     * the changes.
+     *
+     * @throws Exception If there was a problem starting or connecting to the servers or reading the recording.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            trafficFile = "target/ldapunit/traffic.ber")
+    void trafficIsRecordedAndReplayed() throws Exception {
+        final Path file = Paths.get("target/ldapunit/traffic.ber");
+        Files.deleteIfExists(file);
+        final InMemoryDirectoryServer recorded = DirectoryServerUtils.startServer(
+                TestAnnotations.getConfiguration(getClass(), "trafficIsRecordedAndReplayed"));
+        try (LDAPConnection first = new LDAPConnection("localhost", recorded.getListenPort());
+             LDAPConnection second = new LDAPConnection("localhost", recorded.getListenPort())) {
+            first.bind("uid=admin,ou=system", "secret");
+            first.modify("uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                    new Modification(ModificationType.REPLACE, "title", "Saxophonist"));
+            second.search("ou=People,dc=buralotech,dc=com", SearchScope.ONE, "(uid=*)");
+            second.compare("uid=lsimpson,ou=People,dc=buralotech,dc=com", "title", "Saxophonist");
+        } finally {
+            DirectoryServerUtils.stopServer(recorded);
+        }
+        assertTrue(DirectoryTraffic.flush(10L, TimeUnit.SECONDS));
+
+        final DirectoryTraffic traffic = DirectoryTraffic.load(file);
+        assertEquals(4, traffic.size());
+        assertEquals(2, traffic.getConnectionCount());
+        assertFalse(traffic.getDuration().isNegative());
+
+        final InMemoryDirectoryServer fresh = DirectoryServerUtils.startServer(
+                TestAnnotations.getConfiguration(getClass(), "freshServer"));
+        try {
+            final DirectoryTraffic.Result result = traffic.replay(fresh, Double.POSITIVE_INFINITY);
+            assertEquals(4, result.getOperationCount());
+            assertEquals(0, result.getFailureCount());
+            assertTrue(result.getThroughput() > 0.0);
+            assertEquals("Saxophonist", fresh.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com")
+                    .getAttributeValue("title"));
+
+            final DirectoryTraffic.Result paced = traffic.replay(fresh, 2.0);
+            assertEquals(4, paced.getOperationCount());
+            assertTrue(paced.getElapsed().toNanos() >= traffic.getDuration().toNanos() / 2);
+
+            assertEquals(ResultCode.PARAM_ERROR, assertThrows(LDAPException.class,
+                    () -> traffic.replay(fresh, 0.0)).getResultCode());
+        } finally {
+            DirectoryServerUtils.stopServer(fresh);
+        }
+    }
+
+    /**
+     * Verify that a recording with more connections than the replay runs at the same time is replayed in full.
+     *
+     * @throws Exception If there was a problem starting or connecting to the servers or reading the recording.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            trafficFile = "target/ldapunit/connections.ber")
+    void moreConnectionsThanThreadsAreReplayed() throws Exception {
+        final Path file = Paths.get("target/ldapunit/connections.ber");
+        Files.deleteIfExists(file);
+        final int connections = DirectoryTraffic.MAX_THREADS + 6;
+        final InMemoryDirectoryServer recorded = DirectoryServerUtils.startServer(
+                TestAnnotations.getConfiguration(getClass(), "moreConnectionsThanThreadsAreReplayed"));
+        try {
+            for (int i = 0; i < connections; i++) {
+                try (LDAPConnection connection = new LDAPConnection("localhost", recorded.getListenPort())) {
+                    connection.search("ou=People,dc=buralotech,dc=com", SearchScope.ONE, "(uid=*)");
+                }
+            }
+        } finally {
+            DirectoryServerUtils.stopServer(recorded);
+        }
+        assertTrue(DirectoryTraffic.flush(10L, TimeUnit.SECONDS));
+
+        final DirectoryTraffic traffic = DirectoryTraffic.load(file);
+        assertEquals(connections, traffic.getConnectionCount());
+
+        final InMemoryDirectoryServer fresh = DirectoryServerUtils.startServer(
+                TestAnnotations.getConfiguration(getClass(), "freshServer"));
+        try {
+            final DirectoryTraffic.Result result = traffic.replay(fresh, Double.POSITIVE_INFINITY);
+            assertEquals(connections, result.getOperationCount());
+            assertEquals(0, result.getFailureCount());
+        } finally {
+            DirectoryServerUtils.stopServer(fresh);
+        }
+    }
+
+    /**
+     * Declares the configuration of the fresh server against which the traffic is replayed.
+     */
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif")
+    private void freshServer() {
+    }
+}
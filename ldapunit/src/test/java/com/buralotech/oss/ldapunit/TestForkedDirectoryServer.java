@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.SearchScope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test forking fully loaded embedded LDAP directory servers from a snapshot.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestForkedDirectoryServer {
+
+    /**
+     * Verify that forks start with the entries of their parent but that changes are isolated.
+     *
+     * @throws Exception If there was a problem starting the servers.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 10396,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 50),
+            equalityIndexAttributes = "uid")
+    void forksAreIsolated() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "forksAreIsolated");
+        final InMemoryDirectoryServer parent = DirectoryServerUtils.createServer(annotation);
+        final InMemoryDirectoryServer first = DirectoryServerUtils.forkServer(parent, 0);
+        final InMemoryDirectoryServer second = DirectoryServerUtils.forkServer(parent, 0);
+        try {
+            assertEquals(parent.countEntries(), first.countEntries());
+            first.delete("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+            first.add("ou=Forked,dc=buralotech,dc=com", new Attribute("objectClass", "organizationalUnit"),
+                    new Attribute("ou", "Forked"));
+            assertNotNull(parent.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            assertNotNull(second.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            assertNull(parent.getEntry("ou=Forked,dc=buralotech,dc=com"));
+            assertNull(second.getEntry("ou=Forked,dc=buralotech,dc=com"));
+
+            assertEquals(Collections.singletonList("uid"), second.getConfig().getEqualityIndexAttributes());
+            assertEquals(1, second.search("dc=buralotech,dc=com", SearchScope.SUB, "(uid=user5)").getEntryCount());
+
+            first.startListening();
+            assertTrue(first.getListenPort() > 0);
+            try (DirectoryTester tester = new DirectoryTester(first.getConnection())) {
+                tester.assertDNExists("ou=Forked,dc=buralotech,dc=com");
+            }
+
+            final DirectoryTester tester = new DirectoryTester(second);
+            tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+            assertEquals(Collections.singleton("ou=Forked,dc=buralotech,dc=com"), tester.findMissingDNs(Arrays.asList(
+                    "uid=user1,ou=Users,dc=buralotech,dc=com",
+                    "ou=Forked,dc=buralotech,dc=com")));
+        } finally {
+            first.shutDown(true);
+            second.shutDown(true);
+        }
+    }
+
+    /**
+     * Verify that a test using the fork lifecycle gets a server forked from the template.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.FORK)
+    void firstTestUsesFork(final DirectoryTester tester) {
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+    }
+
+    /**
+     * Verify that a second test with the same configuration gets its own fork of the same template.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.FORK)
+    void secondTestUsesFork(final DirectoryTester tester) {
+        tester.assertDNExists("uid=hsimpson,ou=People,dc=buralotech,dc=com");
+    }
+
+    /**
+     * Verify that a forked test on an ephemeral port is told the port so that code under test can connect to it.
+     *
+     * @param port   The port the fork listens on.
+     * @param tester Used to perform assertions.
+     * @throws Exception If there was a problem connecting to the server.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.FORK)
+    void codeUnderTestConnectsToFork(@DirectoryServerPort final int port,
+                                     final DirectoryTester tester) throws Exception {
+        assertTrue(port > 0);
+        try (LDAPConnection connection = new LDAPConnection("localhost", port)) {
+            connection.add(
+                    "dn: uid=mhouten,ou=People,dc=buralotech,dc=com",
+                    "objectClass: inetOrgPerson",
+                    "uid: mhouten",
+                    "cn: Milhouse Van Houten",
+                    "sn: Van Houten");
+        }
+        tester.assertDNExists("uid=mhouten,ou=People,dc=buralotech,dc=com");
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the generation of synthetic data sets described by {@link GeneratedData}.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestGeneratedData {
+
+    /**
+     * Verify that users, groups and nested organizational units are generated while the server is set up.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(
+                    users = 20,
+                    groups = 3,
+                    membersPerGroup = 5,
+                    organizationalUnits = 2,
+                    organizationalUnitDepth = 2))
+    void generatesDataSet(final DirectoryTester tester) {
+        tester.assertDNExists("ou=Users,dc=buralotech,dc=com");
+        tester.assertDNExists("ou=unit2,ou=unit1,ou=Users,dc=buralotech,dc=com");
+        tester.assertDNIsA("uid=user1,ou=unit1,ou=unit1,ou=Users,dc=buralotech,dc=com", "inetOrgPerson");
+        tester.assertDNHasAttributeValue("uid=user4,ou=unit2,ou=unit2,ou=Users,dc=buralotech,dc=com",
+                "mail", "user4@buralotech.com");
+        tester.assertDNIsA("cn=group3,ou=Groups,dc=buralotech,dc=com", "groupOfNames");
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        assertFalse(tester.verifyDNExists("cn=group4,ou=Groups,dc=buralotech,dc=com"));
+    }
+
+    /**
+     * Verify that the same seed always produces the same data set.
+     *
+     * @throws LDAPException If the data set description is invalid.
+     */
+    @Test
+    @DirectoryServerConfiguration(generatedData = @GeneratedData(users = 100, groups = 10, seed = 42L))
+    void isDeterministic() throws LDAPException {
+        final GeneratedData data = getAnnotation("isDeterministic");
+        final List<Entry> first = DataGenerator.generate("dc=buralotech,dc=com", data);
+        final List<Entry> second = DataGenerator.generate("dc=buralotech,dc=com", data);
+        assertEquals(first, second);
+        assertEquals(1 + 100 + 1 + 10, first.size());
+    }
+
+    /**
+     * Verify that the group sizes follow a Zipf distribution.
+     *
+     * @throws LDAPException If the data set description is invalid.
+     */
+    @Test
+    @DirectoryServerConfiguration(generatedData = @GeneratedData(
+            users = 1000,
+            groups = 10,
+            membersPerGroup = 50,
+            distribution = GeneratedData.Distribution.ZIPF))
+    void followsZipfDistribution() throws LDAPException {
+        final List<Entry> entries = DataGenerator.generate(
+                "dc=buralotech,dc=com",
+                getAnnotation("followsZipfDistribution"));
+        final List<Entry> groups = entries.subList(entries.size() - 10, entries.size());
+        int total = 0;
+        int previous = Integer.MAX_VALUE;
+        for (final Entry group : groups) {
+            final int size = group.getAttributeValues("member").length;
+            assertTrue(size <= previous);
+            previous = size;
+            total += size;
+        }
+        assertTrue(groups.get(0).getAttributeValues("member").length > 100);
+        assertEquals(500, total, 10);
+    }
+
+    /**
+     * Verify that groups cannot be generated without users.
+     */
+    @Test
+    @DirectoryServerConfiguration(generatedData = @GeneratedData(groups = 1))
+    void groupsRequireUsers() {
+        assertThrows(
+                LDAPException.class,
+                () -> DataGenerator.generate("dc=buralotech,dc=com", getAnnotation("groupsRequireUsers")));
+    }
+
+    /**
+     * Get the {@link GeneratedData} annotation from the {@link DirectoryServerConfiguration} annotation on a test
+     * method. The embedded directory server is not started for these test methods.
+     *
+     * @param methodName The name of the test method.
+     * @return The annotation.
+     */
+    private GeneratedData getAnnotation(final String methodName) {
+        return TestAnnotations.getConfiguration(getClass(), methodName).generatedData();
+    }
+}
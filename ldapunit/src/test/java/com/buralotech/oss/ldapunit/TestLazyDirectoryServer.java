@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the lazy start of the embedded LDAP directory server by {@link DirectoryServerExtension}.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@ExtendWith(DirectoryServerExtension.class)
+@DirectoryServerConfiguration(
+        port = TestLazyDirectoryServer.PORT,
+        ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+        lazy = true)
+public class TestLazyDirectoryServer {
+
+    /**
+     * The TCP port used by the embedded LDAP directory server.
+     */
+    static final int PORT = 10391;
+
+    /**
+     * Verify that the server is not started for a test that does not use it.
+     */
+    @Test
+    void serverIsNotStartedIfNotUsed() {
+        assertThrows(LDAPException.class, () -> new LDAPConnection("localhost", PORT).close());
+    }
+
+    /**
+     * Verify that the server is started when the {@link DirectoryTester} parameter is resolved.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    void serverIsStartedOnFirstUse(final DirectoryTester tester) {
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldif.LDIFModifyDNChangeRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the isolation of tests that share an embedded LDAP directory server using namespaces.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestNamespacedDirectoryServer {
+
+    /**
+     * The port on which the server shared by {@link #codeUnderTestUsesNamespace(DirectoryTester)} listens.
+     */
+    private static final int PORT = 10400;
+
+    /**
+     * Verify that distinguished names and DN-valued attributes below the base DN are mapped into the namespace.
+     *
+     * @throws Exception If the base DN is not valid.
+     */
+    @Test
+    void mapsIntoNamespace() throws Exception {
+        final DirectoryNamespace namespace = new DirectoryNamespace("dc=buralotech,dc=com");
+        final String prefix = namespace.getDN();
+        assertTrue(prefix.startsWith("ou=test-"));
+        assertEquals("uid=lsimpson,ou=People," + prefix, namespace.map("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+        assertEquals("ou=People," + prefix, namespace.map("ou=People," + prefix));
+        assertEquals("dc=buralotech,dc=com", namespace.map("dc=buralotech,dc=com"));
+        assertEquals("uid=admin,ou=system", namespace.map("uid=admin,ou=system"));
+        assertEquals("Lisa Simpson", namespace.map("Lisa Simpson"));
+
+        final Entry entry = namespace.map(new Entry(
+                "dn: cn=Simpsons,ou=Groups,dc=buralotech,dc=com",
+                "objectClass: groupOfNames",
+                "cn: Simpsons",
+                "member: uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+        assertEquals("cn=Simpsons,ou=Groups," + prefix, entry.getDN());
+        assertEquals("Simpsons", entry.getAttributeValue("cn"));
+        assertEquals("uid=lsimpson,ou=People," + prefix, entry.getAttributeValue("member"));
+
+        final LDIFModifyDNChangeRecord modifyDN = (LDIFModifyDNChangeRecord) namespace.map(new LDIFModifyDNChangeRecord(
+                "uid=lsimpson,ou=People,dc=buralotech,dc=com", "uid=lisa", true, "ou=Users,dc=buralotech,dc=com"));
+        assertEquals("uid=lsimpson,ou=People," + prefix, modifyDN.getDN());
+        assertEquals("ou=Users," + prefix, modifyDN.getNewSuperiorDN());
+    }
+
+    /**
+     * Verify that two namespaces on the same shared server are isolated and that the namespace is deleted when the
+     * test completes.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 5),
+            lifecycle = DirectoryServerConfiguration.Lifecycle.NAMESPACE)
+    void namespacesAreIsolated() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "namespacesAreIsolated");
+        final DirectoryServerHolder first = new DirectoryServerHolder(annotation);
+        final DirectoryServerHolder second = new DirectoryServerHolder(annotation);
+        try {
+            final InMemoryDirectoryServer server = first.getServer();
+            assertSame(server, second.getServer());
+            final DirectoryNamespace firstNamespace = first.getNamespace();
+            final DirectoryNamespace secondNamespace = second.getNamespace();
+            assertNotEquals(firstNamespace.getDN(), secondNamespace.getDN());
+
+            server.delete(firstNamespace.map("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            final DirectoryTester firstTester = new DirectoryTester(server).inNamespace(firstNamespace);
+            final DirectoryTester secondTester = new DirectoryTester(server).inNamespace(secondNamespace);
+            firstTester.assertDNExists("uid=user5,ou=Users,dc=buralotech,dc=com");
+            assertFalse(firstTester.verifyDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            secondTester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+            assertEquals(Collections.singleton("uid=lsimpson,ou=People,dc=buralotech,dc=com"),
+                    firstTester.findMissingDNs(Arrays.asList(
+                            "uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                            "uid=hsimpson,ou=People,dc=buralotech,dc=com")));
+
+            first.close();
+            for (int i = 0; i < 100 && server.getEntry(firstNamespace.getDN()) != null; i++) {
+                Thread.sleep(10L);
+            }
+            assertNull(server.getEntry(firstNamespace.getDN()));
+            assertTrue(server.getListenPort() > 0);
+            secondTester.assertDNExists("uid=hsimpson,ou=People,dc=buralotech,dc=com");
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    /**
+     * Verify that a test using the namespace lifecycle is given a tester that maps into its namespace.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.NAMESPACE)
+    void testUsesNamespace(final DirectoryTester tester) {
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        tester.assertDNHasAttributeValue("uid=lsimpson,ou=People,dc=buralotech,dc=com", "uid", "lsimpson");
+    }
+
+    /**
+     * Verify that code which connects to the shared server directly can read and write the data for the test below
+     * the namespace DN exposed by the tester.
+     *
+     * @param tester Used to perform assertions.
+     * @throws Exception If there was a problem connecting to the server.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = PORT,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.NAMESPACE)
+    void codeUnderTestUsesNamespace(final DirectoryTester tester) throws Exception {
+        final String namespaceDN = tester.getNamespaceDN();
+        assertTrue(namespaceDN.startsWith("ou=test-"));
+        try (LDAPConnection connection = new LDAPConnection("localhost", PORT)) {
+            assertNotNull(connection.getEntry("uid=lsimpson,ou=People," + namespaceDN));
+            assertNull(connection.getEntry("uid=mhouten,ou=People,dc=buralotech,dc=com"));
+            connection.add(
+                    "dn: uid=mhouten,ou=People," + namespaceDN,
+                    "objectClass: inetOrgPerson",
+                    "uid: mhouten",
+                    "cn: Milhouse Van Houten",
+                    "sn: Van Houten");
+        }
+        tester.assertDNHasAttributeValue("uid=mhouten,ou=People,dc=buralotech,dc=com", "cn", "Milhouse Van Houten");
+    }
+
+    /**
+     * Verify that a tester that is not mapping into a namespace does not report a namespace DN.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    void noNamespaceDN() throws Exception {
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer("dc=buralotech,dc=com");
+        try (DirectoryTester tester = new DirectoryTester(server)) {
+            assertNull(tester.getNamespaceDN());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.DN;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test serving several naming contexts from one embedded LDAP directory server.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestNamingContexts {
+
+    /**
+     * The DN of an entry loaded into the additional naming context.
+     */
+    private static final String PLANT = "o=Springfield Nuclear Power Plant,ou=Companies,o=partners";
+
+    /**
+     * Verify that the server has both naming contexts, each with its base entry and data, and that the footprint
+     * includes the data of both.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            namingContexts = @NamingContext(
+                    baseDN = "o=partners",
+                    baseObjectClasses = {"organization", "top"},
+                    baseAttributes = "description=Partner organisations",
+                    ldifFiles = "com/buralotech/oss/ldapunit/partners.ldif"))
+    void servesBothNamingContexts() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(),
+                "servesBothNamingContexts");
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try {
+            assertEquals(Arrays.asList(new DN("dc=buralotech,dc=com"), new DN("o=partners")),
+                    Arrays.asList(server.getConfig().getBaseDNs()));
+            assertEquals("Partner organisations", server.getEntry("o=partners").getAttributeValue("description"));
+            assertNotNull(server.getEntry(PLANT));
+            assertNotNull(server.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            assertEquals(server.countEntries(), DirectoryServerMetrics.getFootprint(annotation).getEntryCount());
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+    }
+
+    /**
+     * Verify that the naming contexts change the key of the directory image.
+     *
+     * @throws Exception If there was a problem computing the keys.
+     */
+    @Test
+    void namingContextsChangeImageKey() throws Exception {
+        assertNotEquals(
+                DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(), "servesBothNamingContexts")),
+                DirectoryImage.computeKey(TestAnnotations.getConfiguration(getClass(),
+                        "usesSharedNamingContext", DirectoryTester.class)));
+    }
+
+    /**
+     * Verify that the additional naming context is served to tests with the namespace lifecycle and shared by them.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.NAMESPACE,
+            namingContexts = @NamingContext(
+                    baseDN = "o=partners",
+                    baseObjectClasses = {"organization", "top"},
+                    ldifFiles = "com/buralotech/oss/ldapunit/partners.ldif"))
+    void usesSharedNamingContext(final DirectoryTester tester) {
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        tester.assertDNExists(PLANT);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the background pre-warming of embedded LDAP directory servers.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+@ExtendWith(DirectoryServerExtension.class)
+@DirectoryServerConfiguration(
+        port = TestPrewarmedDirectoryServer.PORT,
+        ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+        prewarm = true)
+public class TestPrewarmedDirectoryServer {
+
+    /**
+     * The TCP port used by the embedded LDAP directory server.
+     */
+    static final int PORT = 10392;
+
+    /**
+     * The DN of the entry that each test adds.
+     */
+    private static final String DN = "ou=Prewarmed,dc=buralotech,dc=com";
+
+    /**
+     * Verify that the first test gets a fresh server.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    void firstTestGetsFreshServer(final DirectoryTester tester) {
+        addEntry(tester);
+    }
+
+    /**
+     * Verify that the second test gets a fresh server.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    void secondTestGetsFreshServer(final DirectoryTester tester) {
+        addEntry(tester);
+    }
+
+    /**
+     * Verify that the third test gets a fresh server.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    void thirdTestGetsFreshServer(final DirectoryTester tester) {
+        addEntry(tester);
+    }
+
+    /**
+     * Verify that a pre-warmed server has loaded its data but is not listening.
+     *
+     * @throws LDAPException If there was a problem querying the server.
+     */
+    @Test
+    void prewarmedServerIsNotListening() throws LDAPException {
+        final DirectoryServerConfiguration annotation = getClass().getAnnotation(DirectoryServerConfiguration.class);
+        DirectoryServerPrewarmer.prewarm(annotation);
+        final InMemoryDirectoryServer server = DirectoryServerPrewarmer.take(annotation);
+        assertNotNull(server);
+        try {
+            assertEquals(-1, server.getListenPort());
+            assertNotNull(server.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+        } finally {
+            server.shutDown(true);
+        }
+        assertNull(DirectoryServerPrewarmer.take(annotation));
+    }
+
+    /**
+     * Verify that a dropped server is no longer counted against the memory budget, even if it was still being built
+     * when it was dropped.
+     *
+     * @throws LDAPException If there was a problem stopping the server.
+     */
+    @Test
+    void droppedServerIsReleased() throws LDAPException {
+        final DirectoryServerConfiguration annotation = getClass().getAnnotation(DirectoryServerConfiguration.class);
+        DirectoryServerPrewarmer.prewarm(annotation);
+        DirectoryServerUtils.stopServer(DirectoryServerPrewarmer.take(annotation));
+        final int accounted = DirectoryServerMetrics.getAccountedServerCount();
+        DirectoryServerPrewarmer.prewarm(annotation);
+        DirectoryServerPrewarmer.drop(annotation);
+        assertNull(DirectoryServerPrewarmer.take(annotation));
+        DirectoryServerPrewarmer.prewarm(annotation);
+        final InMemoryDirectoryServer server = DirectoryServerPrewarmer.take(annotation);
+        assertNotNull(server);
+        assertEquals(accounted + 1, DirectoryServerMetrics.getAccountedServerCount());
+        DirectoryServerUtils.stopServer(server);
+        assertEquals(accounted, DirectoryServerMetrics.getAccountedServerCount());
+    }
+
+    /**
+     * Verify that a server that cannot start listening because its port is taken is no longer counted against the
+     * memory budget.
+     */
+    @Test
+    void serverThatCannotListenIsReleased() {
+        final DirectoryServerConfiguration annotation = getClass().getAnnotation(DirectoryServerConfiguration.class);
+        final int accounted = DirectoryServerMetrics.getAccountedServerCount();
+        final DirectoryServerHolder holder = new DirectoryServerHolder(annotation);
+        assertThrows(LDAPException.class, holder::getServer);
+        assertEquals(accounted, DirectoryServerMetrics.getAccountedServerCount());
+        DirectoryServerPrewarmer.drop(annotation);
+    }
+
+    /**
+     * Check that the entry added by each test does not already exist and then add it.
+     *
+     * @param tester Used to perform assertions.
+     */
+    private void addEntry(final DirectoryTester tester) {
+        tester.assertDNExists("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        assertFalse(tester.verifyDNExists(DN));
+        try (LDAPConnection connection = new LDAPConnection("localhost", PORT)) {
+            connection.add(DN, new Attribute("objectClass", "organizationalUnit"), new Attribute("ou", "Prewarmed"));
+        } catch (final LDAPException e) {
+            throw new AssertionError(e);
+        }
+        tester.assertDNExists(DN);
+    }
+}
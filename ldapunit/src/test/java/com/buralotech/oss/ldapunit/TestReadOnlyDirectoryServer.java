@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.extensions.PasswordModifyExtendedRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the read-only lifecycle that shares one fully loaded embedded LDAP directory server between tests.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestReadOnlyDirectoryServer {
+
+    /**
+     * Verify that the shared server is fully loaded, is shared by holders with the same configuration, is not shut
+     * down when a holder is closed and rejects writes.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 5),
+            lifecycle = DirectoryServerConfiguration.Lifecycle.READ_ONLY)
+    void rejectsWrites() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(), "rejectsWrites");
+        final InMemoryDirectoryServer server;
+        try (DirectoryServerHolder first = new DirectoryServerHolder(annotation);
+             DirectoryServerHolder second = new DirectoryServerHolder(annotation)) {
+            server = first.getServer();
+            assertSame(server, second.getServer());
+        }
+        try (LDAPConnection connection = new LDAPConnection("localhost", server.getListenPort())) {
+            assertNotNull(connection.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            assertEquals(1, connection.search("dc=buralotech,dc=com", SearchScope.SUB, "(uid=user5)")
+                    .getEntryCount());
+            assertTrue(connection.compare("uid=lsimpson,ou=People,dc=buralotech,dc=com", "uid", "lsimpson")
+                    .compareMatched());
+
+            assertRejected(() -> connection.add("ou=Written,dc=buralotech,dc=com",
+                    new Attribute("objectClass", "organizationalUnit"), new Attribute("ou", "Written")));
+            assertRejected(() -> connection.delete("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            assertRejected(() -> connection.modify("uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                    new Modification(ModificationType.REPLACE, "sn", "Bouvier")));
+            assertRejected(() -> connection.modifyDN("uid=lsimpson,ou=People,dc=buralotech,dc=com",
+                    "uid=lisa", true));
+            assertEquals(ResultCode.UNWILLING_TO_PERFORM, connection.processExtendedOperation(
+                    new PasswordModifyExtendedRequest("uid=lsimpson,ou=People,dc=buralotech,dc=com", null,
+                            "changed")).getResultCode());
+            assertNotNull(connection.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+        }
+    }
+
+    /**
+     * Verify that a test using the read-only lifecycle can read the shared data.
+     *
+     * @param tester Used to perform assertions.
+     */
+    @Test
+    @ExtendWith(DirectoryServerExtension.class)
+    @DirectoryServerConfiguration(
+            port = 0,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            lifecycle = DirectoryServerConfiguration.Lifecycle.READ_ONLY)
+    void testReadsSharedServer(final DirectoryTester tester) {
+        tester.assertDNHasAttributeValue("uid=lsimpson,ou=People,dc=buralotech,dc=com", "uid", "lsimpson");
+    }
+
+    /**
+     * Assert that a write operation is rejected because the server is read-only.
+     *
+     * @param operation The write operation.
+     */
+    private static void assertRejected(final WriteOperation operation) {
+        final LDAPException e = assertThrows(LDAPException.class, operation::perform);
+        assertEquals(ResultCode.UNWILLING_TO_PERFORM, e.getResultCode());
+    }
+
+    /**
+     * A write operation that is expected to be rejected.
+     */
+    @FunctionalInterface
+    private interface WriteOperation {
+
+        /**
+         * Perform the write operation.
+         *
+         * @throws LDAPException If the operation was rejected.
+         */
+        void perform() throws LDAPException;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Brian Thomas Matthews
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.buralotech.oss.ldapunit;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerSnapshot;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.ResultCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test the trusted fixture mode that validates fixtures only once per JVM.
+ *
+ * @author <a href="mailto:bmatthews68@gmail.com">Brian Matthews</a>
+ * @since 3.2.0
+ */
+public class TestTrustedFixtures {
+
+    /**
+     * Verify that the validated directory is remembered, that later starts are isolated from changes made to earlier
+     * servers and that the schema is still enforced for test operations.
+     *
+     * @throws Exception If there was a problem starting the server.
+     */
+    @Test
+    @DirectoryServerConfiguration(
+            port = 10395,
+            ldifFiles = "com/buralotech/oss/ldapunit/initial.ldif",
+            generatedData = @GeneratedData(users = 10),
+            trustedFixtures = true)
+    void validatesOnce() throws Exception {
+        final DirectoryServerConfiguration annotation = TestAnnotations.getConfiguration(getClass(), "validatesOnce");
+        final String key = DirectoryImage.computeKey(annotation);
+        assertNull(DirectoryImage.getTrusted(key));
+
+        final InMemoryDirectoryServer server = DirectoryServerUtils.startServer(annotation);
+        try {
+            assertNotNull(DirectoryImage.getTrusted(key));
+            server.delete("uid=lsimpson,ou=People,dc=buralotech,dc=com");
+        } finally {
+            DirectoryServerUtils.stopServer(server);
+        }
+
+        final InMemoryDirectoryServer restored = DirectoryServerUtils.startServer(annotation);
+        try {
+            assertNotNull(restored.getEntry("uid=lsimpson,ou=People,dc=buralotech,dc=com"));
+            assertNotNull(restored.getEntry("uid=user10,ou=Users,dc=buralotech,dc=com"));
+            final LDAPException e = assertThrows(LDAPException.class, () -> restored.add(new Entry(
+                    "ou=Invalid,dc=buralotech,dc=com",
+                    new Attribute("objectClass", "undefinedObjectClass"),
+                    new Attribute("ou", "Invalid"))));
+            assertEquals(ResultCode.OBJECT_CLASS_VIOLATION, e.getResultCode());
+        } finally {
+            DirectoryServerUtils.stopServer(restored);
+        }
+    }
+
+    /**
+     * Verify that at most {@link DirectoryImage#MAX_TRUSTED_IMAGES} images are remembered and that the least recently
+     * used one is forgotten first.
+     *
+     * @throws Exception If there was a problem creating the server.
+     */
+    @Test
+    void forgetsLeastRecentlyUsedImage() throws Exception {
+        final InMemoryDirectoryServer server = new InMemoryDirectoryServer("dc=buralotech,dc=com");
+        final InMemoryDirectoryServerSnapshot snapshot = server.createSnapshot();
+        final DirectoryServerFootprint footprint = new DirectoryServerFootprint(0L, 0L, 0L);
+        final String prefix = "forgetsLeastRecentlyUsedImage-";
+        for (int i = 0; i < DirectoryImage.MAX_TRUSTED_IMAGES; i++) {
+            DirectoryImage.putTrusted(prefix + i, new DirectoryImage(server.getSchema(), snapshot, footprint));
+        }
+        assertNotNull(DirectoryImage.getTrusted(prefix + 0));
+
+        DirectoryImage.putTrusted(prefix + "new", new DirectoryImage(server.getSchema(), snapshot, footprint));
+        assertNotNull(DirectoryImage.getTrusted(prefix + "new"));
+        assertNotNull(DirectoryImage.getTrusted(prefix + 0));
+        assertNull(DirectoryImage.getTrusted(prefix + 1));
+    }
+}